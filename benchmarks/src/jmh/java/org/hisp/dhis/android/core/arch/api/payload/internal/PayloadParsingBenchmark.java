@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.arch.api.payload.internal;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.hisp.dhis.android.core.arch.file.ResourcesFileReader;
+import org.hisp.dhis.android.core.arch.json.internal.ObjectMapperFactory;
+import org.hisp.dhis.android.core.category.Category;
+import org.hisp.dhis.android.core.event.Event;
+import org.hisp.dhis.android.core.trackedentity.TrackedEntityInstance;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Measures the parsing of the responses recorded for {@code Dhis2MockServer}, reading the whole {@link Payload} with
+ * the object mapper as the retrofit converter does, or item by item with the {@link PayloadStreamParser}.
+ */
+@State(Scope.Benchmark)
+public class PayloadParsingBenchmark {
+
+    public enum Fixture {
+        CATEGORIES("category/categories.json", "categories", Category.class),
+        EVENTS("event/events.json", "events", Event.class),
+        TRACKED_ENTITY_INSTANCES("trackedentity/tracked_entity_instance_payload.json", "trackedEntityInstances",
+                TrackedEntityInstance.class);
+
+        private final String fileName;
+        private final String itemsField;
+        private final Class<?> itemClass;
+
+        Fixture(String fileName, String itemsField, Class<?> itemClass) {
+            this.fileName = fileName;
+            this.itemsField = itemsField;
+            this.itemClass = itemClass;
+        }
+    }
+
+    @Param
+    public Fixture fixture;
+
+    private ObjectMapper objectMapper;
+    private JavaType payloadType;
+    private byte[] content;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        objectMapper = ObjectMapperFactory.objectMapper();
+        payloadType = objectMapper.getTypeFactory().constructParametricType(Payload.class, fixture.itemClass);
+        content = new ResourcesFileReader().getStringFromFile(fixture.fileName).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<?> readPayload() throws IOException {
+        Payload<?> payload = objectMapper.readValue(content, payloadType);
+        return payload.items();
+    }
+
+    @Benchmark
+    public void streamPayload(Blackhole blackhole) throws IOException {
+        try (PayloadStreamParser<?> parser =
+                     PayloadStreamParser.create(new ByteArrayInputStream(content), fixture.itemsField,
+                             fixture.itemClass)) {
+            Object item;
+            while ((item = parser.next()) != null) {
+                blackhole.consume(item);
+            }
+        }
+    }
+}
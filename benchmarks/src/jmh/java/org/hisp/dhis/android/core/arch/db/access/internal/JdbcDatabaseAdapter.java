@@ -0,0 +1,357 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.arch.db.access.internal;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.MatrixCursor;
+import android.database.SQLException;
+import android.database.sqlite.SQLiteConstraintException;
+
+import org.hisp.dhis.android.core.arch.db.access.DatabaseAdapter;
+import org.hisp.dhis.android.core.arch.db.access.Transaction;
+import org.hisp.dhis.android.core.arch.db.stores.binders.internal.StatementWrapper;
+
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.Set;
+
+/**
+ * {@link DatabaseAdapter} stand-in for the benchmarks, backed by an in-memory SQLite database accessed through
+ * sqlite-jdbc. Query results are copied into a {@link MatrixCursor}, so the cursor mapping cost is comparable to the
+ * one of the android framework, which also fills a cursor window before mapping.
+ */
+public final class JdbcDatabaseAdapter implements DatabaseAdapter {
+
+    private final Connection connection;
+    private final StatementCache statementCache;
+    private final WrittenTables writtenTables = new WrittenTables();
+    private final Deque<Boolean> transactions = new ArrayDeque<>();
+    private boolean transactionFailed;
+
+    private JdbcDatabaseAdapter(Connection connection) {
+        this.connection = connection;
+        this.statementCache = new StatementCache(this, StatementCache.DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Opens a new in-memory database with foreign keys enabled and the schema of the current database version, built
+     * from the schema snapshot and the migrations after it, as done for a new database in the device.
+     */
+    public static JdbcDatabaseAdapter inMemory() {
+        try {
+            JdbcDatabaseAdapter databaseAdapter =
+                    new JdbcDatabaseAdapter(DriverManager.getConnection("jdbc:sqlite::memory:"));
+            databaseAdapter.setForeignKeyConstraintsEnabled(true);
+            databaseAdapter.executeFile("snapshots/" + DatabaseMigrationExecutor.SNAPSHOT_VERSION + ".sql");
+            for (int version = DatabaseMigrationExecutor.SNAPSHOT_VERSION + 1;
+                 version <= BaseDatabaseOpenHelper.VERSION; version++) {
+                databaseAdapter.executeFile("migrations/" + version + ".sql");
+            }
+            return databaseAdapter;
+        } catch (java.sql.SQLException e) {
+            throw new SQLException("Unable to open in-memory database", e);
+        }
+    }
+
+    private void executeFile(String fileName) {
+        InputStream inputStream = JdbcDatabaseAdapter.class.getClassLoader().getResourceAsStream(fileName);
+        if (inputStream == null) {
+            throw new IllegalStateException("Database script not found: " + fileName);
+        }
+        try (Scanner sc = new Scanner(inputStream, "UTF-8")) {
+            while (sc.hasNextLine()) {
+                String line = sc.nextLine();
+                if (line.length() > 1 && !line.contains("#")) {
+                    execSQL(line);
+                }
+            }
+        }
+    }
+
+    static SQLException toAndroidException(java.sql.SQLException e) {
+        String message = e.getMessage();
+        if (message != null && message.contains("CONSTRAINT")) {
+            return new SQLiteConstraintException(message);
+        }
+        return new SQLException(message, e);
+    }
+
+    long lastInsertRowId() throws java.sql.SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT last_insert_rowid()")) {
+            return resultSet.next() ? resultSet.getLong(1) : -1;
+        }
+    }
+
+    @Override
+    public Transaction beginNewTransaction() {
+        try {
+            if (transactions.isEmpty()) {
+                connection.setAutoCommit(false);
+                transactionFailed = false;
+                writtenTables.clear();
+            }
+            transactions.push(Boolean.FALSE);
+            return new TransactionImpl(this);
+        } catch (java.sql.SQLException e) {
+            throw toAndroidException(e);
+        }
+    }
+
+    @Override
+    public void setTransactionSuccessful() {
+        if (transactions.isEmpty() || transactions.peek()) {
+            throw new IllegalStateException("No transaction pending or already marked as successful");
+        }
+        transactions.pop();
+        transactions.push(Boolean.TRUE);
+    }
+
+    @Override
+    public void endTransaction() {
+        if (transactions.isEmpty()) {
+            throw new IllegalStateException("No transaction pending");
+        }
+        transactionFailed = transactionFailed || !transactions.pop();
+        if (transactions.isEmpty()) {
+            try {
+                if (transactionFailed) {
+                    connection.rollback();
+                } else {
+                    connection.commit();
+                }
+                connection.setAutoCommit(true);
+            } catch (java.sql.SQLException e) {
+                throw toAndroidException(e);
+            }
+        }
+    }
+
+    @Override
+    public void execSQL(String sql) {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        } catch (java.sql.SQLException e) {
+            throw toAndroidException(e);
+        }
+    }
+
+    @Override
+    public StatementWrapper compileStatement(String sql) {
+        try {
+            return new JdbcStatementWrapper(this, connection.prepareStatement(sql));
+        } catch (java.sql.SQLException e) {
+            throw toAndroidException(e);
+        }
+    }
+
+    @Override
+    public StatementWrapper getCachedStatement(String sql) {
+        return statementCache.get(sql);
+    }
+
+    @Override
+    public long getStatementCacheHitCount() {
+        return statementCache.hitCount();
+    }
+
+    @Override
+    public long getStatementCacheMissCount() {
+        return statementCache.missCount();
+    }
+
+    @Override
+    public Cursor rawQuery(String sql, String... selectionArgs) {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            if (selectionArgs != null) {
+                for (int i = 0; i < selectionArgs.length; i++) {
+                    statement.setString(i + 1, selectionArgs[i]);
+                }
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return toCursor(resultSet);
+            }
+        } catch (java.sql.SQLException e) {
+            throw toAndroidException(e);
+        }
+    }
+
+    private static Cursor toCursor(ResultSet resultSet) throws java.sql.SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        String[] columnNames = new String[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            columnNames[i] = metaData.getColumnLabel(i + 1);
+        }
+
+        MatrixCursor cursor = new MatrixCursor(columnNames);
+        while (resultSet.next()) {
+            Object[] row = new Object[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                row[i] = resultSet.getObject(i + 1);
+            }
+            cursor.addRow(row);
+        }
+        return cursor;
+    }
+
+    @Override
+    public Cursor query(String sql, String... columns) {
+        return query(sql, columns, null, null);
+    }
+
+    @Override
+    public Cursor query(String table, String[] columns, String selection, String[] selectionArgs) {
+        String projection = columns == null || columns.length == 0 ? "*" : String.join(", ", columns);
+        String where = selection == null ? "" : " WHERE " + selection;
+        return rawQuery("SELECT " + projection + " FROM " + table + where, selectionArgs);
+    }
+
+    @Override
+    public long executeInsert(StatementWrapper sqLiteStatement) {
+        return sqLiteStatement.executeInsert();
+    }
+
+    @Override
+    public int executeUpdateDelete(StatementWrapper sqLiteStatement) {
+        return sqLiteStatement.executeUpdateDelete();
+    }
+
+    @Override
+    public int delete(String table, String whereClause, String[] whereArgs) {
+        registerWrittenTable(table);
+        String where = whereClause == null ? "" : " WHERE " + whereClause;
+        return executeWithArgs("DELETE FROM " + table + where, whereArgs);
+    }
+
+    @Override
+    public int delete(String table) {
+        return delete(table, "1", null);
+    }
+
+    @Override
+    public long insert(String table, String nullColumnHack, ContentValues values) {
+        registerWrittenTable(table);
+        List<String> columns = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : values.valueSet()) {
+            columns.add(entry.getKey());
+            placeholders.add("?");
+            args.add(entry.getValue());
+        }
+        String sql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + String.join(", ", placeholders) + ")";
+        try {
+            executeWithArgs(sql, args.toArray());
+            return lastInsertRowId();
+        } catch (SQLException | java.sql.SQLException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public int update(String table, ContentValues values, String whereClause, String[] whereArgs) {
+        registerWrittenTable(table);
+        List<String> assignments = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : values.valueSet()) {
+            assignments.add(entry.getKey() + "=?");
+            args.add(entry.getValue());
+        }
+        if (whereArgs != null) {
+            for (String whereArg : whereArgs) {
+                args.add(whereArg);
+            }
+        }
+        String where = whereClause == null ? "" : " WHERE " + whereClause;
+        return executeWithArgs("UPDATE " + table + " SET " + String.join(", ", assignments) + where,
+                args.toArray());
+    }
+
+    private int executeWithArgs(String sql, Object... args) {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            if (args != null) {
+                for (int i = 0; i < args.length; i++) {
+                    statement.setObject(i + 1, args[i]);
+                }
+            }
+            return statement.executeUpdate();
+        } catch (java.sql.SQLException e) {
+            throw toAndroidException(e);
+        }
+    }
+
+    @Override
+    public void setForeignKeyConstraintsEnabled(boolean enable) {
+        execSQL("PRAGMA foreign_keys = " + (enable ? "ON" : "OFF"));
+    }
+
+    @Override
+    public void registerWrittenTable(String table) {
+        writtenTables.add(table);
+    }
+
+    @Override
+    public Set<String> getWrittenTables() {
+        return writtenTables.get();
+    }
+
+    @Override
+    public void enableWriteAheadLogging() {
+        // Not applicable to in-memory databases
+    }
+
+    @Override
+    public boolean isReady() {
+        return true;
+    }
+
+    @Override
+    public void close() {
+        statementCache.clear();
+        try {
+            connection.close();
+        } catch (java.sql.SQLException e) {
+            throw toAndroidException(e);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.arch.db.access.internal;
+
+import android.database.SQLException;
+
+import org.hisp.dhis.android.core.arch.db.stores.binders.internal.StatementWrapper;
+import org.hisp.dhis.android.core.common.BaseIdentifiableObject;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.Date;
+
+class JdbcStatementWrapper implements StatementWrapper {
+
+    private final JdbcDatabaseAdapter databaseAdapter;
+    private final PreparedStatement s;
+
+    JdbcStatementWrapper(JdbcDatabaseAdapter databaseAdapter, PreparedStatement s) {
+        this.databaseAdapter = databaseAdapter;
+        this.s = s;
+    }
+
+    @Override
+    public void bind(int index, String arg) {
+        try {
+            if (arg == null) {
+                s.setNull(index, Types.VARCHAR);
+            } else {
+                s.setString(index, arg);
+            }
+        } catch (java.sql.SQLException e) {
+            throw new SQLException("Unable to bind argument " + index, e);
+        }
+    }
+
+    @Override
+    public void bind(int index, Boolean arg) {
+        bind(index, arg == null ? null : (long) (arg ? 1 : 0));
+    }
+
+    @Override
+    public void bind(int index, Integer arg) {
+        bind(index, arg == null ? null : arg.longValue());
+    }
+
+    @Override
+    public void bind(int index, Date arg) {
+        bind(index, arg == null ? null : BaseIdentifiableObject.DATE_FORMAT.format(arg));
+    }
+
+    @Override
+    public void bind(int index, Enum arg) {
+        bind(index, arg == null ? null : arg.name());
+    }
+
+    @Override
+    public void bind(int index, Double arg) {
+        try {
+            if (arg == null) {
+                s.setNull(index, Types.REAL);
+            } else {
+                s.setDouble(index, arg);
+            }
+        } catch (java.sql.SQLException e) {
+            throw new SQLException("Unable to bind argument " + index, e);
+        }
+    }
+
+    @Override
+    public void bind(int index, Long arg) {
+        try {
+            if (arg == null) {
+                s.setNull(index, Types.INTEGER);
+            } else {
+                s.setLong(index, arg);
+            }
+        } catch (java.sql.SQLException e) {
+            throw new SQLException("Unable to bind argument " + index, e);
+        }
+    }
+
+    @Override
+    public void clearBindings() {
+        try {
+            s.clearParameters();
+        } catch (java.sql.SQLException e) {
+            throw new SQLException("Unable to clear bindings", e);
+        }
+    }
+
+    @Override
+    public long executeInsert() {
+        try {
+            s.executeUpdate();
+            return databaseAdapter.lastInsertRowId();
+        } catch (java.sql.SQLException e) {
+            throw JdbcDatabaseAdapter.toAndroidException(e);
+        }
+    }
+
+    @Override
+    public int executeUpdateDelete() {
+        try {
+            return s.executeUpdate();
+        } catch (java.sql.SQLException e) {
+            throw JdbcDatabaseAdapter.toAndroidException(e);
+        }
+    }
+
+    @Override
+    public long simpleQueryForLong() {
+        try (ResultSet resultSet = s.executeQuery()) {
+            return resultSet.next() ? resultSet.getLong(1) : 0;
+        } catch (java.sql.SQLException e) {
+            throw JdbcDatabaseAdapter.toAndroidException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            s.close();
+        } catch (java.sql.SQLException e) {
+            throw new SQLException("Unable to close statement", e);
+        }
+    }
+}
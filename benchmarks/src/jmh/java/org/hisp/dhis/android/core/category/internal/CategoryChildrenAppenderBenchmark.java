@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.category.internal;
+
+import org.hisp.dhis.android.core.arch.db.access.internal.JdbcDatabaseAdapter;
+import org.hisp.dhis.android.core.arch.db.stores.internal.IdentifiableObjectStore;
+import org.hisp.dhis.android.core.arch.handlers.internal.IdentifiableHandlerImpl;
+import org.hisp.dhis.android.core.arch.handlers.internal.OrderedLinkHandlerImpl;
+import org.hisp.dhis.android.core.arch.repositories.children.internal.ChildrenAppender;
+import org.hisp.dhis.android.core.arch.repositories.children.internal.ChildrenAppenderExecutor;
+import org.hisp.dhis.android.core.arch.repositories.children.internal.ChildrenSelection;
+import org.hisp.dhis.android.core.category.Category;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures {@link ChildrenAppenderExecutor} appending the category options to the categories read from the database,
+ * the work done by {@code d2.categoryModule().categories.withCategoryOptions().blockingGet()}.
+ */
+@State(Scope.Benchmark)
+public class CategoryChildrenAppenderBenchmark {
+
+    @Param({"10", "100"})
+    public int size;
+
+    @Param({"10"})
+    public int optionsPerCategory;
+
+    private JdbcDatabaseAdapter databaseAdapter;
+    private IdentifiableObjectStore<Category> store;
+    private Map<String, ChildrenAppender<Category>> childrenAppenders;
+    private ChildrenSelection childrenSelection;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        databaseAdapter = JdbcDatabaseAdapter.inMemory();
+        store = CategoryStore.create(databaseAdapter);
+        new CategoryHandler(
+                store,
+                new IdentifiableHandlerImpl<>(CategoryOptionStore.create(databaseAdapter)),
+                new OrderedLinkHandlerImpl<>(CategoryCategoryOptionLinkStore.create(databaseAdapter))
+        ).handleMany(CategorySamples.categories(size, optionsPerCategory));
+
+        childrenAppenders = Collections.singletonMap(CategoryFields.CATEGORY_OPTIONS,
+                CategoryCategoryOptionChildrenAppender.create(databaseAdapter));
+        childrenSelection = ChildrenSelection.empty().withChild(CategoryFields.CATEGORY_OPTIONS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        databaseAdapter.close();
+    }
+
+    @Benchmark
+    public List<Category> appendInObjectCollection() {
+        return ChildrenAppenderExecutor.appendInObjectCollection(store.selectAll(), childrenAppenders,
+                childrenSelection);
+    }
+
+    @Benchmark
+    public List<Category> selectWithoutChildren() {
+        return store.selectAll();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.category.internal;
+
+import org.hisp.dhis.android.core.arch.db.access.Transaction;
+import org.hisp.dhis.android.core.arch.db.access.internal.JdbcDatabaseAdapter;
+import org.hisp.dhis.android.core.arch.handlers.internal.Handler;
+import org.hisp.dhis.android.core.arch.handlers.internal.IdentifiableHandlerImpl;
+import org.hisp.dhis.android.core.arch.handlers.internal.OrderedLinkHandlerImpl;
+import org.hisp.dhis.android.core.category.Category;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+
+/**
+ * Measures {@code HandlerBaseImpl.handleMany} through the category handler, which also persists the category options
+ * and the ordered links between both, as done by the metadata download.
+ */
+@State(Scope.Benchmark)
+public class CategoryHandlerBenchmark {
+
+    @Param({"10", "100"})
+    public int size;
+
+    @Param({"10"})
+    public int optionsPerCategory;
+
+    private JdbcDatabaseAdapter databaseAdapter;
+    private Handler<Category> handler;
+    private List<Category> categories;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        databaseAdapter = JdbcDatabaseAdapter.inMemory();
+        handler = new CategoryHandler(
+                CategoryStore.create(databaseAdapter),
+                new IdentifiableHandlerImpl<>(CategoryOptionStore.create(databaseAdapter)),
+                new OrderedLinkHandlerImpl<>(CategoryCategoryOptionLinkStore.create(databaseAdapter)));
+        categories = CategorySamples.categories(size, optionsPerCategory);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        databaseAdapter.close();
+    }
+
+    @Benchmark
+    public void handleMany() {
+        Transaction transaction = databaseAdapter.beginNewTransaction();
+        try {
+            handler.handleMany(categories);
+            transaction.setSuccessful();
+        } finally {
+            transaction.end();
+        }
+    }
+}
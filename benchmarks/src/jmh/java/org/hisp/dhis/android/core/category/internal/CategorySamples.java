@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.category.internal;
+
+import org.hisp.dhis.android.core.category.Category;
+import org.hisp.dhis.android.core.category.CategoryOption;
+import org.hisp.dhis.android.core.common.Access;
+import org.hisp.dhis.android.core.common.DataAccess;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+final class CategorySamples {
+
+    private static final Access ACCESS = Access.create(true, true, DataAccess.create(true, true));
+
+    private CategorySamples() {
+    }
+
+    static List<Category> categories(int count, int optionsPerCategory) {
+        Date now = new Date();
+        List<Category> categories = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<CategoryOption> options = new ArrayList<>(optionsPerCategory);
+            for (int j = 0; j < optionsPerCategory; j++) {
+                options.add(option("O" + pad(i * optionsPerCategory + j), now));
+            }
+            categories.add(Category.builder()
+                    .uid("C" + pad(i))
+                    .code("CODE_" + i)
+                    .name("Category " + i)
+                    .displayName("Category " + i)
+                    .created(now)
+                    .lastUpdated(now)
+                    .deleted(false)
+                    .dataDimensionType("DISAGGREGATION")
+                    .categoryOptions(options)
+                    .build());
+        }
+        return categories;
+    }
+
+    private static CategoryOption option(String uid, Date now) {
+        return CategoryOption.builder()
+                .uid(uid)
+                .code("CODE_" + uid)
+                .name("Option " + uid)
+                .displayName("Option " + uid)
+                .shortName("Option " + uid)
+                .displayShortName("Option " + uid)
+                .created(now)
+                .lastUpdated(now)
+                .deleted(false)
+                .access(ACCESS)
+                .build();
+    }
+
+    private static String pad(int i) {
+        return String.format("%010d", i);
+    }
+}
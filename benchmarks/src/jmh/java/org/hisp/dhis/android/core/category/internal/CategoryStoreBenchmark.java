@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.category.internal;
+
+import org.hisp.dhis.android.core.arch.db.access.Transaction;
+import org.hisp.dhis.android.core.arch.db.access.internal.JdbcDatabaseAdapter;
+import org.hisp.dhis.android.core.arch.db.stores.internal.IdentifiableObjectStore;
+import org.hisp.dhis.android.core.category.Category;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+
+/**
+ * Measures {@code IdentifiableObjectStoreImpl.updateOrInsert} for a batch of categories, both when the rows already
+ * exist (update path) and when the table is empty (update miss followed by insert).
+ */
+@State(Scope.Benchmark)
+public class CategoryStoreBenchmark {
+
+    @Param({"100", "1000"})
+    public int size;
+
+    private JdbcDatabaseAdapter databaseAdapter;
+    private IdentifiableObjectStore<Category> store;
+    private List<Category> categories;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        databaseAdapter = JdbcDatabaseAdapter.inMemory();
+        store = CategoryStore.create(databaseAdapter);
+        categories = CategorySamples.categories(size, 0);
+        updateOrInsertAll();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        databaseAdapter.close();
+    }
+
+    @Benchmark
+    public void updateOrInsertExisting() {
+        updateOrInsertAll();
+    }
+
+    @Benchmark
+    public void updateOrInsertNew() {
+        store.delete();
+        updateOrInsertAll();
+    }
+
+    private void updateOrInsertAll() {
+        Transaction transaction = databaseAdapter.beginNewTransaction();
+        try {
+            for (Category category : categories) {
+                store.updateOrInsert(category);
+            }
+            transaction.setSuccessful();
+        } finally {
+            transaction.end();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.category.internal;
+
+import org.hisp.dhis.android.core.arch.db.access.internal.JdbcDatabaseAdapter;
+import org.hisp.dhis.android.core.arch.db.querybuilders.internal.BoundWhereClause;
+import org.hisp.dhis.android.core.arch.db.querybuilders.internal.WhereClauseBuilder;
+import org.hisp.dhis.android.core.arch.db.stores.internal.IdentifiableObjectStore;
+import org.hisp.dhis.android.core.arch.repositories.scope.RepositoryScope;
+import org.hisp.dhis.android.core.arch.repositories.scope.internal.FilterItemOperator;
+import org.hisp.dhis.android.core.arch.repositories.scope.internal.RepositoryScopeFilterItem;
+import org.hisp.dhis.android.core.arch.repositories.scope.internal.RepositoryScopeHelper;
+import org.hisp.dhis.android.core.arch.repositories.scope.internal.WhereClauseFromScopeBuilder;
+import org.hisp.dhis.android.core.category.Category;
+import org.hisp.dhis.android.core.category.CategoryTableInfo;
+import org.hisp.dhis.android.core.common.BaseIdentifiableObject;
+import org.hisp.dhis.android.core.common.IdentifiableColumns;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+
+/**
+ * Measures {@link WhereClauseFromScopeBuilder} alone and followed by the query against the category table, with the
+ * filter values either inlined in the SQL or bound as arguments. Each invocation filters by a different uid, as a
+ * repository used in a loop would do.
+ */
+@State(Scope.Benchmark)
+public class WhereClauseFromScopeBuilderBenchmark {
+
+    @Param({"1000"})
+    public int size;
+
+    private JdbcDatabaseAdapter databaseAdapter;
+    private IdentifiableObjectStore<Category> store;
+    private List<Category> categories;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        databaseAdapter = JdbcDatabaseAdapter.inMemory();
+        store = CategoryStore.create(databaseAdapter);
+        categories = CategorySamples.categories(size, 0);
+        for (Category category : categories) {
+            store.insert(category);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        databaseAdapter.close();
+    }
+
+    @Benchmark
+    public String buildWhereClause() {
+        return new WhereClauseFromScopeBuilder(new WhereClauseBuilder()).getWhereClause(nextScope());
+    }
+
+    @Benchmark
+    public BoundWhereClause buildBoundWhereClause() {
+        return new WhereClauseFromScopeBuilder(new WhereClauseBuilder()).getBoundWhereClause(nextScope());
+    }
+
+    @Benchmark
+    public List<Category> selectWhereClause() {
+        return store.selectWhere(buildWhereClause(), IdentifiableColumns.UID);
+    }
+
+    @Benchmark
+    public List<Category> selectBoundWhereClause() {
+        return store.selectWhere(buildBoundWhereClause(), IdentifiableColumns.UID);
+    }
+
+    private RepositoryScope nextScope() {
+        Category category = categories.get(next);
+        next = (next + 1) % categories.size();
+
+        RepositoryScope scope = RepositoryScopeHelper.withUidFilterItem(RepositoryScope.empty(), category.uid());
+        scope = RepositoryScopeHelper.withFilterItem(scope, filterItem(BaseIdentifiableObject.NAME,
+                FilterItemOperator.EQ, category.name()));
+        return RepositoryScopeHelper.withFilterItem(scope, filterItem(CategoryTableInfo.Columns.DATA_DIMENSION_TYPE,
+                FilterItemOperator.EQ, category.dataDimensionType()));
+    }
+
+    private static RepositoryScopeFilterItem filterItem(String key, FilterItemOperator operator, String value) {
+        return RepositoryScopeFilterItem.builder().key(key).operator(operator).value("'" + value + "'").build();
+    }
+}
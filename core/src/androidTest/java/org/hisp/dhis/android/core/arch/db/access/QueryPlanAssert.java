@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.arch.db.access;
+
+import android.database.Cursor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.fail;
+
+/**
+ * Runs {@code EXPLAIN QUERY PLAN} over a query and fails if any table is read with a full scan. Scans using an
+ * index, to avoid a sort for example, are not considered full scans.
+ */
+public final class QueryPlanAssert {
+
+    // "SCAN TABLE Event" in older SQLite versions, "SCAN Event" in newer ones, optionally followed by an alias
+    private static final Pattern FULL_SCAN = Pattern.compile("^SCAN (TABLE )?(\\w+)");
+    private static final String USING = " USING ";
+    private static final Set<String> NOT_TABLES = new HashSet<>(Arrays.asList("CONSTANT", "SUBQUERY"));
+    private static final int DETAIL_COLUMN = 3;
+
+    private QueryPlanAssert() {
+    }
+
+    public static void assertNoFullScan(DatabaseAdapter databaseAdapter, String sql, String... args) {
+        List<String> plan = explainQueryPlan(databaseAdapter, sql, args);
+        for (String detail : plan) {
+            Matcher matcher = FULL_SCAN.matcher(detail);
+            if (matcher.find() && !detail.contains(USING) && !NOT_TABLES.contains(matcher.group(2))) {
+                fail("Full scan of " + matcher.group(2) + " in query: " + sql + "\nPlan: " + plan);
+            }
+        }
+    }
+
+    public static List<String> explainQueryPlan(DatabaseAdapter databaseAdapter, String sql, String... args) {
+        List<String> plan = new ArrayList<>();
+        try (Cursor cursor = databaseAdapter.rawQuery("EXPLAIN QUERY PLAN " + sql, args)) {
+            while (cursor.moveToNext()) {
+                plan.add(cursor.getString(DETAIL_COLUMN));
+            }
+        }
+        return plan;
+    }
+}
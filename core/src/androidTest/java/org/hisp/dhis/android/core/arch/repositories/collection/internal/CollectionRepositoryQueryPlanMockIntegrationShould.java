@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.arch.repositories.collection.internal;
+
+import org.hisp.dhis.android.core.arch.db.querybuilders.internal.BoundWhereClause;
+import org.hisp.dhis.android.core.arch.db.querybuilders.internal.OrderByClauseBuilder;
+import org.hisp.dhis.android.core.arch.db.querybuilders.internal.SQLStatementBuilderImpl;
+import org.hisp.dhis.android.core.arch.db.tableinfos.TableInfo;
+import org.hisp.dhis.android.core.common.State;
+import org.hisp.dhis.android.core.datavalue.DataValueTableInfo;
+import org.hisp.dhis.android.core.enrollment.EnrollmentTableInfo;
+import org.hisp.dhis.android.core.event.EventTableInfo;
+import org.hisp.dhis.android.core.note.NoteTableInfo;
+import org.hisp.dhis.android.core.trackedentity.TrackedEntityAttributeValueTableInfo;
+import org.hisp.dhis.android.core.trackedentity.TrackedEntityDataValueTableInfo;
+import org.hisp.dhis.android.core.trackedentity.TrackedEntityInstanceTableInfo;
+import org.hisp.dhis.android.core.utils.integration.mock.BaseMockIntegrationTestFullDispatcher;
+import org.hisp.dhis.android.core.utils.runner.D2JunitRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hisp.dhis.android.core.arch.db.access.QueryPlanAssert.assertNoFullScan;
+
+/**
+ * Checks that the queries produced by the scopes of the tracker and aggregate data repositories are resolved with
+ * an index instead of a full scan of the table.
+ */
+@RunWith(D2JunitRunner.class)
+public class CollectionRepositoryQueryPlanMockIntegrationShould extends BaseMockIntegrationTestFullDispatcher {
+
+    private static final List<State> TO_SYNC = Arrays.asList(State.TO_POST, State.TO_UPDATE);
+
+    @Test
+    public void use_index_for_tracked_entity_instance_scopes() {
+        assertRepositoryUsesIndex(TrackedEntityInstanceTableInfo.TABLE_INFO,
+                d2.trackedEntityModule().trackedEntityInstances().byOrganisationUnitUid().eq("ou"));
+        assertRepositoryUsesIndex(TrackedEntityInstanceTableInfo.TABLE_INFO,
+                d2.trackedEntityModule().trackedEntityInstances().byState().in(TO_SYNC));
+        assertRepositoryUsesIndex(TrackedEntityInstanceTableInfo.TABLE_INFO,
+                d2.trackedEntityModule().trackedEntityInstances().byProgramUids(Collections.singletonList("p")));
+    }
+
+    @Test
+    public void use_index_for_enrollment_scopes() {
+        assertRepositoryUsesIndex(EnrollmentTableInfo.TABLE_INFO,
+                d2.enrollmentModule().enrollments().byTrackedEntityInstance().eq("tei"));
+        assertRepositoryUsesIndex(EnrollmentTableInfo.TABLE_INFO,
+                d2.enrollmentModule().enrollments().byProgram().eq("p"));
+        assertRepositoryUsesIndex(EnrollmentTableInfo.TABLE_INFO,
+                d2.enrollmentModule().enrollments().byState().in(TO_SYNC));
+    }
+
+    @Test
+    public void use_index_for_event_scopes() {
+        assertRepositoryUsesIndex(EventTableInfo.TABLE_INFO,
+                d2.eventModule().events().byEnrollmentUid().eq("en"));
+        assertRepositoryUsesIndex(EventTableInfo.TABLE_INFO,
+                d2.eventModule().events().byProgramUid().eq("p").byOrganisationUnitUid().eq("ou"));
+        assertRepositoryUsesIndex(EventTableInfo.TABLE_INFO,
+                d2.eventModule().events().byProgramStageUid().eq("ps"));
+        assertRepositoryUsesIndex(EventTableInfo.TABLE_INFO,
+                d2.eventModule().events().byState().in(TO_SYNC));
+        assertRepositoryUsesIndex(EventTableInfo.TABLE_INFO,
+                d2.eventModule().events().byTrackedEntityInstanceUids(Collections.singletonList("tei")));
+    }
+
+    @Test
+    public void use_index_for_tracked_entity_value_scopes() {
+        assertRepositoryUsesIndex(TrackedEntityDataValueTableInfo.TABLE_INFO,
+                d2.trackedEntityModule().trackedEntityDataValues().byEvent().eq("ev"));
+        assertRepositoryUsesIndex(TrackedEntityAttributeValueTableInfo.TABLE_INFO,
+                d2.trackedEntityModule().trackedEntityAttributeValues().byTrackedEntityInstance().eq("tei"));
+    }
+
+    @Test
+    public void use_index_for_note_scopes() {
+        assertRepositoryUsesIndex(NoteTableInfo.TABLE_INFO, d2.noteModule().notes().byEventUid().eq("ev"));
+        assertRepositoryUsesIndex(NoteTableInfo.TABLE_INFO, d2.noteModule().notes().byEnrollmentUid().eq("en"));
+    }
+
+    @Test
+    public void use_index_for_data_value_scopes() {
+        assertRepositoryUsesIndex(DataValueTableInfo.TABLE_INFO,
+                d2.dataValueModule().dataValues().byPeriod().eq("201901").byOrganisationUnitUid().eq("ou"));
+        assertRepositoryUsesIndex(DataValueTableInfo.TABLE_INFO,
+                d2.dataValueModule().dataValues().byState().in(TO_SYNC));
+    }
+
+    private void assertRepositoryUsesIndex(TableInfo tableInfo, ReadOnlyCollectionRepositoryImpl<?, ?> repository) {
+        BoundWhereClause whereClause = repository.getBoundWhereClause();
+        String orderBy = OrderByClauseBuilder.orderByFromItems(repository.scope.orderBy(),
+                repository.scope.pagingKey());
+        String sql = new SQLStatementBuilderImpl(tableInfo).selectWhere(whereClause.clause(), orderBy);
+        assertNoFullScan(databaseAdapter, sql, whereClause.argsArray());
+    }
+}
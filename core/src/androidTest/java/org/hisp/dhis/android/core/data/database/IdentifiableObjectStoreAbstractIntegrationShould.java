@@ -38,6 +38,8 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 
 import static com.google.common.truth.Truth.assertThat;
 
@@ -119,6 +121,21 @@ public abstract class IdentifiableObjectStoreAbstractIntegrationShould<M extends
         assertThat(handleAction).isEqualTo(HandleAction.Update);
     }
 
+    @Test
+    public void insert_collection_if_objects_do_not_exist() {
+        List<HandleAction> handleActions = store.updateOrInsert(Collections.singletonList(objectToUpdate));
+        assertThat(handleActions).containsExactly(HandleAction.Insert);
+        assertEqualsIgnoreId(store.selectFirst(), objectToUpdate);
+    }
+
+    @Test
+    public void update_collection_if_objects_exist() {
+        store.insert(object);
+        List<HandleAction> handleActions = store.updateOrInsert(Collections.singletonList(objectToUpdate));
+        assertThat(handleActions).containsExactly(HandleAction.Update);
+        assertEqualsIgnoreId(store.selectFirst(), objectToUpdate);
+    }
+
     @Test
     public void select_inserted_object_uids_where() {
         // TODO Implement test for store.selectUidsWhere() method
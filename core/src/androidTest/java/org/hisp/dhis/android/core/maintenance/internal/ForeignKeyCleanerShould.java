@@ -132,6 +132,32 @@ public class ForeignKeyCleanerShould extends BaseMockIntegrationTestEmptyDispatc
 
     }
 
+    @Test
+    public void remove_rows_that_produce_foreign_key_errors_in_written_tables() throws Exception {
+        final D2CallExecutor executor = D2CallExecutor.create(d2.databaseAdapter());
+
+        executor.executeD2CallTransactionally(() -> {
+            UserCredentials userCredentials = UserCredentials.builder()
+                    .id(3L)
+                    .uid("user_credential_uid2")
+                    .user(ObjectWithUid.create("no_user_uid"))
+                    .build();
+
+            UserCredentialsStoreImpl.create(d2.databaseAdapter()).insert(userCredentials);
+
+            assertThat(d2.databaseAdapter().getWrittenTables()).contains(UserCredentialsTableInfo.TABLE_INFO.name());
+
+            Integer rowsAffected = ForeignKeyCleanerImpl.create(d2.databaseAdapter())
+                    .cleanForeignKeyErrorsInWrittenTables();
+
+            assertThat(rowsAffected).isEqualTo(1);
+
+            return null;
+        });
+
+        assertThat(d2.maintenanceModule().foreignKeyViolations().blockingCount()).isEqualTo(1);
+    }
+
     private void addUserCredentialsForeignKeyViolation() throws D2Error {
         final D2CallExecutor executor = D2CallExecutor.create(d2.databaseAdapter());
 
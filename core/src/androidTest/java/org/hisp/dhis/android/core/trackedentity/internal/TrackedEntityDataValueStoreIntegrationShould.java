@@ -49,6 +49,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -74,6 +75,8 @@ public class TrackedEntityDataValueStoreIntegrationShould
     @After
     public void tearDown() {
         EventStoreImpl.create(TestDatabaseAdapterFactory.get()).delete();
+        EnrollmentStoreImpl.create(TestDatabaseAdapterFactory.get()).delete();
+        TrackedEntityInstanceStoreImpl.create(TestDatabaseAdapterFactory.get()).delete();
     }
 
     @Override
@@ -147,6 +150,25 @@ public class TrackedEntityDataValueStoreIntegrationShould
 
     @Test
     public void select_tracker_data_values() {
+        insertTrackerDataValues();
+
+        Map<String, List<TrackedEntityDataValue>> trackerDataValues = store.queryTrackerTrackedEntityDataValues();
+        assertThat(trackerDataValues.size()).isEqualTo(1);
+        assertThat(trackerDataValues.get("event_1").size()).isEqualTo(2);
+        assertThat(trackerDataValues.get("event_1").iterator().next().event()).isEqualTo("event_1");
+        assertThat(trackerDataValues.get("event_2")).isNull();
+    }
+
+    @Test
+    public void select_tracker_data_values_of_events() {
+        insertTrackerDataValues();
+
+        assertThat(store.queryTrackerTrackedEntityDataValues(Collections.singletonList("event_1")).get("event_1"))
+                .hasSize(2);
+        assertThat(store.queryTrackerTrackedEntityDataValues(Collections.singletonList("event_2"))).isEmpty();
+    }
+
+    private void insertTrackerDataValues() {
         TrackedEntityInstanceStore trackedEntityInstanceStore = TrackedEntityInstanceStoreImpl
                 .create(TestDatabaseAdapterFactory.get());
         TrackedEntityInstance trackedEntityInstance = TrackedEntityInstance.builder().uid("tei_uid")
@@ -171,11 +193,5 @@ public class TrackedEntityDataValueStoreIntegrationShould
         store.insert(TrackedEntityDataValueSamples.get()
                 .toBuilder().event("event_2").dataElement("data_element_1").build());
         assertThat(store.selectAll().size()).isEqualTo(3);
-
-        Map<String, List<TrackedEntityDataValue>> trackerDataValues = store.queryTrackerTrackedEntityDataValues();
-        assertThat(trackerDataValues.size()).isEqualTo(1);
-        assertThat(trackerDataValues.get("event_1").size()).isEqualTo(2);
-        assertThat(trackerDataValues.get("event_1").iterator().next().event()).isEqualTo("event_1");
-        assertThat(trackerDataValues.get("event_2")).isNull();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.trackedentity.search;
+
+import org.hisp.dhis.android.core.arch.repositories.scope.internal.FilterItemOperator;
+import org.hisp.dhis.android.core.arch.repositories.scope.internal.RepositoryScopeFilterItem;
+import org.hisp.dhis.android.core.common.AssignedUserMode;
+import org.hisp.dhis.android.core.organisationunit.OrganisationUnitMode;
+import org.hisp.dhis.android.core.utils.integration.mock.BaseMockIntegrationTestFullDispatcher;
+import org.hisp.dhis.android.core.utils.runner.D2JunitRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+import static org.hisp.dhis.android.core.arch.db.access.QueryPlanAssert.assertNoFullScan;
+
+/**
+ * Checks that the joins and subqueries of the offline tracked entity instance search use an index when the search is
+ * scoped by program or organisation unit.
+ */
+@RunWith(D2JunitRunner.class)
+public class TrackedEntityInstanceLocalQueryPlanMockIntegrationShould extends BaseMockIntegrationTestFullDispatcher {
+
+    @Test
+    public void use_index_when_scoped_by_program() {
+        assertScopeUsesIndex(TrackedEntityInstanceQueryRepositoryScope.builder()
+                .program("program")
+                .build());
+    }
+
+    @Test
+    public void use_index_when_scoped_by_organisation_unit() {
+        assertScopeUsesIndex(TrackedEntityInstanceQueryRepositoryScope.builder()
+                .orgUnits(Collections.singletonList("orgUnit"))
+                .orgUnitMode(OrganisationUnitMode.SELECTED)
+                .build());
+    }
+
+    @Test
+    public void use_index_when_scoped_by_program_with_events_and_attribute_filters() {
+        RepositoryScopeFilterItem filter = RepositoryScopeFilterItem.builder()
+                .key("attribute")
+                .operator(FilterItemOperator.LIKE)
+                .value("value")
+                .build();
+
+        assertScopeUsesIndex(TrackedEntityInstanceQueryRepositoryScope.builder()
+                .program("program")
+                .assignedUserMode(AssignedUserMode.ANY)
+                .filter(Collections.singletonList(filter))
+                .build());
+    }
+
+    private void assertScopeUsesIndex(TrackedEntityInstanceQueryRepositoryScope scope) {
+        assertNoFullScan(databaseAdapter, TrackedEntityInstanceLocalQueryHelper.getSqlQuery(scope,
+                Collections.emptyList(), 50));
+    }
+}
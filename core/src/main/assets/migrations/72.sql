@@ -0,0 +1,18 @@
+# Indexes for the columns used to join and filter tracker and aggregate data. TrackedEntityDataValue.event and
+# TrackedEntityAttributeValue.trackedEntityInstance are already covered by event_data_element and
+# tracked_entity_instance_attribute.
+CREATE INDEX tracked_entity_instance_organisation_unit ON TrackedEntityInstance(organisationUnit);
+CREATE INDEX tracked_entity_instance_state ON TrackedEntityInstance(state);
+CREATE INDEX enrollment_tracked_entity_instance ON Enrollment(trackedEntityInstance);
+CREATE INDEX enrollment_program ON Enrollment(program);
+CREATE INDEX enrollment_state ON Enrollment(state);
+CREATE INDEX event_enrollment ON Event(enrollment);
+CREATE INDEX event_program_organisation_unit ON Event(program, organisationUnit);
+CREATE INDEX event_program_stage ON Event(programStage);
+CREATE INDEX event_state ON Event(state);
+CREATE INDEX note_event ON Note(event);
+CREATE INDEX note_enrollment ON Note(enrollment);
+CREATE INDEX relationship_item_relationship ON RelationshipItem(relationship);
+CREATE INDEX relationship_item_tracked_entity_instance ON RelationshipItem(trackedEntityInstance);
+CREATE INDEX data_value_period_organisation_unit ON DataValue(period, organisationUnit);
+CREATE INDEX data_value_state ON DataValue(state);
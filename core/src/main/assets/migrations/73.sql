@@ -0,0 +1,3 @@
+# Last page committed for each TEI query when downloading with resumable checkpoints.
+# pageItems holds the TEIs of the next page already committed when a streamed download is interrupted.
+CREATE TABLE TrackedEntityInstanceDownloadCheckpoint (_id INTEGER PRIMARY KEY AUTOINCREMENT, program TEXT, organisationUnits TEXT NOT NULL, downloadKey TEXT, pageSize INTEGER, page INTEGER, pageItems INTEGER, UNIQUE (program, organisationUnits));
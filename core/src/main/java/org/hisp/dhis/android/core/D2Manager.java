@@ -35,6 +35,7 @@ import androidx.annotation.VisibleForTesting;
 import org.hisp.dhis.android.core.arch.api.ssl.internal.SSLContextInitializer;
 import org.hisp.dhis.android.core.arch.db.access.DatabaseAdapter;
 import org.hisp.dhis.android.core.arch.db.access.internal.DatabaseAdapterFactory;
+import org.hisp.dhis.android.core.arch.json.internal.ObjectMapperFactory;
 import org.hisp.dhis.android.core.arch.storage.internal.AndroidInsecureStore;
 import org.hisp.dhis.android.core.arch.storage.internal.AndroidSecureStore;
 import org.hisp.dhis.android.core.arch.storage.internal.Credentials;
@@ -43,9 +44,15 @@ import org.hisp.dhis.android.core.arch.storage.internal.InsecureStore;
 import org.hisp.dhis.android.core.arch.storage.internal.ObjectKeyValueStore;
 import org.hisp.dhis.android.core.arch.storage.internal.SecureStore;
 import org.hisp.dhis.android.core.configuration.internal.MultiUserDatabaseManagerForD2Manager;
+import org.hisp.dhis.android.core.event.internal.EventPayload;
+import org.hisp.dhis.android.core.imports.internal.EventWebResponse;
+import org.hisp.dhis.android.core.imports.internal.TEIWebResponse;
+import org.hisp.dhis.android.core.trackedentity.internal.TrackedEntityInstancePayload;
 
+import io.reactivex.Completable;
 import io.reactivex.Single;
 import io.reactivex.annotations.NonNull;
+import io.reactivex.schedulers.Schedulers;
 
 /**
  * Helper class that offers static methods to setup and initialize the D2 instance. Also, it ensures that D2 is a
@@ -117,6 +124,8 @@ public final class D2Manager {
                     databaseAdapterFactory)
                     .loadIfLogged(credentialsSecureStore.get());
 
+            warmUpJson();
+
             d2 = new D2(
                     RetrofitFactory.retrofit(
                             OkHttpClientFactory.okHttpClient(d2Configuration, credentialsSecureStore)),
@@ -134,6 +143,17 @@ public final class D2Manager {
         });
     }
 
+    private static void warmUpJson() {
+        Completable.fromAction(() -> ObjectMapperFactory.warmUp(
+                TrackedEntityInstancePayload.class,
+                TEIWebResponse.class,
+                EventPayload.class,
+                EventWebResponse.class))
+                .subscribeOn(Schedulers.io())
+                .onErrorComplete()
+                .subscribe();
+    }
+
     /**
      * Instantiates D2 with the provided configuration. This is a blocking method. If you are using RxJava,
      * use {@link D2Manager#instantiateD2(D2Configuration)} instead.
@@ -48,7 +48,7 @@ final class RetrofitFactory {
                 .baseUrl(ServerUrlParser.parse("https://temporary-dhis-url.org/"))
 
                 .client(okHttpClient)
-                .addConverterFactory(JacksonConverterFactory.create(ObjectMapperFactory.objectMapper()))
+                .addConverterFactory(JacksonConverterFactory.create(ObjectMapperFactory.sharedObjectMapper()))
                 .addConverterFactory(FilterConverterFactory.create())
                 .addConverterFactory(FieldsConverterFactory.create())
                 .addCallAdapterFactory(RxJava2CallAdapterFactory.create())
@@ -35,13 +35,26 @@ import org.hisp.dhis.android.core.maintenance.D2Error;
 import java.util.List;
 
 import retrofit2.Call;
+import retrofit2.Response;
 
 public interface APICallExecutor {
 
     <P> List<P> executePayloadCall(Call<Payload<P>> call) throws D2Error;
 
+    /**
+     * Same as {@link #executePayloadCall(Call)}, but only storing the error if {@code storeError} is true. Calls
+     * executed outside the thread that owns the database must not store it, as the insert would wait for the
+     * transaction of that thread; the error has to be stored by the caller once it is back in that thread.
+     */
+    <P> List<P> executePayloadCall(Call<Payload<P>> call, boolean storeError) throws D2Error;
+
     <P> P executeObjectCall(Call<P> call) throws D2Error;
 
+    /**
+     * Same as {@link #executeObjectCall(Call)}, but only storing the error if {@code storeError} is true.
+     */
+    <P> P executeObjectCall(Call<P> call, boolean storeError) throws D2Error;
+
     <P> P executeObjectCallWithAcceptedErrorCodes(Call<P> call,
                                                   List<Integer> acceptedErrorCodes,
                                                   Class<P> errorClass) throws D2Error;
@@ -49,4 +62,11 @@ public interface APICallExecutor {
     <P> P executeObjectCallWithErrorCatcher(Call<P> call, APICallErrorCatcher errorCatcher) throws D2Error;
 
     Unit executeObjectCallWithEmptyResponse(Call<Unit> call) throws D2Error;
+
+    <P> Response<P> executeResponseCall(Call<P> call) throws D2Error;
+
+    /**
+     * Same as {@link #executeResponseCall(Call)}, but only storing the error if {@code storeError} is true.
+     */
+    <P> Response<P> executeResponseCall(Call<P> call, boolean storeError) throws D2Error;
 }
\ No newline at end of file
@@ -59,6 +59,11 @@ public final class APICallExecutorImpl implements APICallExecutor {
 
     @Override
     public <P> List<P> executePayloadCall(Call<Payload<P>> call) throws D2Error {
+        return executePayloadCall(call, true);
+    }
+
+    @Override
+    public <P> List<P> executePayloadCall(Call<Payload<P>> call, boolean storeError) throws D2Error {
         D2Error.Builder errorBuilder = errorMapper.getCollectionErrorBuilder(call);
 
         try {
@@ -66,51 +71,80 @@ public final class APICallExecutorImpl implements APICallExecutor {
             if (response.isSuccessful() && response.body() != null) {
                 return response.body().items();
             } else {
-                throw storeAndReturn(errorMapper.responseException(errorBuilder, response));
+                throw storeAndReturn(errorMapper.responseException(errorBuilder, response), storeError);
             }
         } catch (D2Error d2Error) {
             throw d2Error;
         } catch (Throwable t) {
-            throw storeAndReturn(errorMapper.mapRetrofitException(t, errorBuilder));
+            throw storeAndReturn(errorMapper.mapRetrofitException(t, errorBuilder), storeError);
         }
     }
 
     @Override
     public <P> P executeObjectCall(Call<P> call) throws D2Error {
-        return executeObjectCallInternal(call, new ArrayList<>(), null, null, false);
+        return executeObjectCall(call, true);
+    }
+
+    @Override
+    public <P> P executeObjectCall(Call<P> call, boolean storeError) throws D2Error {
+        return executeObjectCallInternal(call, new ArrayList<>(), null, null, false, storeError);
     }
 
     @Override
     public <P> P executeObjectCallWithAcceptedErrorCodes(Call<P> call, List<Integer> acceptedErrorCodes,
                                                          Class<P> errorClass) throws D2Error {
-        return executeObjectCallInternal(call, acceptedErrorCodes, errorClass, null, false);
+        return executeObjectCallInternal(call, acceptedErrorCodes, errorClass, null, false, true);
     }
 
     @Override
     public <P> P executeObjectCallWithErrorCatcher(Call<P> call, APICallErrorCatcher errorCatcher)
             throws D2Error {
-        return executeObjectCallInternal(call, new ArrayList<>(), null, errorCatcher, false);
+        return executeObjectCallInternal(call, new ArrayList<>(), null, errorCatcher, false, true);
     }
 
     @Override
     public Unit executeObjectCallWithEmptyResponse(Call<Unit> call) throws D2Error {
-        return executeObjectCallInternal(call, new ArrayList<>(), null, null, true);
+        return executeObjectCallInternal(call, new ArrayList<>(), null, null, true, true);
+    }
+
+    @Override
+    public <P> Response<P> executeResponseCall(Call<P> call) throws D2Error {
+        return executeResponseCall(call, true);
+    }
+
+    @Override
+    public <P> Response<P> executeResponseCall(Call<P> call, boolean storeError) throws D2Error {
+        D2Error.Builder errorBuilder = errorMapper.getObjectErrorBuilder(call);
+
+        try {
+            Response<P> response = call.execute();
+            if (response.isSuccessful() && response.body() != null) {
+                return response;
+            } else {
+                throw storeAndReturn(errorMapper.responseException(errorBuilder, response), storeError);
+            }
+        } catch (D2Error d2Error) {
+            throw d2Error;
+        } catch (Throwable t) {
+            throw storeAndReturn(errorMapper.mapRetrofitException(t, errorBuilder), storeError);
+        }
     }
 
     private <P> P executeObjectCallInternal(Call<P> call,
                                             List<Integer> acceptedErrorCodes,
                                             Class<P> errorClass,
                                             APICallErrorCatcher errorCatcher,
-                                            boolean emptyBodyExpected) throws D2Error {
+                                            boolean emptyBodyExpected,
+                                            boolean storeError) throws D2Error {
 
         D2Error.Builder errorBuilder = errorMapper.getObjectErrorBuilder(call);
 
         try {
             Response<P> response = call.execute();
             if (response.isSuccessful()) {
-                return processSuccessfulResponse(errorBuilder, response, emptyBodyExpected);
+                return processSuccessfulResponse(errorBuilder, response, emptyBodyExpected, storeError);
             } else if (errorClass != null && acceptedErrorCodes.contains(response.code())) {
-                return ObjectMapperFactory.objectMapper().readValue(response.errorBody().string(), errorClass);
+                return ObjectMapperFactory.objectReader(errorClass).readValue(response.errorBody().string());
             } else if (errorCatcher != null) {
                 D2ErrorCode d2ErrorCode = errorCatcher.catchError(response);
 
@@ -118,33 +152,37 @@ public final class APICallExecutorImpl implements APICallExecutor {
                     D2Error d2error = errorMapper.responseException(errorBuilder, response, d2ErrorCode);
 
                     if (errorCatcher.mustBeStored()) {
-                        throw storeAndReturn(d2error);
+                        throw storeAndReturn(d2error, storeError);
                     } else {
                         throw d2error;
                     }
                 }
             }
-            throw storeAndReturn(errorMapper.responseException(errorBuilder, response));
+            throw storeAndReturn(errorMapper.responseException(errorBuilder, response), storeError);
         } catch (D2Error d2Error) {
             throw d2Error;
         } catch (Throwable t) {
-            throw storeAndReturn(errorMapper.mapRetrofitException(t, errorBuilder));
+            throw storeAndReturn(errorMapper.mapRetrofitException(t, errorBuilder), storeError);
         }
     }
 
     private <P> P processSuccessfulResponse(D2Error.Builder errorBuilder, Response<P> response,
-                                            boolean emptyBodyExpected) throws D2Error {
+                                            boolean emptyBodyExpected, boolean storeError) throws D2Error {
         if (emptyBodyExpected) {
             return null;
         } else if (response.body() == null) {
-            throw storeAndReturn(errorMapper.responseException(errorBuilder, response));
+            throw storeAndReturn(errorMapper.responseException(errorBuilder, response), storeError);
         } else {
             return response.body();
         }
     }
 
     private D2Error storeAndReturn(D2Error error) {
-        if (errorStore.isReady()) {
+        return storeAndReturn(error, true);
+    }
+
+    private D2Error storeAndReturn(D2Error error, boolean storeError) {
+        if (storeError && errorStore.isReady()) {
             errorStore.insert(error);
         }
         return error;
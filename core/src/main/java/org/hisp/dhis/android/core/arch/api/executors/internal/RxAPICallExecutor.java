@@ -28,11 +28,14 @@
 
 package org.hisp.dhis.android.core.arch.api.executors.internal;
 
+import io.reactivex.Flowable;
 import io.reactivex.Observable;
 import io.reactivex.Single;
 
 public interface RxAPICallExecutor {
     <P> Single<P> wrapSingle(Single<P> single, boolean storeError);
 
+    <P> Flowable<P> wrapFlowable(Flowable<P> flowable, boolean storeError);
+
     <P> Observable<P> wrapObservableTransactionally(Observable<P> observable, boolean cleanForeignKeys);
 }
\ No newline at end of file
@@ -36,6 +36,7 @@ import org.hisp.dhis.android.core.maintenance.internal.ForeignKeyCleaner;
 import javax.inject.Inject;
 
 import dagger.Reusable;
+import io.reactivex.Flowable;
 import io.reactivex.Observable;
 import io.reactivex.Single;
 
@@ -63,13 +64,18 @@ final class RxAPICallExecutorImpl implements RxAPICallExecutor {
         return single.onErrorResumeNext(throwable -> Single.error(mapAndStore(throwable, storeError)));
     }
 
+    @Override
+    public <P> Flowable<P> wrapFlowable(Flowable<P> flowable, boolean storeError) {
+        return flowable.onErrorResumeNext((Throwable throwable) -> Flowable.error(mapAndStore(throwable, storeError)));
+    }
+
     @Override
     public <P> Observable<P> wrapObservableTransactionally(Observable<P> observable,
                                                             boolean cleanForeignKeys) {
         return Observable.fromCallable(databaseAdapter::beginNewTransaction).flatMap(transaction -> observable
                 .doOnComplete(() -> {
                     if (cleanForeignKeys) {
-                        foreignKeyCleaner.cleanForeignKeyErrors();
+                        foreignKeyCleaner.cleanForeignKeyErrorsInWrittenTables();
                     }
                     transaction.setSuccessful();
                     transaction.end();
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.arch.api.payload.internal;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.hisp.dhis.android.core.arch.json.internal.ObjectMapperFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+import io.reactivex.Flowable;
+
+/**
+ * Reads the items of a {@link Payload} one by one from a stream, without loading the whole list in memory. The items
+ * are taken from the array field with the requested name; the pager and any other field before it are skipped and
+ * fields after it are not read at all.
+ */
+public final class PayloadStreamParser<T> implements Closeable {
+
+    private static final ObjectMapper OBJECT_MAPPER = ObjectMapperFactory.sharedObjectMapper();
+
+    private final JsonParser parser;
+    private final String itemsField;
+    private final Class<T> itemClass;
+    private boolean hasItems;
+
+    private PayloadStreamParser(InputStream inputStream, String itemsField, Class<T> itemClass) throws IOException {
+        this.parser = OBJECT_MAPPER.getFactory().createParser(inputStream);
+        this.itemsField = itemsField;
+        this.itemClass = itemClass;
+        try {
+            this.hasItems = moveToItemsArray();
+        } catch (IOException e) {
+            parser.close();
+            throw e;
+        }
+    }
+
+    public static <T> PayloadStreamParser<T> create(InputStream inputStream, String itemsField, Class<T> itemClass)
+            throws IOException {
+        return new PayloadStreamParser<>(inputStream, itemsField, itemClass);
+    }
+
+    /**
+     * Emits the payload items as they are parsed. The stream is opened when subscribed and closed on completion,
+     * error or cancellation, so consumers that request items on demand keep a single item in memory.
+     */
+    public static <T> Flowable<T> items(InputStream inputStream, String itemsField, Class<T> itemClass) {
+        return Flowable.generate(
+                () -> create(inputStream, itemsField, itemClass),
+                (payloadParser, emitter) -> {
+                    T item = payloadParser.next();
+                    if (item == null) {
+                        emitter.onComplete();
+                    } else {
+                        emitter.onNext(item);
+                    }
+                },
+                PayloadStreamParser::close);
+    }
+
+    /**
+     * @return the next item of the payload or null if there are no more items
+     */
+    public T next() throws IOException {
+        if (!hasItems) {
+            return null;
+        }
+
+        if (parser.nextToken() == JsonToken.START_OBJECT) {
+            return OBJECT_MAPPER.readValue(parser, itemClass);
+        } else {
+            hasItems = false;
+            return null;
+        }
+    }
+
+    private boolean moveToItemsArray() throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return false;
+        }
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            boolean isItemsField = itemsField.equals(parser.getCurrentName());
+            if (parser.nextToken() == JsonToken.START_ARRAY && isItemsField) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
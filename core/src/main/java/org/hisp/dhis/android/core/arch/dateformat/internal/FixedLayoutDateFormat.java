@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.arch.dateformat.internal;
+
+import java.text.ParseException;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Date format for the fixed layout "yyyy-MM-dd?HH:mm:ss.SSS", where ? is the date-time separator. Dates with that
+ * exact layout are parsed and formatted by hand with a reused calendar, which is much cheaper than going through
+ * SimpleDateFormat. Anything else is delegated to the SimpleDateFormat of the pattern, so the results are always the
+ * same as the ones of a {@link SafeDateFormat}.
+ */
+public class FixedLayoutDateFormat extends SafeDateFormat {
+
+    private static final int LENGTH = 23;
+    private static final int MAX_YEAR = 9999;
+
+    private final char dateTimeSeparator;
+    private final ThreadLocalState state = new ThreadLocalState();
+
+    public FixedLayoutDateFormat(char dateTimeSeparator) {
+        super("yyyy-MM-dd" + (dateTimeSeparator == 'T' ? "'T'" : String.valueOf(dateTimeSeparator)) + "HH:mm:ss.SSS");
+        this.dateTimeSeparator = dateTimeSeparator;
+    }
+
+    @NonNull
+    @Override
+    public Date parse(@NonNull String source) throws ParseException {
+        if (!hasLayout(source)) {
+            return super.parse(source);
+        }
+
+        Calendar calendar = state.get().calendar;
+        calendar.clear();
+        calendar.set(digits(source, 0, 4), digits(source, 5, 2) - 1, digits(source, 8, 2),
+                digits(source, 11, 2), digits(source, 14, 2), digits(source, 17, 2));
+        calendar.set(Calendar.MILLISECOND, digits(source, 20, 3));
+        return new Date(calendar.getTimeInMillis());
+    }
+
+    @NonNull
+    @Override
+    public String format(@NonNull Date date) {
+        State s = state.get();
+        Calendar calendar = s.calendar;
+        calendar.setTimeInMillis(date.getTime());
+
+        int year = calendar.get(Calendar.YEAR);
+        if (calendar.get(Calendar.ERA) != GregorianCalendar.AD || year > MAX_YEAR) {
+            return super.format(date);
+        }
+
+        char[] buffer = s.buffer;
+        writeDigits(buffer, 0, 4, year);
+        buffer[4] = '-';
+        writeDigits(buffer, 5, 2, calendar.get(Calendar.MONTH) + 1);
+        buffer[7] = '-';
+        writeDigits(buffer, 8, 2, calendar.get(Calendar.DAY_OF_MONTH));
+        buffer[10] = dateTimeSeparator;
+        writeDigits(buffer, 11, 2, calendar.get(Calendar.HOUR_OF_DAY));
+        buffer[13] = ':';
+        writeDigits(buffer, 14, 2, calendar.get(Calendar.MINUTE));
+        buffer[16] = ':';
+        writeDigits(buffer, 17, 2, calendar.get(Calendar.SECOND));
+        buffer[19] = '.';
+        writeDigits(buffer, 20, 3, calendar.get(Calendar.MILLISECOND));
+        return new String(buffer);
+    }
+
+    private boolean hasLayout(String source) {
+        if (source.length() != LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < LENGTH; i++) {
+            char c = source.charAt(i);
+            boolean valid;
+            switch (i) {
+                case 4:
+                case 7:
+                    valid = c == '-';
+                    break;
+                case 10:
+                    valid = c == dateTimeSeparator;
+                    break;
+                case 13:
+                case 16:
+                    valid = c == ':';
+                    break;
+                case 19:
+                    valid = c == '.';
+                    break;
+                default:
+                    valid = c >= '0' && c <= '9';
+            }
+            if (!valid) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int digits(String source, int start, int length) {
+        int value = 0;
+        for (int i = start; i < start + length; i++) {
+            value = value * 10 + source.charAt(i) - '0';
+        }
+        return value;
+    }
+
+    private static void writeDigits(char[] buffer, int start, int length, int value) {
+        int remaining = value;
+        for (int i = start + length - 1; i >= start; i--) {
+            buffer[i] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+    }
+
+    private static final class State {
+        private final Calendar calendar = Calendar.getInstance(Locale.US);
+        private final char[] buffer = new char[LENGTH];
+    }
+
+    private static class ThreadLocalState extends ThreadLocal<State> {
+        @Override
+        protected State initialValue() {
+            return new State();
+        }
+    }
+}
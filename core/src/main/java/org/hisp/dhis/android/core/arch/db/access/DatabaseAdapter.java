@@ -33,6 +33,8 @@ import android.database.Cursor;
 
 import org.hisp.dhis.android.core.arch.db.stores.binders.internal.StatementWrapper;
 
+import java.util.Set;
+
 @SuppressWarnings("PMD.UseVarargs")
 public interface DatabaseAdapter {
 
@@ -50,6 +52,35 @@ public interface DatabaseAdapter {
      */
     StatementWrapper compileStatement(String sql);
 
+    /**
+     * Same as {@link #compileStatement(String)}, but reusing the statement compiled for the same SQL in a previous
+     * call if it is still in the adapter cache, which keeps the most recently used statements. The cache is cleared
+     * when the adapter is closed.
+     * <p>
+     * Statements are cached for each thread and reused by later calls of the same thread: bindings must be cleared
+     * after execution and they must not be closed nor kept by the caller beyond that execution, as they are closed
+     * when evicted from the cache.
+     * <p>
+     * Only meant for SQL whose text does not change between calls, like the writes and counts of the stores. Queries
+     * returning rows need a cursor and go through {@link #rawQuery(String, String...)}, and SQL embedding a free where
+     * clause is better compiled for each call than pushing the stable statements out of the cache.
+     *
+     * @param sql The raw SQL statement, may contain ? for unknown values to be
+     *            bound later.
+     * @return A pre-compiled {@code StatementWrapper} object.
+     */
+    StatementWrapper getCachedStatement(String sql);
+
+    /**
+     * @return the number of {@link #getCachedStatement(String)} calls served from the cache.
+     */
+    long getStatementCacheHitCount();
+
+    /**
+     * @return the number of {@link #getCachedStatement(String)} calls that had to compile the statement.
+     */
+    long getStatementCacheMissCount();
+
     /**
      * Runs the provided SQL and returns a {@link Cursor} over the result set.
      *
@@ -117,6 +148,21 @@ public interface DatabaseAdapter {
 
     void setForeignKeyConstraintsEnabled(boolean enable);
 
+    /**
+     * Records that rows of {@code table} have been inserted, updated or deleted. The {@code delete}, {@code insert}
+     * and {@code update} methods of the adapter record their table by themselves; writes through compiled statements
+     * must be recorded by the caller.
+     *
+     * @param table The written table
+     */
+    void registerWrittenTable(String table);
+
+    /**
+     * @return the tables written by the calling thread since its outermost transaction began. Foreign key errors that
+     * make the transaction fail can only be in these tables or in tables referencing them.
+     */
+    Set<String> getWrittenTables();
+
     /**
      * Begins a transaction in EXCLUSIVE mode.
      * <p>
@@ -42,7 +42,7 @@ class DatabaseMigrationExecutor {
     private final DatabaseAdapter databaseAdapter;
     private final DatabaseMigrationParser parser;
 
-    private static final int SNAPSHOT_VERSION = 71;
+    static final int SNAPSHOT_VERSION = 71;
 
     DatabaseMigrationExecutor(DatabaseAdapter databaseAdapter, AssetManager assetManager) {
         this.databaseAdapter = databaseAdapter;
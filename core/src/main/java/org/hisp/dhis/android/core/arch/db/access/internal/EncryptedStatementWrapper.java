@@ -121,6 +121,11 @@ public class EncryptedStatementWrapper implements StatementWrapper {
         return s.executeUpdateDelete();
     }
 
+    @Override
+    public long simpleQueryForLong() {
+        return s.simpleQueryForLong();
+    }
+
     @Override
     public void close() {
         s.close();
@@ -34,6 +34,8 @@ import org.hisp.dhis.android.core.arch.db.access.DatabaseAdapter;
 import org.hisp.dhis.android.core.arch.db.access.Transaction;
 import org.hisp.dhis.android.core.arch.db.stores.binders.internal.StatementWrapper;
 
+import java.util.Set;
+
 class ParentDatabaseAdapter implements DatabaseAdapter {
 
     private DatabaseAdapter adapter;
@@ -79,6 +81,21 @@ class ParentDatabaseAdapter implements DatabaseAdapter {
         return getAdapter().compileStatement(sql);
     }
 
+    @Override
+    public StatementWrapper getCachedStatement(String sql) {
+        return getAdapter().getCachedStatement(sql);
+    }
+
+    @Override
+    public long getStatementCacheHitCount() {
+        return getAdapter().getStatementCacheHitCount();
+    }
+
+    @Override
+    public long getStatementCacheMissCount() {
+        return getAdapter().getStatementCacheMissCount();
+    }
+
     @Override
     public Cursor rawQuery(String sql, String... selectionArgs) {
         return getAdapter().rawQuery(sql, selectionArgs);
@@ -129,6 +146,16 @@ class ParentDatabaseAdapter implements DatabaseAdapter {
         getAdapter().setForeignKeyConstraintsEnabled(enable);
     }
 
+    @Override
+    public void registerWrittenTable(String table) {
+        getAdapter().registerWrittenTable(table);
+    }
+
+    @Override
+    public Set<String> getWrittenTables() {
+        return getAdapter().getWrittenTables();
+    }
+
     @Override
     public void enableWriteAheadLogging() {
         getAdapter().enableWriteAheadLogging();
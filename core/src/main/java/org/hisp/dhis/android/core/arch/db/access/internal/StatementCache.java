@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.arch.db.access.internal;
+
+import org.hisp.dhis.android.core.arch.db.access.DatabaseAdapter;
+import org.hisp.dhis.android.core.arch.db.stores.binders.internal.StatementWrapper;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Least recently used cache of compiled statements keyed by their SQL text. Each thread gets its own statements, so a
+ * statement is never bound or executed by two threads at the same time, and an evicted statement can only belong to
+ * the thread asking for a new one, which is no longer using it. Evicted statements are closed, as well as the cached
+ * ones of all the threads when the cache is cleared.
+ * <p>
+ * Statements are held strongly until they are closed: the ones of a thread that is no longer alive, like an idle
+ * thread retired from a pool, are closed the next time any thread has to compile a statement.
+ */
+final class StatementCache {
+
+    static final int DEFAULT_MAX_SIZE = 100;
+
+    private final DatabaseAdapter databaseAdapter;
+    private final int maxSize;
+    private final Map<Thread, ThreadStatements> allThreadStatements = new HashMap<>();
+    private final ThreadLocal<ThreadStatements> threadStatements = new ThreadLocal<ThreadStatements>() {
+        @Override
+        protected ThreadStatements initialValue() {
+            ThreadStatements statements = new ThreadStatements(maxSize);
+            synchronized (allThreadStatements) {
+                allThreadStatements.put(Thread.currentThread(), statements);
+            }
+            return statements;
+        }
+    };
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    StatementCache(DatabaseAdapter databaseAdapter, int maxSize) {
+        this.databaseAdapter = databaseAdapter;
+        this.maxSize = maxSize;
+    }
+
+    StatementWrapper get(String sql) {
+        ThreadStatements statements = threadStatements.get();
+        StatementWrapper statement;
+        synchronized (statements) {
+            statement = statements.map.get(sql);
+            if (statement != null) {
+                hitCount.incrementAndGet();
+                return statement;
+            }
+            missCount.incrementAndGet();
+            statement = databaseAdapter.compileStatement(sql);
+            statements.map.put(sql, statement);
+        }
+        closeStatementsOfDeadThreads();
+        return statement;
+    }
+
+    /**
+     * Called without holding the lock of any thread statements, as clearing takes the locks in the opposite order.
+     */
+    private void closeStatementsOfDeadThreads() {
+        synchronized (allThreadStatements) {
+            Iterator<Map.Entry<Thread, ThreadStatements>> iterator = allThreadStatements.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Thread, ThreadStatements> entry = iterator.next();
+                if (!entry.getKey().isAlive()) {
+                    entry.getValue().clear();
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    long hitCount() {
+        return hitCount.get();
+    }
+
+    long missCount() {
+        return missCount.get();
+    }
+
+    void clear() {
+        synchronized (allThreadStatements) {
+            for (ThreadStatements statements : allThreadStatements.values()) {
+                statements.clear();
+            }
+        }
+    }
+
+    /**
+     * Statements of a single thread. Only the owner thread reads and writes them, but it is locked anyway so the
+     * cache can be cleared from any thread.
+     */
+    private static final class ThreadStatements {
+
+        private final Map<String, StatementWrapper> map;
+
+        ThreadStatements(final int maxSize) {
+            this.map = new LinkedHashMap<String, StatementWrapper>(maxSize, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, StatementWrapper> eldest) {
+                    if (size() > maxSize) {
+                        eldest.getValue().close();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized void clear() {
+            for (StatementWrapper statement : map.values()) {
+                statement.close();
+            }
+            map.clear();
+        }
+    }
+}
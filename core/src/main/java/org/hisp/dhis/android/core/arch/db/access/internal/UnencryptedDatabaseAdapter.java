@@ -37,19 +37,28 @@ import org.hisp.dhis.android.core.arch.db.access.DatabaseAdapter;
 import org.hisp.dhis.android.core.arch.db.access.Transaction;
 import org.hisp.dhis.android.core.arch.db.stores.binders.internal.StatementWrapper;
 
+import java.util.Set;
+
 class UnencryptedDatabaseAdapter implements DatabaseAdapter {
 
     private final SQLiteDatabase database;
+    private final StatementCache statementCache;
+    private final WrittenTables writtenTables = new WrittenTables();
 
     UnencryptedDatabaseAdapter(@NonNull SQLiteDatabase database) {
         if (database == null) {
             throw new IllegalArgumentException("database == null");
         }
         this.database = database;
+        this.statementCache = new StatementCache(this, StatementCache.DEFAULT_MAX_SIZE);
+        this.database.setMaxSqlCacheSize(SQLiteDatabase.MAX_SQL_CACHE_SIZE);
     }
 
     @Override
     public Transaction beginNewTransaction() {
+        if (!database.inTransaction()) {
+            writtenTables.clear();
+        }
         database.beginTransaction();
         return new TransactionImpl(this);
     }
@@ -74,6 +83,21 @@ class UnencryptedDatabaseAdapter implements DatabaseAdapter {
         return new UnencryptedStatementWrapper(database.compileStatement(sql));
     }
 
+    @Override
+    public StatementWrapper getCachedStatement(String sql) {
+        return statementCache.get(sql);
+    }
+
+    @Override
+    public long getStatementCacheHitCount() {
+        return statementCache.hitCount();
+    }
+
+    @Override
+    public long getStatementCacheMissCount() {
+        return statementCache.missCount();
+    }
+
     @Override
     public Cursor rawQuery(String sql, String... selectionArgs) {
         return database.rawQuery(sql, selectionArgs);
@@ -101,6 +125,7 @@ class UnencryptedDatabaseAdapter implements DatabaseAdapter {
 
     @Override
     public int delete(String table, String whereClause, String[] whereArgs) {
+        registerWrittenTable(table);
         return database.delete(table, whereClause, whereArgs);
     }
 
@@ -111,11 +136,13 @@ class UnencryptedDatabaseAdapter implements DatabaseAdapter {
 
     @Override
     public long insert(String table, String nullColumnHack, ContentValues values) {
+        registerWrittenTable(table);
         return database.insert(table, nullColumnHack, values);
     }
 
     @Override
     public int update(String table, ContentValues values, String whereClause, String[] whereArgs) {
+        registerWrittenTable(table);
         return database.update(table, values, whereClause, whereArgs);
     }
 
@@ -124,6 +151,16 @@ class UnencryptedDatabaseAdapter implements DatabaseAdapter {
         database.setForeignKeyConstraintsEnabled(enable);
     }
 
+    @Override
+    public void registerWrittenTable(String table) {
+        writtenTables.add(table);
+    }
+
+    @Override
+    public Set<String> getWrittenTables() {
+        return writtenTables.get();
+    }
+
     @Override
     public void enableWriteAheadLogging() {
         database.enableWriteAheadLogging();
@@ -136,6 +173,7 @@ class UnencryptedDatabaseAdapter implements DatabaseAdapter {
 
     @Override
     public void close() {
+        statementCache.clear();
         database.close();
     }
 }
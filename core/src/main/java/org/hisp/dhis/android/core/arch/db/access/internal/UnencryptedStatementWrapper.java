@@ -122,6 +122,11 @@ class UnencryptedStatementWrapper implements StatementWrapper {
         return s.executeUpdateDelete();
     }
 
+    @Override
+    public long simpleQueryForLong() {
+        return s.simpleQueryForLong();
+    }
+
     @Override
     public void close() {
         s.close();
@@ -31,10 +31,13 @@ import android.database.Cursor;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface CursorExecutor<M> {
 
     void addObjectsToCollection(Cursor cursor, Collection<M> collection);
 
     List<M> getObjects(Cursor cursor);
+
+    void addObjectsGroupedByColumn(Cursor cursor, String column, Map<String, List<M>> groups);
 }
@@ -32,6 +32,7 @@ import android.database.Cursor;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public class CursorExecutorImpl<M> implements CursorExecutor<M> {
 
@@ -62,4 +63,26 @@ public class CursorExecutorImpl<M> implements CursorExecutor<M> {
         addObjectsToCollection(cursor, list);
         return list;
     }
+
+    @Override
+    public void addObjectsGroupedByColumn(Cursor cursor, String column, Map<String, List<M>> groups) {
+        try {
+            if (cursor.getCount() > 0) {
+                int columnIndex = cursor.getColumnIndex(column);
+                cursor.moveToFirst();
+                do {
+                    String key = cursor.getString(columnIndex);
+                    List<M> group = groups.get(key);
+                    if (group == null) {
+                        group = new ArrayList<>();
+                        groups.put(key, group);
+                    }
+                    group.add(objectFactory.fromCursor(cursor));
+                }
+                while (cursor.moveToNext());
+            }
+        } finally {
+            cursor.close();
+        }
+    }
 }
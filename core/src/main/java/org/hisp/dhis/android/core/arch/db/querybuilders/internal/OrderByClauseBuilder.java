@@ -91,26 +91,28 @@ public final class OrderByClauseBuilder {
                     nextIterationItems.add(item);
                 }
             }
-            wrapperClause.appendOrComplexQuery(subWhereClause.build());
+            wrapperClause.appendOrComplexQuery(subWhereClause.buildBound());
             items = nextIterationItems;
         }
         while (!items.isEmpty());
 
-        whereClauseBuilder.appendComplexQuery(wrapperClause.build());
+        whereClauseBuilder.appendComplexQuery(wrapperClause.buildBound());
     }
 
     private static void addItemOperator(WhereClauseBuilder whereClauseBuilder, RepositoryScopeOrderByItem item,
                                         ContentValues object, boolean reversed) {
         String operator = reversed ? getReversedDirectionOperator(item) : getDirectionOperator(item);
-        whereClauseBuilder.appendKeyOperatorValue(item.column(), operator,
-                "'" + object.getAsString(item.column()) + "'");
+        whereClauseBuilder.appendKeyOperatorArg(item.column(), operator, keyValue(item, object));
     }
 
     private static void addItemEquality(WhereClauseBuilder whereClauseBuilder, RepositoryScopeOrderByItem item,
                                         ContentValues object) {
         String operator = "=";
-        whereClauseBuilder.appendKeyOperatorValue(item.column(), operator,
-                "'" + object.getAsString(item.column()) + "'");
+        whereClauseBuilder.appendKeyOperatorArg(item.column(), operator, keyValue(item, object));
+    }
+
+    private static String keyValue(RepositoryScopeOrderByItem item, ContentValues object) {
+        return String.valueOf(object.getAsString(item.column()));
     }
 
     private static String getDirectionOperator(RepositoryScopeOrderByItem item) {
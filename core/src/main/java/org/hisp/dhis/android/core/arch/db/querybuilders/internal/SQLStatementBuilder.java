@@ -50,6 +50,8 @@ public interface SQLStatementBuilder extends ReadOnlySQLStatementBuilder {
 
     String insert();
 
+    String insert(int rowCount);
+
     String update();
 
     String updateWhere();
@@ -57,4 +59,8 @@ public interface SQLStatementBuilder extends ReadOnlySQLStatementBuilder {
     String deleteById();
 
     String deleteWhere();
+
+    String deleteWhereColumn(String column);
+
+    String deleteAll();
 }
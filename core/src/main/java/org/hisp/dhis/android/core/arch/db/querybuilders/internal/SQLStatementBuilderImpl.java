@@ -114,6 +114,17 @@ public class SQLStatementBuilderImpl implements SQLStatementBuilder {
                 "VALUES (" + commaSeparatedInterrogationMarks() + ");";
     }
 
+    @Override
+    public String insert(int rowCount) {
+        String rowInterrogationMarks = "(" + commaSeparatedInterrogationMarks() + ")";
+        String[] rows = new String[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            rows[i] = rowInterrogationMarks;
+        }
+        return "INSERT INTO " + tableName + " (" + commaSeparatedColumns() + ") " +
+                "VALUES " + commaAndSpaceSeparatedArrayValues(rows) + ";";
+    }
+
     @Override
     public String deleteById() {
         return "DELETE" + FROM + tableName + WHERE + UID + "=?;";
@@ -221,4 +232,14 @@ public class SQLStatementBuilderImpl implements SQLStatementBuilder {
                 andSeparatedColumnEqualInterrogationMark(whereColumns);
         return "DELETE" + FROM + tableName + WHERE + whereClause + ";";
     }
+
+    @Override
+    public String deleteWhereColumn(String column) {
+        return "DELETE" + FROM + tableName + WHERE + column + "=?;";
+    }
+
+    @Override
+    public String deleteAll() {
+        return "DELETE" + FROM + tableName + ";";
+    }
 }
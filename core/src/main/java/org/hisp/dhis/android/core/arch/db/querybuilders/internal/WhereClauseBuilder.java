@@ -48,6 +48,8 @@ public class WhereClauseBuilder {
 
     private static final String EQ_NUMBER = " = ";
 
+    private static final String ARG = "?";
+
     private static final String AND = " AND ";
     private static final String OR = " OR ";
     private static final String IN = " IN (";
@@ -58,6 +60,7 @@ public class WhereClauseBuilder {
 
     @SuppressWarnings("PMD.AvoidStringBufferField")
     private final StringBuilder whereClause = new StringBuilder();
+    private final List<String> args = new ArrayList<>();
     private boolean addOperator;
 
     public WhereClauseBuilder appendKeyStringValue(String column, Object value) {
@@ -100,6 +103,29 @@ public class WhereClauseBuilder {
         return appendKeyValue(column, value, AND,  " " + operator + " ", "");
     }
 
+    /**
+     * Same as {@link #appendKeyOperatorValue(String, String, String)}, but adding a ? placeholder to the clause and
+     * the value to the arguments returned by {@link #buildBound()}.
+     */
+    public WhereClauseBuilder appendKeyOperatorArg(String column, String operator, String value) {
+        args.add(value);
+        return appendKeyValue(column, ARG, AND,  " " + operator + " ", "");
+    }
+
+    public WhereClauseBuilder appendKeyStringArg(String column, Object value) {
+        return appendKeyOperatorArg(column, "=", value.toString());
+    }
+
+    public WhereClauseBuilder appendInKeyStringArgs(String column, Collection<String> values) {
+        List<String> placeholders = new ArrayList<>(values.size());
+        for (String value : values) {
+            placeholders.add(ARG);
+            args.add(value);
+        }
+        String valuesArray = CollectionsHelper.commaAndSpaceSeparatedCollectionValues(placeholders);
+        return appendKeyValue(column, valuesArray, AND, IN, PARENTHESES_END);
+    }
+
     public WhereClauseBuilder appendNotInKeyStringValues(String column, List<String> values) {
         String valuesArray = CollectionsHelper.commaAndSpaceSeparatedArrayValues(
                 CollectionsHelper.withSingleQuotationMarksArray(values));
@@ -156,6 +182,19 @@ public class WhereClauseBuilder {
         return appendComplexQueryWithOperator(complexQuery, OR);
     }
 
+    /**
+     * Same as {@link #appendComplexQuery(String)}, keeping the arguments of the bound clause.
+     */
+    public WhereClauseBuilder appendComplexQuery(BoundWhereClause complexQuery) {
+        args.addAll(complexQuery.args());
+        return appendComplexQuery(complexQuery.clause());
+    }
+
+    public WhereClauseBuilder appendOrComplexQuery(BoundWhereClause complexQuery) {
+        args.addAll(complexQuery.args());
+        return appendOrComplexQuery(complexQuery.clause());
+    }
+
     private WhereClauseBuilder appendComplexQueryWithOperator(String complexQuery, String operator) {
         String andOpt = addOperator ? operator : "";
         addOperator = true;
@@ -187,4 +226,8 @@ public class WhereClauseBuilder {
             return whereClause.toString();
         }
     }
+
+    public BoundWhereClause buildBound() {
+        return BoundWhereClause.create(build(), args);
+    }
 }
\ No newline at end of file
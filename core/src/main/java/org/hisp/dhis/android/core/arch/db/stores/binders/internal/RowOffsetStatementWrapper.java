@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.arch.db.stores.binders.internal;
+
+import java.util.Date;
+
+/**
+ * Shifts the bind indexes of a wrapped statement, so a {@link StatementBinder} written for a single row can bind
+ * any row of a multiple row statement.
+ */
+public final class RowOffsetStatementWrapper implements StatementWrapper {
+
+    private final StatementWrapper w;
+    private final int offset;
+
+    public RowOffsetStatementWrapper(StatementWrapper w, int offset) {
+        this.w = w;
+        this.offset = offset;
+    }
+
+    @Override
+    public void bind(int index, String arg) {
+        w.bind(offset + index, arg);
+    }
+
+    @Override
+    public void bind(int index, Boolean arg) {
+        w.bind(offset + index, arg);
+    }
+
+    @Override
+    public void bind(int index, Integer arg) {
+        w.bind(offset + index, arg);
+    }
+
+    @Override
+    public void bind(int index, Date arg) {
+        w.bind(offset + index, arg);
+    }
+
+    @Override
+    public void bind(int index, Enum arg) {
+        w.bind(offset + index, arg);
+    }
+
+    @Override
+    public void bind(int index, Double arg) {
+        w.bind(offset + index, arg);
+    }
+
+    @Override
+    public void bind(int index, Long arg) {
+        w.bind(offset + index, arg);
+    }
+
+    @Override
+    public void clearBindings() {
+        w.clearBindings();
+    }
+
+    @Override
+    public long executeInsert() {
+        return w.executeInsert();
+    }
+
+    @Override
+    public int executeUpdateDelete() {
+        return w.executeUpdateDelete();
+    }
+
+    @Override
+    public long simpleQueryForLong() {
+        return w.simpleQueryForLong();
+    }
+
+    @Override
+    public void close() {
+        w.close();
+    }
+}
@@ -103,6 +103,11 @@ public interface StatementWrapper {
      */
     int executeUpdateDelete();
 
+    /**
+     * Execute a statement that returns a 1 by 1 table with a numeric value
+     */
+    long simpleQueryForLong();
+
     /**
      * Close the statement
      */
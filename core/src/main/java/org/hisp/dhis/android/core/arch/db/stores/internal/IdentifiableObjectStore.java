@@ -31,6 +31,7 @@ package org.hisp.dhis.android.core.arch.db.stores.internal;
 import org.hisp.dhis.android.core.arch.handlers.internal.HandleAction;
 import org.hisp.dhis.android.core.common.ObjectWithUidInterface;
 
+import java.util.Collection;
 import java.util.List;
 
 import androidx.annotation.NonNull;
@@ -45,6 +46,11 @@ public interface IdentifiableObjectStore<O extends ObjectWithUidInterface> exten
 
     HandleAction updateOrInsert(@NonNull O o) throws RuntimeException;
 
+    List<HandleAction> updateOrInsert(@NonNull Collection<O> objects) throws RuntimeException;
+
+    List<HandleAction> updateOrInsert(@NonNull Collection<O> objects, @NonNull Collection<String> storedUids)
+            throws RuntimeException;
+
     List<String> selectUids() throws RuntimeException;
 
     List<String> selectUidsWhere(String whereClause) throws RuntimeException;
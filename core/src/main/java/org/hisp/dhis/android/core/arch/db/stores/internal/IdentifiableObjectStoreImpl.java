@@ -33,13 +33,21 @@ import android.database.Cursor;
 import org.hisp.dhis.android.core.arch.db.access.DatabaseAdapter;
 import org.hisp.dhis.android.core.arch.db.cursors.internal.ObjectFactory;
 import org.hisp.dhis.android.core.arch.db.querybuilders.internal.SQLStatementBuilder;
+import org.hisp.dhis.android.core.arch.db.querybuilders.internal.WhereClauseBuilder;
+import org.hisp.dhis.android.core.arch.db.stores.binders.internal.RowOffsetStatementWrapper;
 import org.hisp.dhis.android.core.arch.db.stores.binders.internal.StatementBinder;
 import org.hisp.dhis.android.core.arch.db.stores.binders.internal.StatementWrapper;
 import org.hisp.dhis.android.core.arch.handlers.internal.HandleAction;
+import org.hisp.dhis.android.core.arch.helpers.CollectionsHelper;
 import org.hisp.dhis.android.core.common.CoreObject;
+import org.hisp.dhis.android.core.common.IdentifiableColumns;
 import org.hisp.dhis.android.core.common.ObjectWithUidInterface;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import androidx.annotation.NonNull;
 
@@ -48,8 +56,13 @@ import static org.hisp.dhis.android.core.arch.helpers.CollectionsHelper.isNull;
 public class IdentifiableObjectStoreImpl<M extends CoreObject & ObjectWithUidInterface>
         extends ObjectStoreImpl<M> implements IdentifiableObjectStore<M> {
 
+    // SQLITE_MAX_VARIABLE_NUMBER defaults to 999 in the SQLite versions shipped with Android
+    private static final int MAX_BOUND_VARIABLES = 999;
+    private static final int UIDS_PER_QUERY = 500;
+
     private StatementWrapper updateStatement;
     private StatementWrapper deleteStatement;
+    private StatementWrapper multipleInsertStatement;
 
     private Integer adapterHashCode;
 
@@ -79,7 +92,6 @@ public class IdentifiableObjectStoreImpl<M extends CoreObject & ObjectWithUidInt
         if (deleteStatement == null) {
             deleteStatement = databaseAdapter.compileStatement(builder.deleteById());
             updateStatement = databaseAdapter.compileStatement(builder.update());
-
         }
     }
 
@@ -93,42 +105,164 @@ public class IdentifiableObjectStoreImpl<M extends CoreObject & ObjectWithUidInt
         if (hasAdapterChanged()) {
             updateStatement.close();
             deleteStatement.close();
+            if (multipleInsertStatement != null) {
+                multipleInsertStatement.close();
+            }
             updateStatement = null;
             deleteStatement = null;
+            multipleInsertStatement = null;
         }
     }
 
     @Override
     public final void deleteIfExists(@NonNull String uid) throws RuntimeException {
-        try {
-            delete(uid);
-        } catch(RuntimeException e) {
-            if (!e.getMessage().equals("No rows affected")) {
-                throw e;
-            }
-        }
+        isNull(uid);
+        compileStatements();
+        deleteStatement.bind(1, uid);
+        executeUpdateDeleteIfAny(deleteStatement);
     }
 
     @Override
     public final void update(@NonNull M m) throws RuntimeException {
+        if (updateIfExists(m) == 0) {
+            throw new RuntimeException("No rows affected");
+        }
+    }
+
+    private int updateIfExists(M m) {
         isNull(m);
         compileStatements();
         binder.bindToStatement(m, updateStatement);
         updateStatement.bind(builder.getColumns().length + 1, m.uid());
-        executeUpdateDelete(updateStatement);
+        return executeUpdateDeleteIfAny(updateStatement);
     }
 
     @Override
     public final HandleAction updateOrInsert(@NonNull M m) throws RuntimeException {
-        try {
-            update(m);
-            return HandleAction.Update;
-        } catch (Exception e){
+        if (updateIfExists(m) == 0) {
             insert(m);
             return HandleAction.Insert;
+        } else {
+            return HandleAction.Update;
         }
     }
 
+    /**
+     * Persists a collection of objects using a single query to find the uids already stored and multiple row
+     * insert statements for the new ones. Objects whose uid is already present in the table, or repeated in the
+     * collection, are updated one by one after the inserts.
+     *
+     * @param ms objects to persist.
+     * @return the {@link HandleAction} applied to each object, in the iteration order of the collection.
+     */
+    @Override
+    public final List<HandleAction> updateOrInsert(@NonNull Collection<M> ms) throws RuntimeException {
+        isNull(ms);
+        return updateOrInsert(ms, selectStoredUids(ms));
+    }
+
+    /**
+     * Same as {@link #updateOrInsert(Collection)}, for callers that already selected the stored uids.
+     *
+     * @param ms objects to persist.
+     * @param storedUids uids already stored in the table, at least the ones of the objects to persist.
+     * @return the {@link HandleAction} applied to each object, in the iteration order of the collection.
+     */
+    @Override
+    public final List<HandleAction> updateOrInsert(@NonNull Collection<M> ms, @NonNull Collection<String> storedUids)
+            throws RuntimeException {
+        isNull(ms);
+        isNull(storedUids);
+        Set<String> persistedUids = new HashSet<>(storedUids);
+
+        List<HandleAction> actions = new ArrayList<>(ms.size());
+        List<M> toInsert = new ArrayList<>();
+        List<M> toUpdate = new ArrayList<>();
+        for (M m : ms) {
+            isNull(m);
+            isNull(m.uid());
+            if (persistedUids.add(m.uid())) {
+                toInsert.add(m);
+                actions.add(HandleAction.Insert);
+            } else {
+                toUpdate.add(m);
+                actions.add(HandleAction.Update);
+            }
+        }
+
+        insertInBatches(toInsert);
+        for (M m : toUpdate) {
+            update(m);
+        }
+        return actions;
+    }
+
+    private Set<String> selectStoredUids(Collection<M> ms) {
+        Set<String> uids = new HashSet<>(ms.size());
+        for (M m : ms) {
+            if (m != null && m.uid() != null) {
+                uids.add(m.uid());
+            }
+        }
+
+        Set<String> storedUids = new HashSet<>();
+        if (!uids.isEmpty()) {
+            for (Set<String> uidsPartition : CollectionsHelper.setPartition(uids, UIDS_PER_QUERY)) {
+                String whereClause = new WhereClauseBuilder()
+                        .appendInKeyStringValues(IdentifiableColumns.UID, uidsPartition).build();
+                storedUids.addAll(selectUidsWhere(whereClause));
+            }
+        }
+        return storedUids;
+    }
+
+    private void insertInBatches(List<M> ms) {
+        compileStatements();
+        int rowsPerInsert = rowsPerInsert();
+        int columnCount = builder.getColumns().length;
+        if (multipleInsertStatement == null && ms.size() >= rowsPerInsert) {
+            multipleInsertStatement = databaseAdapter.compileStatement(builder.insert(rowsPerInsert));
+        }
+
+        for (int from = 0; from < ms.size(); from += rowsPerInsert) {
+            List<M> batch = ms.subList(from, Math.min(from + rowsPerInsert, ms.size()));
+            if (batch.size() == rowsPerInsert) {
+                executeMultipleInsert(multipleInsertStatement, batch, columnCount);
+            } else {
+                executeRemainderInsert(batch, columnCount);
+            }
+        }
+    }
+
+    /**
+     * The statement for the last, shorter batch depends on the number of objects, so it is compiled for this call only
+     * instead of taking a place in the statement cache.
+     */
+    private void executeRemainderInsert(List<M> batch, int columnCount) {
+        StatementWrapper statement = databaseAdapter.compileStatement(builder.insert(batch.size()));
+        try {
+            executeMultipleInsert(statement, batch, columnCount);
+        } finally {
+            statement.close();
+        }
+    }
+
+    private void executeMultipleInsert(StatementWrapper statement, List<M> batch, int columnCount) {
+        for (int i = 0; i < batch.size(); i++) {
+            binder.bindToStatement(batch.get(i), new RowOffsetStatementWrapper(statement, i * columnCount));
+        }
+        registerWrite();
+        long lastInsertedRowId = databaseAdapter.executeInsert(statement);
+        statement.clearBindings();
+        if (lastInsertedRowId == -1) {
+            throw new RuntimeException("Nothing was inserted.");
+        }
+    }
+
+    private int rowsPerInsert() {
+        return Math.max(1, MAX_BOUND_VARIABLES / builder.getColumns().length);
+    }
+
     @Override
     public List<String> selectUids() throws RuntimeException {
         Cursor cursor = databaseAdapter.rawQuery(builder.selectUids());
@@ -55,7 +55,7 @@ public class LinkStoreImpl<M extends CoreObject> extends ObjectStoreImpl<M> impl
 
     @Override
     public void deleteLinksForMasterUid(@NonNull String masterUid) throws RuntimeException {
-        deleteWhere(masterColumn + "='" + masterUid + "';");
+        deleteWhereColumn(masterColumn, masterUid);
     }
 
     @Override
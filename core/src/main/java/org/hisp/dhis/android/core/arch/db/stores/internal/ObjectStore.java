@@ -30,6 +30,8 @@ package org.hisp.dhis.android.core.arch.db.stores.internal;
 
 import androidx.annotation.NonNull;
 
+import org.hisp.dhis.android.core.arch.db.querybuilders.internal.BoundWhereClause;
+
 import java.util.List;
 
 public interface ObjectStore<M> extends ReadableStore<M> {
@@ -44,6 +46,8 @@ public interface ObjectStore<M> extends ReadableStore<M> {
 
     boolean deleteWhere(String whereClause);
 
+    boolean deleteWhere(BoundWhereClause whereClause);
+
     void deleteWhereIfExists(@NonNull String whereClause) throws RuntimeException;
 
     boolean isReady();
@@ -32,6 +32,7 @@ import android.database.Cursor;
 
 import org.hisp.dhis.android.core.arch.db.access.DatabaseAdapter;
 import org.hisp.dhis.android.core.arch.db.cursors.internal.ObjectFactory;
+import org.hisp.dhis.android.core.arch.db.querybuilders.internal.BoundWhereClause;
 import org.hisp.dhis.android.core.arch.db.querybuilders.internal.SQLStatementBuilder;
 import org.hisp.dhis.android.core.arch.db.stores.binders.internal.StatementBinder;
 import org.hisp.dhis.android.core.arch.db.stores.binders.internal.StatementWrapper;
@@ -62,6 +63,7 @@ public class ObjectStoreImpl<M extends CoreObject> extends ReadableStoreImpl<M>
         isNull(m);
         compileStatements();
         binder.bindToStatement(m, insertStatement);
+        registerWrite();
         long insertedRowId = databaseAdapter.executeInsert(insertStatement);
         insertStatement.clearBindings();
         if (insertedRowId == -1) {
@@ -98,24 +100,71 @@ public class ObjectStoreImpl<M extends CoreObject> extends ReadableStoreImpl<M>
 
     @Override
     public final int delete() {
-        return databaseAdapter.delete(builder.getTableName());
+        StatementWrapper statement = databaseAdapter.getCachedStatement(builder.deleteAll());
+        registerWrite();
+        return databaseAdapter.executeUpdateDelete(statement);
     }
 
     void executeUpdateDelete(StatementWrapper statement) throws RuntimeException {
+        if (executeUpdateDeleteIfAny(statement) == 0) {
+            throw new RuntimeException("No rows affected");
+        }
+    }
+
+    /**
+     * Same as {@link #executeUpdateDelete(StatementWrapper)}, but reporting a missing row through the returned
+     * value instead of an exception, so callers expecting it can avoid the cost of throwing.
+     *
+     * @return the number of affected rows, either 0 or 1.
+     */
+    int executeUpdateDeleteIfAny(StatementWrapper statement) throws RuntimeException {
+        registerWrite();
         int numberOfAffectedRows = databaseAdapter.executeUpdateDelete(statement);
         statement.clearBindings();
 
-        if (numberOfAffectedRows == 0) {
-            throw new RuntimeException("No rows affected");
-        } else if (numberOfAffectedRows > 1) {
+        if (numberOfAffectedRows > 1) {
             throw new RuntimeException("Unexpected number of affected rows: " + numberOfAffectedRows);
         }
+        return numberOfAffectedRows;
     }
 
 
     @Override
     public boolean deleteById(@NonNull M m) {
-        return deleteWhere(CoreColumns.ID + "='" + m.id() + "';");
+        return deleteWhereColumn(CoreColumns.ID, m.id());
+    }
+
+    /**
+     * Deletes the rows whose column is equal to the value through a statement cached in the database adapter, so it is
+     * only compiled once for each table and column.
+     */
+    boolean deleteWhereColumn(String column, Long value) {
+        StatementWrapper statement = databaseAdapter.getCachedStatement(builder.deleteWhereColumn(column));
+        statement.bind(1, value);
+        return executeCachedDelete(statement);
+    }
+
+    boolean deleteWhereColumn(String column, String value) {
+        StatementWrapper statement = databaseAdapter.getCachedStatement(builder.deleteWhereColumn(column));
+        statement.bind(1, value);
+        return executeCachedDelete(statement);
+    }
+
+    private boolean executeCachedDelete(StatementWrapper statement) {
+        registerWrite();
+        try {
+            return databaseAdapter.executeUpdateDelete(statement) > 0;
+        } finally {
+            statement.clearBindings();
+        }
+    }
+
+    /**
+     * Writes through compiled statements are not seen by the database adapter, so they are recorded here to let
+     * foreign key errors be looked for only in the tables written by the transaction.
+     */
+    void registerWrite() {
+        databaseAdapter.registerWrittenTable(builder.getTableName());
     }
 
     protected M popOneWhere(@NonNull String whereClause) {
@@ -131,6 +180,11 @@ public class ObjectStoreImpl<M extends CoreObject> extends ReadableStoreImpl<M>
         return databaseAdapter.delete(builder.getTableName(), clause, null) > 0;
     }
 
+    @Override
+    public boolean deleteWhere(BoundWhereClause clause) {
+        return databaseAdapter.delete(builder.getTableName(), clause.clause(), clause.argsArray()) > 0;
+    }
+
     @Override
     public void deleteWhereIfExists(@NonNull String whereClause) throws RuntimeException {
         try {
@@ -63,11 +63,17 @@ public class ObjectWithoutUidStoreImpl<M extends CoreObject>
 
     @Override
     public void updateWhere(@NonNull M m) throws RuntimeException {
+        if (updateWhereIfExists(m) == 0) {
+            throw new RuntimeException("No rows affected");
+        }
+    }
+
+    private int updateWhereIfExists(M m) {
         isNull(m);
         compileStatements();
         binder.bindToStatement(m, updateWhereStatement);
         whereUpdateBinder.bindWhereStatement(m, updateWhereStatement);
-        executeUpdateDelete(updateWhereStatement);
+        return executeUpdateDeleteIfAny(updateWhereStatement);
     }
 
     private void compileStatements() {
@@ -103,23 +109,19 @@ public class ObjectWithoutUidStoreImpl<M extends CoreObject>
 
     @Override
     public void deleteWhereIfExists(@NonNull M m) throws RuntimeException {
-        try {
-            deleteWhere(m);
-        } catch(RuntimeException e) {
-            if (!e.getMessage().equals("No rows affected")) {
-                throw e;
-            }
-        }
+        isNull(m);
+        compileStatements();
+        whereDeleteBinder.bindWhereStatement(m, deleteWhereStatement);
+        executeUpdateDeleteIfAny(deleteWhereStatement);
     }
 
     @Override
     public HandleAction updateOrInsertWhere(@NonNull M m) throws RuntimeException {
-        try {
-            updateWhere(m);
-            return HandleAction.Update;
-        } catch (Exception e){
+        if (updateWhereIfExists(m) == 0) {
             insert(m);
             return HandleAction.Insert;
+        } else {
+            return HandleAction.Update;
         }
     }
 }
\ No newline at end of file
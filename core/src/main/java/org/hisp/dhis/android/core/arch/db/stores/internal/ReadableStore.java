@@ -28,10 +28,13 @@
 
 package org.hisp.dhis.android.core.arch.db.stores.internal;
 
+import org.hisp.dhis.android.core.arch.db.querybuilders.internal.BoundWhereClause;
 import org.hisp.dhis.android.core.arch.db.sqlorder.internal.SQLOrderType;
 
 import java.util.List;
 
+import io.reactivex.Flowable;
+
 public interface ReadableStore<M> {
 
     List<M> selectAll();
@@ -42,15 +45,29 @@ public interface ReadableStore<M> {
 
     List<M> selectWhere(String filterWhereClause, String orderByClause, int limit);
 
+    List<M> selectWhere(BoundWhereClause filterWhereClause, String orderByClause);
+
+    List<M> selectWhere(BoundWhereClause filterWhereClause, String orderByClause, int limit);
+
     M selectOneOrderedBy(String orderingColumName, SQLOrderType orderingType);
 
     List<M> selectRawQuery(String sqlRawQuery);
 
+    Flowable<M> iterateWhere(String filterWhereClause, String orderByClause);
+
+    Flowable<M> iterateWhere(BoundWhereClause filterWhereClause, String orderByClause);
+
+    Flowable<M> iterateRawQuery(String sqlRawQuery);
+
     M selectOneWhere(String whereClause);
 
+    M selectOneWhere(BoundWhereClause whereClause);
+
     M selectFirst();
 
     int count();
 
     int countWhere(String whereClause);
+
+    int countWhere(BoundWhereClause whereClause);
 }
@@ -34,6 +34,7 @@ import androidx.annotation.NonNull;
 
 import org.hisp.dhis.android.core.arch.db.access.DatabaseAdapter;
 import org.hisp.dhis.android.core.arch.db.cursors.internal.ObjectFactory;
+import org.hisp.dhis.android.core.arch.db.querybuilders.internal.BoundWhereClause;
 import org.hisp.dhis.android.core.arch.db.querybuilders.internal.ReadOnlySQLStatementBuilder;
 import org.hisp.dhis.android.core.arch.db.sqlorder.internal.SQLOrderType;
 import org.hisp.dhis.android.core.common.CoreObject;
@@ -42,6 +43,8 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
+import io.reactivex.Flowable;
+
 public class ReadableStoreImpl<M extends CoreObject> implements ReadableStore<M> {
     protected final DatabaseAdapter databaseAdapter;
     protected final ReadOnlySQLStatementBuilder builder;
@@ -79,6 +82,18 @@ public class ReadableStoreImpl<M extends CoreObject> implements ReadableStore<M>
         return selectRawQuery(query);
     }
 
+    @Override
+    public List<M> selectWhere(BoundWhereClause filterWhereClause, String orderByClause) {
+        String query = builder.selectWhere(filterWhereClause.clause(), orderByClause);
+        return selectRawQuery(query, filterWhereClause.argsArray());
+    }
+
+    @Override
+    public List<M> selectWhere(BoundWhereClause filterWhereClause, String orderByClause, int limit) {
+        String query = builder.selectWhere(filterWhereClause.clause(), orderByClause, limit);
+        return selectRawQuery(query, filterWhereClause.argsArray());
+    }
+
     @Override
     public M selectOneOrderedBy(String orderingColumName, SQLOrderType orderingType) {
         Cursor cursor = databaseAdapter.rawQuery(builder.selectOneOrderedBy(orderingColumName, orderingType));
@@ -89,18 +104,62 @@ public class ReadableStoreImpl<M extends CoreObject> implements ReadableStore<M>
 
     @Override
     public List<M> selectRawQuery(String sqlRawQuery) {
-        Cursor cursor = databaseAdapter.rawQuery(sqlRawQuery);
+        return selectRawQuery(sqlRawQuery, new String[0]);
+    }
+
+    private List<M> selectRawQuery(String sqlRawQuery, String... args) {
+        Cursor cursor = databaseAdapter.rawQuery(sqlRawQuery, args);
         List<M> list = new ArrayList<>();
         addObjectsToCollection(cursor, list);
         return list;
     }
 
+    @Override
+    public Flowable<M> iterateWhere(String filterWhereClause, String orderByClause) {
+        return iterateRawQuery(builder.selectWhere(filterWhereClause, orderByClause));
+    }
+
+    @Override
+    public Flowable<M> iterateWhere(BoundWhereClause filterWhereClause, String orderByClause) {
+        return iterateRawQuery(builder.selectWhere(filterWhereClause.clause(), orderByClause),
+                filterWhereClause.argsArray());
+    }
+
+    @Override
+    public Flowable<M> iterateRawQuery(String sqlRawQuery) {
+        return iterateRawQuery(sqlRawQuery, new String[0]);
+    }
+
+    /**
+     * Maps the rows lazily, one per request, so only the cursor window is kept in memory. The cursor is opened on
+     * subscription and closed when the {@code Flowable} completes, fails or is cancelled.
+     */
+    private Flowable<M> iterateRawQuery(String sqlRawQuery, String... args) {
+        return Flowable.generate(
+                () -> databaseAdapter.rawQuery(sqlRawQuery, args),
+                (cursor, emitter) -> {
+                    if (cursor.moveToNext()) {
+                        emitter.onNext(objectFactory.fromCursor(cursor));
+                    } else {
+                        emitter.onComplete();
+                    }
+                },
+                Cursor::close);
+    }
+
     @Override
     public M selectOneWhere(@NonNull String whereClause) {
         Cursor cursor = databaseAdapter.rawQuery(builder.selectWhere(whereClause, 1));
         return getFirstFromCursor(cursor);
     }
 
+    @Override
+    public M selectOneWhere(@NonNull BoundWhereClause whereClause) {
+        Cursor cursor = databaseAdapter.rawQuery(builder.selectWhere(whereClause.clause(), 1),
+                whereClause.argsArray());
+        return getFirstFromCursor(cursor);
+    }
+
     @Override
     public M selectFirst() {
         Cursor cursor = databaseAdapter.rawQuery(builder.selectAll());
@@ -122,7 +181,7 @@ public class ReadableStoreImpl<M extends CoreObject> implements ReadableStore<M>
 
     @Override
     public int count() {
-        return processCount(databaseAdapter.rawQuery(builder.count()));
+        return (int) databaseAdapter.getCachedStatement(builder.count()).simpleQueryForLong();
     }
 
     @Override
@@ -130,6 +189,12 @@ public class ReadableStoreImpl<M extends CoreObject> implements ReadableStore<M>
         return processCount(databaseAdapter.rawQuery(builder.countWhere(whereClause)));
     }
 
+    @Override
+    public int countWhere(@NonNull BoundWhereClause whereClause) {
+        return processCount(databaseAdapter.rawQuery(builder.countWhere(whereClause.clause()),
+                whereClause.argsArray()));
+    }
+
     protected int processCount(Cursor cursor) {
         try {
             cursor.moveToFirst();
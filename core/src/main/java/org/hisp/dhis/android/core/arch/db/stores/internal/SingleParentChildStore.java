@@ -29,8 +29,19 @@ package org.hisp.dhis.android.core.arch.db.stores.internal;
 
 import org.hisp.dhis.android.core.common.ObjectWithUidInterface;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface SingleParentChildStore<P extends ObjectWithUidInterface, C> {
     List<C> getChildren(P p);
+
+    /**
+     * Selects the children of all the given parents with one query per chunk of parents.
+     *
+     * @param parents the parents whose children are selected.
+     * @return the children grouped by parent uid. Every parent uid is present, parents without children being mapped
+     * to an empty list.
+     */
+    Map<String, List<C>> getChildrenByParentUid(Collection<P> parents);
 }
\ No newline at end of file
@@ -29,15 +29,25 @@ package org.hisp.dhis.android.core.arch.db.stores.internal;
 
 import org.hisp.dhis.android.core.arch.db.access.DatabaseAdapter;
 import org.hisp.dhis.android.core.arch.db.cursors.internal.CursorExecutor;
+import org.hisp.dhis.android.core.arch.db.querybuilders.internal.BoundWhereClause;
 import org.hisp.dhis.android.core.arch.db.querybuilders.internal.SQLStatementBuilder;
 import org.hisp.dhis.android.core.arch.db.querybuilders.internal.WhereClauseBuilder;
 import org.hisp.dhis.android.core.arch.db.stores.projections.internal.SingleParentChildProjection;
+import org.hisp.dhis.android.core.arch.helpers.CollectionsHelper;
 import org.hisp.dhis.android.core.common.ObjectWithUidInterface;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 class SingleParentChildStoreImpl<P extends ObjectWithUidInterface, C> implements SingleParentChildStore<P, C> {
 
+    private static final int PARENTS_PER_QUERY = 500;
+
     private final SingleParentChildProjection childProjection;
 
     private final DatabaseAdapter databaseAdapter;
@@ -57,10 +67,35 @@ class SingleParentChildStoreImpl<P extends ObjectWithUidInterface, C> implements
 
     @Override
     public List<C> getChildren(P p) {
-        String whereClause = new WhereClauseBuilder()
-                .appendKeyStringValue(childProjection.parentColumn, p.uid())
-                .build();
-        String selectStatement = statementBuilder.selectWhere(whereClause);
-        return cursorExecutor.getObjects(databaseAdapter.rawQuery(selectStatement));
+        BoundWhereClause whereClause = new WhereClauseBuilder()
+                .appendKeyStringArg(childProjection.parentColumn, p.uid())
+                .buildBound();
+        String selectStatement = statementBuilder.selectWhere(whereClause.clause());
+        return cursorExecutor.getObjects(databaseAdapter.rawQuery(selectStatement, whereClause.argsArray()));
+    }
+
+    @Override
+    public Map<String, List<C>> getChildrenByParentUid(Collection<P> parents) {
+        Set<String> parentUids = new LinkedHashSet<>(parents.size());
+        for (P p : parents) {
+            parentUids.add(p.uid());
+        }
+
+        Map<String, List<C>> childrenByParentUid = new HashMap<>(parentUids.size());
+        for (Set<String> parentUidsPartition : CollectionsHelper.setPartition(parentUids, PARENTS_PER_QUERY)) {
+            BoundWhereClause whereClause = new WhereClauseBuilder()
+                    .appendInKeyStringArgs(childProjection.parentColumn, parentUidsPartition)
+                    .buildBound();
+            String selectStatement = statementBuilder.selectWhere(whereClause.clause());
+            cursorExecutor.addObjectsGroupedByColumn(databaseAdapter.rawQuery(selectStatement, whereClause.argsArray()),
+                    childProjection.parentColumn, childrenByParentUid);
+        }
+
+        for (String parentUid : parentUids) {
+            if (!childrenByParentUid.containsKey(parentUid)) {
+                childrenByParentUid.put(parentUid, new ArrayList<>());
+            }
+        }
+        return childrenByParentUid;
     }
 }
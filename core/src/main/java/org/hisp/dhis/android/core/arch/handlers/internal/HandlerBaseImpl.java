@@ -51,14 +51,6 @@ abstract class HandlerBaseImpl<O> implements HandlerWithTransformer<O> {
         handleInternal(o, transformer);
     }
 
-    protected void handle(O o, Transformer<O, O> transformer, List<O> oTransformedCollection) {
-        if (o == null) {
-            return;
-        }
-        O oTransformed = handleInternal(o, transformer);
-        oTransformedCollection.add(oTransformed);
-    }
-
     private O handleInternal(O o, Transformer<O, O> transformer) {
         O object = beforeObjectHandled(o);
         O oTransformed = transformer.transform(object);
@@ -71,8 +63,18 @@ abstract class HandlerBaseImpl<O> implements HandlerWithTransformer<O> {
     public final void handleMany(Collection<O> oCollection) {
         if (oCollection != null) {
             Collection<O> preHandledCollection = beforeCollectionHandled(oCollection);
-            for (O o : preHandledCollection) {
-                handle(o);
+            if (persistInBatch()) {
+                List<O> objects = new ArrayList<>(preHandledCollection.size());
+                for (O o : preHandledCollection) {
+                    if (o != null) {
+                        objects.add(beforeObjectHandled(o));
+                    }
+                }
+                handleObjects(objects);
+            } else {
+                for (O o : preHandledCollection) {
+                    handle(o);
+                }
             }
             afterCollectionHandled(preHandledCollection);
         }
@@ -83,15 +85,60 @@ abstract class HandlerBaseImpl<O> implements HandlerWithTransformer<O> {
         if (oCollection != null) {
             Collection<O> preHandledCollection = beforeCollectionHandled(oCollection);
             List<O> oTransformedCollection = new ArrayList<>(oCollection.size());
-            for (O o : preHandledCollection) {
-                handle(o, transformer, oTransformedCollection);
+            if (persistInBatch()) {
+                for (O o : preHandledCollection) {
+                    if (o != null) {
+                        oTransformedCollection.add(transformer.transform(beforeObjectHandled(o)));
+                    }
+                }
+                handleObjects(oTransformedCollection);
+            } else {
+                for (O o : preHandledCollection) {
+                    if (o != null) {
+                        oTransformedCollection.add(handleInternal(o, transformer));
+                    }
+                }
             }
             afterCollectionHandled(oTransformedCollection);
         }
     }
 
+    private void handleObjects(List<O> objects) {
+        List<HandleAction> actions = deleteOrPersist(objects);
+        for (int i = 0; i < objects.size(); i++) {
+            afterObjectHandled(objects.get(i), actions.get(i));
+        }
+    }
+
     protected abstract HandleAction deleteOrPersist(O o);
 
+    /**
+     * Whether {@link #handleMany(Collection)} can run {@link #beforeObjectHandled(Object)} for the whole collection,
+     * then persist it and then run {@link #afterObjectHandled(Object, HandleAction)}. Children whose hooks read rows
+     * written while handling previous objects of the same collection must return false to keep the object by
+     * object order.
+     *
+     * @return true if the collection can be persisted in batch.
+     */
+    protected boolean persistInBatch() {
+        return true;
+    }
+
+    /**
+     * Persists a whole collection before any {@link #afterObjectHandled(Object, HandleAction)} call. Children can
+     * override it to persist the collection in a few statements instead of one by one.
+     *
+     * @param objects objects already pre-handled.
+     * @return the {@link HandleAction} applied to each object, in the same order.
+     */
+    protected List<HandleAction> deleteOrPersist(List<O> objects) {
+        List<HandleAction> actions = new ArrayList<>(objects.size());
+        for (O o : objects) {
+            actions.add(deleteOrPersist(o));
+        }
+        return actions;
+    }
+
     protected O beforeObjectHandled(O o) {
         return o;
     }
@@ -40,7 +40,9 @@ import org.hisp.dhis.android.core.common.State;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.hisp.dhis.android.core.arch.helpers.CollectionsHelper.isDeleted;
 
@@ -48,9 +50,16 @@ public class IdentifiableDataHandlerImpl<O extends DeletableDataObject & ObjectW
          implements IdentifiableDataHandler<O> {
 
     final IdentifiableObjectStore<O> store;
+    private final IdentifiableHandlerImpl<O> persister;
 
     public IdentifiableDataHandlerImpl(IdentifiableObjectStore<O> store) {
         this.store = store;
+        this.persister = new IdentifiableHandlerImpl<O>(store) {
+            @Override
+            protected boolean deleteIfCondition(O o) {
+                return IdentifiableDataHandlerImpl.this.deleteIfCondition(o);
+            }
+        };
     }
 
     @Override
@@ -71,14 +80,6 @@ public class IdentifiableDataHandlerImpl<O extends DeletableDataObject & ObjectW
         handleInternal(o, transformer, overwrite);
     }
 
-    protected void handle(O o, Transformer<O, O> transformer, List<O> oTransformedCollection, Boolean overwrite) {
-        if (o == null) {
-            return;
-        }
-        O oTransformed = handleInternal(o, transformer, overwrite);
-        oTransformedCollection.add(oTransformed);
-    }
-
     private O handleInternal(O o, Transformer<O, O> transformer, Boolean overwrite) {
         O object = beforeObjectHandled(o, overwrite);
         O oTransformed = transformer.transform(object);
@@ -90,10 +91,15 @@ public class IdentifiableDataHandlerImpl<O extends DeletableDataObject & ObjectW
     @Override
     public final void handleMany(Collection<O> oCollection, Boolean overwrite) {
         if (oCollection != null) {
-            Collection<O> preHandledCollection = beforeCollectionHandled(oCollection, overwrite);
+            Set<String> storedUids = storedObjectUids(oCollection);
+            Collection<O> preHandledCollection = beforeCollectionHandled(oCollection, overwrite, storedUids);
+            List<O> objects = new ArrayList<>(preHandledCollection.size());
             for (O o : preHandledCollection) {
-                handle(o, overwrite);
+                if (o != null) {
+                    objects.add(beforeObjectHandled(o, overwrite));
+                }
             }
+            handleObjects(objects, overwrite, storedUids);
             afterCollectionHandled(preHandledCollection, overwrite);
         }
     }
@@ -101,25 +107,38 @@ public class IdentifiableDataHandlerImpl<O extends DeletableDataObject & ObjectW
     @Override
     public final void handleMany(Collection<O> oCollection, Transformer<O, O> transformer, Boolean overwrite) {
         if (oCollection != null) {
-            Collection<O> preHandledCollection = beforeCollectionHandled(oCollection, overwrite);
+            Set<String> storedUids = storedObjectUids(oCollection);
+            Collection<O> preHandledCollection = beforeCollectionHandled(oCollection, overwrite, storedUids);
             List<O> oTransformedCollection = new ArrayList<>(oCollection.size());
             for (O o : preHandledCollection) {
-                handle(o, transformer, oTransformedCollection, overwrite);
+                if (o != null) {
+                    oTransformedCollection.add(transformer.transform(beforeObjectHandled(o, overwrite)));
+                }
             }
+            handleObjects(oTransformedCollection, overwrite, storedUids);
             afterCollectionHandled(oTransformedCollection, overwrite);
         }
     }
 
-    protected HandleAction deleteOrPersist(O o) {
-        String modelUid = o.uid();
-        if ((isDeleted(o) || deleteIfCondition(o)) && modelUid != null) {
-            store.deleteIfExists(modelUid);
-            return HandleAction.Delete;
-        } else {
-            return store.updateOrInsert(o);
+    /**
+     * Persists the objects of a page at once, reusing the stored uids selected to filter the collection, so the store
+     * does not query them again.
+     *
+     * @param objects objects already pre-handled.
+     * @param overwrite whether the objects overwrite the stored ones.
+     * @param storedUids uids of the collection already stored, as returned by {@link #storedObjectUids(Collection)}.
+     */
+    protected final void handleObjects(List<O> objects, Boolean overwrite, Collection<String> storedUids) {
+        List<HandleAction> actions = persister.deleteOrPersist(objects, storedUids);
+        for (int i = 0; i < objects.size(); i++) {
+            afterObjectHandled(objects.get(i), actions.get(i), overwrite);
         }
     }
 
+    protected final HandleAction deleteOrPersist(O o) {
+        return persister.deleteOrPersist(o);
+    }
+
     protected boolean deleteIfCondition(O o) {
         return false;
     }
@@ -135,11 +154,12 @@ public class IdentifiableDataHandlerImpl<O extends DeletableDataObject & ObjectW
          */
     }
 
-    protected Collection<O> beforeCollectionHandled(Collection<O> oCollection, Boolean overwrite) {
+    protected Collection<O> beforeCollectionHandled(Collection<O> oCollection, Boolean overwrite,
+                                                    Collection<String> storedUids) {
         if (overwrite) {
             return oCollection;
         } else {
-            return removeExistingNotSyncedObjects(oCollection);
+            return removeExistingNotSyncedObjects(oCollection, storedUids);
         }
     }
 
@@ -150,8 +170,7 @@ public class IdentifiableDataHandlerImpl<O extends DeletableDataObject & ObjectW
          */
     }
 
-    private Collection<O> removeExistingNotSyncedObjects(Collection<O> os) {
-        List<String> storedObjectUids = storedObjectUids(os);
+    private Collection<O> removeExistingNotSyncedObjects(Collection<O> os, Collection<String> storedObjectUids) {
         List<String> syncedObjectUids = syncedObjectUids(storedObjectUids);
 
         List<O> objectsToStore = new ArrayList<>();
@@ -165,15 +184,15 @@ public class IdentifiableDataHandlerImpl<O extends DeletableDataObject & ObjectW
         return objectsToStore;
     }
 
-    private List<String> storedObjectUids(Collection<O> os) {
+    protected final Set<String> storedObjectUids(Collection<O> os) {
         List<String> objectUids = UidsHelper.getUidsList(os);
 
         String storedObjectUidsWhereClause = new WhereClauseBuilder()
                 .appendInKeyStringValues(IdentifiableColumns.UID, objectUids).build();
-        return store.selectUidsWhere(storedObjectUidsWhereClause);
+        return new HashSet<>(store.selectUidsWhere(storedObjectUidsWhereClause));
     }
 
-    private List<String> syncedObjectUids(List<String> storedObjectUids) {
+    private List<String> syncedObjectUids(Collection<String> storedObjectUids) {
         if (!storedObjectUids.isEmpty()) {
             String syncedObjectUidsWhereClause2 = new WhereClauseBuilder()
                     .appendInKeyStringValues(IdentifiableColumns.UID, storedObjectUids)
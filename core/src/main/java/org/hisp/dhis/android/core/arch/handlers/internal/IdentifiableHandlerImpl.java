@@ -31,6 +31,13 @@ import org.hisp.dhis.android.core.arch.db.stores.internal.IdentifiableObjectStor
 import org.hisp.dhis.android.core.common.ObjectWithDeleteInterface;
 import org.hisp.dhis.android.core.common.ObjectWithUidInterface;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import androidx.annotation.Nullable;
+
 import static org.hisp.dhis.android.core.arch.helpers.CollectionsHelper.isDeleted;
 
 public class IdentifiableHandlerImpl<O extends ObjectWithUidInterface & ObjectWithDeleteInterface>
@@ -43,7 +50,7 @@ public class IdentifiableHandlerImpl<O extends ObjectWithUidInterface & ObjectWi
     }
 
     @Override
-    protected HandleAction deleteOrPersist(O o) {
+    protected final HandleAction deleteOrPersist(O o) {
         String modelUid = o.uid();
         if ((isDeleted(o) || deleteIfCondition(o)) && modelUid != null) {
             store.deleteIfExists(modelUid);
@@ -53,6 +60,45 @@ public class IdentifiableHandlerImpl<O extends ObjectWithUidInterface & ObjectWi
         }
     }
 
+    @Override
+    protected List<HandleAction> deleteOrPersist(List<O> objects) {
+        return deleteOrPersist(objects, null);
+    }
+
+    /**
+     * Applies {@link #deleteOrPersist(Object)} to a whole collection with a single bulk store call.
+     *
+     * @param objects objects already pre-handled.
+     * @param storedUids uids already stored, if the caller selected them, so the store does not query them again.
+     * @return the {@link HandleAction} applied to each object, in the same order.
+     */
+    protected final List<HandleAction> deleteOrPersist(List<O> objects, @Nullable Collection<String> storedUids) {
+        HandleAction[] actions = new HandleAction[objects.size()];
+        List<O> toPersist = new ArrayList<>(objects.size());
+        List<Integer> toPersistIndexes = new ArrayList<>(objects.size());
+
+        for (int i = 0; i < objects.size(); i++) {
+            O o = objects.get(i);
+            String modelUid = o.uid();
+            if ((isDeleted(o) || deleteIfCondition(o)) && modelUid != null) {
+                store.deleteIfExists(modelUid);
+                actions[i] = HandleAction.Delete;
+            } else {
+                toPersist.add(o);
+                toPersistIndexes.add(i);
+            }
+        }
+
+        if (!toPersist.isEmpty()) {
+            List<HandleAction> persistActions = storedUids == null ? store.updateOrInsert(toPersist)
+                    : store.updateOrInsert(toPersist, storedUids);
+            for (int i = 0; i < toPersistIndexes.size(); i++) {
+                actions[toPersistIndexes.get(i)] = persistActions.get(i);
+            }
+        }
+        return Arrays.asList(actions);
+    }
+
     protected boolean deleteIfCondition(O o) {
         return false;
     }
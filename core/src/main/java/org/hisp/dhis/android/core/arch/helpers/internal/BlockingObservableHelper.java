@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.arch.helpers.internal;
+
+import java.util.Iterator;
+
+import io.reactivex.Observable;
+import io.reactivex.disposables.Disposable;
+
+/**
+ * Helpers to consume, in the thread that owns the database, the results of calls executed on other schedulers.
+ */
+public final class BlockingObservableHelper {
+
+    private BlockingObservableHelper() {
+    }
+
+    /**
+     * Emits the items of the source in the subscribing thread, prefetching up to bufferSize items. The source
+     * subscription is disposed as soon as the returned observable terminates or is disposed, including when a
+     * downstream operator fails, so pending requests do not keep running in the background.
+     *
+     * @param source observable that may emit in other threads
+     * @param bufferSize number of items to prefetch
+     * @param <T> type of the items
+     * @return an observable emitting in the subscribing thread
+     */
+    public static <T> Observable<T> observeInSubscribingThread(Observable<T> source, int bufferSize) {
+        return Observable.using(
+                () -> source.blockingIterable(bufferSize).iterator(),
+                iterator -> Observable.fromIterable(() -> iterator),
+                BlockingObservableHelper::dispose);
+    }
+
+    /**
+     * Disposes the subscription behind an iterator obtained from {@link Observable#blockingIterable(int)}. To be
+     * called in a finally block when the iteration is abandoned before the end.
+     *
+     * @param iterator iterator of a blocking iterable
+     */
+    public static void dispose(Iterator<?> iterator) {
+        if (iterator instanceof Disposable) {
+            ((Disposable) iterator).dispose();
+        }
+    }
+}
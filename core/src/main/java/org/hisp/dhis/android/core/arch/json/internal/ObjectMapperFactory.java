@@ -31,11 +31,21 @@ package org.hisp.dhis.android.core.arch.json.internal;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 import org.hisp.dhis.android.core.common.BaseIdentifiableObject;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 public final class ObjectMapperFactory {
 
+    private static final ObjectMapper SHARED_OBJECT_MAPPER = objectMapper();
+
+    private static final ConcurrentMap<Class<?>, ObjectReader> READERS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Class<?>, ObjectWriter> WRITERS = new ConcurrentHashMap<>();
+
     private ObjectMapperFactory() {
     }
 
@@ -45,4 +55,43 @@ public final class ObjectMapperFactory {
                 .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
                 .setSerializationInclusion(JsonInclude.Include.NON_NULL);
     }
+
+    /**
+     * Returns the mapper shared by the whole process. It keeps the serializers and deserializers built for each type,
+     * so it must not be reconfigured; use {@link #objectMapper()} to get a mapper that can be customized.
+     */
+    public static ObjectMapper sharedObjectMapper() {
+        return SHARED_OBJECT_MAPPER;
+    }
+
+    public static ObjectReader objectReader(Class<?> clazz) {
+        ObjectReader reader = READERS.get(clazz);
+        if (reader == null) {
+            reader = SHARED_OBJECT_MAPPER.readerFor(clazz);
+            ObjectReader previous = READERS.putIfAbsent(clazz, reader);
+            return previous == null ? reader : previous;
+        }
+        return reader;
+    }
+
+    public static ObjectWriter objectWriter(Class<?> clazz) {
+        ObjectWriter writer = WRITERS.get(clazz);
+        if (writer == null) {
+            writer = SHARED_OBJECT_MAPPER.writerFor(clazz);
+            ObjectWriter previous = WRITERS.putIfAbsent(clazz, writer);
+            return previous == null ? writer : previous;
+        }
+        return writer;
+    }
+
+    /**
+     * Builds in advance the readers and writers of the given types, so the first call that uses them doesn't pay
+     * the cost of introspecting the classes.
+     */
+    public static void warmUp(Class<?>... classes) {
+        for (Class<?> clazz : classes) {
+            objectReader(clazz);
+            objectWriter(clazz);
+        }
+    }
 }
\ No newline at end of file
@@ -25,18 +25,29 @@
  * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
+
 package org.hisp.dhis.android.core.arch.repositories.children.internal;
 
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.List;
 
 public abstract class ChildrenAppender<M> {
 
-    @SuppressWarnings("PMD.EmptyMethodInAbstractClassShouldBeAbstract")
-    protected void prepareChildren(Collection<M> collection) {
-        /* Method is not abstract since empty action is the default action and we don't want it to
-         * be unnecessarily written in every child.
-         */
+    /**
+     * Appends the children to every object of the list. Objects are appended one by one by default. Appenders that
+     * load the children of the whole list at once override it, keeping what they load local to the call: appenders
+     * are shared by all the repositories of a type and may be used from several threads at the same time.
+     *
+     * @param list the objects whose children will be appended.
+     * @return the objects with their children, in the same order.
+     */
+    protected List<M> appendChildren(List<M> list) {
+        List<M> withChildren = new ArrayList<>(list.size());
+        for (M m : list) {
+            withChildren.add(appendChildren(m));
+        }
+        return withChildren;
     }
 
     protected abstract M appendChildren(M m);
-}
\ No newline at end of file
+}
@@ -31,7 +31,6 @@ import org.hisp.dhis.android.core.common.CoreObject;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -48,7 +47,6 @@ public final class ChildrenAppenderExecutor {
         } else {
             M mWithChildren = m;
             for (ChildrenAppender<M> appender : getSelectedChildrenAppenders(childrenAppenders, childrenSelection)) {
-                appender.prepareChildren(Collections.singleton(mWithChildren));
                 mWithChildren = appender.appendChildren(mWithChildren);
             }
             return mWithChildren;
@@ -59,22 +57,11 @@ public final class ChildrenAppenderExecutor {
             List<M> list, Map<String, ChildrenAppender<M>> childrenAppenders, ChildrenSelection childrenSelection) {
 
 
-        Collection<ChildrenAppender<M>> selectedAppenders
-                = getSelectedChildrenAppenders(childrenAppenders, childrenSelection);
-
-        for (ChildrenAppender<M> appender : selectedAppenders) {
-            appender.prepareChildren(list);
-        }
-
-        List<M> setWithChildren = new ArrayList<>(list.size());
-        for (M m : list) {
-            M mWithChildren = m;
-            for (ChildrenAppender<M> appender : selectedAppenders) {
-                mWithChildren = appender.appendChildren(mWithChildren);
-            }
-            setWithChildren.add(mWithChildren);
+        List<M> withChildren = list;
+        for (ChildrenAppender<M> appender : getSelectedChildrenAppenders(childrenAppenders, childrenSelection)) {
+            withChildren = appender.appendChildren(withChildren);
         }
-        return setWithChildren;
+        return withChildren;
     }
 
     private static <M extends CoreObject> Collection<ChildrenAppender<M>> getSelectedChildrenAppenders(
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.arch.repositories.children.internal;
+
+import org.hisp.dhis.android.core.arch.db.stores.internal.SingleParentChildStore;
+import org.hisp.dhis.android.core.common.ObjectWithUidInterface;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public abstract class SingleParentChildrenAppender<P extends ObjectWithUidInterface, C> extends ChildrenAppender<P> {
+
+    private final SingleParentChildStore<P, C> childStore;
+
+    protected SingleParentChildrenAppender(SingleParentChildStore<P, C> childStore) {
+        this.childStore = childStore;
+    }
+
+    /**
+     * Loads the children of every parent of the collection in as few queries as possible.
+     *
+     * @param collection the parents whose children will be appended.
+     * @return the children grouped by parent uid.
+     */
+    protected final Map<String, List<C>> prepareChildren(Collection<P> collection) {
+        return childStore.getChildrenByParentUid(collection);
+    }
+
+    protected abstract P appendChildren(P parent, List<C> children);
+
+    @Override
+    protected final P appendChildren(P parent) {
+        return appendChildren(parent, childStore.getChildren(parent));
+    }
+
+    @Override
+    protected final List<P> appendChildren(List<P> list) {
+        Map<String, List<C>> childrenByParentUid = prepareChildren(list);
+        List<P> withChildren = new ArrayList<>(list.size());
+        for (P parent : list) {
+            withChildren.add(appendChildren(parent, childrenByParentUid.get(parent.uid())));
+        }
+        return withChildren;
+    }
+}
@@ -28,12 +28,15 @@
 package org.hisp.dhis.android.core.arch.repositories.collection;
 
 import org.hisp.dhis.android.core.arch.repositories.object.ReadOnlyObjectRepository;
+import org.hisp.dhis.android.core.arch.repositories.paging.RepositoryPage;
 import org.hisp.dhis.android.core.common.CoreObject;
 
 import java.util.List;
 
+import androidx.annotation.Nullable;
 import androidx.lifecycle.LiveData;
 import androidx.paging.PagedList;
+import io.reactivex.Flowable;
 import io.reactivex.Single;
 
 public interface ReadOnlyCollectionRepository<M extends CoreObject> extends BaseRepository {
@@ -53,6 +56,25 @@ public interface ReadOnlyCollectionRepository<M extends CoreObject> extends Base
      */
     List<M> blockingGet();
 
+    /**
+     * Get the objects in scope as a {@code Flowable} that reads them lazily from the database, so big selections can
+     * be processed in constant memory. Objects are read on demand, respecting backpressure, and the underlying cursor
+     * is closed when the {@code Flowable} completes, fails or is cancelled.
+     *
+     * @return A {@code Flowable} with the objects in scope.
+     */
+    Flowable<M> iterate();
+
+    /**
+     * Get the objects in scope as an {@code Iterable} that reads them lazily from the database. Important: this is a
+     * blocking method and it should not be executed in the main thread. The underlying cursor is closed when the
+     * iteration reaches the end. If the iteration might be stopped before, the iterable must be closed, preferably in
+     * a try-with-resources statement.
+     *
+     * @return Closeable iterable of objects
+     */
+    CloseableIterable<M> blockingIterate();
+
     /**
      * Handy method to use in conjunction with PagedListAdapter to build paged lists.
      *
@@ -61,6 +83,38 @@ public interface ReadOnlyCollectionRepository<M extends CoreObject> extends Base
      */
     LiveData<PagedList<M>> getPaged(int pageSize);
 
+    /**
+     * Get a page of objects in a synchronous way, using the same keyset pagination as {@link #getPaged(int)}: the page
+     * is selected by comparing the sorting columns with the key, so the cost of a page does not depend on its
+     * position. Important: this is a blocking method and it should not be executed in the main thread.
+     *
+     * @param afterKey {@link RepositoryPage#nextKey()} of the previous page, or null to get the first page
+     * @param pageSize Length of the page, greater than zero
+     * @return The page of objects
+     * @throws IllegalArgumentException if the page size is not greater than zero
+     */
+    RepositoryPage<M> blockingGetPage(@Nullable M afterKey, int pageSize);
+
+    /**
+     * Get a page of objects in an asynchronous way, returning a {@code Single<RepositoryPage>}.
+     *
+     * @param afterKey {@link RepositoryPage#nextKey()} of the previous page, or null to get the first page
+     * @param pageSize Length of the page, greater than zero
+     * @return A {@code Single} object with the page of objects
+     * @throws IllegalArgumentException if the page size is not greater than zero
+     */
+    Single<RepositoryPage<M>> getPage(@Nullable M afterKey, int pageSize);
+
+    /**
+     * Get all the objects in scope as a {@code Flowable} of pages, read one after the other with
+     * {@link #blockingGetPage(CoreObject, int)}. It allows walking big selections without loading them in memory.
+     *
+     * @param pageSize Length of the pages, greater than zero
+     * @return A {@code Flowable} with the non empty pages
+     * @throws IllegalArgumentException if the page size is not greater than zero
+     */
+    Flowable<List<M>> pages(int pageSize);
+
     /**
      * Get the count of elements in an asynchronous way, returning a {@code Single}.
      * @return A {@code Single} object with the element count
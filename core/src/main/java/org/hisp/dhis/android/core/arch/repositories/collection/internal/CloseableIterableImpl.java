@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.arch.repositories.collection.internal;
+
+import org.hisp.dhis.android.core.arch.helpers.internal.BlockingObservableHelper;
+import org.hisp.dhis.android.core.arch.repositories.collection.CloseableIterable;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import io.reactivex.Flowable;
+
+public final class CloseableIterableImpl<T> implements CloseableIterable<T> {
+
+    private final Flowable<T> flowable;
+    private final List<Iterator<T>> iterators = new ArrayList<>();
+    private boolean closed;
+
+    public CloseableIterableImpl(Flowable<T> flowable) {
+        this.flowable = flowable;
+    }
+
+    @Override
+    public synchronized Iterator<T> iterator() {
+        if (closed) {
+            throw new IllegalStateException("Iterable already closed");
+        }
+        Iterator<T> iterator = flowable.blockingIterable().iterator();
+        iterators.add(iterator);
+        return iterator;
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        for (Iterator<T> iterator : iterators) {
+            BlockingObservableHelper.dispose(iterator);
+        }
+        iterators.clear();
+    }
+}
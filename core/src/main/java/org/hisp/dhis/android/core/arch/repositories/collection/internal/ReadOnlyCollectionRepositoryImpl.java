@@ -32,15 +32,18 @@ import androidx.paging.DataSource;
 import androidx.paging.LivePagedListBuilder;
 import androidx.paging.PagedList;
 
+import org.hisp.dhis.android.core.arch.db.querybuilders.internal.BoundWhereClause;
 import org.hisp.dhis.android.core.arch.db.querybuilders.internal.OrderByClauseBuilder;
 import org.hisp.dhis.android.core.arch.db.querybuilders.internal.WhereClauseBuilder;
 import org.hisp.dhis.android.core.arch.db.stores.internal.ReadableStore;
 import org.hisp.dhis.android.core.arch.repositories.children.internal.ChildrenAppender;
 import org.hisp.dhis.android.core.arch.repositories.children.internal.ChildrenAppenderExecutor;
+import org.hisp.dhis.android.core.arch.repositories.collection.CloseableIterable;
 import org.hisp.dhis.android.core.arch.repositories.collection.ReadOnlyCollectionRepository;
 import org.hisp.dhis.android.core.arch.repositories.filters.internal.FilterConnectorFactory;
 import org.hisp.dhis.android.core.arch.repositories.object.ReadOnlyObjectRepository;
 import org.hisp.dhis.android.core.arch.repositories.object.ReadOnlyOneObjectRepositoryFinalImpl;
+import org.hisp.dhis.android.core.arch.repositories.paging.RepositoryPage;
 import org.hisp.dhis.android.core.arch.repositories.paging.internal.RepositoryDataSource;
 import org.hisp.dhis.android.core.arch.repositories.scope.RepositoryScope;
 import org.hisp.dhis.android.core.arch.repositories.scope.internal.WhereClauseFromScopeBuilder;
@@ -49,12 +52,16 @@ import org.hisp.dhis.android.core.common.CoreObject;
 import java.util.List;
 import java.util.Map;
 
+import androidx.annotation.Nullable;
+import io.reactivex.Flowable;
 import io.reactivex.Single;
 
 public class ReadOnlyCollectionRepositoryImpl<M extends CoreObject, R extends ReadOnlyCollectionRepository<M>>
         extends BaseRepositoryImpl<R>
         implements ReadOnlyCollectionRepository<M> {
 
+    private static final int ITERATION_CHUNK_SIZE = 100;
+
     private final ReadableStore<M> store;
     protected final Map<String, ChildrenAppender<M>> childrenAppenders;
 
@@ -68,10 +75,30 @@ public class ReadOnlyCollectionRepositoryImpl<M extends CoreObject, R extends Re
     }
 
     protected List<M> blockingGetWithoutChildren() {
-        return store.selectWhere(getWhereClause(), OrderByClauseBuilder.orderByFromItems(scope.orderBy(),
+        return store.selectWhere(getBoundWhereClause(), OrderByClauseBuilder.orderByFromItems(scope.orderBy(),
                 scope.pagingKey()));
     }
 
+    @Override
+    public Flowable<M> iterate() {
+        Flowable<M> withoutChildren = store.iterateWhere(getBoundWhereClause(),
+                OrderByClauseBuilder.orderByFromItems(scope.orderBy(), scope.pagingKey()));
+        if (scope.children().children.isEmpty()) {
+            return withoutChildren;
+        } else {
+            return withoutChildren
+                    .buffer(ITERATION_CHUNK_SIZE)
+                    .concatMapIterable(chunk ->
+                            ChildrenAppenderExecutor.appendInObjectCollection(chunk, childrenAppenders,
+                                    scope.children()));
+        }
+    }
+
+    @Override
+    public CloseableIterable<M> blockingIterate() {
+        return new CloseableIterableImpl<>(iterate());
+    }
+
     /**
      * Get a {@link ReadOnlyObjectRepository} pointing to the first element in the list.
      *
@@ -126,6 +153,56 @@ public class ReadOnlyCollectionRepositoryImpl<M extends CoreObject, R extends Re
         return new RepositoryDataSource<>(store, scope, childrenAppenders);
     }
 
+    @Override
+    public RepositoryPage<M> blockingGetPage(@Nullable M afterKey, int pageSize) {
+        checkPageSize(pageSize);
+        WhereClauseBuilder whereClauseBuilder = new WhereClauseBuilder();
+        if (afterKey != null) {
+            OrderByClauseBuilder.addSortingClauses(whereClauseBuilder, scope.orderBy(),
+                    afterKey.toContentValues(), false, scope.pagingKey());
+        }
+        BoundWhereClause whereClause = new WhereClauseFromScopeBuilder(whereClauseBuilder).getBoundWhereClause(scope);
+        List<M> withoutChildren = store.selectWhere(whereClause,
+                OrderByClauseBuilder.orderByFromItems(scope.orderBy(), scope.pagingKey()), pageSize + 1);
+
+        boolean hasNext = withoutChildren.size() > pageSize;
+        List<M> pageWithoutChildren = hasNext ? withoutChildren.subList(0, pageSize) : withoutChildren;
+        M nextKey = hasNext ? pageWithoutChildren.get(pageSize - 1) : null;
+
+        return new RepositoryPage<>(ChildrenAppenderExecutor.appendInObjectCollection(pageWithoutChildren,
+                childrenAppenders, scope.children()), nextKey);
+    }
+
+    @Override
+    public Single<RepositoryPage<M>> getPage(@Nullable M afterKey, int pageSize) {
+        checkPageSize(pageSize);
+        return Single.fromCallable(() -> blockingGetPage(afterKey, pageSize));
+    }
+
+    @Override
+    public Flowable<List<M>> pages(int pageSize) {
+        checkPageSize(pageSize);
+        return Flowable.generate(
+                () -> blockingGetPage(null, pageSize),
+                (page, emitter) -> {
+                    if (!page.items().isEmpty()) {
+                        emitter.onNext(page.items());
+                    }
+                    if (page.hasNext()) {
+                        return blockingGetPage(page.nextKey(), pageSize);
+                    } else {
+                        emitter.onComplete();
+                        return page;
+                    }
+                });
+    }
+
+    private static void checkPageSize(int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be greater than zero: " + pageSize);
+        }
+    }
+
     /**
      * Get the count of elements in an asynchronous way, returning a {@code Single}.
      * @return A {@code Single} object with the element count
@@ -143,7 +220,7 @@ public class ReadOnlyCollectionRepositoryImpl<M extends CoreObject, R extends Re
      */
     @Override
     public int blockingCount() {
-        return store.countWhere(getWhereClause());
+        return store.countWhere(getBoundWhereClause());
     }
 
     /**
@@ -171,4 +248,8 @@ public class ReadOnlyCollectionRepositoryImpl<M extends CoreObject, R extends Re
     protected String getWhereClause() {
         return new WhereClauseFromScopeBuilder(new WhereClauseBuilder()).getWhereClause(scope);
     }
+
+    protected BoundWhereClause getBoundWhereClause() {
+        return new WhereClauseFromScopeBuilder(new WhereClauseBuilder()).getBoundWhereClause(scope);
+    }
 }
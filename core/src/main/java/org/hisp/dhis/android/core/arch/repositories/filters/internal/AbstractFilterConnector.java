@@ -57,13 +57,24 @@ abstract class AbstractFilterConnector<R extends BaseRepository, V> {
 
     abstract String wrapValue(V value);
 
+    /**
+     * Returns the value to bind as a query argument in place of the wrapped one, or null if it has to be inlined.
+     */
+    String argValue(V value) {
+        return null;
+    }
+
     RepositoryScope updatedUnwrappedScope(FilterItemOperator operator, String valueStr) {
+        return updatedUnwrappedScope(operator, valueStr, null);
+    }
+
+    private RepositoryScope updatedUnwrappedScope(FilterItemOperator operator, String valueStr, String arg) {
         return RepositoryScopeHelper.withFilterItem(scope,
-                RepositoryScopeFilterItem.builder().key(key).operator(operator).value(valueStr).build());
+                RepositoryScopeFilterItem.builder().key(key).operator(operator).value(valueStr).arg(arg).build());
     }
 
     R newWithWrappedScope(FilterItemOperator operator, V value) {
-        return repositoryFactory.updated(updatedUnwrappedScope(operator, wrapValue(value)));
+        return repositoryFactory.updated(updatedUnwrappedScope(operator, wrapValue(value), argValue(value)));
     }
 
     RepositoryScope updatePassedScope(FilterItemOperator operator, String valueStr, RepositoryScope scope) {
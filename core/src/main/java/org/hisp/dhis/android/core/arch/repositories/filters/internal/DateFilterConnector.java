@@ -98,6 +98,11 @@ public final class DateFilterConnector<R extends BaseRepository> extends BaseAbs
     }
 
     protected String wrapValue(Date value) {
-        return "'" + BaseIdentifiableObject.DATE_FORMAT.format(value) + "'";
+        return "'" + argValue(value) + "'";
+    }
+
+    @Override
+    String argValue(Date value) {
+        return BaseIdentifiableObject.DATE_FORMAT.format(value);
     }
 }
\ No newline at end of file
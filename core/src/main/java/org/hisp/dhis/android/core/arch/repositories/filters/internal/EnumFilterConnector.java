@@ -44,4 +44,9 @@ public final class EnumFilterConnector<R extends BaseRepository, E extends Enum<
     String wrapValue(E value) {
         return "'" + value.name() + "'";
     }
+
+    @Override
+    String argValue(E value) {
+        return value.name();
+    }
 }
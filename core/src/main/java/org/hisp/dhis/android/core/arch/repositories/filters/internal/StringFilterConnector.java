@@ -56,4 +56,9 @@ public final class StringFilterConnector<R extends BaseRepository>
     String wrapValue(String value) {
         return "'" + escapeQuotes(value) + "'";
     }
+
+    @Override
+    String argValue(String value) {
+        return value;
+    }
 }
\ No newline at end of file
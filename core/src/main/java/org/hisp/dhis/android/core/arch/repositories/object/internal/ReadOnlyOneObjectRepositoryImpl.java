@@ -52,6 +52,6 @@ public class ReadOnlyOneObjectRepositoryImpl<M extends CoreObject, R extends Rea
 
     protected M blockingGetWithoutChildren() {
         WhereClauseFromScopeBuilder whereClauseBuilder = new WhereClauseFromScopeBuilder(new WhereClauseBuilder());
-        return store.selectOneWhere(whereClauseBuilder.getWhereClause(scope));
+        return store.selectOneWhere(whereClauseBuilder.getBoundWhereClause(scope));
     }
 }
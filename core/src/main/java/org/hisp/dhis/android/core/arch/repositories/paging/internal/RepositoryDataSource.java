@@ -30,6 +30,7 @@ package org.hisp.dhis.android.core.arch.repositories.paging.internal;
 import androidx.annotation.NonNull;
 import androidx.paging.ItemKeyedDataSource;
 
+import org.hisp.dhis.android.core.arch.db.querybuilders.internal.BoundWhereClause;
 import org.hisp.dhis.android.core.arch.db.querybuilders.internal.OrderByClauseBuilder;
 import org.hisp.dhis.android.core.arch.db.querybuilders.internal.WhereClauseBuilder;
 import org.hisp.dhis.android.core.arch.db.stores.internal.ReadableStore;
@@ -58,7 +59,8 @@ public final class RepositoryDataSource<M extends CoreObject> extends ItemKeyedD
 
     @Override
     public void loadInitial(@NonNull LoadInitialParams<M> params, @NonNull LoadInitialCallback<M> callback) {
-        String whereClause = new WhereClauseFromScopeBuilder(new WhereClauseBuilder()).getWhereClause(scope);
+        BoundWhereClause whereClause =
+                new WhereClauseFromScopeBuilder(new WhereClauseBuilder()).getBoundWhereClause(scope);
         List<M> withoutChildren = store.selectWhere(whereClause,
                 OrderByClauseBuilder.orderByFromItems(scope.orderBy(), scope.pagingKey()), params.requestedLoadSize);
         callback.onResult(appendChildren(withoutChildren));
@@ -78,7 +80,7 @@ public final class RepositoryDataSource<M extends CoreObject> extends ItemKeyedD
         WhereClauseBuilder whereClauseBuilder = new WhereClauseBuilder();
         OrderByClauseBuilder.addSortingClauses(whereClauseBuilder, scope.orderBy(),
                 params.key.toContentValues(), reversed, scope.pagingKey());
-        String whereClause = new WhereClauseFromScopeBuilder(whereClauseBuilder).getWhereClause(scope);
+        BoundWhereClause whereClause = new WhereClauseFromScopeBuilder(whereClauseBuilder).getBoundWhereClause(scope);
         List<M> withoutChildren = store.selectWhere(whereClause,
                 OrderByClauseBuilder.orderByFromItems(scope.orderBy(), scope.pagingKey()),
                 params.requestedLoadSize);
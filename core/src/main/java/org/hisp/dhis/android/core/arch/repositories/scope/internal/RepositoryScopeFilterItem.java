@@ -29,6 +29,7 @@
 package org.hisp.dhis.android.core.arch.repositories.scope.internal;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.google.auto.value.AutoValue;
 
@@ -44,6 +45,13 @@ public abstract class RepositoryScopeFilterItem {
     @NonNull
     public abstract String value();
 
+    /**
+     * Value to bind as a query argument instead of the inline {@link #value()}, when the filter compares the key with
+     * a single literal.
+     */
+    @Nullable
+    public abstract String arg();
+
     public static Builder builder() {
         return new AutoValue_RepositoryScopeFilterItem.Builder();
     }
@@ -57,6 +65,8 @@ public abstract class RepositoryScopeFilterItem {
 
         public abstract Builder value(String value);
 
+        public abstract Builder arg(String arg);
+
         public abstract RepositoryScopeFilterItem build();
     }
 }
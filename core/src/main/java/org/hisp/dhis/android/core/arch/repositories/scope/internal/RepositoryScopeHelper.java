@@ -50,6 +50,7 @@ public final class RepositoryScopeHelper {
                 .key(IdentifiableColumns.UID)
                 .operator(FilterItemOperator.EQ)
                 .value("'" + uid + "'")
+                .arg(uid)
                 .build();
 
         return RepositoryScopeHelper.withFilterItem(scope, filterItem);
@@ -28,6 +28,7 @@
 
 package org.hisp.dhis.android.core.arch.repositories.scope.internal;
 
+import org.hisp.dhis.android.core.arch.db.querybuilders.internal.BoundWhereClause;
 import org.hisp.dhis.android.core.arch.db.querybuilders.internal.WhereClauseBuilder;
 import org.hisp.dhis.android.core.arch.repositories.scope.RepositoryScope;
 
@@ -48,10 +49,37 @@ public class WhereClauseFromScopeBuilder {
             builder.appendKeyOperatorValue(item.key(), item.operator().getSqlOperator(), item.value());
         }
 
+        appendComplexFilters(scope);
+
+        return builder.build();
+    }
+
+    /**
+     * Same as {@link #getWhereClause(RepositoryScope)}, but binding the filter values that carry an argument instead of
+     * inlining them, so the same SQL is reused for any filter value. The arguments of the clauses previously added to
+     * the builder are kept.
+     */
+    public BoundWhereClause getBoundWhereClause(RepositoryScope scope) {
+        if (!scope.hasFilters() && builder.isEmpty()) {
+            return BoundWhereClause.create("1");
+        }
+
+        for (RepositoryScopeFilterItem item: scope.filters()) {
+            if (item.arg() == null) {
+                builder.appendKeyOperatorValue(item.key(), item.operator().getSqlOperator(), item.value());
+            } else {
+                builder.appendKeyOperatorArg(item.key(), item.operator().getSqlOperator(), item.arg());
+            }
+        }
+
+        appendComplexFilters(scope);
+
+        return builder.buildBound();
+    }
+
+    private void appendComplexFilters(RepositoryScope scope) {
         for (RepositoryScopeComplexFilterItem item: scope.complexFilters()) {
             builder.appendComplexQuery(item.whereQuery());
         }
-
-        return builder.build();
     }
-}
\ No newline at end of file
+}
@@ -51,7 +51,7 @@ public class JsonKeyValueStoreImpl<O> implements ObjectKeyValueStore<O> {
 
     public void set(O o) {
         try {
-            String strObject = ObjectMapperFactory.objectMapper().writeValueAsString(o);
+            String strObject = ObjectMapperFactory.objectWriter(o.getClass()).writeValueAsString(o);
             this.secureStore.setData(key, strObject);
             this.object = o;
         } catch (JsonProcessingException e) {
@@ -66,7 +66,7 @@ public class JsonKeyValueStoreImpl<O> implements ObjectKeyValueStore<O> {
                 return null;
             } else {
                 try {
-                    return ObjectMapperFactory.objectMapper().readValue(strObject, clazz);
+                    return ObjectMapperFactory.objectReader(clazz).readValue(strObject);
                 } catch (IOException e) {
                     throw new RuntimeException("Couldn't read object from key value store");
                 }
@@ -31,22 +31,22 @@ import org.hisp.dhis.android.core.arch.db.access.DatabaseAdapter;
 import org.hisp.dhis.android.core.arch.db.stores.internal.SingleParentChildStore;
 import org.hisp.dhis.android.core.arch.db.stores.internal.StoreFactory;
 import org.hisp.dhis.android.core.arch.repositories.children.internal.ChildrenAppender;
+import org.hisp.dhis.android.core.arch.repositories.children.internal.SingleParentChildrenAppender;
 import org.hisp.dhis.android.core.dataset.DataInputPeriod;
 import org.hisp.dhis.android.core.dataset.DataSet;
 
-final class DataInputPeriodChildrenAppender extends ChildrenAppender<DataSet> {
+import java.util.List;
 
-
-    private final SingleParentChildStore<DataSet, DataInputPeriod> childStore;
+final class DataInputPeriodChildrenAppender extends SingleParentChildrenAppender<DataSet, DataInputPeriod> {
 
     private DataInputPeriodChildrenAppender(SingleParentChildStore<DataSet, DataInputPeriod> childStore) {
-        this.childStore = childStore;
+        super(childStore);
     }
 
     @Override
-    protected DataSet appendChildren(DataSet dataSet) {
+    protected DataSet appendChildren(DataSet dataSet, List<DataInputPeriod> children) {
         DataSet.Builder builder = dataSet.toBuilder();
-        builder.dataInputPeriods(childStore.getChildren(dataSet));
+        builder.dataInputPeriods(children);
         return builder.build();
     }
 
@@ -32,26 +32,27 @@ import org.hisp.dhis.android.core.arch.db.stores.internal.SingleParentChildStore
 import org.hisp.dhis.android.core.arch.db.stores.internal.StoreFactory;
 import org.hisp.dhis.android.core.arch.db.stores.projections.internal.SingleParentChildProjection;
 import org.hisp.dhis.android.core.arch.repositories.children.internal.ChildrenAppender;
+import org.hisp.dhis.android.core.arch.repositories.children.internal.SingleParentChildrenAppender;
 import org.hisp.dhis.android.core.dataset.DataSet;
 import org.hisp.dhis.android.core.dataset.DataSetElement;
 import org.hisp.dhis.android.core.dataset.DataSetElementLinkTableInfo;
 
-final class DataSetElementChildrenAppender extends ChildrenAppender<DataSet> {
+import java.util.List;
+
+final class DataSetElementChildrenAppender extends SingleParentChildrenAppender<DataSet, DataSetElement> {
 
     private static final SingleParentChildProjection CHILD_PROJECTION = new SingleParentChildProjection(
             DataSetElementLinkTableInfo.TABLE_INFO,
             DataSetElementLinkTableInfo.Columns.DATA_SET);
 
-    private final SingleParentChildStore<DataSet, DataSetElement> childStore;
-
     private DataSetElementChildrenAppender(SingleParentChildStore<DataSet, DataSetElement> childStore) {
-        this.childStore = childStore;
+        super(childStore);
     }
 
     @Override
-    protected DataSet appendChildren(DataSet dataSet) {
+    protected DataSet appendChildren(DataSet dataSet, List<DataSetElement> children) {
         DataSet.Builder builder = dataSet.toBuilder();
-        builder.dataSetElements(childStore.getChildren(dataSet));
+        builder.dataSetElements(children);
         return builder.build();
     }
 
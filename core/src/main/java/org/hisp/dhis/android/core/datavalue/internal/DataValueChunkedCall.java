@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.datavalue.internal;
+
+import org.hisp.dhis.android.core.arch.call.fetchers.internal.CallFetcher;
+import org.hisp.dhis.android.core.arch.call.processors.internal.CallProcessor;
+import org.hisp.dhis.android.core.arch.db.querybuilders.internal.WhereClauseBuilder;
+import org.hisp.dhis.android.core.arch.db.stores.internal.LinkStore;
+import org.hisp.dhis.android.core.arch.db.stores.internal.ObjectStore;
+import org.hisp.dhis.android.core.arch.helpers.internal.BlockingObservableHelper;
+import org.hisp.dhis.android.core.dataset.DataSetElement;
+import org.hisp.dhis.android.core.dataset.DataSetElementLinkTableInfo;
+import org.hisp.dhis.android.core.datavalue.DataValue;
+import org.hisp.dhis.android.core.maintenance.D2Error;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.inject.Inject;
+
+import dagger.Reusable;
+import io.reactivex.Flowable;
+import io.reactivex.Observable;
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * Downloads the data values of a query split in chunks of organisation units and periods. The size of the chunks is
+ * chosen so each of them has an estimated number of values below a maximum, assuming one value per data element of
+ * the data sets for each organisation unit and period.
+ */
+@Reusable
+public final class DataValueChunkedCall {
+
+    static final int DEFAULT_MAX_VALUES_PER_CHUNK = 10000;
+    static final int DEFAULT_CONCURRENCY = 3;
+
+    private final DataValueEndpointCallFactory callFactory;
+    private final LinkStore<DataSetElement> dataSetElementStore;
+    private final ObjectStore<D2Error> errorStore;
+
+    @Inject
+    DataValueChunkedCall(DataValueEndpointCallFactory callFactory,
+                         LinkStore<DataSetElement> dataSetElementStore,
+                         ObjectStore<D2Error> errorStore) {
+        this.callFactory = callFactory;
+        this.dataSetElementStore = dataSetElementStore;
+        this.errorStore = errorStore;
+    }
+
+    /**
+     * Chunks are fetched concurrently on the io scheduler, and each of them is persisted on the subscribing thread as
+     * soon as it's downloaded. The io threads don't access the database, as the subscribing thread may hold a
+     * transaction: fetchers are prepared and download errors are stored by the subscribing thread.
+     *
+     * @param query the data value query
+     * @return the number of values persisted for each chunk
+     */
+    public Observable<Integer> download(DataValueQuery query) {
+        return download(query, DEFAULT_MAX_VALUES_PER_CHUNK, DEFAULT_CONCURRENCY);
+    }
+
+    public Observable<Integer> download(DataValueQuery query, int maxValuesPerChunk, int concurrency) {
+        return Observable.create(emitter -> {
+            String dataSetElementsClause = new WhereClauseBuilder()
+                    .appendInKeyStringValues(DataSetElementLinkTableInfo.Columns.DATA_SET, query.dataSetUids())
+                    .build();
+            List<DataValueQuery> chunks = split(query, dataSetElementStore.countWhere(dataSetElementsClause),
+                    maxValuesPerChunk);
+
+            List<CallFetcher<DataValue>> fetchers = new ArrayList<>(chunks.size());
+            for (DataValueQuery chunk : chunks) {
+                fetchers.add(callFactory.detachedFetcher(chunk));
+            }
+
+            Iterator<ChunkValues> chunkValues = Flowable.fromIterable(fetchers)
+                    .flatMap(fetcher -> Flowable.fromCallable(() -> fetch(fetcher))
+                            .subscribeOn(Schedulers.io()), false, concurrency, 1)
+                    .blockingIterable(1)
+                    .iterator();
+
+            CallProcessor<DataValue> processor = callFactory.processor(query);
+            try {
+                while (chunkValues.hasNext()) {
+                    ChunkValues chunk = chunkValues.next();
+                    if (chunk.error != null) {
+                        errorStore.insert(chunk.error);
+                        throw chunk.error;
+                    }
+                    processor.process(chunk.values);
+                    emitter.onNext(chunk.values.size());
+                }
+            } finally {
+                BlockingObservableHelper.dispose(chunkValues);
+            }
+            emitter.onComplete();
+        });
+    }
+
+    private static ChunkValues fetch(CallFetcher<DataValue> fetcher) {
+        try {
+            return new ChunkValues(fetcher.fetch());
+        } catch (D2Error d2Error) {
+            return new ChunkValues(d2Error);
+        }
+    }
+
+    static List<DataValueQuery> split(DataValueQuery query, int valuesPerOrgUnitAndPeriod, int maxValuesPerChunk) {
+        if (query.orgUnitUids().isEmpty() || query.periodIds().isEmpty()) {
+            return Collections.singletonList(query);
+        }
+
+        int maxOrgUnitsAndPeriods = Math.max(1, maxValuesPerChunk / Math.max(1, valuesPerOrgUnitAndPeriod));
+        int periodChunkSize = Math.min(query.periodIds().size(), maxOrgUnitsAndPeriods);
+        int orgUnitChunkSize = Math.max(1, maxOrgUnitsAndPeriods / periodChunkSize);
+
+        List<DataValueQuery> chunks = new ArrayList<>();
+        for (List<String> orgUnitUids : partition(query.orgUnitUids(), orgUnitChunkSize)) {
+            for (List<String> periodIds : partition(query.periodIds(), periodChunkSize)) {
+                chunks.add(DataValueQuery.create(query.dataSetUids(), periodIds, orgUnitUids));
+            }
+        }
+        return chunks;
+    }
+
+    private static List<List<String>> partition(Collection<String> values, int size) {
+        List<String> list = new ArrayList<>(values);
+        List<List<String>> partitions = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += size) {
+            partitions.add(list.subList(from, Math.min(list.size(), from + size)));
+        }
+        return partitions;
+    }
+
+    private static final class ChunkValues {
+        private final List<DataValue> values;
+        private final D2Error error;
+
+        private ChunkValues(List<DataValue> values) {
+            this.values = values;
+            this.error = null;
+        }
+
+        private ChunkValues(D2Error error) {
+            this.values = null;
+            this.error = error;
+        }
+    }
+}
@@ -68,19 +68,37 @@ final class DataValueEndpointCallFactory extends QueryCallFactoryImpl<DataValue,
         return new PayloadResourceCallFetcher<DataValue>(data.resourceHandler(), resourceType, apiCallExecutor) {
             @Override
             protected retrofit2.Call<Payload<DataValue>> getCall(String lastUpdated) {
-                return dataValueService.getDataValues(
-                        DataValueFields.allFields,
-                        DataValueFields.lastUpdated.gt(lastUpdated),
-                        commaSeparatedCollectionValues(query.dataSetUids()),
-                        commaSeparatedCollectionValues(query.periodIds()),
-                        commaSeparatedCollectionValues(query.orgUnitUids()),
-                        Boolean.TRUE,
-                        Boolean.FALSE,
-                        Boolean.TRUE);
+                return getDataValues(dataValueService, query, lastUpdated);
             }
         };
     }
 
+    /**
+     * Same as {@link #fetcher(DataValueQuery)}, but the last updated date is read in the calling thread and the errors
+     * are not stored, so the returned fetcher doesn't access the database and can be executed in any thread.
+     */
+    CallFetcher<DataValue> detachedFetcher(DataValueQuery query) {
+        DataValueService dataValueService = data.retrofit().create(DataValueService.class);
+        retrofit2.Call<Payload<DataValue>> call = getDataValues(dataValueService, query,
+                data.resourceHandler().getLastUpdated(resourceType));
+
+        return () -> apiCallExecutor.executePayloadCall(call, false);
+    }
+
+    private retrofit2.Call<Payload<DataValue>> getDataValues(DataValueService dataValueService,
+                                                             DataValueQuery query,
+                                                             String lastUpdated) {
+        return dataValueService.getDataValues(
+                DataValueFields.allFields,
+                DataValueFields.lastUpdated.gt(lastUpdated),
+                commaSeparatedCollectionValues(query.dataSetUids()),
+                commaSeparatedCollectionValues(query.periodIds()),
+                commaSeparatedCollectionValues(query.orgUnitUids()),
+                Boolean.TRUE,
+                Boolean.FALSE,
+                Boolean.TRUE);
+    }
+
     @Override
     protected CallProcessor<DataValue> processor(DataValueQuery query) {
         return new TransactionalNoResourceSyncCallProcessor<>(data.databaseAdapter(), dataValueHandler);
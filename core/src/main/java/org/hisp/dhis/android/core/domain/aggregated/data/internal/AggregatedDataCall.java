@@ -45,6 +45,7 @@ import org.hisp.dhis.android.core.dataset.DataSet;
 import org.hisp.dhis.android.core.dataset.DataSetCompleteRegistration;
 import org.hisp.dhis.android.core.dataset.internal.DataSetCompleteRegistrationQuery;
 import org.hisp.dhis.android.core.datavalue.DataValue;
+import org.hisp.dhis.android.core.datavalue.internal.DataValueChunkedCall;
 import org.hisp.dhis.android.core.datavalue.internal.DataValueQuery;
 import org.hisp.dhis.android.core.organisationunit.OrganisationUnit;
 import org.hisp.dhis.android.core.systeminfo.DHISVersionManager;
@@ -68,7 +69,7 @@ final class AggregatedDataCall {
 
     private final ReadOnlyWithDownloadObjectRepository<SystemInfo> systemInfoRepository;
     private final DHISVersionManager dhisVersionManager;
-    private final QueryCallFactory<DataValue, DataValueQuery> dataValueCallFactory;
+    private final DataValueChunkedCall dataValueCall;
     private final QueryCallFactory<DataSetCompleteRegistration,
             DataSetCompleteRegistrationQuery> dataSetCompleteRegistrationCallFactory;
     private final QueryCallFactory<DataApproval, DataApprovalQuery> dataApprovalCallFactory;
@@ -81,7 +82,7 @@ final class AggregatedDataCall {
     @Inject
     AggregatedDataCall(@NonNull ReadOnlyWithDownloadObjectRepository<SystemInfo> systemInfoRepository,
                        @NonNull DHISVersionManager dhisVersionManager,
-                       @NonNull QueryCallFactory<DataValue, DataValueQuery> dataValueCallFactory,
+                       @NonNull DataValueChunkedCall dataValueCall,
                        @NonNull QueryCallFactory<DataSetCompleteRegistration, DataSetCompleteRegistrationQuery>
                                dataSetCompleteRegistrationCallFactory,
                        @NonNull QueryCallFactory<DataApproval, DataApprovalQuery> dataApprovalCallFactory,
@@ -91,7 +92,7 @@ final class AggregatedDataCall {
                        @NonNull AggregatedDataCallBundleFactory aggregatedDataCallBundleFactory) {
         this.systemInfoRepository = systemInfoRepository;
         this.dhisVersionManager = dhisVersionManager;
-        this.dataValueCallFactory = dataValueCallFactory;
+        this.dataValueCall = dataValueCall;
         this.dataSetCompleteRegistrationCallFactory = dataSetCompleteRegistrationCallFactory;
         this.dataApprovalCallFactory = dataApprovalCallFactory;
         this.organisationUnitStore = organisationUnitStore;
@@ -127,8 +128,8 @@ final class AggregatedDataCall {
 
         DataValueQuery dataValueQuery = DataValueQuery.create(dataSetUids, bundle.periodIds(), bundle.orgUnitUids());
 
-        Single<D2Progress> dataValueSingle = Single.fromCallable(dataValueCallFactory.create(dataValueQuery))
-                .map(dataValues -> progressManager.increaseProgress(DataValue.class, false));
+        Observable<D2Progress> dataValueObservable = dataValueCall.download(dataValueQuery)
+                .map(valueCount -> progressManager.increaseProgress(DataValue.class, false));
 
         DataSetCompleteRegistrationQuery dataSetCompleteRegistrationQuery =
                 DataSetCompleteRegistrationQuery.create(dataSetUids, bundle.periodIds(), bundle.orgUnitUids());
@@ -139,20 +140,20 @@ final class AggregatedDataCall {
 
 
         @SuppressWarnings("PMD.NonStaticInitializer")
-        ArrayList<Single<D2Progress>> list = new ArrayList<Single<D2Progress>>() {{
-            add(Single.just(systemInfoProgress));
-            add(dataValueSingle);
-            add(dataSetCompleteRegistrationSingle);
+        ArrayList<Observable<D2Progress>> list = new ArrayList<Observable<D2Progress>>() {{
+            add(Observable.just(systemInfoProgress));
+            add(dataValueObservable);
+            add(dataSetCompleteRegistrationSingle.toObservable());
         }};
 
         if (!dhisVersionManager.is2_29()) {
             Single<D2Progress> approvalSingle = getApprovalSingle(bundle, progressManager);
             if (approvalSingle != null) {
-                list.add(approvalSingle);
+                list.add(approvalSingle.toObservable());
             }
         }
 
-        return Single.merge(list).toObservable();
+        return Observable.concat(list);
     }
 
     private Single<D2Progress> getApprovalSingle(AggregatedDataCallBundle bundle,
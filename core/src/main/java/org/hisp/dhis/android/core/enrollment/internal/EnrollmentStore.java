@@ -31,10 +31,13 @@ package org.hisp.dhis.android.core.enrollment.internal;
 import org.hisp.dhis.android.core.arch.db.stores.internal.IdentifiableDeletableDataObjectStore;
 import org.hisp.dhis.android.core.enrollment.Enrollment;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
 public interface EnrollmentStore extends IdentifiableDeletableDataObjectStore<Enrollment> {
 
     Map<String, List<Enrollment>> queryEnrollmentsToPost();
+
+    Map<String, List<Enrollment>> queryEnrollmentsToPost(Collection<String> trackedEntityInstanceUids);
 }
\ No newline at end of file
@@ -41,6 +41,7 @@ import org.hisp.dhis.android.core.enrollment.Enrollment;
 import org.hisp.dhis.android.core.enrollment.EnrollmentTableInfo;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -76,7 +77,17 @@ public final class EnrollmentStoreImpl
 
     @Override
     public Map<String, List<Enrollment>> queryEnrollmentsToPost() {
-        String enrollmentsToPostQuery = new WhereClauseBuilder()
+        return queryEnrollmentsToPost(new WhereClauseBuilder());
+    }
+
+    @Override
+    public Map<String, List<Enrollment>> queryEnrollmentsToPost(Collection<String> trackedEntityInstanceUids) {
+        return queryEnrollmentsToPost(new WhereClauseBuilder().appendInKeyStringValues(
+                EnrollmentTableInfo.Columns.TRACKED_ENTITY_INSTANCE, trackedEntityInstanceUids));
+    }
+
+    private Map<String, List<Enrollment>> queryEnrollmentsToPost(WhereClauseBuilder whereClauseBuilder) {
+        String enrollmentsToPostQuery = whereClauseBuilder
                 .appendInKeyStringValues(DataColumns.STATE, EnumHelper.asStringList(State.uploadableStates())).build();
 
         List<Enrollment> enrollmentList = selectWhere(enrollmentsToPostQuery);
@@ -90,4 +90,29 @@ public final class EventDownloader extends BaseRepositoryImpl<EventDownloader> {
         return cf.integer(QueryParams.LIMIT).eq(limit);
     }
 
+    /**
+     * If true, each page is parsed as it is received from the server and its events are persisted in small groups, so
+     * the whole page is never kept in memory. It only applies to sequential downloads: it has no effect with a
+     * {@link #combinationConcurrency(Integer)} greater than 1, where whole pages are requested on background threads.
+     *
+     * @param streaming True to stream the pages
+     * @return the new repository
+     */
+    public EventDownloader streaming(Boolean streaming) {
+        return cf.bool(QueryParams.STREAMING).eq(streaming);
+    }
+
+    /**
+     * Number of organisation unit and program combinations downloaded at the same time. Events are still persisted
+     * one page at a time by the downloading thread, and the total number of events never exceeds the limit. As the
+     * combinations compete for the limit, which ones fill it is not deterministic. It takes precedence over
+     * {@link #streaming(Boolean)}. Default value is 1: combinations are downloaded sequentially.
+     *
+     * @param combinationConcurrency Maximum number of combinations downloaded concurrently
+     * @return the new repository
+     */
+    public EventDownloader combinationConcurrency(Integer combinationConcurrency) {
+        return cf.integer(QueryParams.COMBINATION_CONCURRENCY).eq(combinationConcurrency);
+    }
+
 }
@@ -30,6 +30,7 @@ package org.hisp.dhis.android.core.event.internal;
 
 import org.hisp.dhis.android.core.arch.api.executors.internal.APICallExecutor;
 import org.hisp.dhis.android.core.arch.api.payload.internal.Payload;
+import org.hisp.dhis.android.core.arch.api.payload.internal.PayloadStreamParser;
 import org.hisp.dhis.android.core.event.Event;
 
 import java.util.List;
@@ -39,6 +40,8 @@ import javax.inject.Inject;
 
 import androidx.annotation.NonNull;
 import dagger.Reusable;
+import io.reactivex.Flowable;
+import okhttp3.ResponseBody;
 import retrofit2.Call;
 
 @Reusable
@@ -54,13 +57,32 @@ final class EventEndpointCallFactory {
     }
 
     Callable<List<Event>> getCall(final EventQuery eventQuery) {
+        return getCall(eventQuery, true);
+    }
+
+    /**
+     * @param storeError whether a failed call stores its error, which is not possible outside the database thread
+     */
+    Callable<List<Event>> getCall(final EventQuery eventQuery, boolean storeError) {
         return () -> {
 
             Call<Payload<Event>> call = service.getEvents(eventQuery.orgUnit(), eventQuery.ouMode().name(),
                     eventQuery.program(), EventFields.allFields, Boolean.TRUE,
                     eventQuery.page(), eventQuery.pageSize(), eventQuery.lastUpdatedStartDate(), true);
 
-            return apiCallExecutor.executePayloadCall(call);
+            return apiCallExecutor.executePayloadCall(call, storeError);
         };
     }
+
+    Flowable<Event> getStreamingCall(final EventQuery eventQuery) {
+        return Flowable.defer(() -> {
+
+            Call<ResponseBody> call = service.getEventsAsStream(eventQuery.orgUnit(), eventQuery.ouMode().name(),
+                    eventQuery.program(), EventFields.allFields, Boolean.TRUE,
+                    eventQuery.page(), eventQuery.pageSize(), eventQuery.lastUpdatedStartDate(), true);
+
+            ResponseBody body = apiCallExecutor.executeObjectCall(call);
+            return PayloadStreamParser.items(body.byteStream(), EventService.EVENTS, Event.class);
+        });
+    }
 }
\ No newline at end of file
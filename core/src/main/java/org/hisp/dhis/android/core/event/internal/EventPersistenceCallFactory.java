@@ -46,10 +46,13 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.inject.Inject;
 
 import dagger.Reusable;
+import io.reactivex.Completable;
+import io.reactivex.Flowable;
 
 @Reusable
 public final class EventPersistenceCallFactory {
@@ -77,37 +80,67 @@ public final class EventPersistenceCallFactory {
     public Callable<Void> getCall(final Collection<Event> events) {
 
         return () -> {
-            eventHandler.handleMany(events,
-                    event -> event.toBuilder()
-                            .state(State.SYNCED)
-                            .build(),
-                    false);
+            handleEvents(events);
+            persistMissingOrganisationUnits(getOrganisationUnitUids(events));
+            foreignKeyCleaner.cleanForeignKeyErrorsInWrittenTables();
 
-            Set<String> searchOrgUnitUids = getMissingOrganisationUnitUids(events);
+            return null;
+        };
+    }
 
-            if (!searchOrgUnitUids.isEmpty()) {
-                AuthenticatedUser authenticatedUser = authenticatedUserStore.selectFirst();
+    /**
+     * Persists the events in the groups they are emitted, so the memory used is bounded by the group size instead of
+     * the total number of events. Organisation units and foreign keys are processed once all the groups are persisted.
+     *
+     * @return the number of persisted events
+     */
+    public Callable<Integer> getStreamingCall(final Flowable<? extends Collection<Event>> eventChunks) {
 
-                Callable<List<OrganisationUnit>> organisationUnitCall =
-                        organisationUnitDownloader.downloadSearchOrganisationUnits(
-                            searchOrgUnitUids, User.builder().uid(authenticatedUser.user()).build());
-                organisationUnitCall.call();
-            }
+        return () -> {
+            Set<String> orgUnitUids = new HashSet<>();
+            AtomicInteger eventCount = new AtomicInteger(0);
 
-            foreignKeyCleaner.cleanForeignKeyErrors();
+            eventChunks.concatMapCompletable(events -> Completable.fromAction(() -> {
+                handleEvents(events);
+                orgUnitUids.addAll(getOrganisationUnitUids(events));
+                eventCount.addAndGet(events.size());
+            })).blockingAwait();
 
-            return null;
+            persistMissingOrganisationUnits(orgUnitUids);
+            foreignKeyCleaner.cleanForeignKeyErrorsInWrittenTables();
+
+            return eventCount.get();
         };
     }
 
-    private Set<String> getMissingOrganisationUnitUids(Collection<Event> events) {
+    private void handleEvents(Collection<Event> events) {
+        eventHandler.handleMany(events,
+                event -> event.toBuilder()
+                        .state(State.SYNCED)
+                        .build(),
+                false);
+    }
+
+    private void persistMissingOrganisationUnits(Set<String> searchOrgUnitUids) throws Exception {
+        searchOrgUnitUids.removeAll(organisationUnitStore.selectUids());
+
+        if (!searchOrgUnitUids.isEmpty()) {
+            AuthenticatedUser authenticatedUser = authenticatedUserStore.selectFirst();
+
+            Callable<List<OrganisationUnit>> organisationUnitCall =
+                    organisationUnitDownloader.downloadSearchOrganisationUnits(
+                        searchOrgUnitUids, User.builder().uid(authenticatedUser.user()).build());
+            organisationUnitCall.call();
+        }
+    }
+
+    private Set<String> getOrganisationUnitUids(Collection<Event> events) {
         Set<String> uids = new HashSet<>();
         for (Event event : events) {
             if (event.organisationUnit() != null) {
                 uids.add(event.organisationUnit());
             }
         }
-        uids.removeAll(organisationUnitStore.selectUids());
         return uids;
     }
 }
\ No newline at end of file
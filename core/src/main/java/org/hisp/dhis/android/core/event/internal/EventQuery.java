@@ -54,6 +54,8 @@ abstract class EventQuery extends BaseQuery {
     @Nullable
     abstract String eventStartDate();
 
+    abstract Builder toBuilder();
+
     static Builder builder() {
         return new AutoValue_EventQuery.Builder()
                 .page(1)
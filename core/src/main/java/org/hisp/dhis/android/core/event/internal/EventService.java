@@ -34,12 +34,14 @@ import org.hisp.dhis.android.core.arch.api.payload.internal.Payload;
 import org.hisp.dhis.android.core.event.Event;
 import org.hisp.dhis.android.core.imports.internal.EventWebResponse;
 
+import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.http.Body;
 import retrofit2.http.GET;
 import retrofit2.http.POST;
 import retrofit2.http.Path;
 import retrofit2.http.Query;
+import retrofit2.http.Streaming;
 
 interface EventService {
     String ORG_UNIT = "orgUnit";
@@ -71,6 +73,19 @@ interface EventService {
             @Query(LAST_UPDATED_START_DATE) String lastUpdatedStartDate,
             @Query(INCLUDE_DELETED) Boolean includeDeleted);
 
+    @Streaming
+    @GET(EVENTS)
+    Call<ResponseBody> getEventsAsStream(
+            @Query(ORG_UNIT) String orgUnit,
+            @Query(OU_MODE) String orgUnitMode,
+            @Query(PROGRAM) String program,
+            @Query(FIELDS) @Which Fields<Event> fields,
+            @Query(PAGING) Boolean paging,
+            @Query(PAGE) int page,
+            @Query(PAGE_SIZE) int pageSize,
+            @Query(LAST_UPDATED_START_DATE) String lastUpdatedStartDate,
+            @Query(INCLUDE_DELETED) Boolean includeDeleted);
+
     @GET(EVENTS + "/{" + EVENT_UID + "}")
     Call<Event> getEvent(
             @Path(EVENT_UID) String eventUid,
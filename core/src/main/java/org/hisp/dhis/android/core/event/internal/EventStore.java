@@ -31,6 +31,7 @@ package org.hisp.dhis.android.core.event.internal;
 import org.hisp.dhis.android.core.arch.db.stores.internal.IdentifiableDeletableDataObjectStore;
 import org.hisp.dhis.android.core.event.Event;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -38,6 +39,8 @@ public interface EventStore extends IdentifiableDeletableDataObjectStore<Event>
 
     Map<String, List<Event>> queryEventsAttachedToEnrollmentToPost();
 
+    Map<String, List<Event>> queryEventsAttachedToEnrollmentToPost(Collection<String> enrollmentUids);
+
     List<Event> querySingleEventsToPost();
 
     List<Event> querySingleEvents();
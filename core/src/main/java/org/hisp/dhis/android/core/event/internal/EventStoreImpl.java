@@ -46,6 +46,7 @@ import org.hisp.dhis.android.core.event.EventTableInfo;
 import org.hisp.dhis.android.core.event.EventTableInfo.Columns;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -85,7 +86,17 @@ public final class EventStoreImpl extends IdentifiableDeletableDataObjectStoreIm
 
     @Override
     public Map<String, List<Event>> queryEventsAttachedToEnrollmentToPost() {
-        String eventsAttachedToEnrollmentsQuery = new WhereClauseBuilder()
+        return queryEventsAttachedToEnrollmentToPost(new WhereClauseBuilder());
+    }
+
+    @Override
+    public Map<String, List<Event>> queryEventsAttachedToEnrollmentToPost(Collection<String> enrollmentUids) {
+        return queryEventsAttachedToEnrollmentToPost(new WhereClauseBuilder()
+                .appendInKeyStringValues(Columns.ENROLLMENT, enrollmentUids));
+    }
+
+    private Map<String, List<Event>> queryEventsAttachedToEnrollmentToPost(WhereClauseBuilder whereClauseBuilder) {
+        String eventsAttachedToEnrollmentsQuery = whereClauseBuilder
                 .appendIsNotNullValue(Columns.ENROLLMENT)
                 .appendInKeyStringValues(Columns.STATE, EnumHelper.asStringList(State.uploadableStates())).build();
 
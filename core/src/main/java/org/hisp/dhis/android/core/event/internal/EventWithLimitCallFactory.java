@@ -35,6 +35,8 @@ import org.hisp.dhis.android.core.arch.api.paging.internal.Paging;
 import org.hisp.dhis.android.core.arch.call.D2Progress;
 import org.hisp.dhis.android.core.arch.call.executors.internal.D2CallExecutor;
 import org.hisp.dhis.android.core.arch.call.internal.D2ProgressManager;
+import org.hisp.dhis.android.core.arch.db.stores.internal.ObjectStore;
+import org.hisp.dhis.android.core.arch.helpers.internal.BlockingObservableHelper;
 import org.hisp.dhis.android.core.arch.repositories.collection.ReadOnlyWithDownloadObjectRepository;
 import org.hisp.dhis.android.core.event.Event;
 import org.hisp.dhis.android.core.maintenance.D2Error;
@@ -43,16 +45,25 @@ import org.hisp.dhis.android.core.resource.internal.Resource;
 import org.hisp.dhis.android.core.resource.internal.ResourceHandler;
 import org.hisp.dhis.android.core.systeminfo.SystemInfo;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.inject.Inject;
 
 import dagger.Reusable;
+import io.reactivex.Flowable;
 import io.reactivex.Observable;
+import io.reactivex.schedulers.Schedulers;
 
 @Reusable
 public final class EventWithLimitCallFactory {
 
+    private static final int STREAMING_CHUNK_SIZE = 10;
+
     private final Resource.Type resourceType = Resource.Type.EVENT;
 
     private final ReadOnlyWithDownloadObjectRepository<SystemInfo> systemInfoRepository;
@@ -65,6 +76,8 @@ public final class EventWithLimitCallFactory {
     private final EventEndpointCallFactory endpointCallFactory;
     private final EventPersistenceCallFactory persistenceCallFactory;
 
+    private final ObjectStore<D2Error> errorStore;
+
     @Inject
     EventWithLimitCallFactory(
             @NonNull ReadOnlyWithDownloadObjectRepository<SystemInfo> systemInfoRepository,
@@ -72,13 +85,15 @@ public final class EventWithLimitCallFactory {
             @NonNull D2CallExecutor d2CallExecutor,
             @NonNull EventQueryBundleFactory eventQueryBundleFactory,
             @NonNull EventEndpointCallFactory endpointCallFactory,
-            @NonNull EventPersistenceCallFactory persistenceCallFactory) {
+            @NonNull EventPersistenceCallFactory persistenceCallFactory,
+            @NonNull ObjectStore<D2Error> errorStore) {
         this.systemInfoRepository = systemInfoRepository;
         this.resourceHandler = resourceHandler;
         this.d2CallExecutor = d2CallExecutor;
         this.eventQueryBundleFactory = eventQueryBundleFactory;
         this.endpointCallFactory = endpointCallFactory;
         this.persistenceCallFactory = persistenceCallFactory;
+        this.errorStore = errorStore;
     }
 
     public Observable<D2Progress> downloadSingleEvents(ProgramDataDownloadParams params) {
@@ -94,8 +109,15 @@ public final class EventWithLimitCallFactory {
             boolean successfulSync = true;
 
             List<EventQueryBundle> bundles = eventQueryBundleFactory.getEventQueryBundles(params);
+            int combinationConcurrency = params.combinationConcurrency() == null ? 1
+                    : Math.max(1, params.combinationConcurrency());
 
             for (EventQueryBundle bundle : bundles) {
+                if (combinationConcurrency > 1) {
+                    // Whole pages are requested in the io threads, so streaming doesn't apply here.
+                    successfulSync = downloadBundleConcurrently(bundle, combinationConcurrency) && successfulSync;
+                    continue;
+                }
 
                 int eventsCount = 0;
                 for (String orgunitUid : bundle.orgUnitList()) {
@@ -108,14 +130,9 @@ public final class EventWithLimitCallFactory {
                             break;
                         }
 
-                        EventQuery.Builder eventQueryBuilder = EventQuery.builder()
-                                .orgUnit(orgunitUid)
-                                .ouMode(bundle.ouMode())
-                                .program(programUid)
-                                .lastUpdatedStartDate(bundle.lastUpdatedStartDate());
-
+                        EventQuery.Builder eventQueryBuilder = eventQueryBuilder(bundle, orgunitUid, programUid);
                         EventsWithPagingResult result = getEventsForOrgUnitProgramCombination(eventQueryBuilder,
-                                bundle.limit() - eventsCount);
+                                bundle.limit() - eventsCount, Boolean.TRUE.equals(params.streaming()));
                         eventsCount = eventsCount + result.eventCount;
                         successfulSync = successfulSync && result.successfulSync;
                     }
@@ -131,6 +148,129 @@ public final class EventWithLimitCallFactory {
         });
     }
 
+    /**
+     * Up to {@code concurrency} organisation unit and program combinations are downloaded at the same time on the io
+     * scheduler. Before requesting a page, each combination reserves the events it may persist from a budget shared
+     * by the whole bundle, and gives back what it does not use, so the bundle limit is never exceeded. Pages are
+     * consumed and persisted one by one by the calling thread, which is the only one writing to the database.
+     * <p>
+     * A combination that finds the budget reserved by the others stops at its current position and is resumed in a
+     * new round once they are done, as the pages they come back with may leave part of the budget unused.
+     *
+     * @return true if every page was downloaded and persisted
+     */
+    private boolean downloadBundleConcurrently(EventQueryBundle bundle, int concurrency) {
+        AtomicInteger budget = new AtomicInteger(bundle.limit());
+        boolean successfulSync = true;
+
+        List<CombinationPosition> positions = new ArrayList<>();
+        for (String orgunitUid : bundle.orgUnitList()) {
+            for (String programUid : bundle.programList()) {
+                positions.add(new CombinationPosition(eventQueryBuilder(bundle, orgunitUid, programUid).build(), 1, 0));
+            }
+        }
+
+        while (!positions.isEmpty() && budget.get() > 0) {
+            Queue<CombinationPosition> deferred = new ConcurrentLinkedQueue<>();
+            Iterator<CombinationPage> pages = Flowable.fromIterable(positions)
+                    .flatMap(position -> getCombinationPages(position, budget, deferred)
+                            .subscribeOn(Schedulers.io()), false, concurrency, 1)
+                    .blockingIterable(concurrency)
+                    .iterator();
+            try {
+                while (pages.hasNext()) {
+                    successfulSync = persistCombinationPage(pages.next()) && successfulSync;
+                }
+            } finally {
+                BlockingObservableHelper.dispose(pages);
+            }
+            positions = new ArrayList<>(deferred);
+        }
+
+        return successfulSync;
+    }
+
+    /**
+     * Download errors are stored here, as they can't be stored in the io thread while the calling thread may hold a
+     * transaction. Persistence errors are stored by the executor.
+     */
+    private boolean persistCombinationPage(CombinationPage page) {
+        if (page.error != null) {
+            errorStore.insert(page.error);
+            return false;
+        }
+        try {
+            d2CallExecutor.executeD2CallTransactionally(persistenceCallFactory.getCall(page.events));
+            return true;
+        } catch (D2Error d2Error) {
+            return false;
+        }
+    }
+
+    private Flowable<CombinationPage> getCombinationPages(CombinationPosition start, AtomicInteger budget,
+                                                          Queue<CombinationPosition> deferred) {
+        int pageSize = start.query.pageSize();
+
+        return Flowable.generate(() -> start, (position, emitter) -> {
+            int reserved = reserveFromBudget(budget, pageSize - position.skip);
+            if (reserved == 0) {
+                deferred.add(position);
+                emitter.onComplete();
+                return position;
+            }
+
+            List<Event> pageEvents;
+            try {
+                EventQuery pageQuery = position.query.toBuilder().page(position.page).pageSize(pageSize).build();
+                pageEvents = d2CallExecutor.executeD2Call(endpointCallFactory.getCall(pageQuery, false));
+            } catch (D2Error d2Error) {
+                budget.addAndGet(reserved);
+                emitter.onNext(new CombinationPage(d2Error));
+                emitter.onComplete();
+                return position;
+            }
+
+            int pageCount = Math.min(pageEvents.size(), pageSize);
+            int from = Math.min(position.skip, pageCount);
+            int to = Math.min(from + reserved, pageCount);
+            budget.addAndGet(reserved - (to - from));
+
+            if (to > from) {
+                emitter.onNext(new CombinationPage(pageEvents.subList(from, to)));
+            }
+            if (to < pageCount) {
+                CombinationPosition next = new CombinationPosition(position.query, position.page, to);
+                deferred.add(next);
+                emitter.onComplete();
+                return next;
+            } else if (pageCount < pageSize) {
+                emitter.onComplete();
+                return position;
+            } else {
+                return new CombinationPosition(position.query, position.page + 1, 0);
+            }
+        });
+    }
+
+    private static int reserveFromBudget(AtomicInteger budget, int pageSize) {
+        while (true) {
+            int available = budget.get();
+            int reserved = Math.min(available, pageSize);
+            if (reserved <= 0 || budget.compareAndSet(available, available - reserved)) {
+                return Math.max(reserved, 0);
+            }
+        }
+    }
+
+    private static EventQuery.Builder eventQueryBuilder(EventQueryBundle bundle, String orgunitUid,
+                                                        String programUid) {
+        return EventQuery.builder()
+                .orgUnit(orgunitUid)
+                .ouMode(bundle.ouMode())
+                .program(programUid)
+                .lastUpdatedStartDate(bundle.lastUpdatedStartDate());
+    }
+
     private Observable<D2Progress> downloadSystemInfo(D2ProgressManager progressManager) {
         return systemInfoRepository.download()
                 .toSingle(() -> progressManager.increaseProgress(SystemInfo.class, false))
@@ -138,12 +278,13 @@ public final class EventWithLimitCallFactory {
     }
 
     private EventsWithPagingResult getEventsForOrgUnitProgramCombination(EventQuery.Builder eventQueryBuilder,
-                                                                         int combinationLimit) {
+                                                                         int combinationLimit, boolean streaming) {
         int eventsCount = 0;
         boolean successfulSync = true;
 
         try {
-            eventsCount = getEventsWithPaging(eventQueryBuilder, combinationLimit);
+            eventsCount = streaming ? getEventsWithStreaming(eventQueryBuilder, combinationLimit)
+                    : getEventsWithPaging(eventQueryBuilder, combinationLimit);
         } catch (D2Error ignored) {
             successfulSync = false;
         }
@@ -177,6 +318,47 @@ public final class EventWithLimitCallFactory {
         return downloadedEventsForCombination;
     }
 
+    /**
+     * Each page is parsed while it is received and persisted in groups of {@link #STREAMING_CHUNK_SIZE} events inside
+     * the page transaction, so the whole page is never kept in memory.
+     */
+    private int getEventsWithStreaming(EventQuery.Builder eventQueryBuilder, int combinationLimit) throws D2Error {
+        int downloadedEventsForCombination = 0;
+        EventQuery baseQuery = eventQueryBuilder.build();
+
+        List<Paging> pagingList = ApiPagingEngine.getPaginationList(baseQuery.pageSize(), combinationLimit);
+
+        for (Paging paging : pagingList) {
+            eventQueryBuilder.pageSize(paging.pageSize());
+            eventQueryBuilder.page(paging.page());
+
+            AtomicInteger pageEventsCount = new AtomicInteger(0);
+            Flowable<Event> pageEvents = endpointCallFactory.getStreamingCall(eventQueryBuilder.build())
+                    .doOnNext(event -> pageEventsCount.incrementAndGet());
+
+            Flowable<List<Event>> eventChunks = getEventsToPersist(paging, pageEvents).buffer(STREAMING_CHUNK_SIZE);
+
+            downloadedEventsForCombination += d2CallExecutor.executeD2CallTransactionally(
+                    persistenceCallFactory.getStreamingCall(eventChunks));
+
+            if (paging.isLastPage() || pageEventsCount.get() < paging.pageSize()) {
+                break;
+            }
+        }
+
+        return downloadedEventsForCombination;
+    }
+
+    private Flowable<Event> getEventsToPersist(Paging paging, Flowable<Event> pageEvents) {
+        if (paging.isLastPage()) {
+            return pageEvents
+                    .skip(paging.previousItemsToSkipCount())
+                    .take(paging.pageSize() - paging.previousItemsToSkipCount() - paging.posteriorItemsToSkipCount());
+        } else {
+            return pageEvents;
+        }
+    }
+
     private List<Event> getEventsToPersist(Paging paging, List<Event> pageEvents) {
         if (paging.isLastPage() && pageEvents.size() > paging.previousItemsToSkipCount()) {
             int toIndex = Math.min(
@@ -189,6 +371,36 @@ public final class EventWithLimitCallFactory {
         }
     }
 
+    /**
+     * Next page of a combination to download, skipping the events of that page already persisted.
+     */
+    private static final class CombinationPosition {
+        final EventQuery query;
+        final int page;
+        final int skip;
+
+        CombinationPosition(EventQuery query, int page, int skip) {
+            this.query = query;
+            this.page = page;
+            this.skip = skip;
+        }
+    }
+
+    private static final class CombinationPage {
+        final List<Event> events;
+        final D2Error error;
+
+        CombinationPage(List<Event> events) {
+            this.events = events;
+            this.error = null;
+        }
+
+        CombinationPage(D2Error error) {
+            this.events = null;
+            this.error = error;
+        }
+    }
+
     private static class EventsWithPagingResult {
         int eventCount;
         boolean successfulSync;
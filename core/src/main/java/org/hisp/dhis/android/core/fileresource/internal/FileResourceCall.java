@@ -27,7 +27,6 @@
  */
 package org.hisp.dhis.android.core.fileresource.internal;
 
-import org.hisp.dhis.android.core.arch.api.executors.internal.RxAPICallExecutor;
 import org.hisp.dhis.android.core.arch.call.D2Progress;
 import org.hisp.dhis.android.core.arch.call.internal.D2ProgressManager;
 import org.hisp.dhis.android.core.fileresource.FileResource;
@@ -43,34 +42,32 @@ import io.reactivex.Observable;
 @Reusable
 public class FileResourceCall {
 
-    private final RxAPICallExecutor rxCallExecutor;
-
     private final SystemInfoModuleDownloader systemInfoDownloader;
     private final FileResourceModuleDownloader fileResourceModuleDownloader;
 
     @Inject
-    FileResourceCall(@NonNull RxAPICallExecutor rxCallExecutor,
-                     @NonNull SystemInfoModuleDownloader systemInfoDownloader,
+    FileResourceCall(@NonNull SystemInfoModuleDownloader systemInfoDownloader,
                      @NonNull FileResourceModuleDownloader fileResourceModuleDownloader) {
-        this.rxCallExecutor = rxCallExecutor;
         this.systemInfoDownloader = systemInfoDownloader;
         this.fileResourceModuleDownloader = fileResourceModuleDownloader;
     }
 
+    /**
+     * Not wrapped in a transaction, as {@link FileResourceCallFactory} commits the downloaded files in batches.
+     */
     public Observable<D2Progress> download() {
         D2ProgressManager progressManager = new D2ProgressManager(2);
 
-        return rxCallExecutor.wrapObservableTransactionally(
-                systemInfoDownloader.downloadMetadata().andThen(Observable.create(emitter -> {
+        return systemInfoDownloader.downloadMetadata().andThen(Observable.create(emitter -> {
 
-                    emitter.onNext(progressManager.increaseProgress(SystemInfo.class, false));
+            emitter.onNext(progressManager.increaseProgress(SystemInfo.class, false));
 
-                    fileResourceModuleDownloader.downloadMetadata().call();
-                    emitter.onNext(progressManager.increaseProgress(FileResource.class, false));
+            fileResourceModuleDownloader.downloadMetadata().call();
+            emitter.onNext(progressManager.increaseProgress(FileResource.class, false));
 
-                    emitter.onComplete();
+            emitter.onComplete();
 
-                })), true);
+        }));
     }
 
     public void blockingDownload() {
@@ -28,14 +28,16 @@
 
 package org.hisp.dhis.android.core.fileresource.internal;
 
-import android.content.Context;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
 
-import org.hisp.dhis.android.core.arch.api.executors.internal.APICallExecutor;
+import org.hisp.dhis.android.core.arch.db.access.DatabaseAdapter;
+import org.hisp.dhis.android.core.arch.db.access.Transaction;
 import org.hisp.dhis.android.core.arch.db.stores.internal.IdentifiableDataObjectStore;
+import org.hisp.dhis.android.core.arch.db.stores.internal.ObjectStore;
 import org.hisp.dhis.android.core.arch.handlers.internal.HandlerWithTransformer;
+import org.hisp.dhis.android.core.arch.helpers.internal.BlockingObservableHelper;
 import org.hisp.dhis.android.core.common.State;
 import org.hisp.dhis.android.core.common.Unit;
 import org.hisp.dhis.android.core.fileresource.FileResource;
@@ -43,24 +45,38 @@ import org.hisp.dhis.android.core.maintenance.D2Error;
 import org.hisp.dhis.android.core.trackedentity.TrackedEntityAttributeValue;
 import org.hisp.dhis.android.core.trackedentity.TrackedEntityDataValue;
 
-import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
 
 import javax.inject.Inject;
 
 import dagger.Reusable;
-import okhttp3.ResponseBody;
-
+import io.reactivex.Flowable;
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * Downloads the files of the given attribute and data values, once per file resource uid. The files are downloaded
+ * concurrently on the io scheduler and persisted on the calling thread in batches, each of them in its own
+ * transaction, so the files downloaded before a failure are kept. Download errors are stored by the calling thread
+ * as well, since the io threads don't access the database.
+ */
 @Reusable
 class FileResourceCallFactory {
 
+    static final int DEFAULT_CONCURRENCY = 4;
+    static final int BATCH_SIZE = 20;
+
     private final FileResourceService fileResourceService;
+    private final FileResourceFileDownloader fileDownloader;
     private final HandlerWithTransformer<FileResource> handler;
     private final IdentifiableDataObjectStore<FileResource> store;
-    private final APICallExecutor apiCallExecutor;
-    private final Context context;
+    private final DatabaseAdapter databaseAdapter;
+    private final ObjectStore<D2Error> errorStore;
 
     private enum Dimension {
         SMALL, MEDIUM
@@ -68,85 +84,123 @@ class FileResourceCallFactory {
 
     @Inject
     FileResourceCallFactory(@NonNull FileResourceService fileResourceService,
+                            @NonNull FileResourceFileDownloader fileDownloader,
                             @NonNull HandlerWithTransformer<FileResource> handler,
                             @NonNull IdentifiableDataObjectStore<FileResource> store,
-                            @NonNull APICallExecutor apiCallExecutor,
-                            @NonNull Context context) {
+                            @NonNull DatabaseAdapter databaseAdapter,
+                            @NonNull ObjectStore<D2Error> errorStore) {
         this.fileResourceService = fileResourceService;
+        this.fileDownloader = fileDownloader;
         this.handler = handler;
         this.store = store;
-        this.apiCallExecutor = apiCallExecutor;
-        this.context = context;
+        this.databaseAdapter = databaseAdapter;
+        this.errorStore = errorStore;
     }
 
     public Callable<Unit> create(final List<TrackedEntityAttributeValue> trackedEntityAttributeValues,
                                  final List<TrackedEntityDataValue> trackedEntityDataValues) {
 
         return () -> {
-            downloadAttributeValueFiles(trackedEntityAttributeValues);
-            downloadDataValueFiles(trackedEntityDataValues);
+            download(getBinaryCalls(trackedEntityAttributeValues, trackedEntityDataValues), DEFAULT_CONCURRENCY);
 
             return new Unit();
         };
     }
 
-    private void downloadAttributeValueFiles(final List<TrackedEntityAttributeValue> trackedEntityAttributeValues) {
-        List<FileResource> fileResources = new ArrayList<>();
+    private Map<String, FileResourceFileDownloader.BinaryCall> getBinaryCalls(
+            List<TrackedEntityAttributeValue> trackedEntityAttributeValues,
+            List<TrackedEntityDataValue> trackedEntityDataValues) {
+        Map<String, FileResourceFileDownloader.BinaryCall> binaryCalls = new LinkedHashMap<>();
 
-        for (TrackedEntityAttributeValue trackedEntityAttributeValue : trackedEntityAttributeValues) {
-            try {
-                ResponseBody responseBody = apiCallExecutor.executeObjectCall(
+        for (TrackedEntityAttributeValue attributeValue : trackedEntityAttributeValues) {
+            if (attributeValue.value() != null && !binaryCalls.containsKey(attributeValue.value())) {
+                binaryCalls.put(attributeValue.value(), (range, ifRange) ->
                         fileResourceService.getFileFromTrackedEntityAttribute(
-                                trackedEntityAttributeValue.trackedEntityInstance(),
-                                trackedEntityAttributeValue.trackedEntityAttribute(),
-                                Dimension.MEDIUM.name()));
-
-                File file = FileResourceUtil.saveFileFromResponse(
-                        responseBody, trackedEntityAttributeValue.value(), context);
-
-                fileResources.add(apiCallExecutor.executeObjectCall(
-                        fileResourceService.getFileResource(trackedEntityAttributeValue.value()))
-                        .toBuilder().path(file.getAbsolutePath()).build());
-            } catch (D2Error d2Error) {
-                if (trackedEntityAttributeValue.value() != null) {
-                    this.store.deleteIfExists(trackedEntityAttributeValue.value());
-                }
-                Log.v(FileResourceCallFactory.class.getCanonicalName(), d2Error.errorDescription());
+                                attributeValue.trackedEntityInstance(),
+                                attributeValue.trackedEntityAttribute(),
+                                Dimension.MEDIUM.name(),
+                                range,
+                                ifRange));
+            }
+        }
+
+        for (TrackedEntityDataValue dataValue : trackedEntityDataValues) {
+            if (dataValue.value() != null && !binaryCalls.containsKey(dataValue.value())) {
+                binaryCalls.put(dataValue.value(), (range, ifRange) -> fileResourceService.getFileFromDataElement(
+                        dataValue.event(),
+                        dataValue.dataElement(),
+                        Dimension.MEDIUM.name(),
+                        range,
+                        ifRange));
+            }
+        }
+
+        return binaryCalls;
+    }
+
+    private void download(Map<String, FileResourceFileDownloader.BinaryCall> binaryCalls, int concurrency) {
+        Iterator<List<DownloadResult>> batches = Flowable.fromIterable(binaryCalls.entrySet())
+                .flatMap(entry -> Flowable.fromCallable(() -> download(entry.getKey(), entry.getValue()))
+                        .subscribeOn(Schedulers.io()), false, concurrency, 1)
+                .buffer(BATCH_SIZE)
+                .blockingIterable(1)
+                .iterator();
+
+        try {
+            while (batches.hasNext()) {
+                persist(batches.next());
             }
+        } finally {
+            BlockingObservableHelper.dispose(batches);
         }
+    }
 
-        handler.handleMany(fileResources, fileResource -> fileResource.toBuilder()
-                .state(State.SYNCED)
-                .build());
+    private DownloadResult download(String fileResourceUid, FileResourceFileDownloader.BinaryCall binaryCall) {
+        try {
+            return new DownloadResult(fileResourceUid, fileDownloader.download(fileResourceUid, binaryCall), null);
+        } catch (D2Error d2Error) {
+            return new DownloadResult(fileResourceUid, null, d2Error);
+        } catch (IOException e) {
+            Log.v(FileResourceCallFactory.class.getCanonicalName(),
+                    "Error downloading file resource " + fileResourceUid, e);
+        }
+        return new DownloadResult(fileResourceUid, null, null);
     }
 
-    private void downloadDataValueFiles(final List<TrackedEntityDataValue> trackedEntityDataValues) {
-        List<FileResource> fileResources = new ArrayList<>();
-
-        for (TrackedEntityDataValue trackedEntityDataValue : trackedEntityDataValues) {
-            try {
-                ResponseBody responseBody = apiCallExecutor.executeObjectCall(
-                        fileResourceService.getFileFromDataElement(
-                                trackedEntityDataValue.event(),
-                                trackedEntityDataValue.dataElement(),
-                                Dimension.MEDIUM.name()));
-
-                File file = FileResourceUtil.saveFileFromResponse(
-                        responseBody, trackedEntityDataValue.value(), context);
-
-                fileResources.add(apiCallExecutor.executeObjectCall(
-                        fileResourceService.getFileResource(trackedEntityDataValue.value()))
-                        .toBuilder().path(file.getAbsolutePath()).build());
-            } catch (D2Error d2Error) {
-                if (trackedEntityDataValue.value() != null) {
-                    this.store.deleteIfExists(trackedEntityDataValue.value());
+    private void persist(List<DownloadResult> batch) {
+        List<FileResource> fileResources = new ArrayList<>(batch.size());
+
+        Transaction transaction = databaseAdapter.beginNewTransaction();
+        try {
+            for (DownloadResult result : batch) {
+                if (result.error != null) {
+                    errorStore.insert(result.error);
+                }
+                if (result.fileResource == null) {
+                    store.deleteIfExists(result.fileResourceUid);
+                } else {
+                    fileResources.add(result.fileResource);
                 }
-                Log.v(FileResourceCallFactory.class.getCanonicalName(), d2Error.errorDescription());
             }
+
+            handler.handleMany(fileResources, fileResource -> fileResource.toBuilder()
+                    .state(State.SYNCED)
+                    .build());
+            transaction.setSuccessful();
+        } finally {
+            transaction.end();
         }
+    }
 
-        handler.handleMany(fileResources, fileResource -> fileResource.toBuilder()
-                .state(State.SYNCED)
-                .build());
+    private static final class DownloadResult {
+        private final String fileResourceUid;
+        private final FileResource fileResource;
+        private final D2Error error;
+
+        private DownloadResult(String fileResourceUid, FileResource fileResource, D2Error error) {
+            this.fileResourceUid = fileResourceUid;
+            this.fileResource = fileResource;
+            this.error = error;
+        }
     }
-}
\ No newline at end of file
+}
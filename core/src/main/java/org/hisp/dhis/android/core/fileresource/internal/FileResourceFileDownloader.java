@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.fileresource.internal;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.hisp.dhis.android.core.arch.api.executors.internal.APICallExecutor;
+import org.hisp.dhis.android.core.arch.helpers.FileResourceDirectoryHelper;
+import org.hisp.dhis.android.core.fileresource.FileResource;
+import org.hisp.dhis.android.core.maintenance.D2Error;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.inject.Inject;
+
+import dagger.Reusable;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * Downloads the file of a single file resource. The metadata is requested first, so a file already present in the
+ * sdk resources directory with the length of the file resource is not downloaded again. Otherwise the binary is
+ * streamed to a part file, which is resumed with a range request if a previous transfer was interrupted, and renamed
+ * to its final name once it has the length announced by the server.
+ *
+ * <p>A part file is only resumed with the validator (entity tag or last modified date) of the response that created
+ * it, sent as {@code If-Range}, and only appended to if the {@code Content-Range} of the response starts at its end
+ * and has the total length of the file. Otherwise the whole file is downloaded again.
+ *
+ * <p>Errors are not stored, as the downloads run outside the thread that owns the database.
+ */
+@Reusable
+class FileResourceFileDownloader {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int HTTP_PARTIAL_CONTENT = 206;
+    private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
+    private static final String PART_EXTENSION = ".part";
+    private static final String VALIDATOR_EXTENSION = ".validator";
+    private static final String ETAG = "ETag";
+    private static final String LAST_MODIFIED = "Last-Modified";
+    private static final String CONTENT_RANGE = "Content-Range";
+    private static final Pattern CONTENT_RANGE_PATTERN = Pattern.compile("bytes (\\d+)-(\\d+)/(\\d+)");
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    interface BinaryCall {
+        Call<ResponseBody> create(@Nullable String range, @Nullable String ifRange);
+    }
+
+    private final FileResourceService fileResourceService;
+    private final APICallExecutor apiCallExecutor;
+    private final Context context;
+
+    @Inject
+    FileResourceFileDownloader(@NonNull FileResourceService fileResourceService,
+                               @NonNull APICallExecutor apiCallExecutor,
+                               @NonNull Context context) {
+        this.fileResourceService = fileResourceService;
+        this.apiCallExecutor = apiCallExecutor;
+        this.context = context;
+    }
+
+    FileResource download(String fileResourceUid, BinaryCall binaryCall) throws D2Error, IOException {
+        FileResource fileResource = apiCallExecutor.executeObjectCall(
+                fileResourceService.getFileResource(fileResourceUid), false);
+        File directory = FileResourceDirectoryHelper.getFileResourceDirectory(context);
+
+        MediaType mediaType = fileResource.contentType() == null ? null : MediaType.parse(fileResource.contentType());
+        if (mediaType != null && fileResource.contentLength() != null) {
+            File file = new File(directory, FileResourceUtil.generateFileName(mediaType, fileResourceUid));
+            if (file.exists() && file.length() == fileResource.contentLength()) {
+                return fileResource.toBuilder().path(file.getAbsolutePath()).build();
+            }
+        }
+
+        File partFile = new File(directory, fileResourceUid + PART_EXTENSION);
+        File validatorFile = new File(directory, fileResourceUid + PART_EXTENSION + VALIDATOR_EXTENSION);
+        Response<ResponseBody> response =
+                executeBinaryCall(binaryCall, partFile, validatorFile, fileResource.contentLength());
+        ResponseBody body = response.body();
+
+        boolean append = response.code() == HTTP_PARTIAL_CONTENT;
+        if (!append) {
+            writeValidator(validatorFile, response);
+        }
+        long written = write(body, partFile, append);
+        if (body.contentLength() >= 0 && written != body.contentLength()) {
+            throw new IOException("Incomplete download of file resource " + fileResourceUid + ": " + written
+                    + " of " + body.contentLength() + " bytes");
+        }
+
+        MediaType fileMediaType = mediaType == null ? body.contentType() : mediaType;
+        if (fileMediaType == null) {
+            throw new IOException("Unknown content type of file resource " + fileResourceUid);
+        }
+        File file = new File(directory, FileResourceUtil.generateFileName(fileMediaType, fileResourceUid));
+        if ((file.exists() && !file.delete()) || !partFile.renameTo(file)) {
+            throw new IOException("Fail renaming " + partFile.getName() + " to " + file.getName());
+        }
+        deleteIfExists(validatorFile);
+        return fileResource.toBuilder().path(file.getAbsolutePath()).build();
+    }
+
+    /**
+     * Resumes the transfer from the length of the part file. A part file without validator, a range the server can't
+     * satisfy or a partial response which doesn't continue the part file mean the part file can't be resumed, so it
+     * is discarded and the whole file is requested.
+     */
+    private Response<ResponseBody> executeBinaryCall(BinaryCall binaryCall, File partFile, File validatorFile,
+                                                     Long contentLength) throws D2Error, IOException {
+        long offset = partFile.length();
+        String validator = readValidator(validatorFile);
+        if (offset == 0 || validator == null) {
+            return executeFullBinaryCall(binaryCall, partFile, validatorFile);
+        }
+
+        Response<ResponseBody> response;
+        try {
+            response = apiCallExecutor.executeResponseCall(binaryCall.create("bytes=" + offset + "-", validator),
+                    false);
+        } catch (D2Error d2Error) {
+            Integer httpErrorCode = d2Error.httpErrorCode();
+            if (httpErrorCode == null || httpErrorCode != HTTP_RANGE_NOT_SATISFIABLE) {
+                throw d2Error;
+            }
+            return executeFullBinaryCall(binaryCall, partFile, validatorFile);
+        }
+
+        if (response.code() == HTTP_PARTIAL_CONTENT &&
+                !continuesPartFile(response.headers().get(CONTENT_RANGE), offset, contentLength)) {
+            response.body().close();
+            return executeFullBinaryCall(binaryCall, partFile, validatorFile);
+        }
+        return response;
+    }
+
+    private Response<ResponseBody> executeFullBinaryCall(BinaryCall binaryCall, File partFile, File validatorFile)
+            throws D2Error, IOException {
+        deleteIfExists(partFile);
+        deleteIfExists(validatorFile);
+        return apiCallExecutor.executeResponseCall(binaryCall.create(null, null), false);
+    }
+
+    private static boolean continuesPartFile(String contentRange, long offset, Long contentLength) {
+        Matcher matcher = contentRange == null ? null : CONTENT_RANGE_PATTERN.matcher(contentRange.trim());
+        if (matcher == null || !matcher.matches()) {
+            return false;
+        }
+        long start = Long.parseLong(matcher.group(1));
+        long end = Long.parseLong(matcher.group(2));
+        long total = Long.parseLong(matcher.group(3));
+        return start == offset && end == total - 1 && (contentLength == null || total == contentLength);
+    }
+
+    /**
+     * Strong entity tags are preferred, as weak ones can't be used in {@code If-Range}.
+     */
+    private static void writeValidator(File validatorFile, Response<ResponseBody> response) throws IOException {
+        String etag = response.headers().get(ETAG);
+        String validator = etag != null && !etag.startsWith("W/") ? etag : response.headers().get(LAST_MODIFIED);
+        if (validator == null) {
+            deleteIfExists(validatorFile);
+            return;
+        }
+        try (OutputStream outputStream = new FileOutputStream(validatorFile)) {
+            outputStream.write(validator.getBytes(UTF_8));
+        }
+    }
+
+    private static String readValidator(File validatorFile) throws IOException {
+        if (!validatorFile.exists()) {
+            return null;
+        }
+        byte[] bytes = new byte[(int) validatorFile.length()];
+        try (InputStream inputStream = new FileInputStream(validatorFile)) {
+            int offset = 0;
+            int read;
+            while (offset < bytes.length && (read = inputStream.read(bytes, offset, bytes.length - offset)) != -1) {
+                offset += read;
+            }
+        }
+        String validator = new String(bytes, UTF_8).trim();
+        return validator.isEmpty() ? null : validator;
+    }
+
+    private static void deleteIfExists(File file) throws IOException {
+        if (file.exists() && !file.delete()) {
+            throw new IOException("Fail deleting " + file.getName());
+        }
+    }
+
+    private static long write(ResponseBody body, File file, boolean append) throws IOException {
+        long written = 0;
+        try (InputStream inputStream = body.byteStream();
+             OutputStream outputStream = new FileOutputStream(file, append)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+                written += read;
+            }
+            outputStream.flush();
+        }
+        return written;
+    }
+}
@@ -162,7 +162,7 @@ public final class FileResourcePostCall {
             throws IOException {
 
         FileResourceResponse fileResourceResponse =
-                ObjectMapperFactory.objectMapper().readValue(responseBody, FileResourceResponse.class);
+                ObjectMapperFactory.objectReader(FileResourceResponse.class).readValue(responseBody);
 
         return  fileResourceResponse.response().fileResource();
     }
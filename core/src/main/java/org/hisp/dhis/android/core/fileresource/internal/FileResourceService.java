@@ -34,6 +34,7 @@ import okhttp3.MultipartBody;
 import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.http.GET;
+import retrofit2.http.Header;
 import retrofit2.http.Multipart;
 import retrofit2.http.POST;
 import retrofit2.http.Part;
@@ -47,6 +48,8 @@ interface FileResourceService {
     String TRACKED_ENTITY_INSTANCE = "trackedEntityInstance";
     String TRACKED_ENTITY_ATTRIBUTE = "trackedEntityAttribute";
     String EVENTS = "events";
+    String RANGE = "Range";
+    String IF_RANGE = "If-Range";
 
     @Multipart
     @POST(FILE_RESOURCES)
@@ -59,11 +62,15 @@ interface FileResourceService {
     Call<ResponseBody> getFileFromTrackedEntityAttribute(
             @Path(TRACKED_ENTITY_INSTANCE) String trackedEntityInstanceUid,
             @Path(TRACKED_ENTITY_ATTRIBUTE) String trackedEntityAttributeUid,
-            @Query("dimension") String dimension);
+            @Query("dimension") String dimension,
+            @Header(RANGE) String range,
+            @Header(IF_RANGE) String ifRange);
 
     @GET(EVENTS + "/files")
     Call<ResponseBody> getFileFromDataElement(
             @Query("eventUid") String eventUid,
             @Query("dataElementUid") String dataElementUid,
-            @Query("dimension") String dimension);
+            @Query("dimension") String dimension,
+            @Header(RANGE) String range,
+            @Header(IF_RANGE) String ifRange);
 }
\ No newline at end of file
@@ -18,7 +18,6 @@ import java.io.OutputStream;
 import java.net.URLConnection;
 
 import okhttp3.MediaType;
-import okhttp3.ResponseBody;
 
 public final class FileResourceUtil {
 
@@ -62,14 +61,6 @@ public final class FileResourceUtil {
         return writeInputStream(inputStream, destinationFile, sourceFile.length());
     }
 
-    static File saveFileFromResponse(ResponseBody body, String generatedFileName, Context context) {
-        File destinationFile = new File(FileResourceDirectoryHelper.getFileResourceDirectory(context),
-                generateFileName(body.contentType(), generatedFileName));
-
-        writeInputStream(body.byteStream(), destinationFile, body.contentLength());
-        return destinationFile;
-    }
-
     public static File writeInputStream(InputStream inputStream, File file, long fileSize) {
         OutputStream outputStream = null;
 
@@ -28,6 +28,12 @@
 
 package org.hisp.dhis.android.core.maintenance.internal;
 
+import java.util.Collection;
+
 public interface ForeignKeyCleaner {
    Integer cleanForeignKeyErrors();
+
+   Integer cleanForeignKeyErrors(Collection<String> tables);
+
+   Integer cleanForeignKeyErrorsInWrittenTables();
 }
\ No newline at end of file
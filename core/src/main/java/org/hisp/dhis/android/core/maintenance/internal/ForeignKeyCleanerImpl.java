@@ -37,15 +37,30 @@ import org.hisp.dhis.android.core.arch.helpers.CollectionsHelper;
 import org.hisp.dhis.android.core.common.IdentifiableColumns;
 import org.hisp.dhis.android.core.maintenance.ForeignKeyViolation;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public final class ForeignKeyCleanerImpl implements ForeignKeyCleaner {
 
+    private static final int DELETE_BATCH_SIZE = 500;
+
     private final DatabaseAdapter databaseAdapter;
     private final ObjectStore<ForeignKeyViolation> foreignKeyViolationStore;
 
+    private final Map<String, List<ForeignKey>> foreignKeysByTable = new ConcurrentHashMap<>();
+    private Map<String, Set<String>> referencingTablesByTable;
+    private String schemaKey;
+
     ForeignKeyCleanerImpl(DatabaseAdapter databaseAdapter,
                           ObjectStore<ForeignKeyViolation> foreignKeyViolationStore) {
         this.databaseAdapter = databaseAdapter;
@@ -53,93 +68,229 @@ public final class ForeignKeyCleanerImpl implements ForeignKeyCleaner {
     }
 
     public Integer cleanForeignKeyErrors() {
+        clearCacheIfSchemaChanged();
+
         Integer totalRows = 0;
         Integer lastIterationRows;
 
         do {
-            lastIterationRows = cleanForeignKeyErrorsIteration();
+            lastIterationRows = cleanForeignKeyErrorsIteration("PRAGMA foreign_key_check;");
             totalRows = totalRows + lastIterationRows;
         } while (lastIterationRows > 0);
 
         return totalRows;
     }
 
-    private Integer cleanForeignKeyErrorsIteration() {
-        Integer rowsCount = 0;
-        Cursor errorsCursor = getForeignKeyErrorsCursor();
+    /**
+     * Only checks the rows of the given tables and of the tables referencing them without ON DELETE CASCADE, which
+     * are the ones where deleting rows of the given tables can leave orphans. The cost does not depend on the size of
+     * the rest of the database.
+     */
+    public Integer cleanForeignKeyErrors(Collection<String> tables) {
+        clearCacheIfSchemaChanged();
+        Set<String> tablesToCheck = withReferencingTables(tables);
+
+        Integer totalRows = 0;
+        Integer lastIterationRows;
+
+        do {
+            lastIterationRows = 0;
+            for (String table : tablesToCheck) {
+                lastIterationRows = lastIterationRows +
+                        cleanForeignKeyErrorsIteration("PRAGMA foreign_key_check(" + table + ");");
+            }
+            totalRows = totalRows + lastIterationRows;
+        } while (lastIterationRows > 0);
+
+        return totalRows;
+    }
+
+    public Integer cleanForeignKeyErrorsInWrittenTables() {
+        return cleanForeignKeyErrors(databaseAdapter.getWrittenTables());
+    }
 
-        if (errorsCursor != null) {
-            do {
-                deleteForeignKeyReferencedObject(errorsCursor);
+    private Integer cleanForeignKeyErrorsIteration(String checkStatement) {
+        Map<String, List<ForeignKeyError>> errorsByTable = getForeignKeyErrors(checkStatement);
+
+        Integer rowsCount = 0;
+        for (Map.Entry<String, List<ForeignKeyError>> tableErrors : errorsByTable.entrySet()) {
+            String fromTable = tableErrors.getKey();
+            List<String> rowIds = new ArrayList<>();
+            for (ForeignKeyError error : tableErrors.getValue()) {
+                storeForeignKeyViolation(error);
+                rowIds.add(error.rowId);
                 rowsCount++;
-            } while (errorsCursor.moveToNext());
-            errorsCursor.close();
+            }
+            deleteRows(fromTable, rowIds);
         }
 
         return rowsCount;
     }
 
-    private void deleteForeignKeyReferencedObject(Cursor errorsCursor) {
-        String fromTable = errorsCursor.getString(0);
-        String rowId = errorsCursor.getString(1);
-        String toTable = errorsCursor.getString(2);
-        String foreignKeyIdNumber = errorsCursor.getString(3);
+    private Map<String, List<ForeignKeyError>> getForeignKeyErrors(String checkStatement) {
+        Map<String, List<ForeignKeyError>> errorsByTable = new HashMap<>();
+
+        try (Cursor cursor = databaseAdapter.rawQuery(checkStatement)) {
+            if (cursor.getCount() > 0) {
+                cursor.moveToFirst();
+                do {
+                    ForeignKeyError error = new ForeignKeyError(cursor.getString(0), cursor.getString(1),
+                            cursor.getString(2), cursor.getInt(3));
+                    List<ForeignKeyError> tableErrors = errorsByTable.get(error.fromTable);
+                    if (tableErrors == null) {
+                        tableErrors = new ArrayList<>();
+                        errorsByTable.put(error.fromTable, tableErrors);
+                    }
+                    tableErrors.add(error);
+                } while (cursor.moveToNext());
+            }
+        }
+
+        return errorsByTable;
+    }
 
-        ForeignKeyViolation foreignKeyViolation =
-                getForeignKeyViolation(foreignKeyIdNumber, fromTable, toTable, rowId);
+    private void storeForeignKeyViolation(ForeignKeyError error) {
+        ForeignKeyViolation foreignKeyViolation = getForeignKeyViolation(error);
 
         if (foreignKeyViolation != null) {
             foreignKeyViolationStore.insert(foreignKeyViolation);
 
-            List<String> argumentValues = new ArrayList<>();
-            argumentValues.add(rowId);
-            String[] argumentValuesArray = argumentValues.toArray(new String[argumentValues.size()]);
-            String deleteClause = "ROWID = ?;";
-            int rowsAffected = databaseAdapter.delete(fromTable, deleteClause, argumentValuesArray);
-            if (rowsAffected != 0) {
-                String msg = " was not persisted on " + fromTable +
-                        " table to avoid Foreign Key constraint error. Target not found on "
-                        + toTable + " table. " + foreignKeyViolation.toString();
-                String warningMsg;
-                if (foreignKeyViolation.fromObjectUid() == null) {
-                    warningMsg = "An object" + msg;
-                } else {
-                    warningMsg = "The object " + foreignKeyViolation.fromObjectUid() + msg;
-                }
-                Log.w(this.getClass().getSimpleName(), warningMsg);
+            String msg = " was not persisted on " + error.fromTable +
+                    " table to avoid Foreign Key constraint error. Target not found on "
+                    + error.toTable + " table. " + foreignKeyViolation.toString();
+            String warningMsg;
+            if (foreignKeyViolation.fromObjectUid() == null) {
+                warningMsg = "An object" + msg;
+            } else {
+                warningMsg = "The object " + foreignKeyViolation.fromObjectUid() + msg;
             }
+            Log.w(this.getClass().getSimpleName(), warningMsg);
         }
     }
 
-    private ForeignKeyViolation getForeignKeyViolation(String foreignKeyIdNumber, String fromTable, String toTable,
-                                                       String rowId) {
-        Cursor listCursor = databaseAdapter.rawQuery("PRAGMA foreign_key_list(" + fromTable + ");");
+    /**
+     * Rows are deleted by ROWID in batches. Rows already deleted in cascade by a previous batch are just ignored.
+     */
+    private void deleteRows(String table, List<String> rowIds) {
+        for (int from = 0; from < rowIds.size(); from += DELETE_BATCH_SIZE) {
+            List<String> batch = rowIds.subList(from, Math.min(rowIds.size(), from + DELETE_BATCH_SIZE));
+            databaseAdapter.delete(table, "ROWID IN (" + CollectionsHelper.commaSeparatedCollectionValues(batch)
+                    + ")", null);
+        }
+    }
 
-        ForeignKeyViolation foreignKeyViolation = null;
+    private ForeignKeyViolation getForeignKeyViolation(ForeignKeyError error) {
+        for (ForeignKey foreignKey : getForeignKeys(error.fromTable)) {
+            if (foreignKey.id == error.foreignKeyId) {
+                return buildViolation(foreignKey, error.fromTable, error.toTable, error.rowId);
+            }
+        }
+        return null;
+    }
+
+    private List<ForeignKey> getForeignKeys(String table) {
+        List<ForeignKey> foreignKeys = foreignKeysByTable.get(table);
+        if (foreignKeys == null) {
+            foreignKeys = queryForeignKeys(table);
+            foreignKeysByTable.put(table, foreignKeys);
+        }
+        return foreignKeys;
+    }
 
-        try {
+    private List<ForeignKey> queryForeignKeys(String table) {
+        List<ForeignKey> foreignKeys = new ArrayList<>();
+
+        try (Cursor listCursor = databaseAdapter.rawQuery("PRAGMA foreign_key_list(" + table + ");")) {
             if (listCursor.getCount() > 0) {
                 listCursor.moveToFirst();
                 do {
-                    if (foreignKeyIdNumber.equals(String.valueOf(listCursor.getInt(0)))) {
-                        foreignKeyViolation = buildViolation(listCursor, fromTable, toTable, rowId);
-                    }
-
+                    foreignKeys.add(new ForeignKey(listCursor.getInt(0), listCursor.getString(2),
+                            listCursor.getString(3), listCursor.getString(4), listCursor.getString(6)));
                 } while (listCursor.moveToNext());
             }
+        }
 
-        } finally {
-            listCursor.close();
+        return Collections.unmodifiableList(foreignKeys);
+    }
+
+    private Set<String> withReferencingTables(Collection<String> tables) {
+        Map<String, Set<String>> referencingTables = getReferencingTablesByTable();
+
+        Set<String> result = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>(tables);
+        while (!pending.isEmpty()) {
+            String table = pending.pop();
+            if (result.add(table) && referencingTables.containsKey(table)) {
+                pending.addAll(referencingTables.get(table));
+            }
         }
+        return result;
+    }
 
-        return foreignKeyViolation;
+    /**
+     * The foreign keys are cached for the schema they were read from. The cleaner outlives the database it was first
+     * used with when the user logs in to another database, and migrations change the schema, so the cache is cleared
+     * whenever the database version or the schema version reported by SQLite change.
+     */
+    private synchronized void clearCacheIfSchemaChanged() {
+        String currentSchemaKey = queryPragma("user_version") + ":" + queryPragma("schema_version");
+        if (!currentSchemaKey.equals(schemaKey)) {
+            foreignKeysByTable.clear();
+            referencingTablesByTable = null;
+            schemaKey = currentSchemaKey;
+        }
     }
 
-    private ForeignKeyViolation buildViolation(Cursor listCursor, String fromTable, String toTable, String rowId) {
+    private String queryPragma(String pragma) {
+        try (Cursor cursor = databaseAdapter.rawQuery("PRAGMA " + pragma + ";")) {
+            return cursor.moveToFirst() ? cursor.getString(0) : null;
+        }
+    }
+
+    /**
+     * Tables referencing each table through a foreign key that is not deleted in cascade. It is built once from the
+     * cached foreign key list of all the tables in the database.
+     */
+    private synchronized Map<String, Set<String>> getReferencingTablesByTable() {
+        if (referencingTablesByTable == null) {
+            Map<String, Set<String>> referencingTables = new HashMap<>();
+            for (String table : queryTableNames()) {
+                for (ForeignKey foreignKey : getForeignKeys(table)) {
+                    if (!"CASCADE".equalsIgnoreCase(foreignKey.onDelete)) {
+                        Set<String> tableReferences = referencingTables.get(foreignKey.toTable);
+                        if (tableReferences == null) {
+                            tableReferences = new HashSet<>();
+                            referencingTables.put(foreignKey.toTable, tableReferences);
+                        }
+                        tableReferences.add(table);
+                    }
+                }
+            }
+            referencingTablesByTable = referencingTables;
+        }
+        return referencingTablesByTable;
+    }
+
+    private List<String> queryTableNames() {
+        List<String> tables = new ArrayList<>();
+        try (Cursor cursor = databaseAdapter.rawQuery(
+                "SELECT name FROM sqlite_master WHERE type = 'table' AND name NOT LIKE 'sqlite_%';")) {
+            if (cursor.getCount() > 0) {
+                cursor.moveToFirst();
+                do {
+                    tables.add(cursor.getString(0));
+                } while (cursor.moveToNext());
+            }
+        }
+        return tables;
+    }
+
+    private ForeignKeyViolation buildViolation(ForeignKey foreignKey, String fromTable, String toTable,
+                                               String rowId) {
 
         ForeignKeyViolation foreignKeyViolation = null;
 
-        String fromColumn = listCursor.getString(3);
+        String fromColumn = foreignKey.fromColumn;
         String selectStatement = "SELECT * FROM " + fromTable + " WHERE ROWID = " + rowId + ";";
 
         try (Cursor objectCursor = databaseAdapter.rawQuery(selectStatement)) {
@@ -163,7 +314,7 @@ public final class ForeignKeyCleanerImpl implements ForeignKeyCleaner {
                         .fromTable(fromTable)
                         .toTable(toTable)
                         .fromColumn(fromColumn)
-                        .toColumn(listCursor.getString(4))
+                        .toColumn(foreignKey.toColumn)
                         .notFoundValue(getColumnValueAsString(objectCursor, fromColumn))
                         .fromObjectRow(CollectionsHelper.commaAndSpaceSeparatedArrayValues(
                                 columnAndValues.toArray(new String[objectCursor.getColumnCount()])))
@@ -200,15 +351,34 @@ public final class ForeignKeyCleanerImpl implements ForeignKeyCleaner {
         return columnValue;
     }
 
-    private Cursor getForeignKeyErrorsCursor() {
-        Cursor cursor = databaseAdapter.rawQuery("PRAGMA foreign_key_check;");
-        if (cursor.getCount() > 0) {
-            cursor.moveToFirst();
-            return cursor;
+    private static final class ForeignKeyError {
+        final String fromTable;
+        final String rowId;
+        final String toTable;
+        final int foreignKeyId;
+
+        ForeignKeyError(String fromTable, String rowId, String toTable, int foreignKeyId) {
+            this.fromTable = fromTable;
+            this.rowId = rowId;
+            this.toTable = toTable;
+            this.foreignKeyId = foreignKeyId;
         }
+    }
 
-        cursor.close();
-        return null;
+    private static final class ForeignKey {
+        final int id;
+        final String toTable;
+        final String fromColumn;
+        final String toColumn;
+        final String onDelete;
+
+        ForeignKey(int id, String toTable, String fromColumn, String toColumn, String onDelete) {
+            this.id = id;
+            this.toTable = toTable;
+            this.fromColumn = fromColumn;
+            this.toColumn = toColumn;
+            this.onDelete = onDelete;
+        }
     }
 
     public static ForeignKeyCleaner create(DatabaseAdapter databaseAdapter) {
@@ -31,21 +31,22 @@ import org.hisp.dhis.android.core.arch.db.access.DatabaseAdapter;
 import org.hisp.dhis.android.core.arch.db.stores.internal.SingleParentChildStore;
 import org.hisp.dhis.android.core.arch.db.stores.internal.StoreFactory;
 import org.hisp.dhis.android.core.arch.repositories.children.internal.ChildrenAppender;
+import org.hisp.dhis.android.core.arch.repositories.children.internal.SingleParentChildrenAppender;
 import org.hisp.dhis.android.core.enrollment.Enrollment;
 import org.hisp.dhis.android.core.note.Note;
 
-public final class NoteForEnrollmentChildrenAppender extends ChildrenAppender<Enrollment> {
+import java.util.List;
 
-    private final SingleParentChildStore<Enrollment, Note> childStore;
+public final class NoteForEnrollmentChildrenAppender extends SingleParentChildrenAppender<Enrollment, Note> {
 
     private NoteForEnrollmentChildrenAppender(SingleParentChildStore<Enrollment, Note> childStore) {
-        this.childStore = childStore;
+        super(childStore);
     }
 
     @Override
-    protected Enrollment appendChildren(Enrollment enrollment) {
+    protected Enrollment appendChildren(Enrollment enrollment, List<Note> children) {
         Enrollment.Builder builder = enrollment.toBuilder();
-        builder.notes(childStore.getChildren(enrollment));
+        builder.notes(children);
         return builder.build();
     }
 
@@ -31,6 +31,10 @@ import androidx.annotation.NonNull;
 
 import org.hisp.dhis.android.core.arch.api.executors.internal.APICallExecutor;
 import org.hisp.dhis.android.core.arch.api.payload.internal.Payload;
+import org.hisp.dhis.android.core.arch.call.D2Progress;
+import org.hisp.dhis.android.core.arch.call.internal.D2ProgressManager;
+import org.hisp.dhis.android.core.arch.db.stores.internal.ObjectStore;
+import org.hisp.dhis.android.core.arch.helpers.internal.BlockingObservableHelper;
 import org.hisp.dhis.android.core.maintenance.D2Error;
 import org.hisp.dhis.android.core.organisationunit.OrganisationUnit;
 import org.hisp.dhis.android.core.resource.internal.Resource;
@@ -39,6 +43,7 @@ import org.hisp.dhis.android.core.user.User;
 import org.hisp.dhis.android.core.user.UserInternalAccessor;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
@@ -46,40 +51,70 @@ import java.util.concurrent.Callable;
 import javax.inject.Inject;
 
 import dagger.Reusable;
+import io.reactivex.Flowable;
+import io.reactivex.functions.Consumer;
+import io.reactivex.schedulers.Schedulers;
 
 import static org.hisp.dhis.android.core.organisationunit.OrganisationUnitTree.findRoots;
 
 @Reusable
 class OrganisationUnitCallFactory {
 
+    static final int DEFAULT_PARALLELISM = 4;
+
     private final OrganisationUnitService organisationUnitService;
     private final OrganisationUnitHandler handler;
     private final OrganisationUnitDisplayPathTransformer pathTransformer;
 
     private final APICallExecutor apiCallExecutor;
     private final ResourceHandler resourceHandler;
+    private final ObjectStore<D2Error> errorStore;
 
     @Inject
     OrganisationUnitCallFactory(@NonNull OrganisationUnitService organisationUnitService,
                                 @NonNull OrganisationUnitHandler handler,
                                 @NonNull OrganisationUnitDisplayPathTransformer pathTransformer,
                                 @NonNull APICallExecutor apiCallExecutor,
-                                @NonNull ResourceHandler resourceHandler) {
+                                @NonNull ResourceHandler resourceHandler,
+                                @NonNull ObjectStore<D2Error> errorStore) {
 
         this.organisationUnitService = organisationUnitService;
         this.handler = handler;
         this.pathTransformer = pathTransformer;
         this.apiCallExecutor = apiCallExecutor;
         this.resourceHandler = resourceHandler;
+        this.errorStore = errorStore;
     }
 
     public Callable<List<OrganisationUnit>> create(final User user) {
+        return create(user, DEFAULT_PARALLELISM, progress -> { });
+    }
+
+    /**
+     * Downloads the hierarchies below the capture and search roots of the user. Up to {@code parallelism} roots are
+     * downloaded at the same time, while their pages are persisted by the calling thread as they arrive. A progress
+     * step is reported to {@code rootProgressConsumer} each time the whole hierarchy of a root has been persisted.
+     */
+    public Callable<List<OrganisationUnit>> create(final User user,
+                                                   final int parallelism,
+                                                   final Consumer<D2Progress> rootProgressConsumer) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
 
         return () -> {
             handler.resetLinks();
 
-            List<OrganisationUnit> orgUnits = downloadCaptureOrgunits(user);
-            orgUnits.addAll(downloadSearchOrgunits(user));
+            Set<String> captureOrgunitsUids = findRoots(UserInternalAccessor.accessOrganisationUnits(user));
+            Set<String> searchOrgunitsUids = findRoots(UserInternalAccessor.accessTeiSearchOrganisationUnits(user));
+            RootProgress rootProgress = new RootProgress(
+                    new D2ProgressManager(captureOrgunitsUids.size() + searchOrgunitsUids.size()),
+                    rootProgressConsumer);
+
+            List<OrganisationUnit> orgUnits = downloadOrgunits(captureOrgunitsUids, user,
+                    OrganisationUnit.Scope.SCOPE_DATA_CAPTURE, parallelism, rootProgress);
+            orgUnits.addAll(downloadOrgunits(searchOrgunitsUids, user, OrganisationUnit.Scope.SCOPE_TEI_SEARCH,
+                    parallelism, rootProgress));
 
             resourceHandler.handleResource(Resource.Type.ORGANISATION_UNIT);
 
@@ -87,41 +122,64 @@ class OrganisationUnitCallFactory {
         };
     }
 
-    private List<OrganisationUnit> downloadCaptureOrgunits(final User user) throws D2Error {
-        Set<String> captureOrgunitsUids = findRoots(UserInternalAccessor.accessOrganisationUnits(user));
-        return downloadOrgunits(captureOrgunitsUids, user, OrganisationUnit.Scope.SCOPE_DATA_CAPTURE);
-    }
-
-    private List<OrganisationUnit> downloadSearchOrgunits(final User user) throws D2Error {
-        Set<String> searchOrgunitsUids = findRoots(UserInternalAccessor.accessTeiSearchOrganisationUnits(user));
-        return downloadOrgunits(searchOrgunitsUids, user, OrganisationUnit.Scope.SCOPE_TEI_SEARCH);
-    }
-
     private List<OrganisationUnit> downloadOrgunits(final Set<String> orgUnits,
                                                     final User user,
-                                                    final OrganisationUnit.Scope scope) throws D2Error {
+                                                    final OrganisationUnit.Scope scope,
+                                                    final int parallelism,
+                                                    final RootProgress rootProgress) throws Exception {
 
         handler.setData(user, scope);
 
+        Iterator<OrganisationUnitPage> pages = Flowable.fromIterable(orgUnits)
+                .flatMap(uid -> getOrganisationUnitPages(uid).subscribeOn(Schedulers.io()), false, parallelism, 1)
+                .blockingIterable(parallelism)
+                .iterator();
+
         List<OrganisationUnit> organisationUnitList = new ArrayList<>();
-        for (String uid : orgUnits) {
-            OrganisationUnitQuery.Builder queryBuilder = OrganisationUnitQuery.builder().orgUnit(uid);
+        try {
+            while (pages.hasNext()) {
+                OrganisationUnitPage page = pages.next();
+                if (page.error != null) {
+                    errorStore.insert(page.error);
+                    throw page.error;
+                }
+                handler.handleMany(page.organisationUnits, pathTransformer);
+                organisationUnitList.addAll(page.organisationUnits);
+
+                if (page.isLastPage) {
+                    rootProgress.increase();
+                }
+            }
+        } finally {
+            BlockingObservableHelper.dispose(pages);
+        }
 
-            List<OrganisationUnit> pageOrgunits;
-            OrganisationUnitQuery pageQuery;
-            do {
-                pageQuery = queryBuilder.build();
-                pageOrgunits = apiCallExecutor.executePayloadCall(getOrganisationUnitAndDescendants(pageQuery));
+        return organisationUnitList;
+    }
 
-                handler.handleMany(pageOrgunits, pathTransformer);
-                organisationUnitList.addAll(pageOrgunits);
+    /**
+     * Download errors are not stored here, as the io thread can't write while the calling thread holds the metadata
+     * transaction. They are emitted as a page and stored by the calling thread.
+     */
+    private Flowable<OrganisationUnitPage> getOrganisationUnitPages(String uid) {
+        return Flowable.generate(() -> OrganisationUnitQuery.builder().orgUnit(uid).build(), (pageQuery, emitter) -> {
+            List<OrganisationUnit> pageOrgunits;
+            try {
+                pageOrgunits = apiCallExecutor.executePayloadCall(getOrganisationUnitAndDescendants(pageQuery), false);
+            } catch (D2Error d2Error) {
+                emitter.onNext(new OrganisationUnitPage(d2Error));
+                emitter.onComplete();
+                return pageQuery;
+            }
 
-                queryBuilder.page(pageQuery.page() + 1);
+            boolean isLastPage = pageOrgunits.size() != pageQuery.pageSize();
+            emitter.onNext(new OrganisationUnitPage(pageOrgunits, isLastPage));
+            if (isLastPage) {
+                emitter.onComplete();
             }
-            while (pageOrgunits.size() == pageQuery.pageSize());
-        }
 
-        return organisationUnitList;
+            return OrganisationUnitQuery.builder().orgUnit(uid).page(pageQuery.page() + 1).build();
+        });
     }
 
     private retrofit2.Call<Payload<OrganisationUnit>> getOrganisationUnitAndDescendants(OrganisationUnitQuery query) {
@@ -129,4 +187,36 @@ class OrganisationUnitCallFactory {
                 OrganisationUnitFields.allFields, OrganisationUnitFields.path.like(query.orgUnit()),
                 query.paging(), query.pageSize(), query.page());
     }
-}
\ No newline at end of file
+
+    private static final class OrganisationUnitPage {
+        private final List<OrganisationUnit> organisationUnits;
+        private final boolean isLastPage;
+        private final D2Error error;
+
+        private OrganisationUnitPage(List<OrganisationUnit> organisationUnits, boolean isLastPage) {
+            this.organisationUnits = organisationUnits;
+            this.isLastPage = isLastPage;
+            this.error = null;
+        }
+
+        private OrganisationUnitPage(D2Error error) {
+            this.organisationUnits = null;
+            this.isLastPage = true;
+            this.error = error;
+        }
+    }
+
+    private static final class RootProgress {
+        private final D2ProgressManager progressManager;
+        private final Consumer<D2Progress> consumer;
+
+        private RootProgress(D2ProgressManager progressManager, Consumer<D2Progress> consumer) {
+            this.progressManager = progressManager;
+            this.consumer = consumer;
+        }
+
+        private void increase() throws Exception {
+            consumer.accept(progressManager.increaseProgressAndCompleteWithCount(OrganisationUnit.class));
+        }
+    }
+}
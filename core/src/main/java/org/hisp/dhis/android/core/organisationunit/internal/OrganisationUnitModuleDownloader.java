@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.android.core.organisationunit.internal;
 
+import org.hisp.dhis.android.core.arch.call.D2Progress;
 import org.hisp.dhis.android.core.organisationunit.OrganisationUnit;
 import org.hisp.dhis.android.core.user.User;
 
@@ -37,6 +38,7 @@ import java.util.concurrent.Callable;
 import javax.inject.Inject;
 
 import dagger.Reusable;
+import io.reactivex.functions.Consumer;
 
 @Reusable
 public class OrganisationUnitModuleDownloader {
@@ -58,8 +60,19 @@ public class OrganisationUnitModuleDownloader {
     }
 
     public Callable<List<OrganisationUnit>> downloadMetadata(final User user) {
+        return downloadMetadata(user, OrganisationUnitCallFactory.DEFAULT_PARALLELISM, progress -> { });
+    }
+
+    /**
+     * Same as {@link #downloadMetadata(User)}, downloading up to {@code parallelism} organisation unit roots at the
+     * same time and reporting a progress step each time the hierarchy of a root has been persisted.
+     */
+    public Callable<List<OrganisationUnit>> downloadMetadata(final User user,
+                                                             final int parallelism,
+                                                             final Consumer<D2Progress> rootProgressConsumer) {
         return () -> {
-            List<OrganisationUnit> organisationUnits = organisationUnitCallFactory.create(user).call();
+            List<OrganisationUnit> organisationUnits =
+                    organisationUnitCallFactory.create(user, parallelism, rootProgressConsumer).call();
             organisationUnitLevelEndpointCallFactory.create().call();
 
             return organisationUnits;
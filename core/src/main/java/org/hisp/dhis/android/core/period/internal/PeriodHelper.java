@@ -107,6 +107,17 @@ public class PeriodHelper {
         return Single.just(blockingGetPeriodForPeriodTypeAndDate(periodType, date));
     }
 
+    /**
+     * Generate the period of a periodType containing a date, without reading or inserting it in the database.
+     *
+     * @param periodType Period type
+     * @param date Date contained in the period
+     * @return Period
+     */
+    public Period generatePeriodForPeriodTypeAndDate(@NonNull PeriodType periodType, @NonNull Date date) {
+        return parentPeriodGenerator.generatePeriod(periodType, date);
+    }
+
     /**
      * Get a period object specifying a periodId.
      * If the periodId does not exist in the database, it is inserted.
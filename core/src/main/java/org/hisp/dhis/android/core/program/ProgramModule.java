@@ -28,6 +28,7 @@
 
 package org.hisp.dhis.android.core.program;
 
+import org.hisp.dhis.android.core.program.programindicatorengine.ProgramIndicatorAggregationEngine;
 import org.hisp.dhis.android.core.program.programindicatorengine.ProgramIndicatorEngine;
 
 public interface ProgramModule {
@@ -44,4 +45,5 @@ public interface ProgramModule {
     ProgramTrackedEntityAttributeCollectionRepository programTrackedEntityAttributes();
 
     ProgramIndicatorEngine programIndicatorEngine();
+    ProgramIndicatorAggregationEngine programIndicatorAggregationEngine();
 }
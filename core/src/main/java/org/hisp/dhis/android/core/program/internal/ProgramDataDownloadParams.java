@@ -48,6 +48,8 @@ public abstract class ProgramDataDownloadParams {
 
     public static final Integer DEFAULT_LIMIT = 500;
 
+    public static final Integer DEFAULT_PAGE_CONCURRENCY = 1;
+
     @NonNull
     public abstract List<String> uids();
 
@@ -84,6 +86,18 @@ public abstract class ProgramDataDownloadParams {
     @NonNull
     public abstract Boolean overwrite();
 
+    @Nullable
+    public abstract Integer pageConcurrency();
+
+    @Nullable
+    public abstract Boolean streaming();
+
+    @Nullable
+    public abstract Boolean resumable();
+
+    @Nullable
+    public abstract Integer combinationConcurrency();
+
     public static ProgramDataDownloadParams fromRepositoryScope(RepositoryScope scope) {
         Builder builder = builder();
         for (RepositoryScopeFilterItem item : scope.filters()) {
@@ -109,6 +123,18 @@ public abstract class ProgramDataDownloadParams {
                 case QueryParams.OVERWRITE:
                     builder.overwrite(item.value().equals("1"));
                     break;
+                case QueryParams.PAGE_CONCURRENCY:
+                    builder.pageConcurrency(Integer.parseInt(item.value()));
+                    break;
+                case QueryParams.STREAMING:
+                    builder.streaming(item.value().equals("1"));
+                    break;
+                case QueryParams.RESUMABLE:
+                    builder.resumable(item.value().equals("1"));
+                    break;
+                case QueryParams.COMBINATION_CONCURRENCY:
+                    builder.combinationConcurrency(Integer.parseInt(item.value()));
+                    break;
                 default:
             }
         }
@@ -150,6 +176,14 @@ public abstract class ProgramDataDownloadParams {
 
         public abstract Builder overwrite(Boolean overwrite);
 
+        public abstract Builder pageConcurrency(Integer pageConcurrency);
+
+        public abstract Builder streaming(Boolean streaming);
+
+        public abstract Builder resumable(Boolean resumable);
+
+        public abstract Builder combinationConcurrency(Integer combinationConcurrency);
+
         public abstract ProgramDataDownloadParams build();
     }
 
@@ -166,5 +200,9 @@ public abstract class ProgramDataDownloadParams {
         public static final String LIMIT_BY_PROGRAM = "limitByProgram";
         public static final String LIMIT = "limit";
         public static final String OVERWRITE = "overwrite";
+        public static final String PAGE_CONCURRENCY = "pageConcurrency";
+        public static final String STREAMING = "streaming";
+        public static final String RESUMABLE = "resumable";
+        public static final String COMBINATION_CONCURRENCY = "combinationConcurrency";
     }
 }
\ No newline at end of file
@@ -39,6 +39,7 @@ import org.hisp.dhis.android.core.program.ProgramStageCollectionRepository;
 import org.hisp.dhis.android.core.program.ProgramStageDataElementCollectionRepository;
 import org.hisp.dhis.android.core.program.ProgramStageSectionsCollectionRepository;
 import org.hisp.dhis.android.core.program.ProgramTrackedEntityAttributeCollectionRepository;
+import org.hisp.dhis.android.core.program.programindicatorengine.ProgramIndicatorAggregationEngine;
 import org.hisp.dhis.android.core.program.programindicatorengine.ProgramIndicatorEngine;
 
 import javax.inject.Inject;
@@ -60,6 +61,7 @@ public final class ProgramModuleImpl implements ProgramModule {
     private final ProgramTrackedEntityAttributeCollectionRepository programTrackedEntityAttributes;
 
     private final ProgramIndicatorEngine programIndicatorEngine;
+    private final ProgramIndicatorAggregationEngine programIndicatorAggregationEngine;
 
     @Inject
     ProgramModuleImpl(ProgramCollectionRepository programs,
@@ -72,7 +74,8 @@ public final class ProgramModuleImpl implements ProgramModule {
                       ProgramStageSectionsCollectionRepository programStageSections,
                       ProgramStageDataElementCollectionRepository programStageDataElements,
                       ProgramTrackedEntityAttributeCollectionRepository programTrackedEntityAttributes,
-                      ProgramIndicatorEngine programIndicatorEngine) {
+                      ProgramIndicatorEngine programIndicatorEngine,
+                      ProgramIndicatorAggregationEngine programIndicatorAggregationEngine) {
         this.programs = programs;
         this.programIndicators = programIndicators;
         this.programRules = programRules;
@@ -84,6 +87,7 @@ public final class ProgramModuleImpl implements ProgramModule {
         this.programStageDataElements = programStageDataElements;
         this.programTrackedEntityAttributes = programTrackedEntityAttributes;
         this.programIndicatorEngine = programIndicatorEngine;
+        this.programIndicatorAggregationEngine = programIndicatorAggregationEngine;
     }
 
     @Override
@@ -140,4 +144,9 @@ public final class ProgramModuleImpl implements ProgramModule {
     public ProgramIndicatorEngine programIndicatorEngine() {
         return programIndicatorEngine;
     }
+
+    @Override
+    public ProgramIndicatorAggregationEngine programIndicatorAggregationEngine() {
+        return programIndicatorAggregationEngine;
+    }
 }
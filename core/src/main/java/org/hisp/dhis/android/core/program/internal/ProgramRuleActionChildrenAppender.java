@@ -31,21 +31,22 @@ import org.hisp.dhis.android.core.arch.db.access.DatabaseAdapter;
 import org.hisp.dhis.android.core.arch.db.stores.internal.SingleParentChildStore;
 import org.hisp.dhis.android.core.arch.db.stores.internal.StoreFactory;
 import org.hisp.dhis.android.core.arch.repositories.children.internal.ChildrenAppender;
+import org.hisp.dhis.android.core.arch.repositories.children.internal.SingleParentChildrenAppender;
 import org.hisp.dhis.android.core.program.ProgramRule;
 import org.hisp.dhis.android.core.program.ProgramRuleAction;
 
-final class ProgramRuleActionChildrenAppender extends ChildrenAppender<ProgramRule> {
+import java.util.List;
 
-    private final SingleParentChildStore<ProgramRule, ProgramRuleAction> childStore;
+final class ProgramRuleActionChildrenAppender extends SingleParentChildrenAppender<ProgramRule, ProgramRuleAction> {
 
     private ProgramRuleActionChildrenAppender(SingleParentChildStore<ProgramRule, ProgramRuleAction> childStore) {
-        this.childStore = childStore;
+        super(childStore);
     }
 
     @Override
-    protected ProgramRule appendChildren(ProgramRule programRule) {
+    protected ProgramRule appendChildren(ProgramRule programRule, List<ProgramRuleAction> children) {
         ProgramRule.Builder builder = programRule.toBuilder();
-        builder.programRuleActions(childStore.getChildren(programRule));
+        builder.programRuleActions(children);
         return builder.build();
     }
 
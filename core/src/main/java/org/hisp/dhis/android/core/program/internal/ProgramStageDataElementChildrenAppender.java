@@ -32,28 +32,30 @@ import org.hisp.dhis.android.core.arch.db.stores.internal.SingleParentChildStore
 import org.hisp.dhis.android.core.arch.db.stores.internal.StoreFactory;
 import org.hisp.dhis.android.core.arch.db.stores.projections.internal.SingleParentChildProjection;
 import org.hisp.dhis.android.core.arch.repositories.children.internal.ChildrenAppender;
+import org.hisp.dhis.android.core.arch.repositories.children.internal.SingleParentChildrenAppender;
 import org.hisp.dhis.android.core.program.ProgramStage;
 import org.hisp.dhis.android.core.program.ProgramStageDataElement;
 import org.hisp.dhis.android.core.program.ProgramStageDataElementTableInfo;
 import org.hisp.dhis.android.core.program.ProgramStageInternalAccessor;
 
-final class ProgramStageDataElementChildrenAppender extends ChildrenAppender<ProgramStage> {
+import java.util.List;
+
+final class ProgramStageDataElementChildrenAppender
+        extends SingleParentChildrenAppender<ProgramStage, ProgramStageDataElement> {
 
     private static final SingleParentChildProjection CHILD_PROJECTION = new SingleParentChildProjection(
             ProgramStageDataElementTableInfo.TABLE_INFO,
             ProgramStageDataElementTableInfo.Columns.PROGRAM_STAGE);
 
-    private final SingleParentChildStore<ProgramStage, ProgramStageDataElement> childStore;
-
     private ProgramStageDataElementChildrenAppender(
             SingleParentChildStore<ProgramStage, ProgramStageDataElement> childStore) {
-        this.childStore = childStore;
+        super(childStore);
     }
 
     @Override
-    protected ProgramStage appendChildren(ProgramStage programStage) {
+    protected ProgramStage appendChildren(ProgramStage programStage, List<ProgramStageDataElement> children) {
         return ProgramStageInternalAccessor.insertProgramStageDataElements(programStage.toBuilder(),
-                childStore.getChildren(programStage)).build();
+                children).build();
     }
 
     static ChildrenAppender<ProgramStage> create(DatabaseAdapter databaseAdapter) {
@@ -53,6 +53,8 @@ final class ExpressionUtils {
     private static final String IGNORED_KEYWORDS_REGEX =
             "(^|[^:])(SUM|sum|AVERAGE|average|COUNT|count|STDDEV|stddev|VARIANCE|variance|MIN|min|MAX|max|NONE|none)";
 
+    private static final Pattern IGNORED_KEYWORDS_PATTERN = Pattern.compile(IGNORED_KEYWORDS_REGEX);
+
     private static final Pattern NUMERIC_PATTERN = Pattern.compile("^(-?0|-?[1-9]\\d*)(\\.\\d+)?$");
 
     private ExpressionUtils() {
@@ -155,6 +157,48 @@ final class ExpressionUtils {
         return String.valueOf(result);
     }
 
+    /**
+     * Creates a JEXL expression which can be evaluated several times with different variables.
+     *
+     * @param expression the expression.
+     * @return the JEXL expression.
+     */
+    static Expression createExpression(String expression) {
+        return JEXL.createExpression(expression.replaceAll(IGNORED_KEYWORDS_REGEX, StringUtils.EMPTY));
+    }
+
+    /**
+     * @param text the text.
+     * @return whether the text contains keywords which are removed from the expressions before evaluating them.
+     */
+    static boolean containsIgnoredKeywords(String text) {
+        return IGNORED_KEYWORDS_PATTERN.matcher(text).find();
+    }
+
+    /**
+     * Evaluates the given JEXL expression with the given variables. Throws an IllegalStateException if the
+     * result of the evaluation is null.
+     *
+     * @param expression the JEXL expression.
+     * @param vars       the variables.
+     * @return the result of the evaluation.
+     */
+    static String evaluateToString(Expression expression, Map<String, Object> vars) {
+        Object result;
+        try {
+            result = expression.evaluate(new MapContext(vars));
+        } catch (Exception e) {
+            Log.e(CLASS_TAG, e.toString());
+            result = null;
+        }
+
+        if (result == null) {
+            throw new IllegalStateException("Result must be not null");
+        }
+
+        return String.valueOf(result);
+    }
+
     /**
      * Evaluates the given expression to true or false. The given variables will
      * be substituted in the expression.
@@ -0,0 +1,387 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.program.programindicatorengine;
+
+import android.database.Cursor;
+
+import androidx.annotation.Nullable;
+
+import org.hisp.dhis.android.core.arch.db.access.DatabaseAdapter;
+import org.hisp.dhis.android.core.arch.db.querybuilders.internal.BoundWhereClause;
+import org.hisp.dhis.android.core.arch.db.querybuilders.internal.WhereClauseBuilder;
+import org.hisp.dhis.android.core.arch.db.stores.internal.IdentifiableObjectStore;
+import org.hisp.dhis.android.core.common.AggregationType;
+import org.hisp.dhis.android.core.event.Event;
+import org.hisp.dhis.android.core.event.EventTableInfo;
+import org.hisp.dhis.android.core.event.internal.EventStore;
+import org.hisp.dhis.android.core.period.PeriodType;
+import org.hisp.dhis.android.core.period.internal.PeriodHelper;
+import org.hisp.dhis.android.core.program.ProgramIndicator;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.inject.Inject;
+
+import dagger.Reusable;
+
+/**
+ * Aggregates program indicators over the events of their program, by organisation unit and period. Each event is
+ * a row of the aggregation.
+ */
+@Reusable
+public class ProgramIndicatorAggregationEngine {
+
+    private static final int EVENT_BATCH_SIZE = 500;
+    private static final String FILTER_UID_SUFFIX = "_filter";
+    private static final String DAY_FORMAT = "yyyy-MM-dd";
+
+    private static final String EVENT = EventTableInfo.TABLE_INFO.name();
+    private static final String ORGANISATION_UNIT = EventTableInfo.Columns.ORGANISATION_UNIT;
+    private static final String DAY = "day";
+    private static final String VALUE = "value";
+
+    private final IdentifiableObjectStore<ProgramIndicator> programIndicatorStore;
+    private final EventStore eventStore;
+    private final DatabaseAdapter databaseAdapter;
+    private final ProgramIndicatorSqlTranslator sqlTranslator;
+    private final ProgramIndicatorEngine programIndicatorEngine;
+    private final PeriodHelper periodHelper;
+
+    @Inject
+    ProgramIndicatorAggregationEngine(IdentifiableObjectStore<ProgramIndicator> programIndicatorStore,
+                                      EventStore eventStore,
+                                      DatabaseAdapter databaseAdapter,
+                                      ProgramIndicatorSqlTranslator sqlTranslator,
+                                      ProgramIndicatorEngine programIndicatorEngine,
+                                      PeriodHelper periodHelper) {
+        this.programIndicatorStore = programIndicatorStore;
+        this.eventStore = eventStore;
+        this.databaseAdapter = databaseAdapter;
+        this.sqlTranslator = sqlTranslator;
+        this.programIndicatorEngine = programIndicatorEngine;
+        this.periodHelper = periodHelper;
+    }
+
+    /**
+     * Aggregate a program indicator over the events of its program. When the expression, the filter and the
+     * aggregation type can be translated to SQL, the values are aggregated by the database in a single query.
+     * Otherwise each event is evaluated by the {@link ProgramIndicatorEngine} and the values are aggregated in memory.
+     *
+     * @param programIndicatorUid ProgramIndicator uid
+     * @param periodType Period type of the aggregated values
+     * @return Aggregated values by organisation unit and period
+     */
+    public List<ProgramIndicatorAggregatedValue> getAggregatedValues(String programIndicatorUid,
+                                                                     PeriodType periodType) {
+        return getAggregatedValues(programIndicatorUid, periodType, null, null, null);
+    }
+
+    /**
+     * Same as {@link #getAggregatedValues(String, PeriodType)}, restricted to the events of the given organisation
+     * units with an event date between the given dates, both included. Null arguments don't restrict the events.
+     *
+     * @param programIndicatorUid ProgramIndicator uid
+     * @param periodType Period type of the aggregated values
+     * @param orgUnitUids Organisation units of the events
+     * @param startDate First day of the events
+     * @param endDate Last day of the events
+     * @return Aggregated values by organisation unit and period
+     */
+    public List<ProgramIndicatorAggregatedValue> getAggregatedValues(String programIndicatorUid,
+                                                                     PeriodType periodType,
+                                                                     @Nullable Collection<String> orgUnitUids,
+                                                                     @Nullable Date startDate,
+                                                                     @Nullable Date endDate) {
+        ProgramIndicator programIndicator = programIndicatorStore.selectByUid(programIndicatorUid);
+        if (programIndicator == null || programIndicator.expression() == null || programIndicator.program() == null) {
+            return Collections.emptyList();
+        }
+
+        BoundWhereClause eventWhereClause =
+                getEventWhereClause(programIndicator.program().uid(), orgUnitUids, startDate, endDate);
+
+        Map<String, Map<String, Accumulator>> dayAccumulators = null;
+        if (isSupportedBySql(programIndicator.aggregationType())) {
+            String expressionSql = sqlTranslator.translate(programIndicator.expression());
+            String filterSql = programIndicator.filter() == null ? null :
+                    sqlTranslator.translate(programIndicator.filter());
+
+            if (expressionSql != null && (programIndicator.filter() == null || filterSql != null)) {
+                dayAccumulators = aggregateWithSql(eventWhereClause, expressionSql, filterSql);
+            }
+        }
+        if (dayAccumulators == null) {
+            dayAccumulators = aggregateEvents(programIndicator, eventWhereClause);
+        }
+
+        return getAggregatedValues(dayAccumulators, periodType, programIndicator.aggregationType());
+    }
+
+    private static boolean isSupportedBySql(AggregationType aggregationType) {
+        return aggregationType != AggregationType.LAST && aggregationType != AggregationType.LAST_AVERAGE_ORG_UNIT;
+    }
+
+    private static BoundWhereClause getEventWhereClause(String programUid, Collection<String> orgUnitUids,
+                                                        Date startDate, Date endDate) {
+        SimpleDateFormat dayFormat = new SimpleDateFormat(DAY_FORMAT, Locale.US);
+        String eventDay = "date(" + EVENT + "." + EventTableInfo.Columns.EVENT_DATE + ")";
+
+        WhereClauseBuilder builder = new WhereClauseBuilder()
+                .appendKeyStringArg(EVENT + "." + EventTableInfo.Columns.PROGRAM, programUid)
+                .appendIsNotNullValue(EVENT + "." + EventTableInfo.Columns.EVENT_DATE)
+                .appendIsNullOrValue(EVENT + "." + EventTableInfo.Columns.DELETED, "0");
+        if (orgUnitUids != null) {
+            builder.appendInKeyStringArgs(EVENT + "." + ORGANISATION_UNIT, orgUnitUids);
+        }
+        if (startDate != null) {
+            builder.appendKeyOperatorArg(eventDay, ">=", dayFormat.format(startDate));
+        }
+        if (endDate != null) {
+            builder.appendKeyOperatorArg(eventDay, "<=", dayFormat.format(endDate));
+        }
+        return builder.buildBound();
+    }
+
+    private Map<String, Map<String, Accumulator>> aggregateWithSql(BoundWhereClause eventWhereClause,
+                                                                   String expressionSql, String filterSql) {
+
+        String query = "SELECT " + ORGANISATION_UNIT + ", " + DAY + ", COUNT(" + VALUE + "), SUM(" + VALUE + "), " +
+                "SUM(" + VALUE + " * " + VALUE + "), MIN(" + VALUE + "), MAX(" + VALUE + ") FROM (" +
+                "SELECT " + EVENT + "." + ORGANISATION_UNIT + " AS " + ORGANISATION_UNIT + ", " +
+                "date(" + EVENT + "." + EventTableInfo.Columns.EVENT_DATE + ") AS " + DAY + ", " +
+                "(" + expressionSql + ") AS " + VALUE + " " +
+                "FROM " + EVENT + " WHERE " + eventWhereClause.clause() +
+                (filterSql == null ? "" : " AND (" + filterSql + ")") +
+                ") GROUP BY " + ORGANISATION_UNIT + ", " + DAY;
+
+        Map<String, Map<String, Accumulator>> dayAccumulators = new HashMap<>();
+        Cursor cursor = databaseAdapter.rawQuery(query, eventWhereClause.argsArray());
+        try {
+            if (cursor.getCount() > 0) {
+                cursor.moveToFirst();
+                do {
+                    long count = cursor.getLong(2);
+                    if (count > 0) {
+                        getAccumulator(dayAccumulators, cursor.getString(0), cursor.getString(1)).merge(
+                                new Accumulator(count, cursor.getDouble(3), cursor.getDouble(4),
+                                        cursor.getDouble(5), cursor.getDouble(6)));
+                    }
+                } while (cursor.moveToNext());
+            }
+        } finally {
+            cursor.close();
+        }
+        return dayAccumulators;
+    }
+
+    private Map<String, Map<String, Accumulator>> aggregateEvents(ProgramIndicator programIndicator,
+                                                                  BoundWhereClause eventWhereClause) {
+        List<ProgramIndicator> programIndicators = new ArrayList<>(Collections.singletonList(programIndicator));
+        String filterUid = programIndicator.uid() + FILTER_UID_SUFFIX;
+        if (programIndicator.filter() != null) {
+            programIndicators.add(programIndicator.toBuilder()
+                    .uid(filterUid)
+                    .expression(programIndicator.filter())
+                    .build());
+        }
+
+        List<Event> events =
+                eventStore.selectWhere(eventWhereClause, EVENT + "." + EventTableInfo.Columns.EVENT_DATE);
+
+        SimpleDateFormat dayFormat = new SimpleDateFormat(DAY_FORMAT, Locale.US);
+        Map<String, Map<String, Accumulator>> dayAccumulators = new HashMap<>();
+        for (int from = 0; from < events.size(); from += EVENT_BATCH_SIZE) {
+            List<Event> batch = events.subList(from, Math.min(events.size(), from + EVENT_BATCH_SIZE));
+            List<String> eventUids = new ArrayList<>(batch.size());
+            for (Event event : batch) {
+                eventUids.add(event.uid());
+            }
+
+            Map<String, Map<String, String>> values =
+                    programIndicatorEngine.getRawEventValues(eventUids, programIndicators);
+
+            for (Event event : batch) {
+                Map<String, String> eventValues = values.get(event.uid());
+                String value = eventValues.get(programIndicator.uid());
+                boolean isFiltered = programIndicator.filter() != null &&
+                        !Boolean.TRUE.toString().equals(eventValues.get(filterUid));
+
+                if (!isFiltered && MathUtils.isNumeric(value)) {
+                    getAccumulator(dayAccumulators, event.organisationUnit(), dayFormat.format(event.eventDate()))
+                            .add(Double.valueOf(value), event.eventDate());
+                }
+            }
+        }
+        return dayAccumulators;
+    }
+
+    private List<ProgramIndicatorAggregatedValue> getAggregatedValues(
+            Map<String, Map<String, Accumulator>> dayAccumulators,
+            PeriodType periodType,
+            AggregationType aggregationType) {
+
+        SimpleDateFormat dayFormat = new SimpleDateFormat(DAY_FORMAT, Locale.US);
+        Map<String, String> dayPeriods = new HashMap<>();
+        Map<String, Map<String, Accumulator>> periodAccumulators = new TreeMap<>();
+
+        for (Map.Entry<String, Map<String, Accumulator>> orgUnitEntry : dayAccumulators.entrySet()) {
+            for (Map.Entry<String, Accumulator> dayEntry : orgUnitEntry.getValue().entrySet()) {
+                String period = dayPeriods.get(dayEntry.getKey());
+                if (period == null) {
+                    period = periodHelper.generatePeriodForPeriodTypeAndDate(periodType,
+                            parseDay(dayFormat, dayEntry.getKey())).periodId();
+                    dayPeriods.put(dayEntry.getKey(), period);
+                }
+                getAccumulator(periodAccumulators, orgUnitEntry.getKey(), period).merge(dayEntry.getValue());
+            }
+        }
+
+        List<ProgramIndicatorAggregatedValue> aggregatedValues = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Accumulator>> orgUnitEntry : periodAccumulators.entrySet()) {
+            for (Map.Entry<String, Accumulator> periodEntry : new TreeMap<>(orgUnitEntry.getValue()).entrySet()) {
+                Double value = periodEntry.getValue().value(aggregationType);
+                if (value != null) {
+                    aggregatedValues.add(ProgramIndicatorAggregatedValue.create(orgUnitEntry.getKey(),
+                            periodEntry.getKey(), value));
+                }
+            }
+        }
+        return aggregatedValues;
+    }
+
+    private static Date parseDay(SimpleDateFormat dayFormat, String day) {
+        try {
+            return dayFormat.parse(day);
+        } catch (ParseException e) {
+            throw new RuntimeException("Unexpected event date: " + day, e);
+        }
+    }
+
+    private static Accumulator getAccumulator(Map<String, Map<String, Accumulator>> accumulators,
+                                              String organisationUnit, String key) {
+        Map<String, Accumulator> orgUnitAccumulators = accumulators.get(organisationUnit);
+        if (orgUnitAccumulators == null) {
+            orgUnitAccumulators = new HashMap<>();
+            accumulators.put(organisationUnit, orgUnitAccumulators);
+        }
+        Accumulator accumulator = orgUnitAccumulators.get(key);
+        if (accumulator == null) {
+            accumulator = new Accumulator();
+            orgUnitAccumulators.put(key, accumulator);
+        }
+        return accumulator;
+    }
+
+    /**
+     * Partial aggregation of a group of values, which can be merged with the partial aggregations of other groups.
+     */
+    private static final class Accumulator {
+        private long count;
+        private double sum;
+        private double sumOfSquares;
+        private Double min;
+        private Double max;
+        private Double last;
+        private Date lastDate;
+
+        Accumulator() {
+        }
+
+        Accumulator(long count, double sum, double sumOfSquares, double min, double max) {
+            this.count = count;
+            this.sum = sum;
+            this.sumOfSquares = sumOfSquares;
+            this.min = min;
+            this.max = max;
+        }
+
+        void add(double value, Date date) {
+            Accumulator single = new Accumulator(1, value, value * value, value, value);
+            single.last = value;
+            single.lastDate = date;
+            merge(single);
+        }
+
+        void merge(Accumulator other) {
+            count += other.count;
+            sum += other.sum;
+            sumOfSquares += other.sumOfSquares;
+            min = min == null || (other.min != null && other.min < min) ? other.min : min;
+            max = max == null || (other.max != null && other.max > max) ? other.max : max;
+            if (other.lastDate != null && (lastDate == null || !other.lastDate.before(lastDate))) {
+                last = other.last;
+                lastDate = other.lastDate;
+            }
+        }
+
+        @SuppressWarnings({"PMD.CyclomaticComplexity", "PMD.ModifiedCyclomaticComplexity",
+                "PMD.StdCyclomaticComplexity"})
+        Double value(AggregationType aggregationType) {
+            if (count == 0) {
+                return null;
+            }
+
+            AggregationType type = aggregationType == null ? AggregationType.SUM : aggregationType;
+            switch (type) {
+                case AVERAGE:
+                case AVERAGE_SUM_ORG_UNIT:
+                    return sum / count;
+                case COUNT:
+                    return (double) count;
+                case MIN:
+                    return min;
+                case MAX:
+                    return max;
+                case LAST:
+                case LAST_AVERAGE_ORG_UNIT:
+                    return last;
+                case VARIANCE:
+                    return variance();
+                case STDDEV:
+                    return Math.sqrt(variance());
+                default:
+                    return sum;
+            }
+        }
+
+        private double variance() {
+            return count > 1 ? (sumOfSquares - sum * sum / count) / (count - 1) : 0;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.program.programindicatorengine;
+
+import org.hisp.dhis.android.core.common.ValueType;
+import org.hisp.dhis.android.core.constant.Constant;
+import org.hisp.dhis.android.core.enrollment.Enrollment;
+import org.hisp.dhis.android.core.event.Event;
+import org.hisp.dhis.android.core.trackedentity.TrackedEntityAttributeValue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rows loaded in bulk for a batch evaluation of program indicators. Events are expected with their data values, and
+ * the events of each enrollment ordered by event date.
+ */
+final class ProgramIndicatorBatchData implements ProgramIndicatorDataSource {
+
+    private final Map<String, Enrollment> enrollments;
+    private final Map<String, Map<String, TrackedEntityAttributeValue>> attributeValues;
+    private final Map<String, Event> events;
+    private final Map<String, List<Event>> enrollmentEvents;
+    private final Map<String, Constant> constants;
+    private final Map<String, ValueType> dataElementValueTypes;
+    private final Map<String, ValueType> attributeValueTypes;
+
+    @SuppressWarnings("PMD.ExcessiveParameterList")
+    ProgramIndicatorBatchData(Map<String, Enrollment> enrollments,
+                              Map<String, Map<String, TrackedEntityAttributeValue>> attributeValues,
+                              Map<String, Event> events,
+                              Map<String, List<Event>> enrollmentEvents,
+                              Map<String, Constant> constants,
+                              Map<String, ValueType> dataElementValueTypes,
+                              Map<String, ValueType> attributeValueTypes) {
+        this.enrollments = enrollments;
+        this.attributeValues = attributeValues;
+        this.events = events;
+        this.enrollmentEvents = enrollmentEvents;
+        this.constants = constants;
+        this.dataElementValueTypes = dataElementValueTypes;
+        this.attributeValueTypes = attributeValueTypes;
+    }
+
+    @Override
+    public Enrollment getEnrollment(String enrollmentUid) {
+        return enrollments.get(enrollmentUid);
+    }
+
+    @Override
+    public Map<String, TrackedEntityAttributeValue> getTrackedEntityAttributeValues(String trackedEntityInstanceUid) {
+        Map<String, TrackedEntityAttributeValue> values = attributeValues.get(trackedEntityInstanceUid);
+        return values == null ? Collections.emptyMap() : values;
+    }
+
+    @Override
+    public List<Event> getEventsInStage(String enrollmentUid, String eventUid, String programStageUid) {
+        if (enrollmentUid == null) {
+            Event event = events.get(eventUid);
+            return event == null ? Collections.emptyList() : Collections.singletonList(event);
+        }
+
+        List<Event> eventsInStage = new ArrayList<>();
+        for (Event event : getEnrollmentEvents(enrollmentUid)) {
+            if (programStageUid.equals(event.programStage())) {
+                eventsInStage.add(event);
+            }
+        }
+        return eventsInStage;
+    }
+
+    @Override
+    public Event getEvent(String eventUid) {
+        return events.get(eventUid);
+    }
+
+    @Override
+    public int countEvents(String enrollmentUid) {
+        return getEnrollmentEvents(enrollmentUid).size();
+    }
+
+    @Override
+    public Constant getConstant(String constantUid) {
+        return constants.get(constantUid);
+    }
+
+    @Override
+    public ValueType getDataElementValueType(String dataElementUid) {
+        return dataElementValueTypes.get(dataElementUid);
+    }
+
+    @Override
+    public ValueType getTrackedEntityAttributeValueType(String trackedEntityAttributeUid) {
+        return attributeValueTypes.get(trackedEntityAttributeUid);
+    }
+
+    private List<Event> getEnrollmentEvents(String enrollmentUid) {
+        List<Event> eventList = enrollmentEvents.get(enrollmentUid);
+        return eventList == null ? Collections.<Event>emptyList() : eventList;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.program.programindicatorengine;
+
+import org.hisp.dhis.android.core.common.ValueType;
+import org.hisp.dhis.android.core.constant.Constant;
+import org.hisp.dhis.android.core.enrollment.Enrollment;
+import org.hisp.dhis.android.core.event.Event;
+import org.hisp.dhis.android.core.trackedentity.TrackedEntityAttributeValue;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rows read by the {@link ProgramIndicatorEngine} to resolve the items of a program indicator expression.
+ */
+interface ProgramIndicatorDataSource {
+
+    Enrollment getEnrollment(String enrollmentUid);
+
+    Map<String, TrackedEntityAttributeValue> getTrackedEntityAttributeValues(String trackedEntityInstanceUid);
+
+    /**
+     * @return the events of the stage with their data values, ordered by event date. When there is no enrollment,
+     * the given event only.
+     */
+    List<Event> getEventsInStage(String enrollmentUid, String eventUid, String programStageUid);
+
+    Event getEvent(String eventUid);
+
+    int countEvents(String enrollmentUid);
+
+    Constant getConstant(String constantUid);
+
+    ValueType getDataElementValueType(String dataElementUid);
+
+    ValueType getTrackedEntityAttributeValueType(String trackedEntityAttributeUid);
+}
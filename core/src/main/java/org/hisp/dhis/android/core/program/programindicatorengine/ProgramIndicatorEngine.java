@@ -30,29 +30,38 @@ package org.hisp.dhis.android.core.program.programindicatorengine;
 
 
 import org.apache.commons.jexl2.JexlException;
+import org.hisp.dhis.android.core.arch.db.querybuilders.internal.WhereClauseBuilder;
 import org.hisp.dhis.android.core.arch.db.stores.internal.IdentifiableObjectStore;
+import org.hisp.dhis.android.core.arch.db.stores.internal.ReadableStore;
 import org.hisp.dhis.android.core.common.AggregationType;
+import org.hisp.dhis.android.core.common.IdentifiableColumns;
 import org.hisp.dhis.android.core.common.ValueType;
 import org.hisp.dhis.android.core.constant.Constant;
 import org.hisp.dhis.android.core.dataelement.DataElement;
 import org.hisp.dhis.android.core.enrollment.Enrollment;
 import org.hisp.dhis.android.core.enrollment.internal.EnrollmentStore;
 import org.hisp.dhis.android.core.event.Event;
+import org.hisp.dhis.android.core.event.EventTableInfo;
 import org.hisp.dhis.android.core.event.internal.EventStore;
 import org.hisp.dhis.android.core.program.ProgramIndicator;
 import org.hisp.dhis.android.core.trackedentity.TrackedEntityAttribute;
 import org.hisp.dhis.android.core.trackedentity.TrackedEntityAttributeValue;
+import org.hisp.dhis.android.core.trackedentity.TrackedEntityAttributeValueTableInfo;
 import org.hisp.dhis.android.core.trackedentity.TrackedEntityDataValue;
+import org.hisp.dhis.android.core.trackedentity.TrackedEntityDataValueTableInfo;
 import org.hisp.dhis.android.core.trackedentity.internal.TrackedEntityAttributeValueStore;
 import org.hisp.dhis.android.core.trackedentity.internal.TrackedEntityDataValueStore;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 import javax.inject.Inject;
@@ -77,17 +86,17 @@ public class ProgramIndicatorEngine {
     private static final String NULL_REPLACEMENT = "null";
 
     private static final String SEPARATOR_ID = "\\.";
-    private static final String KEY_DATAELEMENT = "#";
-    private static final String KEY_ATTRIBUTE = "A";
-    private static final String KEY_PROGRAM_VARIABLE = "V";
-    private static final String KEY_CONSTANT = "C";
-    private static final String INCIDENT_DATE = "incident_date";
-    private static final String ENROLLMENT_DATE = "enrollment_date";
-    private static final String ENROLLMENT_STATUS = "enrollment_status";
-    private static final String EVENT_DATE = "event_date";
+    static final String KEY_DATAELEMENT = "#";
+    static final String KEY_ATTRIBUTE = "A";
+    static final String KEY_PROGRAM_VARIABLE = "V";
+    static final String KEY_CONSTANT = "C";
+    static final String INCIDENT_DATE = "incident_date";
+    static final String ENROLLMENT_DATE = "enrollment_date";
+    static final String ENROLLMENT_STATUS = "enrollment_status";
+    static final String EVENT_DATE = "event_date";
     private static final String EVENT_COUNT = "event_count";
-    private static final String DUE_DATE = "due_date";
-    private static final String CURRENT_DATE = "current_date";
+    static final String DUE_DATE = "due_date";
+    static final String CURRENT_DATE = "current_date";
     private static final String VAR_VALUE_COUNT = "value_count";
     private static final String VAR_ZERO_POS_VALUE_COUNT = "zero_pos_value_count";
     private static final String EXPRESSION_REGEXP = "(" + KEY_DATAELEMENT + "|" + KEY_ATTRIBUTE + "|" +
@@ -95,9 +104,9 @@ public class ProgramIndicatorEngine {
             ")\\{(\\w+|" + INCIDENT_DATE + "|" + ENROLLMENT_DATE + "|" + ENROLLMENT_STATUS + "|" +
             EVENT_DATE + "|" + EVENT_COUNT + "|" + DUE_DATE + "|" + CURRENT_DATE + ")" +
             SEPARATOR_ID + "?(\\w*)\\}";
-    private static final Pattern EXPRESSION_PATTERN = Pattern.compile(EXPRESSION_REGEXP);
-    private static final Pattern VALUECOUNT_PATTERN =
-            Pattern.compile("V\\{(" + VAR_VALUE_COUNT + "|" + VAR_ZERO_POS_VALUE_COUNT + ")\\}");
+    private static final int IN_BATCH_SIZE = 500;
+
+    static final Pattern EXPRESSION_PATTERN = Pattern.compile(EXPRESSION_REGEXP);
 
     private final IdentifiableObjectStore<ProgramIndicator> programIndicatorStore;
     private final TrackedEntityDataValueStore trackedEntityDataValueStore;
@@ -108,6 +117,11 @@ public class ProgramIndicatorEngine {
     private final IdentifiableObjectStore<Constant> constantStore;
     private final TrackedEntityAttributeValueStore trackedEntityAttributeValueStore;
 
+    private final ProgramIndicatorDataSource storeDataSource = new StoreDataSource();
+
+    private final ProgramIndicatorExpressionCache expressionCache =
+            new ProgramIndicatorExpressionCache(EXPRESSION_PATTERN, ProgramIndicatorExpressionCache.DEFAULT_MAX_SIZE);
+
     @Inject
     ProgramIndicatorEngine(IdentifiableObjectStore<ProgramIndicator> programIndicatorStore,
                            TrackedEntityDataValueStore trackedEntityDataValueStore,
@@ -141,8 +155,68 @@ public class ProgramIndicatorEngine {
             return null;
         }
 
-        String value = getValue(enrollment, event, programIndicatorUid);
+        ProgramIndicator programIndicator = this.programIndicatorStore.selectByUid(programIndicatorUid);
+        return formatResult(getValue(enrollment, event, programIndicator, storeDataSource));
+    }
+
+    /**
+     * Calculate the values of several program indicators for several enrollments. The events, data values,
+     * attribute values and constants needed by the indicators are read with a few queries for the whole batch.
+     *
+     * @param enrollmentUids Enrollment uids
+     * @param programIndicatorUids ProgramIndicator uids
+     * @return Indicator values by enrollment uid and program indicator uid
+     */
+    public Map<String, Map<String, String>> getEnrollmentProgramIndicatorValues(List<String> enrollmentUids,
+                                                                               List<String> programIndicatorUids) {
+        Map<String, ProgramIndicator> programIndicators = getProgramIndicators(programIndicatorUids);
+        ProgramIndicatorDataSource dataSource = loadEnrollmentData(enrollmentUids, programIndicators.values());
+
+        Map<String, Map<String, String>> values = new LinkedHashMap<>();
+        for (String enrollmentUid : enrollmentUids) {
+            values.put(enrollmentUid, getValues(enrollmentUid, null, programIndicatorUids, programIndicators,
+                    dataSource));
+        }
+        return values;
+    }
 
+    /**
+     * Calculate the values of several program indicators for several events, each of them evaluated as a single
+     * event. The data values and constants needed by the indicators are read with a few queries for the whole batch.
+     *
+     * @param eventUids Event uids
+     * @param programIndicatorUids ProgramIndicator uids
+     * @return Indicator values by event uid and program indicator uid
+     */
+    public Map<String, Map<String, String>> getEventProgramIndicatorValues(List<String> eventUids,
+                                                                          List<String> programIndicatorUids) {
+        Map<String, ProgramIndicator> programIndicators = getProgramIndicators(programIndicatorUids);
+        ProgramIndicatorDataSource dataSource = loadEventData(eventUids, programIndicators.values());
+
+        Map<String, Map<String, String>> values = new LinkedHashMap<>();
+        for (String eventUid : eventUids) {
+            values.put(eventUid, getValues(null, eventUid, programIndicatorUids, programIndicators, dataSource));
+        }
+        return values;
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    private Map<String, String> getValues(String enrollment, String event, List<String> programIndicatorUids,
+                                          Map<String, ProgramIndicator> programIndicators,
+                                          ProgramIndicatorDataSource dataSource) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String programIndicatorUid : programIndicatorUids) {
+            ProgramIndicator programIndicator = programIndicators.get(programIndicatorUid);
+            values.put(programIndicatorUid, programIndicator == null ? null :
+                    formatResult(getValue(enrollment, event, programIndicator, dataSource)));
+        }
+        return values;
+    }
+
+    private static String formatResult(String value) {
         if (MathUtils.isNumeric(value)) {
             return TextUtils.fromDouble(Double.valueOf(value));
         } else {
@@ -150,15 +224,17 @@ public class ProgramIndicatorEngine {
         }
     }
 
-    // -------------------------------------------------------------------------
-    // Supportive methods
-    // -------------------------------------------------------------------------
+    private String getValue(String enrollment, String event, ProgramIndicator programIndicator,
+                            ProgramIndicatorDataSource dataSource) {
+        ProgramIndicatorExpression expression = compile(programIndicator);
+
+        if (expression == null) {
+            return null;
+        }
 
-    private String getValue(String enrollment, String event, String indicatorUid) {
-        String expression = parseIndicatorExpression(enrollment, event, indicatorUid);
         String value;
         try {
-            value = ExpressionUtils.evaluateToString(expression, null);
+            value = expression.evaluate(getItemValues(expression, programIndicator, enrollment, event, dataSource));
         } catch (JexlException e) {
             value = null;
         } catch (IllegalStateException e){
@@ -168,16 +244,38 @@ public class ProgramIndicatorEngine {
     }
 
     String parseIndicatorExpression(String enrollment, String event, String indicatorUid) {
-
         ProgramIndicator programIndicator = this.programIndicatorStore.selectByUid(indicatorUid);
-        String expression = programIndicator.expression();
+        ProgramIndicatorExpression expression = compile(programIndicator);
 
         if (expression == null) {
             return null;
         }
 
-        Matcher matcher = EXPRESSION_PATTERN.matcher(expression);
+        return expression.substitute(getItemValues(expression, programIndicator, enrollment, event,
+                storeDataSource));
+    }
+
+    Map<String, Map<String, String>> getRawEventValues(List<String> eventUids,
+                                                       List<ProgramIndicator> programIndicators) {
+        ProgramIndicatorDataSource dataSource = loadEventData(eventUids, programIndicators);
+
+        Map<String, Map<String, String>> values = new HashMap<>();
+        for (String eventUid : eventUids) {
+            Map<String, String> eventValues = new HashMap<>();
+            for (ProgramIndicator programIndicator : programIndicators) {
+                eventValues.put(programIndicator.uid(), getValue(null, eventUid, programIndicator, dataSource));
+            }
+            values.put(eventUid, eventValues);
+        }
+        return values;
+    }
+
+    private ProgramIndicatorExpression compile(ProgramIndicator programIndicator) {
+        return programIndicator.expression() == null ? null : expressionCache.get(programIndicator);
+    }
 
+    private List<String> getItemValues(ProgramIndicatorExpression expression, ProgramIndicator programIndicator,
+                                       String enrollment, String event, ProgramIndicatorDataSource dataSource) {
         int valueCount = 0;
         int zeroPosValueCount = 0;
 
@@ -185,15 +283,17 @@ public class ProgramIndicatorEngine {
         Enrollment cachedEnrollment = null;
         Map<String, TrackedEntityAttributeValue> attributeToAttributeValues = new HashMap<>();
 
-        StringBuffer buffer = new StringBuffer();
+        List<String> values = new ArrayList<>(expression.items().size());
         Date currentDate = new Date();
 
-        while (matcher.find()) {
-            String key = matcher.group(1);
-            String uid = matcher.group(2);
+        for (int i = 0; i < expression.items().size(); i++) {
+            ProgramIndicatorExpression.Item item = expression.items().get(i);
+            String key = item.key;
+            String uid = item.uid;
+            values.add(null);
 
             if (KEY_DATAELEMENT.equals(key)) {
-                String de = matcher.group(3);
+                String de = item.element;
                 String programStageUid = uid;
 
                 if (programStageUid == null || de == null) {
@@ -201,7 +301,7 @@ public class ProgramIndicatorEngine {
                 }
 
                 if (!cachedEvents.containsKey(programStageUid)) {
-                    List<Event> events = getEventsInStage(enrollment, event, programStageUid);
+                    List<Event> events = dataSource.getEventsInStage(enrollment, event, programStageUid);
                     cachedEvents.put(programStageUid, events);
                 }
 
@@ -212,12 +312,12 @@ public class ProgramIndicatorEngine {
                 if (dataValue == null || dataValue.value() == null || dataValue.value().isEmpty()) {
                     value = "0";
                 } else {
-                    value = formatTEDV(dataValue);
+                    value = formatValue(dataValue.value(), dataSource.getDataElementValueType(de));
                     valueCount++;
                     zeroPosValueCount = isZeroOrPositive(value) ? (zeroPosValueCount + 1) : zeroPosValueCount;
                 }
 
-                matcher.appendReplacement(buffer, TextUtils.quote(value));
+                values.set(i, TextUtils.quote(value));
 
             } else if (KEY_ATTRIBUTE.equals(key)) {
                 if (enrollment == null) {
@@ -226,8 +326,8 @@ public class ProgramIndicatorEngine {
 
                 if (uid != null) {
                     if (cachedEnrollment == null) {
-                        cachedEnrollment = enrollmentStore.selectByUid(enrollment);
-                        attributeToAttributeValues = getTrackedEntityAttributeValues(cachedEnrollment
+                        cachedEnrollment = dataSource.getEnrollment(enrollment);
+                        attributeToAttributeValues = dataSource.getTrackedEntityAttributeValues(cachedEnrollment
                                 .trackedEntityInstance());
                     }
                     TrackedEntityAttributeValue attributeValue = attributeToAttributeValues.get(uid);
@@ -236,25 +336,26 @@ public class ProgramIndicatorEngine {
                             attributeValue.value().isEmpty()) {
                         value = NULL_REPLACEMENT;
                     } else {
-                        value = formatTEAV(attributeValue);
+                        value = formatValue(attributeValue.value(),
+                                dataSource.getTrackedEntityAttributeValueType(uid));
 
                         valueCount++;
                         zeroPosValueCount = isZeroOrPositive(value) ? (zeroPosValueCount + 1) : zeroPosValueCount;
                     }
-                    matcher.appendReplacement(buffer, TextUtils.quote(value));
+                    values.set(i, TextUtils.quote(value));
                 }
             } else if (KEY_CONSTANT.equals(key)) {
-                Constant constant = constantStore.selectByUid(uid);
+                Constant constant = dataSource.getConstant(uid);
 
                 if (constant != null) {
-                    matcher.appendReplacement(buffer, formatConstant(constant));
+                    values.set(i, formatConstant(constant));
                 }
             } else if (KEY_PROGRAM_VARIABLE.equals(key)) {
                 String value = null;
 
                 if (enrollment != null) { //in case of single event without reg
                     if (cachedEnrollment == null) {
-                        cachedEnrollment = enrollmentStore.selectByUid(enrollment);
+                        cachedEnrollment = dataSource.getEnrollment(enrollment);
                     }
 
                     if (ENROLLMENT_DATE.equals(uid)) {
@@ -264,16 +365,16 @@ public class ProgramIndicatorEngine {
                     } else if (ENROLLMENT_STATUS.equals(uid)) {
                         value =  cachedEnrollment.status() == null ? null : cachedEnrollment.status().name();
                     } else if (EVENT_COUNT.equals(uid)) {
-                        value = formatCount(eventStore.countEventsForEnrollment(enrollment, false));
+                        value = formatCount(dataSource.countEvents(enrollment));
                     }
                 }
 
                 if (event != null) {
                     if (EVENT_DATE.equals(uid)) {
-                        Event targetEvent = eventStore.selectByUid(event);
+                        Event targetEvent = dataSource.getEvent(event);
                         value = DateUtils.getMediumDateString(targetEvent.eventDate());
                     } else if (DUE_DATE.equals(uid)) {
-                        Event targetEvent = eventStore.selectByUid(event);
+                        Event targetEvent = dataSource.getEvent(event);
                         value = DateUtils.getMediumDateString(targetEvent.dueDate());
                     }
                 }
@@ -284,61 +385,252 @@ public class ProgramIndicatorEngine {
 
                 if (value != null) {
                     valueCount++;
-                    matcher.appendReplacement(buffer, TextUtils.quote(value));
+                    values.set(i, TextUtils.quote(value));
                 }
             }
         }
 
-        expression = TextUtils.appendTail(matcher, buffer);
+        for (int i = 0; i < values.size(); i++) {
+            ProgramIndicatorExpression.Item item = expression.items().get(i);
 
-        buffer = new StringBuffer();
-        matcher = VALUECOUNT_PATTERN.matcher(expression);
+            if (KEY_PROGRAM_VARIABLE.equals(item.key) && item.element.isEmpty()) {
+                if (VAR_VALUE_COUNT.equals(item.uid)) {
+                    values.set(i, formatCount(valueCount));
+                } else if (VAR_ZERO_POS_VALUE_COUNT.equals(item.uid)) {
+                    values.set(i, formatCount(zeroPosValueCount));
+                }
+            }
+        }
+
+        return values;
+    }
 
-        while (matcher.find()) {
-            String var = matcher.group(1);
+    private Map<String, ProgramIndicator> getProgramIndicators(List<String> programIndicatorUids) {
+        Map<String, ProgramIndicator> programIndicators = new HashMap<>();
+        for (ProgramIndicator programIndicator :
+                selectWhereIn(programIndicatorStore, IdentifiableColumns.UID, programIndicatorUids, null)) {
+            programIndicators.put(programIndicator.uid(), programIndicator);
+        }
+        return programIndicators;
+    }
+
+    private ProgramIndicatorBatchData loadEnrollmentData(List<String> enrollmentUids,
+                                                         Collection<ProgramIndicator> programIndicators) {
+        Map<String, Enrollment> enrollments = new HashMap<>();
+        Set<String> trackedEntityInstanceUids = new HashSet<>();
+        for (Enrollment enrollment : selectWhereIn(enrollmentStore, IdentifiableColumns.UID, enrollmentUids, null)) {
+            enrollments.put(enrollment.uid(), enrollment);
+            if (enrollment.trackedEntityInstance() != null) {
+                trackedEntityInstanceUids.add(enrollment.trackedEntityInstance());
+            }
+        }
+
+        List<Event> events = new ArrayList<>();
+        for (Event event : selectWhereIn(eventStore, EventTableInfo.Columns.ENROLLMENT, enrollmentUids,
+                EventTableInfo.Columns.EVENT_DATE + ", " + EventTableInfo.Columns.LAST_UPDATED)) {
+            if (!Boolean.TRUE.equals(event.deleted())) {
+                events.add(event);
+            }
+        }
+
+        Map<String, List<Event>> enrollmentEvents = new HashMap<>();
+        for (Event event : getEventsWithValues(events)) {
+            List<Event> eventList = enrollmentEvents.get(event.enrollment());
+            if (eventList == null) {
+                eventList = new ArrayList<>();
+                enrollmentEvents.put(event.enrollment(), eventList);
+            }
+            eventList.add(event);
+        }
 
-            if (VAR_VALUE_COUNT.equals(var)) {
-                matcher.appendReplacement(buffer, formatCount(valueCount));
-            } else if (VAR_ZERO_POS_VALUE_COUNT.equals(var)) {
-                matcher.appendReplacement(buffer, formatCount(zeroPosValueCount));
+        Map<String, Map<String, TrackedEntityAttributeValue>> attributeValues = new HashMap<>();
+        for (TrackedEntityAttributeValue attributeValue : selectWhereIn(trackedEntityAttributeValueStore,
+                TrackedEntityAttributeValueTableInfo.Columns.TRACKED_ENTITY_INSTANCE, trackedEntityInstanceUids,
+                null)) {
+            Map<String, TrackedEntityAttributeValue> teiValues =
+                    attributeValues.get(attributeValue.trackedEntityInstance());
+            if (teiValues == null) {
+                teiValues = new HashMap<>();
+                attributeValues.put(attributeValue.trackedEntityInstance(), teiValues);
             }
+            teiValues.put(attributeValue.trackedEntityAttribute(), attributeValue);
         }
 
-        return TextUtils.appendTail(matcher, buffer);
+        return loadBatchData(enrollments, attributeValues, Collections.<String, Event>emptyMap(), enrollmentEvents,
+                programIndicators);
     }
 
-    private Map<String, TrackedEntityAttributeValue> getTrackedEntityAttributeValues(String tei) {
-        Map<String, TrackedEntityAttributeValue> attributeToAttributeValues = new HashMap<>();
-        List<TrackedEntityAttributeValue> trackedEntityAttributeValues =
-                trackedEntityAttributeValueStore.queryByTrackedEntityInstance(tei);
-        if (trackedEntityAttributeValues != null) {
-            for (TrackedEntityAttributeValue value : trackedEntityAttributeValues) {
-                attributeToAttributeValues.put(value.trackedEntityAttribute(), value);
+    private ProgramIndicatorBatchData loadEventData(List<String> eventUids,
+                                                    Collection<ProgramIndicator> programIndicators) {
+        Map<String, Event> events = new HashMap<>();
+        for (Event event : getEventsWithValues(selectWhereIn(eventStore, IdentifiableColumns.UID, eventUids, null))) {
+            events.put(event.uid(), event);
+        }
+
+        return loadBatchData(Collections.<String, Enrollment>emptyMap(),
+                Collections.<String, Map<String, TrackedEntityAttributeValue>>emptyMap(), events,
+                Collections.<String, List<Event>>emptyMap(), programIndicators);
+    }
+
+    private ProgramIndicatorBatchData loadBatchData(
+            Map<String, Enrollment> enrollments,
+            Map<String, Map<String, TrackedEntityAttributeValue>> attributeValues,
+            Map<String, Event> events,
+            Map<String, List<Event>> enrollmentEvents,
+            Collection<ProgramIndicator> programIndicators) {
+        Set<String> dataElementUids = new HashSet<>();
+        Set<String> attributeUids = new HashSet<>();
+        Set<String> constantUids = new HashSet<>();
+        for (ProgramIndicator programIndicator : programIndicators) {
+            ProgramIndicatorExpression expression = compile(programIndicator);
+            if (expression != null) {
+                for (ProgramIndicatorExpression.Item item : expression.items()) {
+                    if (KEY_DATAELEMENT.equals(item.key)) {
+                        dataElementUids.add(item.element);
+                    } else if (KEY_ATTRIBUTE.equals(item.key)) {
+                        attributeUids.add(item.uid);
+                    } else if (KEY_CONSTANT.equals(item.key)) {
+                        constantUids.add(item.uid);
+                    }
+                }
             }
         }
-        return attributeToAttributeValues;
+
+        Map<String, ValueType> dataElementValueTypes = new HashMap<>();
+        for (DataElement dataElement : selectWhereIn(dataElementStore, IdentifiableColumns.UID, dataElementUids,
+                null)) {
+            dataElementValueTypes.put(dataElement.uid(), dataElement.valueType());
+        }
+
+        Map<String, ValueType> attributeValueTypes = new HashMap<>();
+        for (TrackedEntityAttribute attribute : selectWhereIn(trackedEntityAttributeStore, IdentifiableColumns.UID,
+                attributeUids, null)) {
+            attributeValueTypes.put(attribute.uid(), attribute.valueType());
+        }
+
+        Map<String, Constant> constants = new HashMap<>();
+        for (Constant constant : selectWhereIn(constantStore, IdentifiableColumns.UID, constantUids, null)) {
+            constants.put(constant.uid(), constant);
+        }
+
+        return new ProgramIndicatorBatchData(enrollments, attributeValues, events, enrollmentEvents, constants,
+                dataElementValueTypes, attributeValueTypes);
     }
 
-    private List<Event> getEventsInStage(String enrollmentUid, String eventUid, String programStageUid) {
-        List<Event> events;
-        if (enrollmentUid == null) {
-            events = Collections.singletonList(eventStore.selectByUid(eventUid));
-        } else {
-            events = eventStore.queryOrderedForEnrollmentAndProgramStage(enrollmentUid, programStageUid, false);
+    private List<Event> getEventsWithValues(List<Event> events) {
+        List<String> eventUids = new ArrayList<>(events.size());
+        for (Event event : events) {
+            eventUids.add(event.uid());
         }
 
-        List<Event> eventsWithValues = new ArrayList<>();
+        Map<String, List<TrackedEntityDataValue>> eventDataValues = new HashMap<>();
+        for (TrackedEntityDataValue dataValue : selectWhereIn(trackedEntityDataValueStore,
+                TrackedEntityDataValueTableInfo.Columns.EVENT, eventUids, null)) {
+            List<TrackedEntityDataValue> dataValues = eventDataValues.get(dataValue.event());
+            if (dataValues == null) {
+                dataValues = new ArrayList<>();
+                eventDataValues.put(dataValue.event(), dataValues);
+            }
+            dataValues.add(dataValue);
+        }
+
+        List<Event> eventsWithValues = new ArrayList<>(events.size());
         for (Event event : events) {
-            eventsWithValues.add(getEventWithValues(event));
+            List<TrackedEntityDataValue> dataValues = eventDataValues.get(event.uid());
+            eventsWithValues.add(event.toBuilder().trackedEntityDataValues(
+                    dataValues == null ? Collections.<TrackedEntityDataValue>emptyList() : dataValues).build());
         }
         return eventsWithValues;
     }
 
-    private Event getEventWithValues(Event e) {
-        List<TrackedEntityDataValue> dataValues =
-                trackedEntityDataValueStore.queryTrackedEntityDataValuesByEventUid(e.uid());
+    /**
+     * Selects the rows whose column is in the given values, with one query for each {@link #IN_BATCH_SIZE} values.
+     */
+    private static <M> List<M> selectWhereIn(ReadableStore<M> store, String column, Collection<String> values,
+                                             String orderByClause) {
+        List<String> valueList = new ArrayList<>(values);
+        List<M> rows = new ArrayList<>();
+        for (int from = 0; from < valueList.size(); from += IN_BATCH_SIZE) {
+            String whereClause = new WhereClauseBuilder()
+                    .appendInKeyStringValues(column, valueList.subList(from,
+                            Math.min(valueList.size(), from + IN_BATCH_SIZE)))
+                    .build();
+            rows.addAll(orderByClause == null ? store.selectWhere(whereClause) :
+                    store.selectWhere(whereClause, orderByClause));
+        }
+        return rows;
+    }
+
+    /**
+     * Reads the rows needed by a single evaluation from the stores, one query at a time.
+     */
+    private final class StoreDataSource implements ProgramIndicatorDataSource {
+
+        @Override
+        public Enrollment getEnrollment(String enrollmentUid) {
+            return enrollmentStore.selectByUid(enrollmentUid);
+        }
+
+        @Override
+        public Map<String, TrackedEntityAttributeValue> getTrackedEntityAttributeValues(String tei) {
+            Map<String, TrackedEntityAttributeValue> attributeToAttributeValues = new HashMap<>();
+            List<TrackedEntityAttributeValue> trackedEntityAttributeValues =
+                    trackedEntityAttributeValueStore.queryByTrackedEntityInstance(tei);
+            if (trackedEntityAttributeValues != null) {
+                for (TrackedEntityAttributeValue value : trackedEntityAttributeValues) {
+                    attributeToAttributeValues.put(value.trackedEntityAttribute(), value);
+                }
+            }
+            return attributeToAttributeValues;
+        }
+
+        @Override
+        public List<Event> getEventsInStage(String enrollmentUid, String eventUid, String programStageUid) {
+            List<Event> events;
+            if (enrollmentUid == null) {
+                events = Collections.singletonList(eventStore.selectByUid(eventUid));
+            } else {
+                events = eventStore.queryOrderedForEnrollmentAndProgramStage(enrollmentUid, programStageUid, false);
+            }
+
+            List<Event> eventsWithValues = new ArrayList<>();
+            for (Event event : events) {
+                eventsWithValues.add(getEventWithValues(event));
+            }
+            return eventsWithValues;
+        }
+
+        private Event getEventWithValues(Event e) {
+            List<TrackedEntityDataValue> dataValues =
+                    trackedEntityDataValueStore.queryTrackedEntityDataValuesByEventUid(e.uid());
+
+            return e.toBuilder().trackedEntityDataValues(dataValues).build();
+        }
 
-        return e.toBuilder().trackedEntityDataValues(dataValues).build();
+        @Override
+        public Event getEvent(String eventUid) {
+            return eventStore.selectByUid(eventUid);
+        }
+
+        @Override
+        public int countEvents(String enrollmentUid) {
+            return eventStore.countEventsForEnrollment(enrollmentUid, false);
+        }
+
+        @Override
+        public Constant getConstant(String constantUid) {
+            return constantStore.selectByUid(constantUid);
+        }
+
+        @Override
+        public ValueType getDataElementValueType(String dataElementUid) {
+            return dataElementStore.selectByUid(dataElementUid).valueType();
+        }
+
+        @Override
+        public ValueType getTrackedEntityAttributeValueType(String trackedEntityAttributeUid) {
+            return trackedEntityAttributeStore.selectByUid(trackedEntityAttributeUid).valueType();
+        }
     }
 
     private TrackedEntityDataValue evaluateDataElementInStage(String deId,
@@ -365,17 +657,6 @@ public class ProgramIndicatorEngine {
         }
     }
 
-    private String formatTEDV(TrackedEntityDataValue dataValue) {
-        DataElement dataElement = dataElementStore.selectByUid(dataValue.dataElement());
-        return formatValue(dataValue.value(), dataElement.valueType());
-    }
-
-    private String formatTEAV(TrackedEntityAttributeValue attributeValue) {
-        TrackedEntityAttribute attribute =
-                trackedEntityAttributeStore.selectByUid(attributeValue.trackedEntityAttribute());
-        return formatValue(attributeValue.value(), attribute.valueType());
-    }
-
     private String formatConstant(Constant constant) {
         String value = String.valueOf(constant.value());
         return formatValue(value, ValueType.NUMBER);
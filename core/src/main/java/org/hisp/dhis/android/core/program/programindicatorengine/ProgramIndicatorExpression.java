@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.program.programindicatorengine;
+
+import org.apache.commons.jexl2.Expression;
+import org.apache.commons.jexl2.JexlException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Program indicator expression parsed once into the literal text and the items ({@code #{}}, {@code A{}},
+ * {@code C{}} and {@code V{}}) found between them. Items are evaluated as variables of a JEXL expression which is
+ * also created once, so evaluating the indicator only needs to bind the item values.
+ *
+ * Items inside a string literal or in the arguments of a {@code d2:} function can't be bound: the functions evaluate
+ * their string arguments as expressions of their own, without the variables. Expressions with such items are always
+ * evaluated with the item values written in place.
+ */
+final class ProgramIndicatorExpression {
+
+    private static final String SLOT_PREFIX = "_v";
+    private static final String D2_PREFIX = "d2:";
+    private static final Pattern INTEGER_PATTERN = Pattern.compile("^-?\\d+$");
+    private static final Pattern DECIMAL_PATTERN = Pattern.compile("^-?\\d+\\.\\d+$");
+
+    private final String expression;
+    private final Date lastUpdated;
+    private final List<String> literals;
+    private final List<Item> items;
+    private final Expression jexlExpression;
+
+    private ProgramIndicatorExpression(String expression, Date lastUpdated, List<String> literals, List<Item> items,
+                                       Expression jexlExpression) {
+        this.expression = expression;
+        this.lastUpdated = lastUpdated;
+        this.literals = literals;
+        this.items = items;
+        this.jexlExpression = jexlExpression;
+    }
+
+    static ProgramIndicatorExpression compile(String expression, Date lastUpdated, Pattern itemPattern) {
+        List<String> literals = new ArrayList<>();
+        List<Item> items = new ArrayList<>();
+        StringBuilder template = new StringBuilder();
+
+        Scanner scanner = new Scanner(expression);
+        boolean bindable = true;
+
+        Matcher matcher = itemPattern.matcher(expression);
+        int literalStart = 0;
+        while (matcher.find()) {
+            String literal = expression.substring(literalStart, matcher.start());
+            scanner.scan(literalStart, matcher.start());
+            bindable = bindable && !scanner.isInStringOrFunction();
+            literals.add(literal);
+            template.append(literal).append(SLOT_PREFIX).append(items.size());
+            items.add(new Item(matcher.group(1), matcher.group(2), matcher.group(3), matcher.group()));
+            literalStart = matcher.end();
+        }
+        String tail = expression.substring(literalStart);
+        literals.add(tail);
+        template.append(tail);
+
+        Expression jexlExpression = null;
+        if (bindable) {
+            try {
+                jexlExpression = ExpressionUtils.createExpression(template.toString());
+            } catch (JexlException e) {
+                jexlExpression = null;
+            }
+        }
+
+        return new ProgramIndicatorExpression(expression, lastUpdated, Collections.unmodifiableList(literals),
+                Collections.unmodifiableList(items), jexlExpression);
+    }
+
+    boolean isCompiledFrom(String expression, Date lastUpdated) {
+        return this.expression.equals(expression) &&
+                (this.lastUpdated == null ? lastUpdated == null : this.lastUpdated.equals(lastUpdated));
+    }
+
+    List<Item> items() {
+        return items;
+    }
+
+    /**
+     * @param values the formatted value of each item, or null to keep the item text.
+     * @return the expression with the item values written in place of the items.
+     */
+    String substitute(List<String> values) {
+        StringBuilder builder = new StringBuilder(literals.get(0));
+        for (int i = 0; i < items.size(); i++) {
+            String value = values.get(i);
+            builder.append(value == null ? items.get(i).text : value).append(literals.get(i + 1));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Evaluates the expression binding the item values to the variables of the cached JEXL expression. When the items
+     * can't be bound or a value can't be bound as a literal, the substituted expression is evaluated instead.
+     *
+     * @param values the formatted value of each item, or null to keep the item text.
+     * @return the result of the evaluation.
+     */
+    String evaluate(List<String> values) {
+        if (jexlExpression != null) {
+            Map<String, Object> vars = new HashMap<>();
+            for (int i = 0; i < values.size(); i++) {
+                Object var = toLiteral(values.get(i));
+                if (var == null) {
+                    return ExpressionUtils.evaluateToString(substitute(values), null);
+                }
+                vars.put(SLOT_PREFIX + i, var);
+            }
+            return ExpressionUtils.evaluateToString(jexlExpression, vars);
+        }
+        return ExpressionUtils.evaluateToString(substitute(values), null);
+    }
+
+    /**
+     * Returns the object JEXL would create for the given literal: a string for quoted values, an integer or long for
+     * integral values and a float for decimal values. Returns null for anything else, and for values containing the
+     * keywords which are removed from the substituted expression before evaluating it.
+     */
+    private static Object toLiteral(String value) {
+        if (value == null || ExpressionUtils.containsIgnoredKeywords(value)) {
+            return null;
+        } else if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            return unquote(value);
+        } else if (INTEGER_PATTERN.matcher(value).matches()) {
+            try {
+                long longValue = Long.parseLong(value);
+                return longValue == (int) longValue ? Integer.valueOf((int) longValue) : Long.valueOf(longValue);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        } else if (DECIMAL_PATTERN.matcher(value).matches()) {
+            return Float.valueOf(value);
+        } else {
+            return null;
+        }
+    }
+
+    private static String unquote(String value) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 1; i < value.length() - 1; i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length() - 1) {
+                i++;
+                c = value.charAt(i);
+            }
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Follows the string literals and the parentheses of the expression text, to know if a position is inside a
+     * string literal or inside the arguments of a {@code d2:} function.
+     */
+    private static final class Scanner {
+        private final String expression;
+        private final Deque<Boolean> parentheses = new ArrayDeque<>();
+        private char quote;
+        private int functionDepth;
+
+        private Scanner(String expression) {
+            this.expression = expression;
+        }
+
+        private void scan(int start, int end) {
+            for (int i = start; i < end; i++) {
+                char c = expression.charAt(i);
+                if (quote != 0) {
+                    if (c == '\\') {
+                        i++;
+                    } else if (c == quote) {
+                        quote = 0;
+                    }
+                } else if (c == '\'' || c == '"') {
+                    quote = c;
+                } else if (c == '(') {
+                    boolean function = isFunctionName(i);
+                    parentheses.push(function);
+                    if (function) {
+                        functionDepth++;
+                    }
+                } else if (c == ')' && !parentheses.isEmpty() && parentheses.pop()) {
+                    functionDepth--;
+                }
+            }
+        }
+
+        private boolean isInStringOrFunction() {
+            return quote != 0 || functionDepth > 0;
+        }
+
+        private boolean isFunctionName(int parenthesis) {
+            int end = parenthesis;
+            while (end > 0 && Character.isWhitespace(expression.charAt(end - 1))) {
+                end--;
+            }
+            int start = end;
+            while (start > 0 && Character.isLetterOrDigit(expression.charAt(start - 1))) {
+                start--;
+            }
+            return start < end && expression.startsWith(D2_PREFIX, start - D2_PREFIX.length());
+        }
+    }
+
+    static final class Item {
+        final String key;
+        final String uid;
+        final String element;
+        final String text;
+
+        private Item(String key, String uid, String element, String text) {
+            this.key = key;
+            this.uid = uid;
+            this.element = element;
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.program.programindicatorengine;
+
+import org.hisp.dhis.android.core.program.ProgramIndicator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Least recently used cache of compiled program indicator expressions keyed by the indicator uid. A cached expression
+ * is compiled again when the expression or the lastUpdated date of the indicator change.
+ */
+final class ProgramIndicatorExpressionCache {
+
+    static final int DEFAULT_MAX_SIZE = 100;
+
+    private final Pattern itemPattern;
+    private final Map<String, ProgramIndicatorExpression> expressions;
+
+    private long hitCount;
+    private long missCount;
+
+    ProgramIndicatorExpressionCache(Pattern itemPattern, final int maxSize) {
+        this.itemPattern = itemPattern;
+        this.expressions = new LinkedHashMap<String, ProgramIndicatorExpression>(maxSize, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ProgramIndicatorExpression> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    synchronized ProgramIndicatorExpression get(ProgramIndicator programIndicator) {
+        ProgramIndicatorExpression expression = expressions.get(programIndicator.uid());
+        if (expression == null ||
+                !expression.isCompiledFrom(programIndicator.expression(), programIndicator.lastUpdated())) {
+            missCount++;
+            expression = ProgramIndicatorExpression.compile(programIndicator.expression(),
+                    programIndicator.lastUpdated(), itemPattern);
+            expressions.put(programIndicator.uid(), expression);
+        } else {
+            hitCount++;
+        }
+        return expression;
+    }
+
+    synchronized long hitCount() {
+        return hitCount;
+    }
+
+    synchronized long missCount() {
+        return missCount;
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.program.programindicatorengine;
+
+import org.hisp.dhis.android.core.arch.db.stores.internal.IdentifiableObjectStore;
+import org.hisp.dhis.android.core.common.ValueType;
+import org.hisp.dhis.android.core.constant.Constant;
+import org.hisp.dhis.android.core.dataelement.DataElement;
+import org.hisp.dhis.android.core.enrollment.EnrollmentTableInfo;
+import org.hisp.dhis.android.core.event.EventTableInfo;
+import org.hisp.dhis.android.core.trackedentity.TrackedEntityAttribute;
+import org.hisp.dhis.android.core.trackedentity.TrackedEntityAttributeValueTableInfo;
+import org.hisp.dhis.android.core.trackedentity.TrackedEntityDataValueTableInfo;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.inject.Inject;
+
+import dagger.Reusable;
+
+import static org.hisp.dhis.android.core.program.programindicatorengine.ProgramIndicatorEngine.CURRENT_DATE;
+import static org.hisp.dhis.android.core.program.programindicatorengine.ProgramIndicatorEngine.DUE_DATE;
+import static org.hisp.dhis.android.core.program.programindicatorengine.ProgramIndicatorEngine.ENROLLMENT_DATE;
+import static org.hisp.dhis.android.core.program.programindicatorengine.ProgramIndicatorEngine.ENROLLMENT_STATUS;
+import static org.hisp.dhis.android.core.program.programindicatorengine.ProgramIndicatorEngine.EVENT_DATE;
+import static org.hisp.dhis.android.core.program.programindicatorengine.ProgramIndicatorEngine.EXPRESSION_PATTERN;
+import static org.hisp.dhis.android.core.program.programindicatorengine.ProgramIndicatorEngine.INCIDENT_DATE;
+import static org.hisp.dhis.android.core.program.programindicatorengine.ProgramIndicatorEngine.KEY_ATTRIBUTE;
+import static org.hisp.dhis.android.core.program.programindicatorengine.ProgramIndicatorEngine.KEY_CONSTANT;
+import static org.hisp.dhis.android.core.program.programindicatorengine.ProgramIndicatorEngine.KEY_DATAELEMENT;
+import static org.hisp.dhis.android.core.program.programindicatorengine.ProgramIndicatorEngine.KEY_PROGRAM_VARIABLE;
+
+/**
+ * Translates program indicator expressions and filters into SQL expressions evaluated for each row of the Event
+ * table. Only data elements, attributes, constants, date and status variables, numbers, strings and the arithmetic,
+ * comparison and logical operators are supported; the translation returns null for anything else, like d2 functions,
+ * so the expression can be evaluated by the {@link ProgramIndicatorEngine} instead. Numbers are translated as REAL,
+ * so divisions are not truncated by SQLite integer arithmetic.
+ */
+@Reusable
+class ProgramIndicatorSqlTranslator {
+
+    private static final Pattern TOKEN_PATTERN =
+            Pattern.compile("\\s+|\\d+(\\.\\d+)?|'[^']*'|\"[^\"]*\"|&&|\\|\\||==|!=|>=|<=|[-+*/%()<>!]");
+
+    private static final String EVENT = EventTableInfo.TABLE_INFO.name();
+    private static final String ENROLLMENT = EnrollmentTableInfo.TABLE_INFO.name();
+    private static final String DATA_VALUE = TrackedEntityDataValueTableInfo.TABLE_INFO.name();
+    private static final String ATTRIBUTE_VALUE = TrackedEntityAttributeValueTableInfo.TABLE_INFO.name();
+    private static final String EVENT_ENROLLMENT_CLAUSE = " WHERE " + ENROLLMENT + "." +
+            EnrollmentTableInfo.Columns.UID + " = " + EVENT + "." + EventTableInfo.Columns.ENROLLMENT + ")";
+
+    private final IdentifiableObjectStore<DataElement> dataElementStore;
+    private final IdentifiableObjectStore<TrackedEntityAttribute> trackedEntityAttributeStore;
+    private final IdentifiableObjectStore<Constant> constantStore;
+
+    @Inject
+    ProgramIndicatorSqlTranslator(IdentifiableObjectStore<DataElement> dataElementStore,
+                                  IdentifiableObjectStore<TrackedEntityAttribute> trackedEntityAttributeStore,
+                                  IdentifiableObjectStore<Constant> constantStore) {
+        this.dataElementStore = dataElementStore;
+        this.trackedEntityAttributeStore = trackedEntityAttributeStore;
+        this.constantStore = constantStore;
+    }
+
+    /**
+     * @param expression the program indicator expression or filter.
+     * @return the SQL expression, or null if the expression can't be translated.
+     */
+    String translate(String expression) {
+        StringBuilder sql = new StringBuilder();
+        Matcher itemMatcher = EXPRESSION_PATTERN.matcher(expression);
+        Matcher tokenMatcher = TOKEN_PATTERN.matcher(expression);
+
+        int position = 0;
+        while (position < expression.length()) {
+            String translation;
+            if (itemMatcher.region(position, expression.length()).lookingAt()) {
+                translation = translateItem(itemMatcher.group(1), itemMatcher.group(2), itemMatcher.group(3));
+                position = itemMatcher.end();
+            } else if (tokenMatcher.region(position, expression.length()).lookingAt()) {
+                translation = translateToken(tokenMatcher.group());
+                position = tokenMatcher.end();
+            } else {
+                translation = null;
+            }
+
+            if (translation == null) {
+                return null;
+            }
+            sql.append(translation);
+        }
+
+        return sql.toString();
+    }
+
+    private String translateToken(String token) {
+        if (token.trim().isEmpty()) {
+            return " ";
+        } else if (token.startsWith("'") || token.startsWith("\"")) {
+            return "'" + token.substring(1, token.length() - 1).replace("'", "''") + "'";
+        } else if ("&&".equals(token)) {
+            return " AND ";
+        } else if ("||".equals(token)) {
+            return " OR ";
+        } else if ("==".equals(token)) {
+            return " = ";
+        } else if ("!=".equals(token)) {
+            return " <> ";
+        } else if ("!".equals(token)) {
+            return " NOT ";
+        } else if (Character.isDigit(token.charAt(0)) && token.indexOf('.') == -1) {
+            return token + ".0";
+        } else {
+            return token;
+        }
+    }
+
+    private String translateItem(String key, String uid, String element) {
+        if (KEY_DATAELEMENT.equals(key)) {
+            DataElement dataElement = dataElementStore.selectByUid(element);
+            String value = dataElement == null ? null :
+                    translateValue(DATA_VALUE + "." + TrackedEntityDataValueTableInfo.Columns.VALUE,
+                            dataElement.valueType());
+            return value == null ? null : "COALESCE((SELECT " + value + " FROM " + DATA_VALUE +
+                    " WHERE " + DATA_VALUE + "." + TrackedEntityDataValueTableInfo.Columns.EVENT + " = " +
+                    EVENT + "." + EventTableInfo.Columns.UID + " AND " +
+                    DATA_VALUE + "." + TrackedEntityDataValueTableInfo.Columns.DATA_ELEMENT + " = " + quote(element) +
+                    "), 0)";
+        } else if (KEY_ATTRIBUTE.equals(key)) {
+            TrackedEntityAttribute attribute = trackedEntityAttributeStore.selectByUid(uid);
+            String value = attribute == null ? null :
+                    translateValue(ATTRIBUTE_VALUE + "." + TrackedEntityAttributeValueTableInfo.Columns.VALUE,
+                            attribute.valueType());
+            return value == null ? null : "(SELECT " + value + " FROM " + ATTRIBUTE_VALUE +
+                    " INNER JOIN " + ENROLLMENT + " ON " +
+                    ATTRIBUTE_VALUE + "." + TrackedEntityAttributeValueTableInfo.Columns.TRACKED_ENTITY_INSTANCE +
+                    " = " + ENROLLMENT + "." + EnrollmentTableInfo.Columns.TRACKED_ENTITY_INSTANCE +
+                    " WHERE " + ENROLLMENT + "." + EnrollmentTableInfo.Columns.UID + " = " +
+                    EVENT + "." + EventTableInfo.Columns.ENROLLMENT + " AND " + ATTRIBUTE_VALUE + "." +
+                    TrackedEntityAttributeValueTableInfo.Columns.TRACKED_ENTITY_ATTRIBUTE + " = " + quote(uid) + ")";
+        } else if (KEY_CONSTANT.equals(key)) {
+            Constant constant = constantStore.selectByUid(uid);
+            return constant == null || constant.value() == null ? null : String.valueOf(constant.value());
+        } else if (KEY_PROGRAM_VARIABLE.equals(key)) {
+            return translateVariable(uid);
+        } else {
+            return null;
+        }
+    }
+
+    private String translateVariable(String variable) {
+        if (EVENT_DATE.equals(variable)) {
+            return "date(" + EVENT + "." + EventTableInfo.Columns.EVENT_DATE + ")";
+        } else if (DUE_DATE.equals(variable)) {
+            return "date(" + EVENT + "." + EventTableInfo.Columns.DUE_DATE + ")";
+        } else if (CURRENT_DATE.equals(variable)) {
+            return "date('now')";
+        } else if (ENROLLMENT_DATE.equals(variable)) {
+            return "(SELECT date(" + EnrollmentTableInfo.Columns.ENROLLMENT_DATE + ") FROM " + ENROLLMENT +
+                    EVENT_ENROLLMENT_CLAUSE;
+        } else if (INCIDENT_DATE.equals(variable)) {
+            return "(SELECT date(" + EnrollmentTableInfo.Columns.INCIDENT_DATE + ") FROM " + ENROLLMENT +
+                    EVENT_ENROLLMENT_CLAUSE;
+        } else if (ENROLLMENT_STATUS.equals(variable)) {
+            return "(SELECT " + EnrollmentTableInfo.Columns.STATUS + " FROM " + ENROLLMENT + EVENT_ENROLLMENT_CLAUSE;
+        } else {
+            return null;
+        }
+    }
+
+    private static String translateValue(String column, ValueType valueType) {
+        if (valueType == null) {
+            return null;
+        } else if (valueType.isNumeric()) {
+            return "CAST(" + column + " AS REAL)";
+        } else if (valueType.isBoolean()) {
+            return "CASE WHEN " + column + " = 'true' THEN 1 ELSE 0 END";
+        } else if (valueType.isText() || valueType.isDate()) {
+            return column;
+        } else {
+            return null;
+        }
+    }
+
+    private static String quote(String value) {
+        return "'" + value.replace("'", "''") + "'";
+    }
+}
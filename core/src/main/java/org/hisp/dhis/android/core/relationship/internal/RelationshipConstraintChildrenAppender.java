@@ -33,13 +33,12 @@ import org.hisp.dhis.android.core.relationship.RelationshipConstraint;
 import org.hisp.dhis.android.core.relationship.RelationshipConstraintType;
 import org.hisp.dhis.android.core.relationship.RelationshipType;
 
-import java.util.Collection;
+import java.util.ArrayList;
 import java.util.List;
 
 final class RelationshipConstraintChildrenAppender extends ChildrenAppender<RelationshipType> {
 
     private final ObjectWithoutUidStore<RelationshipConstraint> constraintStore;
-    private List<RelationshipConstraint> constraints;
 
 
     RelationshipConstraintChildrenAppender(ObjectWithoutUidStore<RelationshipConstraint> constraintStore) {
@@ -47,14 +46,24 @@ final class RelationshipConstraintChildrenAppender extends ChildrenAppender<Rela
     }
 
     @Override
-    public void prepareChildren(Collection<RelationshipType> collection) {
-        this.constraints = this.constraintStore.selectAll();
+    protected List<RelationshipType> appendChildren(List<RelationshipType> list) {
+        List<RelationshipConstraint> constraints = this.constraintStore.selectAll();
+        List<RelationshipType> withChildren = new ArrayList<>(list.size());
+        for (RelationshipType relationshipType : list) {
+            withChildren.add(appendConstraints(relationshipType, constraints));
+        }
+        return withChildren;
     }
 
     @Override
     protected RelationshipType appendChildren(RelationshipType relationshipType) {
+        return appendConstraints(relationshipType, this.constraintStore.selectAll());
+    }
+
+    private RelationshipType appendConstraints(RelationshipType relationshipType,
+                                               List<RelationshipConstraint> constraints) {
         RelationshipType.Builder builder = relationshipType.toBuilder();
-        for (RelationshipConstraint constraint : this.constraints) {
+        for (RelationshipConstraint constraint : constraints) {
             if (constraint.relationshipType().uid().equals(relationshipType.uid())) {
                 if (constraint.constraintType().equals(RelationshipConstraintType.FROM)) {
                     builder.fromConstraint(constraint);
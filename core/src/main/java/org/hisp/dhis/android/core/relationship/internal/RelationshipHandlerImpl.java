@@ -65,6 +65,15 @@ final class RelationshipHandlerImpl extends IdentifiableHandlerImpl<Relationship
         this.versionManager = versionManager;
     }
 
+    /**
+     * The relationships of a collection can match, by their items, relationships handled earlier in the same
+     * collection, so each of them is persisted before the next one is looked up.
+     */
+    @Override
+    protected boolean persistInBatch() {
+        return false;
+    }
+
     @Override
     protected Relationship beforeObjectHandled(Relationship relationship) {
         if (!versionManager.isRelationshipSupported(relationship)) {
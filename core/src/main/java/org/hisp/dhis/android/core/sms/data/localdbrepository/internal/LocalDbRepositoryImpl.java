@@ -242,7 +242,8 @@ public class LocalDbRepositoryImpl implements LocalDbRepository {
     @Override
     public Completable setMetadataDownloadConfig(WebApiRepository.GetMetadataIdsConfig config) {
         return Completable.fromAction(() -> {
-            String value = ObjectMapperFactory.objectMapper().writeValueAsString(config);
+            String value = ObjectMapperFactory.objectWriter(WebApiRepository.GetMetadataIdsConfig.class)
+                    .writeValueAsString(config);
             SharedPreferences.Editor editor = context
                     .getSharedPreferences(CONFIG_FILE, Context.MODE_PRIVATE)
                     .edit().putString(KEY_METADATA_CONFIG, value);
@@ -257,8 +258,8 @@ public class LocalDbRepositoryImpl implements LocalDbRepository {
         return Single.fromCallable(() -> {
             String stringVal = context.getSharedPreferences(CONFIG_FILE, Context.MODE_PRIVATE)
                     .getString(KEY_METADATA_CONFIG, null);
-            return ObjectMapperFactory.objectMapper()
-                    .readValue(stringVal, WebApiRepository.GetMetadataIdsConfig.class);
+            return ObjectMapperFactory.objectReader(WebApiRepository.GetMetadataIdsConfig.class)
+                    .readValue(stringVal);
         });
     }
 
@@ -91,6 +91,29 @@ public final class TrackedEntityInstanceCollectionRepository
         upload().blockingSubscribe();
     }
 
+    /**
+     * Uploads the tracked entity instances keeping several partitions in flight. The size of the partitions is
+     * adapted to the payload size and the response time of the server, which makes large uploads much faster on
+     * high latency connections.
+     *
+     * @param maxInFlightPartitions the maximum number of partitions posted at the same time, at least one
+     * @return the progress of the upload
+     */
+    public Observable<D2Progress> upload(int maxInFlightPartitions) {
+        if (maxInFlightPartitions < 1) {
+            throw new IllegalArgumentException("Max in flight partitions must be greater than zero: " +
+                    maxInFlightPartitions);
+        }
+        return Observable.fromCallable(() ->
+                byState().in(State.uploadableStates()).blockingGetWithoutChildren()
+        ).flatMap(trackedEntityInstances ->
+                postCall.uploadTrackedEntityInstances(trackedEntityInstances, maxInFlightPartitions));
+    }
+
+    public void blockingUpload(int maxInFlightPartitions) {
+        upload(maxInFlightPartitions).blockingSubscribe();
+    }
+
     @Override
     public TrackedEntityInstanceObjectRepository uid(String uid) {
         RepositoryScope updatedScope = RepositoryScopeHelper.withUidFilterItem(scope, uid);
@@ -38,6 +38,7 @@ import org.hisp.dhis.android.core.trackedentity.internal.TrackedEntityAttributeR
 import org.hisp.dhis.android.core.trackedentity.internal.TrackedEntityAttributeService;
 import org.hisp.dhis.android.core.trackedentity.internal.TrackedEntityAttributeValueEntityDIModule;
 import org.hisp.dhis.android.core.trackedentity.internal.TrackedEntityDataValueEntityDIModule;
+import org.hisp.dhis.android.core.trackedentity.internal.TrackedEntityInstanceDownloadCheckpointEntityDIModule;
 import org.hisp.dhis.android.core.trackedentity.internal.TrackedEntityInstanceEntityDIModule;
 import org.hisp.dhis.android.core.trackedentity.internal.TrackedEntityModuleImpl;
 import org.hisp.dhis.android.core.trackedentity.internal.TrackedEntityTypeAttributeEntityDIModule;
@@ -56,6 +57,7 @@ import retrofit2.Retrofit;
         TrackedEntityAttributeReservedValueEntityDIModule.class,
         TrackedEntityAttributeValueEntityDIModule.class,
         TrackedEntityDataValueEntityDIModule.class,
+        TrackedEntityInstanceDownloadCheckpointEntityDIModule.class,
         TrackedEntityInstanceEntityDIModule.class,
         TrackedEntityInstanceQueryEntityDIModule.class,
         TrackedEntityTypeEntityDIModule.class,
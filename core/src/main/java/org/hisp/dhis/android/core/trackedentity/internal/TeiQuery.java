@@ -36,6 +36,7 @@ import com.google.auto.value.AutoValue;
 import org.hisp.dhis.android.core.arch.call.queries.internal.BaseQuery;
 import org.hisp.dhis.android.core.enrollment.EnrollmentStatus;
 import org.hisp.dhis.android.core.organisationunit.OrganisationUnitMode;
+import org.hisp.dhis.android.core.settings.DownloadPeriod;
 
 import java.util.Collection;
 import java.util.Collections;
@@ -55,6 +56,12 @@ abstract class TeiQuery extends BaseQuery {
     @Nullable
     abstract String lastUpdatedStartDate();
 
+    /**
+     * Period the {@link #lastUpdatedStartDate()} is computed from, when it comes from the program settings.
+     */
+    @Nullable
+    abstract DownloadPeriod lastUpdatedPeriod();
+
     @NonNull
     abstract Collection<String> uids();
 
@@ -64,9 +71,17 @@ abstract class TeiQuery extends BaseQuery {
     @Nullable
     abstract String programStartDate();
 
+    /**
+     * Period the {@link #programStartDate()} is computed from.
+     */
+    @Nullable
+    abstract DownloadPeriod programStartPeriod();
+
     @NonNull
     abstract Integer limit();
 
+    abstract Builder toBuilder();
+
     static Builder builder() {
         return new AutoValue_TeiQuery.Builder()
                 .page(1)
@@ -87,12 +102,16 @@ abstract class TeiQuery extends BaseQuery {
 
         abstract Builder lastUpdatedStartDate(String lastUpdatedStartDate);
 
+        abstract Builder lastUpdatedPeriod(DownloadPeriod lastUpdatedPeriod);
+
         abstract Builder uids(Collection<String> uIds);
 
         abstract Builder programStatus(EnrollmentStatus programStatus);
 
         abstract Builder programStartDate(String programStartDate);
 
+        abstract Builder programStartPeriod(DownloadPeriod programStartPeriod);
+
         abstract Builder limit(Integer limit);
 
         abstract TeiQuery autoBuild();
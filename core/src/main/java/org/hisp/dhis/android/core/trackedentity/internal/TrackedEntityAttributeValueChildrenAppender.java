@@ -31,23 +31,25 @@ import org.hisp.dhis.android.core.arch.db.access.DatabaseAdapter;
 import org.hisp.dhis.android.core.arch.db.stores.internal.SingleParentChildStore;
 import org.hisp.dhis.android.core.arch.db.stores.internal.StoreFactory;
 import org.hisp.dhis.android.core.arch.repositories.children.internal.ChildrenAppender;
+import org.hisp.dhis.android.core.arch.repositories.children.internal.SingleParentChildrenAppender;
 import org.hisp.dhis.android.core.trackedentity.TrackedEntityAttributeValue;
 import org.hisp.dhis.android.core.trackedentity.TrackedEntityInstance;
 
-public final class TrackedEntityAttributeValueChildrenAppender extends ChildrenAppender<TrackedEntityInstance> {
+import java.util.List;
 
-
-    private final SingleParentChildStore<TrackedEntityInstance, TrackedEntityAttributeValue> childStore;
+public final class TrackedEntityAttributeValueChildrenAppender
+        extends SingleParentChildrenAppender<TrackedEntityInstance, TrackedEntityAttributeValue> {
 
     private TrackedEntityAttributeValueChildrenAppender(
             SingleParentChildStore<TrackedEntityInstance, TrackedEntityAttributeValue> childStore) {
-        this.childStore = childStore;
+        super(childStore);
     }
 
     @Override
-    protected TrackedEntityInstance appendChildren(TrackedEntityInstance tei) {
+    protected TrackedEntityInstance appendChildren(TrackedEntityInstance tei,
+                                                   List<TrackedEntityAttributeValue> children) {
         TrackedEntityInstance.Builder builder = tei.toBuilder();
-        builder.trackedEntityAttributeValues(childStore.getChildren(tei));
+        builder.trackedEntityAttributeValues(children);
         return builder.build();
     }
 
@@ -44,6 +44,7 @@ import org.hisp.dhis.android.core.trackedentity.TrackedEntityAttributeValue;
 import org.hisp.dhis.android.core.trackedentity.TrackedEntityAttributeValueTableInfo;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -84,11 +85,24 @@ public final class TrackedEntityAttributeValueStoreImpl
 
     @Override
     public Map<String, List<TrackedEntityAttributeValue>> queryTrackedEntityAttributeValueToPost() {
+        return queryTrackedEntityAttributeValueToPost("");
+    }
+
+    @Override
+    public Map<String, List<TrackedEntityAttributeValue>> queryTrackedEntityAttributeValueToPost(
+            Collection<String> trackedEntityInstanceUids) {
+        return queryTrackedEntityAttributeValueToPost(" AND " + new WhereClauseBuilder()
+                .appendInKeyStringValues("TrackedEntityAttributeValue.trackedEntityInstance", trackedEntityInstanceUids)
+                .build());
+    }
+
+    private Map<String, List<TrackedEntityAttributeValue>> queryTrackedEntityAttributeValueToPost(
+            String additionalClause) {
         String toPostQuery =
                 "SELECT TrackedEntityAttributeValue.* " +
                         "FROM (TrackedEntityAttributeValue INNER JOIN TrackedEntityInstance " +
                         "ON TrackedEntityAttributeValue.trackedEntityInstance = TrackedEntityInstance.uid) " +
-                        "WHERE " + teiInUploadableState() + ";";
+                        "WHERE " + teiInUploadableState() + additionalClause + ";";
 
         List<TrackedEntityAttributeValue> valueList = trackedEntityAttributeValueListFromQuery(toPostQuery);
 
@@ -31,6 +31,7 @@ package org.hisp.dhis.android.core.trackedentity.internal;
 import org.hisp.dhis.android.core.arch.db.stores.internal.ObjectWithoutUidStore;
 import org.hisp.dhis.android.core.trackedentity.TrackedEntityDataValue;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -45,4 +46,6 @@ public interface TrackedEntityDataValueStore extends ObjectWithoutUidStore<Track
     Map<String, List<TrackedEntityDataValue>> querySingleEventsTrackedEntityDataValues();
 
     Map<String, List<TrackedEntityDataValue>> queryTrackerTrackedEntityDataValues();
+
+    Map<String, List<TrackedEntityDataValue>> queryTrackerTrackedEntityDataValues(Collection<String> eventUids);
 }
\ No newline at end of file
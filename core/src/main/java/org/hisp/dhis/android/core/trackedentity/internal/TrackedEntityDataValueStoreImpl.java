@@ -45,6 +45,7 @@ import org.hisp.dhis.android.core.trackedentity.TrackedEntityDataValue;
 import org.hisp.dhis.android.core.trackedentity.TrackedEntityDataValueTableInfo;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -133,6 +134,20 @@ public final class TrackedEntityDataValueStoreImpl extends ObjectWithoutUidStore
         return queryTrackedEntityDataValues(queryStatement);
     }
 
+    @Override
+    public Map<String, List<TrackedEntityDataValue>> queryTrackerTrackedEntityDataValues(
+            Collection<String> eventUids) {
+
+        String queryStatement = "SELECT TrackedEntityDataValue.* " +
+                " FROM (TrackedEntityDataValue INNER JOIN Event ON TrackedEntityDataValue.event = Event.uid) " +
+                " WHERE Event.enrollment IS NOT NULL " +
+                "AND " + eventInUploadableState() + " " +
+                "AND " + new WhereClauseBuilder()
+                        .appendInKeyStringValues("TrackedEntityDataValue.event", eventUids).build() + ";";
+
+        return queryTrackedEntityDataValues(queryStatement);
+    }
+
     private Map<String, List<TrackedEntityDataValue>> queryTrackedEntityDataValues(String queryStatement) {
 
         List<TrackedEntityDataValue> dataValueList = new ArrayList<>();
@@ -46,8 +46,8 @@ final class TrackedEntityInstanceCallErrorCatcher implements APICallErrorCatcher
 
     @Override
     public D2ErrorCode catchError(Response<?> response) throws IOException {
-        HttpMessageResponse parsed = ObjectMapperFactory.objectMapper().readValue(response.errorBody().string(),
-                HttpMessageResponse.class);
+        HttpMessageResponse parsed = ObjectMapperFactory.objectReader(HttpMessageResponse.class)
+                .readValue(response.errorBody().string());
 
         if (parsed.httpStatusCode() == 401 && parsed.message().equals("OWNERSHIP_ACCESS_DENIED")) {
             return D2ErrorCode.OWNERSHIP_ACCESS_DENIED;
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.trackedentity.internal;
+
+import android.database.Cursor;
+
+import androidx.annotation.Nullable;
+
+import com.google.auto.value.AutoValue;
+
+import org.hisp.dhis.android.core.common.BaseObject;
+import org.hisp.dhis.android.core.common.CoreObject;
+
+@AutoValue
+public abstract class TrackedEntityInstanceDownloadCheckpoint implements CoreObject {
+
+    @Nullable
+    public abstract String program();
+
+    @Nullable
+    public abstract String organisationUnits();
+
+    @Nullable
+    public abstract String downloadKey();
+
+    @Nullable
+    public abstract Integer pageSize();
+
+    @Nullable
+    public abstract Integer page();
+
+    @Nullable
+    public abstract Integer pageItems();
+
+    public static TrackedEntityInstanceDownloadCheckpoint create(Cursor cursor) {
+        return $AutoValue_TrackedEntityInstanceDownloadCheckpoint.createFromCursor(cursor);
+    }
+
+    public abstract Builder toBuilder();
+
+    public static Builder builder() {
+        return new $$AutoValue_TrackedEntityInstanceDownloadCheckpoint.Builder();
+    }
+
+    @AutoValue.Builder
+    public abstract static class Builder extends BaseObject.Builder<Builder> {
+        public abstract Builder id(Long id);
+
+        public abstract Builder program(String program);
+
+        public abstract Builder organisationUnits(String organisationUnits);
+
+        public abstract Builder downloadKey(String downloadKey);
+
+        public abstract Builder pageSize(Integer pageSize);
+
+        public abstract Builder page(Integer page);
+
+        public abstract Builder pageItems(Integer pageItems);
+
+        public abstract TrackedEntityInstanceDownloadCheckpoint build();
+    }
+}
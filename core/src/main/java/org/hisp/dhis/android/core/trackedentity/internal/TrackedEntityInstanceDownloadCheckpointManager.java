@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.trackedentity.internal;
+
+import org.hisp.dhis.android.core.arch.db.querybuilders.internal.BoundWhereClause;
+import org.hisp.dhis.android.core.arch.db.querybuilders.internal.WhereClauseBuilder;
+import org.hisp.dhis.android.core.arch.db.stores.internal.ObjectStore;
+import org.hisp.dhis.android.core.arch.helpers.CollectionsHelper;
+import org.hisp.dhis.android.core.settings.DownloadPeriod;
+import org.hisp.dhis.android.core.trackedentity.internal.TrackedEntityInstanceDownloadCheckpointTableInfo.Columns;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.inject.Inject;
+
+import dagger.Reusable;
+
+/**
+ * Keeps track of the last page committed for each TEI query (program and organisation units), so an interrupted
+ * download can continue from the next page. Streamed downloads also record how many TEIs of the next page are already
+ * committed. A checkpoint is only valid for the same download key and page size it was created with; otherwise the
+ * download starts again from the first page. The download key is built from the inputs of the query which don't
+ * change between downloads: dates computed from a download period of the program settings are keyed by the period,
+ * as they move forward each time the query is built.
+ */
+@Reusable
+class TrackedEntityInstanceDownloadCheckpointManager {
+
+    private final ObjectStore<TrackedEntityInstanceDownloadCheckpoint> store;
+
+    @Inject
+    TrackedEntityInstanceDownloadCheckpointManager(ObjectStore<TrackedEntityInstanceDownloadCheckpoint> store) {
+        this.store = store;
+    }
+
+    int getLastCommittedPage(TeiQuery query) {
+        TrackedEntityInstanceDownloadCheckpoint checkpoint = getValidCheckpoint(query);
+        return checkpoint == null ? 0 : checkpoint.page();
+    }
+
+    /**
+     * @return the number of TEIs of the page following {@link #getLastCommittedPage(TeiQuery)} already committed.
+     */
+    int getCommittedPageItems(TeiQuery query) {
+        TrackedEntityInstanceDownloadCheckpoint checkpoint = getValidCheckpoint(query);
+        return checkpoint == null || checkpoint.pageItems() == null ? 0 : checkpoint.pageItems();
+    }
+
+    void saveCommittedPage(TeiQuery query, int page) {
+        save(query, page, null);
+    }
+
+    /**
+     * Records that the first items of a page are committed. Once the whole page is committed, it is recorded as the
+     * last committed page.
+     */
+    void saveCommittedPageItems(TeiQuery query, int page, int items) {
+        if (items >= query.pageSize()) {
+            save(query, page, null);
+        } else {
+            save(query, page - 1, items);
+        }
+    }
+
+    void clear(TeiQuery query) {
+        store.deleteWhere(whereClause(query));
+    }
+
+    private TrackedEntityInstanceDownloadCheckpoint getValidCheckpoint(TeiQuery query) {
+        TrackedEntityInstanceDownloadCheckpoint checkpoint = store.selectOneWhere(whereClause(query));
+
+        if (checkpoint == null || checkpoint.page() == null || checkpoint.pageSize() == null
+                || !checkpoint.pageSize().equals(query.pageSize())
+                || !downloadKey(query).equals(checkpoint.downloadKey())) {
+            return null;
+        }
+        return checkpoint;
+    }
+
+    private void save(TeiQuery query, int page, Integer pageItems) {
+        store.deleteWhere(whereClause(query));
+        store.insert(TrackedEntityInstanceDownloadCheckpoint.builder()
+                .program(query.program())
+                .organisationUnits(organisationUnitsKey(query))
+                .downloadKey(downloadKey(query))
+                .pageSize(query.pageSize())
+                .page(page)
+                .pageItems(pageItems)
+                .build());
+    }
+
+    private BoundWhereClause whereClause(TeiQuery query) {
+        WhereClauseBuilder builder = new WhereClauseBuilder();
+        if (query.program() == null) {
+            builder.appendIsNullValue(Columns.PROGRAM);
+        } else {
+            builder.appendKeyStringArg(Columns.PROGRAM, query.program());
+        }
+        return builder
+                .appendKeyStringArg(Columns.ORGANISATION_UNITS, organisationUnitsKey(query))
+                .buildBound();
+    }
+
+    private static String organisationUnitsKey(TeiQuery query) {
+        List<String> orgUnits = new ArrayList<>(query.orgUnits());
+        Collections.sort(orgUnits);
+        return CollectionsHelper.commaSeparatedCollectionValues(orgUnits);
+    }
+
+    private static String downloadKey(TeiQuery query) {
+        return CollectionsHelper.commaSeparatedCollectionValues(Arrays.asList(
+                periodOrDate(query.lastUpdatedPeriod(), query.lastUpdatedStartDate()),
+                periodOrDate(query.programStartPeriod(), query.programStartDate()),
+                query.programStatus() == null ? "" : query.programStatus().name(),
+                query.ouMode().name(),
+                String.valueOf(query.limit())));
+    }
+
+    private static String periodOrDate(DownloadPeriod period, String date) {
+        if (period != null) {
+            return period.name();
+        } else {
+            return date == null ? "" : date;
+        }
+    }
+}
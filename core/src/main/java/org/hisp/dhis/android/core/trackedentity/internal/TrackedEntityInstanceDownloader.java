@@ -114,4 +114,41 @@ public final class TrackedEntityInstanceDownloader extends BaseRepositoryImpl<Tr
         return cf.bool(QueryParams.OVERWRITE).eq(overwrite);
     }
 
+    /**
+     * Number of pages requested to the server at the same time for each program and organisation unit query. Pages
+     * are still persisted one by one and in order, so downloading the next pages overlaps with persisting the current
+     * one. Default value is 1: pages are downloaded sequentially.
+     *
+     * @param pageConcurrency Maximum number of concurrent page requests
+     * @return the new repository
+     */
+    public TrackedEntityInstanceDownloader pageConcurrency(Integer pageConcurrency) {
+        return cf.integer(QueryParams.PAGE_CONCURRENCY).eq(pageConcurrency);
+    }
+
+    /**
+     * If true, each page is parsed as it is received from the server and its TEIs are persisted in small groups, so
+     * the whole page is never kept in memory. It takes precedence over {@link #pageConcurrency(Integer)}: pages are
+     * downloaded sequentially.
+     *
+     * @param streaming True to stream the pages
+     * @return the new repository
+     */
+    public TrackedEntityInstanceDownloader streaming(Boolean streaming) {
+        return cf.bool(QueryParams.STREAMING).eq(streaming);
+    }
+
+    /**
+     * If true, each page is persisted in its own transaction instead of keeping the whole download in a single one,
+     * and the last page persisted for each program and organisation unit query is recorded. If the download is
+     * interrupted, the next download with the same parameters continues from the following page. It takes
+     * precedence over {@link #streaming(Boolean)}: pages are persisted as a whole.
+     *
+     * @param resumable True to persist each page independently and resume interrupted downloads
+     * @return the new repository
+     */
+    public TrackedEntityInstanceDownloader resumable(Boolean resumable) {
+        return cf.bool(QueryParams.RESUMABLE).eq(resumable);
+    }
+
 }
@@ -49,6 +49,7 @@ import org.hisp.dhis.android.core.trackedentity.TrackedEntityInstanceInternalAcc
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 import javax.inject.Inject;
 
@@ -146,22 +147,31 @@ final class TrackedEntityInstanceHandler extends IdentifiableDataHandlerImpl<Tra
                     .build();
         }
 
+        Set<String> storedUids = storedObjectUids(trackedEntityInstances);
         Collection<TrackedEntityInstance> preHandledCollection =
-                beforeCollectionHandled(trackedEntityInstances, overwrite);
+                beforeCollectionHandled(trackedEntityInstances, overwrite, storedUids);
 
         List<TrackedEntityInstance> transformedCollection = new ArrayList<>(preHandledCollection.size());
 
         for (TrackedEntityInstance trackedEntityInstance : preHandledCollection) {
-            handle(trackedEntityInstance, transformer, transformedCollection, overwrite);
+            if (trackedEntityInstance != null) {
+                transformedCollection.add(transformer.transform(beforeObjectHandled(trackedEntityInstance, overwrite)));
+            }
+        }
+
+        handleObjects(transformedCollection, overwrite, storedUids);
 
-            if (isFullUpdate) {
-                enrollmentOrphanCleaner.deleteOrphan(
-                        trackedEntityInstance,
-                        TrackedEntityInstanceInternalAccessor.accessEnrollments(trackedEntityInstance));
+        if (isFullUpdate) {
+            for (TrackedEntityInstance trackedEntityInstance : preHandledCollection) {
+                if (trackedEntityInstance != null) {
+                    enrollmentOrphanCleaner.deleteOrphan(
+                            trackedEntityInstance,
+                            TrackedEntityInstanceInternalAccessor.accessEnrollments(trackedEntityInstance));
 
-                relationshipOrphanCleaner.deleteOrphan(
-                        trackedEntityInstance,
-                        TrackedEntityInstanceInternalAccessor.accessRelationships(trackedEntityInstance));
+                    relationshipOrphanCleaner.deleteOrphan(
+                            trackedEntityInstance,
+                            TrackedEntityInstanceInternalAccessor.accessRelationships(trackedEntityInstance));
+                }
             }
         }
 
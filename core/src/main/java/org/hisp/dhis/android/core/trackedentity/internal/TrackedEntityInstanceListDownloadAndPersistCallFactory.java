@@ -106,7 +106,7 @@ public final class TrackedEntityInstanceListDownloadAndPersistCallFactory {
                 relationshipsCallFactory.downloadAndPersist().blockingGet();
             }
 
-            foreignKeyCleaner.cleanForeignKeyErrors();
+            foreignKeyCleaner.cleanForeignKeyErrorsInWrittenTables();
 
             return teis;
         });
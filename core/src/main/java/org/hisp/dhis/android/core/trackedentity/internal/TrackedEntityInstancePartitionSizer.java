@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.trackedentity.internal;
+
+/**
+ * Adapts the number of tracked entity instances posted in each partition to the size of the payloads and the time
+ * the server takes to answer them. The size grows up to twice the previous one while the requests are small and
+ * fast enough, shrinks as soon as they are too big or slow, and is halved when a request fails.
+ */
+final class TrackedEntityInstancePartitionSizer {
+
+    static final int MIN_SIZE = 1;
+    static final int MAX_SIZE = 100;
+    static final long TARGET_PAYLOAD_BYTES = 512 * 1024;
+    static final long TARGET_RESPONSE_MILLIS = 5000;
+
+    private int size;
+
+    TrackedEntityInstancePartitionSizer(int initialSize) {
+        this.size = bound(initialSize);
+    }
+
+    int size() {
+        return size;
+    }
+
+    void onResponse(int trackedEntityInstances, long payloadBytes, long responseMillis) {
+        if (trackedEntityInstances <= 0) {
+            return;
+        }
+
+        double sizeForPayload = payloadBytes > 0 ?
+                (double) TARGET_PAYLOAD_BYTES * trackedEntityInstances / payloadBytes : MAX_SIZE;
+        double sizeForResponseTime = responseMillis > 0 ?
+                (double) TARGET_RESPONSE_MILLIS * trackedEntityInstances / responseMillis : MAX_SIZE;
+
+        size = bound((int) Math.min(2L * size, (long) Math.min(sizeForPayload, sizeForResponseTime)));
+    }
+
+    void onFailure() {
+        size = bound(size / 2);
+    }
+
+    private static int bound(int value) {
+        return Math.max(MIN_SIZE, Math.min(MAX_SIZE, value));
+    }
+}
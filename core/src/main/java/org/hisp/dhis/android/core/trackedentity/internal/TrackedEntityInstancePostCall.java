@@ -49,6 +49,7 @@ import org.hisp.dhis.android.core.imports.internal.TEIWebResponse;
 import org.hisp.dhis.android.core.imports.internal.TEIWebResponseHandler;
 import org.hisp.dhis.android.core.maintenance.D2Error;
 import org.hisp.dhis.android.core.note.Note;
+import org.hisp.dhis.android.core.note.NoteTableInfo;
 import org.hisp.dhis.android.core.note.internal.NoteToPostTransformer;
 import org.hisp.dhis.android.core.relationship.Relationship;
 import org.hisp.dhis.android.core.relationship.RelationshipCollectionRepository;
@@ -66,16 +67,29 @@ import org.hisp.dhis.android.core.trackedentity.TrackedEntityDataValue;
 import org.hisp.dhis.android.core.trackedentity.TrackedEntityInstance;
 import org.hisp.dhis.android.core.trackedentity.TrackedEntityInstanceInternalAccessor;
 
+import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import javax.inject.Inject;
 
 import dagger.Reusable;
 import io.reactivex.Observable;
+import io.reactivex.Single;
+import io.reactivex.functions.BiConsumer;
+import io.reactivex.schedulers.Schedulers;
+import okhttp3.RequestBody;
+import retrofit2.Call;
 
 @SuppressWarnings({"PMD.AvoidInstantiatingObjectsInLoops", "PMD.ExcessiveImports", "PMD.TooManyFields"})
 @Reusable
@@ -143,9 +157,30 @@ public final class TrackedEntityInstancePostCall {
 
     public Observable<D2Progress> uploadTrackedEntityInstances(
             List<TrackedEntityInstance> filteredTrackedEntityInstances) {
+        return upload(() -> getPagedTrackedEntityInstances(filteredTrackedEntityInstances, DEFAULT_PAGE_SIZE),
+                this::postPartitions);
+    }
+
+    /**
+     * Uploads the tracked entity instances keeping up to {@code maxInFlightPartitions} partitions in flight. The
+     * size of each partition is adapted to the payload size and the response time of the previous ones. Every
+     * tracked entity instance is sent in a single partition together with the related instances that must be posted
+     * with it, and the responses are handled in the same order the partitions were sent.
+     *
+     * @param filteredTrackedEntityInstances the tracked entity instances to upload, or null to upload all of them
+     * @param maxInFlightPartitions the maximum number of partitions posted at the same time
+     * @return the progress of the upload
+     */
+    public Observable<D2Progress> uploadTrackedEntityInstances(
+            List<TrackedEntityInstance> filteredTrackedEntityInstances, int maxInFlightPartitions) {
+        return upload(() -> getIndependentTrackedEntityInstances(filteredTrackedEntityInstances), (units, strategy) ->
+                postPartitionsConcurrently(units, strategy, maxInFlightPartitions));
+    }
+
+    private Observable<D2Progress> upload(Callable<List<List<TrackedEntityInstance>>> partitioner,
+                                          BiConsumer<List<List<TrackedEntityInstance>>, String> partitionPoster) {
         return Observable.defer(() -> {
-            List<List<TrackedEntityInstance>> trackedEntityInstancesToPost =
-                getPartitionsToSync(filteredTrackedEntityInstances);
+            List<List<TrackedEntityInstance>> trackedEntityInstancesToPost = partitioner.call();
 
             // if size is 0, then no need to do network request
             if (trackedEntityInstancesToPost.isEmpty()) {
@@ -163,23 +198,7 @@ public final class TrackedEntityInstancePostCall {
                         strategy = "SYNC";
                     }
 
-                    for (List<TrackedEntityInstance> partition : trackedEntityInstancesToPost) {
-                        partition = relationshipDeleteCall.postDeletedRelationships(partition);
-
-                        TrackedEntityInstancePayload trackedEntityInstancePayload =
-                                TrackedEntityInstancePayload.create(partition);
-
-                        try {
-                            TEIWebResponse webResponse = apiCallExecutor.executeObjectCallWithAcceptedErrorCodes(
-                                    trackedEntityInstanceService.postTrackedEntityInstances(
-                                            trackedEntityInstancePayload, strategy),
-                                    Collections.singletonList(409), TEIWebResponse.class);
-                            teiWebResponseHandler.handleWebResponse(webResponse);
-                        } catch (D2Error d2Error) {
-                            markPartitionAs(partition, State.TO_UPDATE);
-                        }
-
-                    }
+                    partitionPoster.accept(trackedEntityInstancesToPost, strategy);
 
                     emitter.onNext(progressManager.increaseProgress(TrackedEntityInstance.class, true));
                     emitter.onComplete();
@@ -188,58 +207,188 @@ public final class TrackedEntityInstancePostCall {
         });
     }
 
+    private void postPartitions(List<List<TrackedEntityInstance>> trackedEntityInstancesToPost, String strategy) {
+        for (List<TrackedEntityInstance> partition : trackedEntityInstancesToPost) {
+            partition = relationshipDeleteCall.postDeletedRelationships(recreatePartition(partition));
+
+            TrackedEntityInstancePayload trackedEntityInstancePayload =
+                    TrackedEntityInstancePayload.create(partition);
+
+            try {
+                TEIWebResponse webResponse = apiCallExecutor.executeObjectCallWithAcceptedErrorCodes(
+                        trackedEntityInstanceService.postTrackedEntityInstances(
+                                trackedEntityInstancePayload, strategy),
+                        Collections.singletonList(409), TEIWebResponse.class);
+                teiWebResponseHandler.handleWebResponse(webResponse);
+            } catch (D2Error d2Error) {
+                markPartitionAs(partition, State.TO_UPDATE);
+            }
+        }
+    }
+
+    private void postPartitionsConcurrently(List<List<TrackedEntityInstance>> units, String strategy,
+                                            int maxInFlightPartitions) throws InterruptedException {
+        TrackedEntityInstancePartitionSizer sizer = new TrackedEntityInstancePartitionSizer(DEFAULT_PAGE_SIZE);
+        Deque<PostedPartition> inFlight = new ArrayDeque<>();
+        int nextUnit = 0;
+        boolean completed = false;
+
+        try {
+            while (nextUnit < units.size() || !inFlight.isEmpty()) {
+                while (nextUnit < units.size() && inFlight.size() < maxInFlightPartitions) {
+                    List<TrackedEntityInstance> partition = new ArrayList<>();
+                    int partitionSize = sizer.size();
+                    while (nextUnit < units.size() &&
+                            (partition.isEmpty() || partition.size() + units.get(nextUnit).size() <= partitionSize)) {
+                        partition.addAll(units.get(nextUnit++));
+                    }
+                    if (!partition.isEmpty()) {
+                        inFlight.add(postPartition(partition, strategy));
+                    }
+                }
+
+                PostedPartition posted = inFlight.peek();
+                try {
+                    TEIWebResponse webResponse = posted.response.get();
+                    sizer.onResponse(posted.partition.size(), posted.payloadBytes, posted.elapsedMillis);
+                    teiWebResponseHandler.handleWebResponse(webResponse);
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof D2Error) {
+                        sizer.onFailure();
+                        markPartitionAs(posted.partition, State.TO_UPDATE);
+                    } else if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    } else {
+                        throw new RuntimeException(e.getCause());
+                    }
+                }
+                inFlight.remove();
+            }
+            completed = true;
+        } finally {
+            if (!completed) {
+                restorePartitions(inFlight);
+            }
+        }
+    }
+
+    /**
+     * Cancels the partitions still in flight after an unexpected failure, so they are sent again in the next upload.
+     */
+    private void restorePartitions(Deque<PostedPartition> inFlight) {
+        for (PostedPartition posted : inFlight) {
+            posted.response.cancel(true);
+            markPartitionAs(posted.partition, State.TO_UPDATE);
+        }
+    }
+
+    private PostedPartition postPartition(List<TrackedEntityInstance> unitsPartition, String strategy) {
+        List<TrackedEntityInstance> partition = recreatePartition(unitsPartition);
+        try {
+            partition = relationshipDeleteCall.postDeletedRelationships(partition);
+        } catch (RuntimeException e) {
+            markPartitionAs(partition, State.TO_UPDATE);
+            throw e;
+        }
+
+        Call<TEIWebResponse> call = trackedEntityInstanceService.postTrackedEntityInstances(
+                TrackedEntityInstancePayload.create(partition), strategy);
+        PostedPartition posted = new PostedPartition(partition, getPayloadBytes(call));
+
+        posted.response = Single.fromCallable(() -> {
+            long start = System.currentTimeMillis();
+            try {
+                return apiCallExecutor.executeObjectCallWithAcceptedErrorCodes(call,
+                        Collections.singletonList(409), TEIWebResponse.class);
+            } finally {
+                posted.elapsedMillis = System.currentTimeMillis() - start;
+            }
+        }).subscribeOn(Schedulers.io()).toFuture();
+
+        return posted;
+    }
+
+    private static long getPayloadBytes(Call<?> call) {
+        RequestBody body = call.request().body();
+        try {
+            return body == null ? -1 : body.contentLength();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
     @NonNull
     List<List<TrackedEntityInstance>> getPartitionsToSync(List<TrackedEntityInstance> filteredTrackedEntityInstances) {
-        Map<String, List<TrackedEntityDataValue>> dataValueMap =
-                trackedEntityDataValueStore.queryTrackerTrackedEntityDataValues();
-        Map<String, List<Event>> eventMap = eventStore.queryEventsAttachedToEnrollmentToPost();
-        Map<String, List<Enrollment>> enrollmentMap = enrollmentStore.queryEnrollmentsToPost();
-        Map<String, List<TrackedEntityAttributeValue>> attributeValueMap =
-                trackedEntityAttributeValueStore.queryTrackedEntityAttributeValueToPost();
-        String whereNotesClause = new WhereClauseBuilder()
-                .appendKeyStringValue(DataColumns.STATE, State.TO_POST).build();
-        List<Note> notes = noteStore.selectWhere(whereNotesClause);
+        List<List<TrackedEntityInstance>> trackedEntityInstancesRecreated = new ArrayList<>();
+        for (List<TrackedEntityInstance> partition :
+                getPagedTrackedEntityInstances(filteredTrackedEntityInstances, DEFAULT_PAGE_SIZE)) {
+            trackedEntityInstancesRecreated.add(recreatePartition(partition));
+        }
+        return trackedEntityInstancesRecreated;
+    }
+
+    /**
+     * Loads the children to post of the tracked entity instances of a single partition, so the memory needed is
+     * proportional to the partition size and not to the whole upload. The partition is marked as uploading.
+     */
+    private List<TrackedEntityInstance> recreatePartition(List<TrackedEntityInstance> partition) {
+        List<String> trackedEntityInstanceUids = UidsHelper.getUidsList(partition);
 
-        List<TrackedEntityInstance> targetTrackedEntityInstances;
-        if (filteredTrackedEntityInstances == null) {
-            targetTrackedEntityInstances = trackedEntityInstanceStore.queryTrackedEntityInstancesToSync();
-        } else {
-            targetTrackedEntityInstances = filteredTrackedEntityInstances;
+        Map<String, List<Enrollment>> enrollmentMap = enrollmentStore.queryEnrollmentsToPost(trackedEntityInstanceUids);
+        List<String> enrollmentUids = new ArrayList<>();
+        for (List<Enrollment> enrollments : enrollmentMap.values()) {
+            enrollmentUids.addAll(UidsHelper.getUidsList(enrollments));
         }
 
-        List<List<TrackedEntityInstance>> trackedEntityInstancesToSync
-                = getPagedTrackedEntityInstances(targetTrackedEntityInstances);
+        Map<String, List<Event>> eventMap = eventStore.queryEventsAttachedToEnrollmentToPost(enrollmentUids);
+        List<String> eventUids = new ArrayList<>();
+        for (List<Event> events : eventMap.values()) {
+            eventUids.addAll(UidsHelper.getUidsList(events));
+        }
 
-        List<List<TrackedEntityInstance>> trackedEntityInstancesRecreated = new ArrayList<>();
+        Map<String, List<TrackedEntityDataValue>> dataValueMap =
+                trackedEntityDataValueStore.queryTrackerTrackedEntityDataValues(eventUids);
+        Map<String, List<TrackedEntityAttributeValue>> attributeValueMap =
+                trackedEntityAttributeValueStore.queryTrackedEntityAttributeValueToPost(trackedEntityInstanceUids);
 
-        for (List<TrackedEntityInstance> partition : trackedEntityInstancesToSync) {
-            List<TrackedEntityInstance> partitionRecreated = new ArrayList<>();
-            for (TrackedEntityInstance trackedEntityInstance : partition) {
-                TrackedEntityInstance recreatedTrackedEntityInstance = recreateTrackedEntityInstance(
-                        trackedEntityInstance, dataValueMap, eventMap, enrollmentMap, attributeValueMap, notes);
+        String noteParentsClause = new WhereClauseBuilder()
+                .appendInKeyStringValues(NoteTableInfo.Columns.ENROLLMENT, enrollmentUids).build() + " OR " +
+                new WhereClauseBuilder().appendInKeyStringValues(NoteTableInfo.Columns.EVENT, eventUids).build();
+        String whereNotesClause = new WhereClauseBuilder()
+                .appendKeyStringValue(DataColumns.STATE, State.TO_POST)
+                .appendComplexQuery(noteParentsClause).build();
+        List<Note> notes = noteStore.selectWhere(whereNotesClause);
 
-                partitionRecreated.add(recreatedTrackedEntityInstance);
-            }
-            trackedEntityInstancesRecreated.add(partitionRecreated);
-            markPartitionAs(partitionRecreated, State.UPLOADING);
+        List<TrackedEntityInstance> partitionRecreated = new ArrayList<>();
+        for (TrackedEntityInstance trackedEntityInstance : partition) {
+            partitionRecreated.add(recreateTrackedEntityInstance(
+                    trackedEntityInstance, dataValueMap, eventMap, enrollmentMap, attributeValueMap, notes));
         }
+        markPartitionAs(partitionRecreated, State.UPLOADING);
 
-        return trackedEntityInstancesRecreated;
+        return partitionRecreated;
     }
 
     private List<List<TrackedEntityInstance>> getPagedTrackedEntityInstances(
-            List<TrackedEntityInstance> filteredTrackedEntityInstances) {
+            List<TrackedEntityInstance> filteredTrackedEntityInstances, int pageSize) {
         List<String> includedUids = new ArrayList<>();
+        List<TrackedEntityInstance> trackedEntityInstancesInDBToSync =
+                trackedEntityInstanceStore.queryTrackedEntityInstancesToSync();
+        List<TrackedEntityInstance> targetTrackedEntityInstances = filteredTrackedEntityInstances == null ?
+                new ArrayList<>(trackedEntityInstancesInDBToSync) : filteredTrackedEntityInstances;
+        List<String> teiUidsToPost =
+                UidsHelper.getUidsList(trackedEntityInstanceStore.queryTrackedEntityInstancesToPost());
 
         List<Set<TrackedEntityInstance>> partitions =
-                CollectionsHelper.setPartition(filteredTrackedEntityInstances, DEFAULT_PAGE_SIZE);
+                CollectionsHelper.setPartition(targetTrackedEntityInstances, pageSize);
 
         List<List<TrackedEntityInstance>> partitionsWithRelationships = new ArrayList<>();
 
         for (Set<TrackedEntityInstance> partition : partitions) {
             List<TrackedEntityInstance> partitionWithoutDuplicates = UidsHelper.excludeUids(partition, includedUids);
             List<TrackedEntityInstance> partitionWithRelationships =
-                    getTrackedEntityInstancesWithRelationships(partitionWithoutDuplicates, includedUids);
+                    getTrackedEntityInstancesWithRelationships(partitionWithoutDuplicates, includedUids,
+                            trackedEntityInstancesInDBToSync, teiUidsToPost);
 
             partitionsWithRelationships.add(partitionWithRelationships);
             includedUids.addAll(UidsHelper.getUidsList(partitionWithRelationships));
@@ -248,14 +397,67 @@ public final class TrackedEntityInstancePostCall {
         return partitionsWithRelationships;
     }
 
-    private List<TrackedEntityInstance> getTrackedEntityInstancesWithRelationships(
-            List<TrackedEntityInstance> filteredTrackedEntityInstances, List<String> excludedUids) {
+    /**
+     * Groups the tracked entity instances to upload in units that can be posted at the same time. Each unit holds a
+     * tracked entity instance and the related instances to post, and units sharing a related instance are merged,
+     * so no unit depends on another one.
+     */
+    private List<List<TrackedEntityInstance>> getIndependentTrackedEntityInstances(
+            List<TrackedEntityInstance> filteredTrackedEntityInstances) {
         List<TrackedEntityInstance> trackedEntityInstancesInDBToSync =
                 trackedEntityInstanceStore.queryTrackedEntityInstancesToSync();
-
-        List<String> filteredUids = UidsHelper.getUidsList(filteredTrackedEntityInstances);
+        List<TrackedEntityInstance> targetTrackedEntityInstances = filteredTrackedEntityInstances == null ?
+                new ArrayList<>(trackedEntityInstancesInDBToSync) : filteredTrackedEntityInstances;
         List<String> teiUidsToPost =
                 UidsHelper.getUidsList(trackedEntityInstanceStore.queryTrackedEntityInstancesToPost());
+
+        List<List<TrackedEntityInstance>> units = new ArrayList<>();
+        Map<String, Integer> unitIndexByUid = new HashMap<>();
+
+        for (Set<TrackedEntityInstance> single : CollectionsHelper.setPartition(targetTrackedEntityInstances, 1)) {
+            List<TrackedEntityInstance> unit = getTrackedEntityInstancesWithRelationships(new ArrayList<>(single),
+                    Collections.emptyList(), trackedEntityInstancesInDBToSync, teiUidsToPost);
+
+            Set<Integer> mergedIndexes = new TreeSet<>();
+            List<TrackedEntityInstance> newInstances = new ArrayList<>();
+            for (TrackedEntityInstance instance : unit) {
+                Integer index = unitIndexByUid.get(instance.uid());
+                if (index == null) {
+                    newInstances.add(instance);
+                } else {
+                    mergedIndexes.add(index);
+                }
+            }
+
+            int unitIndex = mergedIndexes.isEmpty() ? units.size() : mergedIndexes.iterator().next();
+            if (mergedIndexes.isEmpty()) {
+                units.add(new ArrayList<>());
+            }
+            for (Integer index : mergedIndexes) {
+                if (index != unitIndex) {
+                    newInstances.addAll(units.get(index));
+                    units.set(index, Collections.emptyList());
+                }
+            }
+            for (TrackedEntityInstance instance : newInstances) {
+                unitIndexByUid.put(instance.uid(), unitIndex);
+            }
+            units.get(unitIndex).addAll(newInstances);
+        }
+
+        List<List<TrackedEntityInstance>> nonEmptyUnits = new ArrayList<>();
+        for (List<TrackedEntityInstance> unit : units) {
+            if (!unit.isEmpty()) {
+                nonEmptyUnits.add(unit);
+            }
+        }
+        return nonEmptyUnits;
+    }
+
+    private List<TrackedEntityInstance> getTrackedEntityInstancesWithRelationships(
+            List<TrackedEntityInstance> filteredTrackedEntityInstances, List<String> excludedUids,
+            List<TrackedEntityInstance> trackedEntityInstancesInDBToSync, List<String> teiUidsToPost) {
+        List<String> filteredUids = UidsHelper.getUidsList(filteredTrackedEntityInstances);
         List<String> relatedTeisToPost = new ArrayList<>();
         List<String> internalRelatedTeis = filteredUids;
 
@@ -398,4 +600,16 @@ public final class TrackedEntityInstancePostCall {
         enrollmentStore.setState(enrollmentUids, state);
         eventStore.setState(eventUids, state);
     }
-}
\ No newline at end of file
+
+    private static final class PostedPartition {
+        private final List<TrackedEntityInstance> partition;
+        private final long payloadBytes;
+        private Future<TEIWebResponse> response;
+        private volatile long elapsedMillis;
+
+        PostedPartition(List<TrackedEntityInstance> partition, long payloadBytes) {
+            this.partition = partition;
+            this.payloadBytes = payloadBytes;
+        }
+    }
+}
@@ -126,10 +126,12 @@ class TrackedEntityInstanceQueryBuilderFactory {
                                                    String globalLastUpdated) {
         int limit = getLimit(params, programSettings, programUid);
         EnrollmentStatus programStatus = getProgramStatus(params, programSettings, programUid);
-        String programStartDate = getProgramStartDate(programSettings, programUid);
+        DownloadPeriod programStartPeriod = getProgramStartPeriod(programSettings, programUid);
+        String programStartDate = getStartDate(programStartPeriod);
 
-        String lastUpdated = globalLastUpdated == null && params.uids().isEmpty() ?
-                getInitialLastpdated(programSettings, programUid) : globalLastUpdated;
+        DownloadPeriod lastUpdatedPeriod = globalLastUpdated == null && params.uids().isEmpty() ?
+                getInitialLastUpdatedPeriod(programSettings, programUid) : null;
+        String lastUpdated = lastUpdatedPeriod == null ? globalLastUpdated : getStartDate(lastUpdatedPeriod);
 
         List<TeiQuery.Builder> builders = new ArrayList<>();
 
@@ -151,12 +153,15 @@ class TrackedEntityInstanceQueryBuilderFactory {
 
         if (hasLimitByOrgunit) {
             for (String orgUnitUid : orgUnits) {
-                builders.add(getBuilderFor(lastUpdated, Collections.singletonList(orgUnitUid), ouMode, params, limit)
-                        .program(programUid).programStatus(programStatus).programStartDate(programStartDate));
+                builders.add(getBuilderFor(lastUpdated, lastUpdatedPeriod, Collections.singletonList(orgUnitUid),
+                        ouMode, params, limit)
+                        .program(programUid).programStatus(programStatus).programStartDate(programStartDate)
+                        .programStartPeriod(programStartPeriod));
             }
         } else {
-            builders.add(getBuilderFor(lastUpdated, orgUnits, ouMode, params, limit)
-                    .program(programUid).programStatus(programStatus).programStartDate(programStartDate));
+            builders.add(getBuilderFor(lastUpdated, lastUpdatedPeriod, orgUnits, ouMode, params, limit)
+                    .program(programUid).programStatus(programStatus).programStartDate(programStartDate)
+                    .programStartPeriod(programStartPeriod));
         }
 
         return builders;
@@ -167,8 +172,9 @@ class TrackedEntityInstanceQueryBuilderFactory {
                                                String globalLastUpdated) {
         int limit = getLimit(params, programSettings, null);
 
-        String lastUpdated = globalLastUpdated == null && params.uids().isEmpty() ?
-                getInitialLastpdated(programSettings, null) : globalLastUpdated;
+        DownloadPeriod lastUpdatedPeriod = globalLastUpdated == null && params.uids().isEmpty() ?
+                getInitialLastUpdatedPeriod(programSettings, null) : null;
+        String lastUpdated = lastUpdatedPeriod == null ? globalLastUpdated : getStartDate(lastUpdatedPeriod);
 
         List<TeiQuery.Builder> builders = new ArrayList<>();
 
@@ -190,22 +196,26 @@ class TrackedEntityInstanceQueryBuilderFactory {
 
         if (hasLimitByOrgunit) {
             for (String orgUnitUid : orgUnits) {
-                builders.add(getBuilderFor(lastUpdated, Collections.singletonList(orgUnitUid), ouMode, params, limit));
+                builders.add(getBuilderFor(lastUpdated, lastUpdatedPeriod, Collections.singletonList(orgUnitUid),
+                        ouMode, params, limit));
             }
         } else {
-            builders.add(getBuilderFor(lastUpdated, orgUnits, ouMode, params, limit));
+            builders.add(getBuilderFor(lastUpdated, lastUpdatedPeriod, orgUnits, ouMode, params, limit));
         }
 
         return builders;
 
     }
 
-    private TeiQuery.Builder getBuilderFor(String lastUpdated, List<String> organisationUnits,
+    private TeiQuery.Builder getBuilderFor(String lastUpdated,
+                                           DownloadPeriod lastUpdatedPeriod,
+                                           List<String> organisationUnits,
                                            OrganisationUnitMode organisationUnitMode,
                                            ProgramDataDownloadParams params,
                                            int limit) {
         return TeiQuery.builder()
                 .lastUpdatedStartDate(lastUpdated)
+                .lastUpdatedPeriod(lastUpdatedPeriod)
                 .orgUnits(organisationUnits)
                 .ouMode(organisationUnitMode)
                 .uids(params.uids())
@@ -326,7 +336,7 @@ class TrackedEntityInstanceQueryBuilderFactory {
         return null;
     }
 
-    private String getProgramStartDate(ProgramSettings programSettings, String programUid) {
+    private DownloadPeriod getProgramStartPeriod(ProgramSettings programSettings, String programUid) {
         DownloadPeriod period = null;
         if (programSettings != null) {
             ProgramSetting specificSetting = programSettings.specificSettings().get(programUid);
@@ -339,15 +349,10 @@ class TrackedEntityInstanceQueryBuilderFactory {
             }
         }
 
-        if (period == null || period == DownloadPeriod.ANY) {
-            return null;
-        } else {
-            Date programStartDate = DateUtils.addMonths(new Date(), -period.getMonths());
-            return BaseIdentifiableObject.dateToSpaceDateStr(programStartDate);
-        }
+        return period == null || period == DownloadPeriod.ANY ? null : period;
     }
 
-    private String getInitialLastpdated(ProgramSettings programSettings, String programUid) {
+    private DownloadPeriod getInitialLastUpdatedPeriod(ProgramSettings programSettings, String programUid) {
         DownloadPeriod period = null;
         if (programSettings != null) {
             ProgramSetting specificSetting = programSettings.specificSettings().get(programUid);
@@ -360,11 +365,15 @@ class TrackedEntityInstanceQueryBuilderFactory {
             }
         }
 
-        if (period == null || period == DownloadPeriod.ANY) {
+        return period == null || period == DownloadPeriod.ANY ? null : period;
+    }
+
+    private String getStartDate(DownloadPeriod period) {
+        if (period == null) {
             return null;
         } else {
-            Date initialLastUpdated = DateUtils.addMonths(new Date(), -period.getMonths());
-            return BaseIdentifiableObject.dateToSpaceDateStr(initialLastUpdated);
+            Date startDate = DateUtils.addMonths(new Date(), -period.getMonths());
+            return BaseIdentifiableObject.dateToSpaceDateStr(startDate);
         }
     }
 
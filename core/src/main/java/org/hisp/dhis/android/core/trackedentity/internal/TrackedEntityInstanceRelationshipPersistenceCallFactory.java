@@ -87,7 +87,7 @@ final class TrackedEntityInstanceRelationshipPersistenceCallFactory {
                 organisationUnitCall.call();
             }
 
-            foreignKeyCleaner.cleanForeignKeyErrors();
+            foreignKeyCleaner.cleanForeignKeyErrorsInWrittenTables();
 
             return null;
         };
@@ -39,12 +39,14 @@ import org.hisp.dhis.android.core.trackedentity.search.SearchGrid;
 import java.util.List;
 
 import io.reactivex.Single;
+import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.http.Body;
 import retrofit2.http.GET;
 import retrofit2.http.POST;
 import retrofit2.http.Path;
 import retrofit2.http.Query;
+import retrofit2.http.Streaming;
 
 public interface TrackedEntityInstanceService {
     String TRACKED_ENTITY_INSTANCES = "trackedEntityInstances";
@@ -70,6 +72,7 @@ public interface TrackedEntityInstanceService {
     String REASON = "reason";
     String INCLUDE_DELETED = "includeDeleted";
     String ASSIGNED_USER_MODE = "assignedUserMode";
+    String ORDER = "order";
 
     @POST(TRACKED_ENTITY_INSTANCES)
     Call<TEIWebResponse> postTrackedEntityInstances(
@@ -110,6 +113,25 @@ public interface TrackedEntityInstanceService {
             @Query(PAGING) Boolean paging,
             @Query(PAGE) int page,
             @Query(PAGE_SIZE) int pageSize,
+            @Query(ORDER) String order,
+            @Query(LAST_UPDATED_START_DATE) String lastUpdatedStartDate,
+            @Query(INCLUDE_ALL_ATTRIBUTES) boolean includeAllAttributes,
+            @Query(INCLUDE_DELETED) boolean includeDeleted);
+
+    @Streaming
+    @GET(TRACKED_ENTITY_INSTANCES)
+    Single<ResponseBody> getTrackedEntityInstancesAsStream(
+            @Query(TRACKED_ENTITY_INSTACE) String trackedEntityInstances,
+            @Query(OU) String orgUnits,
+            @Query(OU_MODE) String orgUnitMode,
+            @Query(PROGRAM) String program,
+            @Query(PROGRAM_STATUS) String programStatus,
+            @Query(PROGRAM_START_DATE) String programStartDate,
+            @Query(FIELDS) @Which Fields<TrackedEntityInstance> fields,
+            @Query(PAGING) Boolean paging,
+            @Query(PAGE) int page,
+            @Query(PAGE_SIZE) int pageSize,
+            @Query(ORDER) String order,
             @Query(LAST_UPDATED_START_DATE) String lastUpdatedStartDate,
             @Query(INCLUDE_ALL_ATTRIBUTES) boolean includeAllAttributes,
             @Query(INCLUDE_DELETED) boolean includeDeleted);
@@ -32,10 +32,17 @@ import org.hisp.dhis.android.core.arch.api.executors.internal.RxAPICallExecutor;
 import org.hisp.dhis.android.core.arch.api.paging.internal.ApiPagingEngine;
 import org.hisp.dhis.android.core.arch.api.paging.internal.Paging;
 import org.hisp.dhis.android.core.arch.call.D2Progress;
+import org.hisp.dhis.android.core.arch.call.executors.internal.D2CallExecutor;
 import org.hisp.dhis.android.core.arch.call.internal.D2ProgressManager;
+import org.hisp.dhis.android.core.arch.db.stores.internal.ObjectStore;
 import org.hisp.dhis.android.core.arch.handlers.internal.Handler;
+import org.hisp.dhis.android.core.arch.helpers.internal.BlockingObservableHelper;
 import org.hisp.dhis.android.core.arch.helpers.internal.BooleanWrapper;
 import org.hisp.dhis.android.core.arch.repositories.collection.ReadOnlyWithDownloadObjectRepository;
+import org.hisp.dhis.android.core.maintenance.D2Error;
+import org.hisp.dhis.android.core.maintenance.D2ErrorCode;
+import org.hisp.dhis.android.core.maintenance.D2ErrorComponent;
+import org.hisp.dhis.android.core.maintenance.internal.ForeignKeyCleaner;
 import org.hisp.dhis.android.core.program.internal.ProgramDataDownloadParams;
 import org.hisp.dhis.android.core.program.internal.ProgramOrganisationUnitLastUpdated;
 import org.hisp.dhis.android.core.resource.internal.Resource;
@@ -45,24 +52,36 @@ import org.hisp.dhis.android.core.systeminfo.SystemInfo;
 import org.hisp.dhis.android.core.trackedentity.TrackedEntityInstance;
 import org.hisp.dhis.android.core.user.internal.UserOrganisationUnitLinkStore;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.inject.Inject;
 
 import dagger.Reusable;
+import io.reactivex.Flowable;
 import io.reactivex.Observable;
 import io.reactivex.Single;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.functions.Function;
+import io.reactivex.schedulers.Schedulers;
 
 @Reusable
 class TrackedEntityInstanceWithLimitCallFactory {
 
+    private static final int STREAMING_CHUNK_SIZE = 10;
+
     private final Resource.Type resourceType = Resource.Type.TRACKED_ENTITY_INSTANCE;
 
     private final RxAPICallExecutor rxCallExecutor;
+    private final D2CallExecutor d2CallExecutor;
+    private final ForeignKeyCleaner foreignKeyCleaner;
+    private final ObjectStore<D2Error> errorStore;
+    private final TrackedEntityInstanceDownloadCheckpointManager checkpointManager;
     private final ResourceHandler resourceHandler;
     private final Handler<ProgramOrganisationUnitLastUpdated> programOrganisationUnitLastUpdatedHandler;
     private final UserOrganisationUnitLinkStore userOrganisationUnitLinkStore;
@@ -75,12 +94,13 @@ class TrackedEntityInstanceWithLimitCallFactory {
     private final TrackedEntityInstancePersistenceCallFactory persistenceCallFactory;
     private final TrackedEntityInstancesEndpointCallFactory endpointCallFactory;
 
-    // TODO use scheduler for parallel download
-    // private final Scheduler teiDownloadScheduler = Schedulers.from(Executors.newFixedThreadPool(6));
-
     @Inject
     TrackedEntityInstanceWithLimitCallFactory(
             RxAPICallExecutor rxCallExecutor,
+            D2CallExecutor d2CallExecutor,
+            ForeignKeyCleaner foreignKeyCleaner,
+            ObjectStore<D2Error> errorStore,
+            TrackedEntityInstanceDownloadCheckpointManager checkpointManager,
             ResourceHandler resourceHandler,
             Handler<ProgramOrganisationUnitLastUpdated> programOrganisationUnitLastUpdatedHandler,
             UserOrganisationUnitLinkStore userOrganisationUnitLinkStore,
@@ -91,6 +111,10 @@ class TrackedEntityInstanceWithLimitCallFactory {
             DHISVersionManager versionManager,
             TrackedEntityInstancesEndpointCallFactory endpointCallFactory) {
         this.rxCallExecutor = rxCallExecutor;
+        this.d2CallExecutor = d2CallExecutor;
+        this.foreignKeyCleaner = foreignKeyCleaner;
+        this.errorStore = errorStore;
+        this.checkpointManager = checkpointManager;
         this.resourceHandler = resourceHandler;
         this.programOrganisationUnitLastUpdatedHandler = programOrganisationUnitLastUpdatedHandler;
         this.userOrganisationUnitLinkStore = userOrganisationUnitLinkStore;
@@ -105,6 +129,10 @@ class TrackedEntityInstanceWithLimitCallFactory {
     }
 
     Observable<D2Progress> download(final ProgramDataDownloadParams params) {
+        if (Boolean.TRUE.equals(params.resumable())) {
+            return downloadResumable(params);
+        }
+
         Observable<D2Progress> observable = Observable.defer(() -> {
             D2ProgressManager progressManager = new D2ProgressManager(null);
             Set<ProgramOrganisationUnitLastUpdated> programOrganisationUnitSet = new HashSet<>();
@@ -127,6 +155,32 @@ class TrackedEntityInstanceWithLimitCallFactory {
 
     }
 
+    /**
+     * There is no transaction for the whole download: each page is persisted and committed on its own, together with
+     * its checkpoint, so a failure only discards the page being persisted. Relationships and the resource are
+     * handled in a final transaction once all the pages have been downloaded.
+     */
+    private Observable<D2Progress> downloadResumable(final ProgramDataDownloadParams params) {
+        return Observable.defer(() -> {
+            D2ProgressManager progressManager = new D2ProgressManager(null);
+            if (userOrganisationUnitLinkStore.count() == 0) {
+                return Observable.just(
+                        progressManager.increaseProgress(TrackedEntityInstance.class, true));
+            } else {
+                BooleanWrapper allOkay = new BooleanWrapper(true);
+
+                return Observable.concat(
+                        downloadSystemInfo(progressManager),
+                        downloadTeisResumable(progressManager, params, allOkay),
+                        rxCallExecutor.wrapObservableTransactionally(Observable.concat(
+                                downloadRelationshipTeis(progressManager),
+                                updateResource(progressManager, params, allOkay, Collections.emptySet())
+                        ), false)
+                );
+            }
+        });
+    }
+
     private Observable<D2Progress> downloadSystemInfo(D2ProgressManager progressManager) {
         return systemInfoRepository.download()
                 .toSingle(() -> progressManager.increaseProgress(SystemInfo.class, false))
@@ -139,24 +193,61 @@ class TrackedEntityInstanceWithLimitCallFactory {
                                                 Set<ProgramOrganisationUnitLastUpdated> programOrganisationUnitSet) {
 
         List<TeiQuery.Builder> teiQueryBuilders = trackedEntityInstanceQueryBuilderFactory.getTeiQueryBuilders(params);
+        int pageConcurrency = params.pageConcurrency() == null ?
+                ProgramDataDownloadParams.DEFAULT_PAGE_CONCURRENCY : Math.max(1, params.pageConcurrency());
+        boolean streaming = Boolean.TRUE.equals(params.streaming());
+        boolean isFullUpdate = params.program() == null;
+        boolean overwrite = params.overwrite();
+
+        Date serverDate = systemInfoRepository.blockingGet().serverDate();
+
+        Function<List<TrackedEntityInstance>, D2Progress> persistence = teiList -> {
+            persistenceCallFactory.getCall(teiList, isFullUpdate, overwrite).call();
+            programOrganisationUnitSet.addAll(
+                    TrackedEntityInstanceHelper.getProgramOrganisationUnitTuple(teiList, serverDate));
+            return progressManager.increaseProgress(TrackedEntityInstance.class, false);
+        };
+
+        return Observable.fromIterable(teiQueryBuilders)
+                .concatMap(teiQueryBuilder -> streaming
+                        ? downloadTeisWithStreaming(teiQueryBuilder.build(), allOkay, persistence)
+                        : getTrackedEntityInstancesWithPaging(teiQueryBuilder.build(), allOkay, pageConcurrency)
+                                .map(persistence));
+    }
 
-        Observable<List<TrackedEntityInstance>> teiDownloadObservable =
-                Observable.fromIterable(teiQueryBuilders)
-                        .flatMap(teiQueryBuilder -> {
-                            return getTrackedEntityInstancesWithPaging(teiQueryBuilder, allOkay);
-                            // TODO .subscribeOn(teiDownloadScheduler);
-                        });
+    private Observable<D2Progress> downloadTeisResumable(D2ProgressManager progressManager,
+                                                         ProgramDataDownloadParams params,
+                                                         BooleanWrapper allOkay) {
+
+        List<TeiQuery.Builder> teiQueryBuilders = trackedEntityInstanceQueryBuilderFactory.getTeiQueryBuilders(params);
+        int pageConcurrency = params.pageConcurrency() == null ?
+                ProgramDataDownloadParams.DEFAULT_PAGE_CONCURRENCY : Math.max(1, params.pageConcurrency());
+        boolean isFullUpdate = params.program() == null;
+        boolean overwrite = params.overwrite();
 
         Date serverDate = systemInfoRepository.blockingGet().serverDate();
 
-        return teiDownloadObservable.map(
-                teiList -> {
-                    boolean isFullUpdate = params.program() == null;
-                    boolean overwrite = params.overwrite();
-                    persistenceCallFactory.getCall(teiList, isFullUpdate, overwrite).call();
-                    programOrganisationUnitSet.addAll(
-                            TrackedEntityInstanceHelper.getProgramOrganisationUnitTuple(teiList, serverDate));
-                    return progressManager.increaseProgress(TrackedEntityInstance.class, false);
+        return Observable.fromIterable(teiQueryBuilders)
+                .concatMap(teiQueryBuilder -> {
+                    TeiQuery baseQuery = teiQueryBuilder.build();
+                    List<Paging> pagingList =
+                            getPagingListAfter(baseQuery, checkpointManager.getLastCommittedPage(baseQuery));
+
+                    return getPagesWithPaging(baseQuery, pagingList, allOkay, pageConcurrency)
+                            .takeWhile(TeiListWithPaging::isSuccess)
+                            .map(res -> d2CallExecutor.executeD2CallTransactionally(() -> {
+                                persistenceCallFactory.getCall(res.teiList, isFullUpdate, overwrite).call();
+                                programOrganisationUnitLastUpdatedHandler.handleMany(
+                                        TrackedEntityInstanceHelper.getProgramOrganisationUnitTuple(
+                                                res.teiList, serverDate));
+                                if (isLastPage(res)) {
+                                    checkpointManager.clear(baseQuery);
+                                } else {
+                                    checkpointManager.saveCommittedPage(baseQuery, res.paging.page());
+                                }
+                                foreignKeyCleaner.cleanForeignKeyErrorsInWrittenTables();
+                                return progressManager.increaseProgress(TrackedEntityInstance.class, false);
+                            }));
                 });
     }
 
@@ -169,26 +260,176 @@ class TrackedEntityInstanceWithLimitCallFactory {
                 trackedEntityInstances -> progressManager.increaseProgress(TrackedEntityInstance.class, true));
     }
 
+    /**
+     * Pages are requested in order. With a concurrency greater than one, up to that number of requests run on the io
+     * scheduler while the results are consumed, one by one and in page order, on the subscribing thread. This way
+     * persistence, and storing the errors of failed pages, always happens in the thread that owns the database
+     * transaction. Once a page comes back shorter than requested, the following pages are not requested anymore.
+     */
     private Observable<List<TrackedEntityInstance>> getTrackedEntityInstancesWithPaging(
-            TeiQuery.Builder teiQueryBuilder, BooleanWrapper allOkay) {
-        TeiQuery baseQuery = teiQueryBuilder.build();
+            TeiQuery baseQuery, BooleanWrapper allOkay, int pageConcurrency) {
         List<Paging> pagingList = ApiPagingEngine.getPaginationList(baseQuery.pageSize(), baseQuery.limit());
 
+        return getPagesWithPaging(baseQuery, pagingList, allOkay, pageConcurrency).map(tuple -> tuple.teiList);
+    }
+
+    private Observable<TeiListWithPaging> getPagesWithPaging(TeiQuery baseQuery, List<Paging> pagingList,
+                                                             BooleanWrapper allOkay, int pageConcurrency) {
+        Observable<TeiListWithPaging> pageObservable = Observable.defer(() -> {
+            AtomicInteger lastPage = new AtomicInteger(Integer.MAX_VALUE);
+            return Observable
+                    .fromIterable(pagingList)
+                    .concatMapEager(paging -> {
+                        if (paging.page() > lastPage.get()) {
+                            return Observable.empty();
+                        }
+                        Single<TeiListWithPaging> pageCall = rxCallExecutor
+                                .wrapSingle(endpointCallFactory.getCall(pageQuery(baseQuery, paging)), false)
+                                .map(payload -> {
+                                    TeiListWithPaging res = new TeiListWithPaging(
+                                            limitTeisForPage(payload.items(), paging), paging);
+                                    if (isLastPage(res)) {
+                                        updateLastPage(lastPage, paging.page());
+                                    }
+                                    return res;
+                                })
+                                .onErrorReturn(err -> new TeiListWithPaging(toD2Error(err), paging));
+                        return pageConcurrency > 1 ? pageCall.subscribeOn(Schedulers.io()).toObservable()
+                                : pageCall.toObservable();
+                    }, pageConcurrency, pageConcurrency)
+                    .takeUntil(res -> res.isSuccess() && isLastPage(res));
+        });
+
+        Observable<TeiListWithPaging> consumedPages = pageConcurrency > 1
+                ? BlockingObservableHelper.observeInSubscribingThread(pageObservable, pageConcurrency)
+                : pageObservable;
+
+        return consumedPages.doOnNext(res -> {
+            if (!res.isSuccess()) {
+                allOkay.set(false);
+                errorStore.insert(res.error);
+            }
+        });
+    }
+
+    /**
+     * API errors reach the pages already mapped to {@link D2Error} by the {@link RxAPICallExecutor}, but other
+     * exceptions, like the ones thrown while limiting the page, are wrapped so they can be stored too.
+     */
+    private static D2Error toD2Error(Throwable throwable) {
+        if (throwable instanceof D2Error) {
+            return (D2Error) throwable;
+        } else if (!(throwable instanceof Exception)) {
+            throw Exceptions.propagate(throwable);
+        }
+        return D2Error.builder()
+                .errorComponent(D2ErrorComponent.SDK)
+                .errorCode(D2ErrorCode.UNEXPECTED)
+                .errorDescription("Unexpected error downloading tracked entity instances")
+                .originalException((Exception) throwable)
+                .build();
+    }
+
+    private static void updateLastPage(AtomicInteger lastPage, int page) {
+        int current = lastPage.get();
+        while (page < current && !lastPage.compareAndSet(current, page)) {
+            current = lastPage.get();
+        }
+    }
+
+    private static boolean isLastPage(TeiListWithPaging res) {
+        return res.paging.isLastPage() || res.teiList.size() < res.paging.pageSize();
+    }
+
+    /**
+     * Pages are requested sequentially and parsed while they are received. TEIs are persisted in groups of
+     * {@link #STREAMING_CHUNK_SIZE} as soon as they are parsed, and the whole chain is synchronous, so each group is
+     * persisted before the next one is read from the response. After each group, the number of TEIs of the page
+     * already persisted is recorded: if a page fails midway, the next download continues after them instead of
+     * downloading and handling them again. The checkpoint is removed once all the pages have been persisted.
+     * <p>
+     * A page that fails to download or parse stops the download of the query, as the paged download does when a page
+     * fails. Its error is stored by the subscribing thread, which owns the database transaction. Errors persisting
+     * the TEIs are propagated.
+     */
+    private Observable<D2Progress> downloadTeisWithStreaming(
+            TeiQuery baseQuery, BooleanWrapper allOkay, Function<List<TrackedEntityInstance>, D2Progress> persistence) {
+        int lastCommittedPage = checkpointManager.getLastCommittedPage(baseQuery);
+        int committedPageItems = checkpointManager.getCommittedPageItems(baseQuery);
+        List<Paging> pagingList = getPagingListAfter(baseQuery, lastCommittedPage);
+        BooleanWrapper lastPageReached = new BooleanWrapper(false);
+        BooleanWrapper pageFailed = new BooleanWrapper(false);
+
         return Observable
                 .fromIterable(pagingList)
-                .flatMapSingle(paging -> {
-                    teiQueryBuilder.page(paging.page()).pageSize(paging.pageSize());
-                    return endpointCallFactory.getCall(teiQueryBuilder.build())
-                            .map(payload ->
-                                new TeiListWithPaging(true, limitTeisForPage(payload.items(), paging), paging))
-                            .onErrorResumeNext((err) -> {
+                .concatMap(paging -> Observable.defer(() -> {
+                    if (lastPageReached.get() || pageFailed.get()) {
+                        return Observable.empty();
+                    }
+                    int itemsToSkip = paging.page() == lastCommittedPage + 1 ? committedPageItems : 0;
+                    AtomicInteger pageItemsCount = new AtomicInteger(0);
+                    AtomicInteger persistedItemsCount = new AtomicInteger(itemsToSkip);
+
+                    Flowable<TrackedEntityInstance> pageTeis = endpointCallFactory
+                            .getStreamingCall(pageQuery(baseQuery, paging))
+                            .doOnNext(tei -> pageItemsCount.incrementAndGet());
+
+                    Flowable<List<TrackedEntityInstance>> pageChunks = limitTeisForStreamedPage(pageTeis, paging)
+                            .skip(itemsToSkip)
+                            .buffer(STREAMING_CHUNK_SIZE)
+                            .doOnComplete(() -> {
+                                if (paging.isLastPage() || pageItemsCount.get() < paging.pageSize()) {
+                                    lastPageReached.set(true);
+                                }
+                            });
+
+                    return rxCallExecutor.wrapFlowable(pageChunks, false)
+                            .onErrorResumeNext((Throwable err) -> {
                                 allOkay.set(false);
-                                return Single.just(new TeiListWithPaging(false, Collections.emptyList(), paging));
+                                pageFailed.set(true);
+                                errorStore.insert(toD2Error(err));
+                                return Flowable.empty();
+                            })
+                            .toObservable()
+                            .map(teiList -> {
+                                D2Progress progress = persistence.apply(teiList);
+                                if (!pageFailed.get()) {
+                                    checkpointManager.saveCommittedPageItems(baseQuery, paging.page(),
+                                            persistedItemsCount.addAndGet(teiList.size()));
+                                }
+                                return progress;
                             });
-                })
-                .takeUntil(res -> res.isSuccess && (res.paging.isLastPage() ||
-                        !res.paging.isLastPage() && res.teiList.size() < res.paging.pageSize()))
-                .map(tuple -> tuple.teiList);
+                }))
+                .doOnComplete(() -> {
+                    if (!pageFailed.get()) {
+                        checkpointManager.clear(baseQuery);
+                    }
+                });
+    }
+
+    private static List<Paging> getPagingListAfter(TeiQuery baseQuery, int lastCommittedPage) {
+        List<Paging> pagingList = new ArrayList<>();
+        for (Paging paging : ApiPagingEngine.getPaginationList(baseQuery.pageSize(), baseQuery.limit())) {
+            if (paging.isLastPage() || paging.page() > lastCommittedPage) {
+                pagingList.add(paging);
+            }
+        }
+        return pagingList;
+    }
+
+    private static TeiQuery pageQuery(TeiQuery baseQuery, Paging paging) {
+        return baseQuery.toBuilder().page(paging.page()).pageSize(paging.pageSize()).build();
+    }
+
+    private Flowable<TrackedEntityInstance> limitTeisForStreamedPage(Flowable<TrackedEntityInstance> pageTeis,
+                                                                     Paging paging) {
+        if (paging.isLastPage()) {
+            return pageTeis
+                    .skip(paging.previousItemsToSkipCount())
+                    .take(paging.pageSize() - paging.previousItemsToSkipCount() - paging.posteriorItemsToSkipCount());
+        } else {
+            return pageTeis;
+        }
     }
 
     private List<TrackedEntityInstance> limitTeisForPage(List<TrackedEntityInstance> pageTrackedEntityInstances,
@@ -218,14 +459,24 @@ class TrackedEntityInstanceWithLimitCallFactory {
     }
 
     private static class TeiListWithPaging {
-        final boolean isSuccess;
         final List<TrackedEntityInstance> teiList;
         final Paging paging;
+        final D2Error error;
 
-        TeiListWithPaging(boolean isSuccess, List<TrackedEntityInstance> teiList, Paging paging) {
-            this.isSuccess = isSuccess;
+        TeiListWithPaging(List<TrackedEntityInstance> teiList, Paging paging) {
             this.teiList = teiList;
             this.paging = paging;
+            this.error = null;
+        }
+
+        TeiListWithPaging(D2Error error, Paging paging) {
+            this.teiList = Collections.emptyList();
+            this.paging = paging;
+            this.error = error;
+        }
+
+        boolean isSuccess() {
+            return error == null;
         }
     }
 }
\ No newline at end of file
@@ -29,6 +29,7 @@
 package org.hisp.dhis.android.core.trackedentity.internal;
 
 import org.hisp.dhis.android.core.arch.api.payload.internal.Payload;
+import org.hisp.dhis.android.core.arch.api.payload.internal.PayloadStreamParser;
 import org.hisp.dhis.android.core.arch.helpers.CollectionsHelper;
 import org.hisp.dhis.android.core.trackedentity.TrackedEntityInstance;
 
@@ -36,11 +37,18 @@ import javax.inject.Inject;
 
 import androidx.annotation.NonNull;
 import dagger.Reusable;
+import io.reactivex.Flowable;
 import io.reactivex.Single;
 
 @Reusable
 final class TrackedEntityInstancesEndpointCallFactory {
 
+    /**
+     * Pages are ordered by creation, so the TEIs created while downloading are appended to the last page instead of
+     * shifting the pages already committed.
+     */
+    private static final String PAGING_ORDER = "created:asc";
+
     private final TrackedEntityInstanceService trackedEntityInstanceService;
 
     @Inject
@@ -50,16 +58,39 @@ final class TrackedEntityInstancesEndpointCallFactory {
     }
 
     Single<Payload<TrackedEntityInstance>> getCall(final TeiQuery query) {
-        String uidStr = query.uids().isEmpty() ? null :
-                CollectionsHelper.joinCollectionWithSeparator(query.uids(), ";");
-        String ouStr = query.orgUnits().isEmpty() ? null :
-                CollectionsHelper.joinCollectionWithSeparator(query.orgUnits(), ";");
-
-        String programStatus = query.programStatus() == null ? null : query.programStatus().toString();
+        String uidStr = getUidStr(query);
+        String ouStr = getOuStr(query);
+        String programStatus = getProgramStatus(query);
 
         return trackedEntityInstanceService.getTrackedEntityInstances(uidStr, ouStr,
                 query.ouMode().name(), query.program(), programStatus, query.programStartDate(),
-                TrackedEntityInstanceFields.allFields, Boolean.TRUE, query.page(), query.pageSize(),
+                TrackedEntityInstanceFields.allFields, Boolean.TRUE, query.page(), query.pageSize(), PAGING_ORDER,
                 query.lastUpdatedStartDate(), true, true);
     }
+
+    Flowable<TrackedEntityInstance> getStreamingCall(final TeiQuery query) {
+        String uidStr = getUidStr(query);
+        String ouStr = getOuStr(query);
+        String programStatus = getProgramStatus(query);
+
+        return trackedEntityInstanceService.getTrackedEntityInstancesAsStream(uidStr, ouStr,
+                query.ouMode().name(), query.program(), programStatus, query.programStartDate(),
+                TrackedEntityInstanceFields.allFields, Boolean.TRUE, query.page(), query.pageSize(), PAGING_ORDER,
+                query.lastUpdatedStartDate(), true, true)
+                .flatMapPublisher(body -> PayloadStreamParser.items(body.byteStream(),
+                        TrackedEntityInstanceService.TRACKED_ENTITY_INSTANCES, TrackedEntityInstance.class));
+    }
+
+    private String getUidStr(TeiQuery query) {
+        return query.uids().isEmpty() ? null : CollectionsHelper.joinCollectionWithSeparator(query.uids(), ";");
+    }
+
+    private String getOuStr(TeiQuery query) {
+        return query.orgUnits().isEmpty() ? null :
+                CollectionsHelper.joinCollectionWithSeparator(query.orgUnits(), ";");
+    }
+
+    private String getProgramStatus(TeiQuery query) {
+        return query.programStatus() == null ? null : query.programStatus().toString();
+    }
 }
\ No newline at end of file
@@ -64,7 +64,8 @@ public final class TrackedEntityModuleWiper implements ModuleWiper {
                 TrackedEntityInstanceTableInfo.TABLE_INFO,
                 TrackedEntityDataValueTableInfo.TABLE_INFO,
                 TrackedEntityAttributeValueTableInfo.TABLE_INFO,
-                TrackedEntityAttributeReservedValueTableInfo.TABLE_INFO
+                TrackedEntityAttributeReservedValueTableInfo.TABLE_INFO,
+                TrackedEntityInstanceDownloadCheckpointTableInfo.TABLE_INFO
         );
     }
 }
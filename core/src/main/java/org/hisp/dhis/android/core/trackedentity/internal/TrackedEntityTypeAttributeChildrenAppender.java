@@ -31,23 +31,25 @@ import org.hisp.dhis.android.core.arch.db.access.DatabaseAdapter;
 import org.hisp.dhis.android.core.arch.db.stores.internal.SingleParentChildStore;
 import org.hisp.dhis.android.core.arch.db.stores.internal.StoreFactory;
 import org.hisp.dhis.android.core.arch.repositories.children.internal.ChildrenAppender;
+import org.hisp.dhis.android.core.arch.repositories.children.internal.SingleParentChildrenAppender;
 import org.hisp.dhis.android.core.trackedentity.TrackedEntityType;
 import org.hisp.dhis.android.core.trackedentity.TrackedEntityTypeAttribute;
 
-public final class TrackedEntityTypeAttributeChildrenAppender extends ChildrenAppender<TrackedEntityType> {
+import java.util.List;
 
-
-    private final SingleParentChildStore<TrackedEntityType, TrackedEntityTypeAttribute> childStore;
+public final class TrackedEntityTypeAttributeChildrenAppender
+        extends SingleParentChildrenAppender<TrackedEntityType, TrackedEntityTypeAttribute> {
 
     private TrackedEntityTypeAttributeChildrenAppender(
             SingleParentChildStore<TrackedEntityType, TrackedEntityTypeAttribute> childStore) {
-        this.childStore = childStore;
+        super(childStore);
     }
 
     @Override
-    protected TrackedEntityType appendChildren(TrackedEntityType trackedEntityType) {
+    protected TrackedEntityType appendChildren(TrackedEntityType trackedEntityType,
+                                               List<TrackedEntityTypeAttribute> children) {
         TrackedEntityType.Builder builder = trackedEntityType.toBuilder();
-        builder.trackedEntityTypeAttributes(childStore.getChildren(trackedEntityType));
+        builder.trackedEntityTypeAttributes(children);
         return builder.build();
     }
 
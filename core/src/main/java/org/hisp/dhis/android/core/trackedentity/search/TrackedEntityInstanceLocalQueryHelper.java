@@ -34,6 +34,7 @@ import org.hisp.dhis.android.core.arch.helpers.internal.EnumHelper;
 import org.hisp.dhis.android.core.arch.repositories.scope.internal.FilterItemOperator;
 import org.hisp.dhis.android.core.arch.repositories.scope.internal.RepositoryScopeFilterItem;
 import org.hisp.dhis.android.core.common.AssignedUserMode;
+import org.hisp.dhis.android.core.common.BaseIdentifiableObject;
 import org.hisp.dhis.android.core.common.DataColumns;
 import org.hisp.dhis.android.core.common.State;
 import org.hisp.dhis.android.core.enrollment.EnrollmentTableInfo;
@@ -42,11 +43,15 @@ import org.hisp.dhis.android.core.organisationunit.OrganisationUnitMode;
 import org.hisp.dhis.android.core.organisationunit.OrganisationUnitTableInfo;
 import org.hisp.dhis.android.core.organisationunit.OrganisationUnitTableInfo.Columns;
 import org.hisp.dhis.android.core.trackedentity.TrackedEntityAttributeValueTableInfo;
+import org.hisp.dhis.android.core.trackedentity.TrackedEntityInstance;
 import org.hisp.dhis.android.core.trackedentity.TrackedEntityInstanceTableInfo;
 import org.hisp.dhis.android.core.user.AuthenticatedUserTableInfo;
 
+import java.util.Arrays;
 import java.util.List;
 
+import androidx.annotation.Nullable;
+
 import static org.hisp.dhis.android.core.common.IdentifiableColumns.UID;
 
 @SuppressWarnings({"PMD.GodClass"})
@@ -63,6 +68,15 @@ final class TrackedEntityInstanceLocalQueryHelper {
     private static String TEI_STATE = dot(TEI_ALIAS, DataColumns.STATE);
     private static String TEI_LAST_UPDATED = dot(TEI_ALIAS, "lastUpdated");
 
+    private static final List<State> FIRST_STATES = Arrays.asList(State.TO_POST, State.TO_UPDATE, State.UPLOADING);
+    private static final List<State> SECOND_STATES =
+            Arrays.asList(State.SYNCED, State.SYNCED_VIA_SMS, State.SENT_VIA_SMS);
+
+    private static final String STATE_ORDER = "CASE " +
+            "WHEN " + TEI_STATE + " IN (" + inValues(FIRST_STATES) + ") THEN 1 " +
+            "WHEN " + TEI_STATE + " IN (" + inValues(SECOND_STATES) + ") THEN 2 ELSE 3 END";
+    private static final String LAST_UPDATED_ORDER = "IFNULL(" + TEI_LAST_UPDATED + ", '')";
+
     private static String ENROLLMENT_DATE = EnrollmentTableInfo.Columns.ENROLLMENT_DATE;
     private static String PROGRAM = EnrollmentTableInfo.Columns.PROGRAM;
 
@@ -73,8 +87,17 @@ final class TrackedEntityInstanceLocalQueryHelper {
 
     private TrackedEntityInstanceLocalQueryHelper() { }
 
-    @SuppressWarnings({"PMD.UseStringBufferForStringAppends", "PMD.CyclomaticComplexity", "PMD.NPathComplexity"})
     static String getSqlQuery(TrackedEntityInstanceQueryRepositoryScope scope, List<String> excludeList, int limit) {
+        return getSqlQuery(scope, excludeList, limit, null);
+    }
+
+    /**
+     * @param afterKey instance the selection starts after, following the order of the query. If null, the selection
+     *                 starts with the first instance.
+     */
+    @SuppressWarnings({"PMD.UseStringBufferForStringAppends", "PMD.CyclomaticComplexity", "PMD.NPathComplexity"})
+    static String getSqlQuery(TrackedEntityInstanceQueryRepositoryScope scope, List<String> excludeList, int limit,
+                              @Nullable TrackedEntityInstance afterKey) {
 
         String queryStr = "SELECT DISTINCT " + TEI_ALL + " FROM " +
                 TrackedEntityInstanceTableInfo.TABLE_INFO.name() + " " + TEI_ALIAS;
@@ -126,22 +149,14 @@ final class TrackedEntityInstanceLocalQueryHelper {
         appendQueryWhere(where, scope);
         appendFiltersWhere(where, scope);
         appendExcludeList(where, excludeList);
+        appendAfterKey(where, afterKey);
 
         if (!where.isEmpty()) {
             queryStr += " WHERE " + where.build();
         }
 
         // TODO In case a program uid is provided, the server orders by enrollmentStatus.
-        String order1 = CollectionsHelper.commaAndSpaceSeparatedArrayValues(
-                CollectionsHelper.withSingleQuotationMarksArray(
-                        EnumHelper.asStringList(State.TO_POST, State.TO_UPDATE, State.UPLOADING)));
-        String order2 = CollectionsHelper.commaAndSpaceSeparatedArrayValues(
-                CollectionsHelper.withSingleQuotationMarksArray(
-                        EnumHelper.asStringList(State.SYNCED, State.SYNCED_VIA_SMS, State.SENT_VIA_SMS)));
-        queryStr += " ORDER BY CASE " +
-                "WHEN " + TEI_STATE + " IN (" + order1 + ") THEN 1 " +
-                "WHEN " + TEI_STATE + " IN (" + order2 + ") THEN 2 ELSE 3 END ASC, " +
-                TEI_LAST_UPDATED + " DESC ";
+        queryStr += " ORDER BY " + STATE_ORDER + " ASC, " + LAST_UPDATED_ORDER + " DESC, " + TEI_UID + " ASC ";
 
         if (limit > 0) {
             queryStr += " LIMIT " + limit;
@@ -255,6 +270,40 @@ final class TrackedEntityInstanceLocalQueryHelper {
         }
     }
 
+    /**
+     * Keyset condition for the instances after the key in the order of the query: by state group, then by
+     * lastUpdated descending and then by uid.
+     */
+    private static void appendAfterKey(WhereClauseBuilder where, TrackedEntityInstance afterKey) {
+        if (afterKey == null) {
+            return;
+        }
+
+        String stateOrder = String.valueOf(stateOrder(afterKey.state()));
+        String lastUpdated = "'" + (afterKey.lastUpdated() == null ? "" :
+                BaseIdentifiableObject.dateToDateStr(afterKey.lastUpdated())) + "'";
+        String uid = "'" + escapeQuotes(afterKey.uid()) + "'";
+
+        where.appendComplexQuery(String.format("%1$s > %2$s OR (%1$s = %2$s AND %3$s < %4$s) OR " +
+                        "(%1$s = %2$s AND %3$s = %4$s AND %5$s > %6$s)",
+                STATE_ORDER, stateOrder, LAST_UPDATED_ORDER, lastUpdated, TEI_UID, uid));
+    }
+
+    private static int stateOrder(State state) {
+        if (FIRST_STATES.contains(state)) {
+            return 1;
+        } else if (SECOND_STATES.contains(state)) {
+            return 2;
+        } else {
+            return 3;
+        }
+    }
+
+    private static String inValues(List<State> states) {
+        return CollectionsHelper.commaAndSpaceSeparatedArrayValues(
+                CollectionsHelper.withSingleQuotationMarksArray(EnumHelper.asStringList(states.toArray(new State[0]))));
+    }
+
     private static void appendAssignedUserMode(WhereClauseBuilder where,
                                                TrackedEntityInstanceQueryRepositoryScope scope) {
         AssignedUserMode mode = scope.assignedUserMode();
@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.android.core.trackedentity.search;
 
+import androidx.annotation.Nullable;
 import androidx.lifecycle.LiveData;
 import androidx.paging.DataSource;
 import androidx.paging.LivePagedListBuilder;
@@ -35,12 +36,15 @@ import androidx.paging.PagedList;
 import org.hisp.dhis.android.core.arch.repositories.children.internal.ChildrenAppender;
 import org.hisp.dhis.android.core.arch.repositories.children.internal.ChildrenAppenderExecutor;
 import org.hisp.dhis.android.core.arch.repositories.children.internal.ChildrenSelection;
+import org.hisp.dhis.android.core.arch.repositories.collection.CloseableIterable;
 import org.hisp.dhis.android.core.arch.repositories.collection.ReadOnlyCollectionRepository;
+import org.hisp.dhis.android.core.arch.repositories.collection.internal.CloseableIterableImpl;
 import org.hisp.dhis.android.core.arch.repositories.filters.internal.EqFilterConnector;
 import org.hisp.dhis.android.core.arch.repositories.filters.internal.EqLikeItemFilterConnector;
 import org.hisp.dhis.android.core.arch.repositories.filters.internal.ListFilterConnector;
 import org.hisp.dhis.android.core.arch.repositories.filters.internal.ScopedFilterConnectorFactory;
 import org.hisp.dhis.android.core.arch.repositories.object.ReadOnlyObjectRepository;
+import org.hisp.dhis.android.core.arch.repositories.paging.RepositoryPage;
 import org.hisp.dhis.android.core.arch.repositories.scope.internal.RepositoryMode;
 import org.hisp.dhis.android.core.arch.repositories.scope.internal.RepositoryScopeFilterItem;
 import org.hisp.dhis.android.core.common.AssignedUserMode;
@@ -62,6 +66,7 @@ import java.util.Map;
 import javax.inject.Inject;
 
 import dagger.Reusable;
+import io.reactivex.Flowable;
 import io.reactivex.Single;
 
 @Reusable
@@ -69,6 +74,8 @@ import io.reactivex.Single;
 public final class TrackedEntityInstanceQueryCollectionRepository
         implements ReadOnlyCollectionRepository<TrackedEntityInstance> {
 
+    private static final int ITERATION_CHUNK_SIZE = 100;
+
     private final TrackedEntityInstanceStore store;
     private final TrackedEntityInstanceQueryCallFactory onlineCallFactory;
     private final Map<String, ChildrenAppender<TrackedEntityInstance>> childrenAppenders;
@@ -308,6 +315,85 @@ public final class TrackedEntityInstanceQueryCollectionRepository
         return new TrackedEntityInstanceQueryDataSource(store, onlineCallFactory, scope, childrenAppenders);
     }
 
+    /**
+     * Offline, the page is selected in the database after the key, following the order of the query. Online, the
+     * server query is not sorted by a column that can be used as key, so pages are cut from the whole selection: the
+     * page after a key starts after the instance with the key uid.
+     *
+     * @throws IllegalArgumentException if the online selection doesn't contain the key.
+     */
+    @Override
+    public RepositoryPage<TrackedEntityInstance> blockingGetPage(@Nullable TrackedEntityInstance afterKey,
+                                                                 int pageSize) {
+        checkPageSize(pageSize);
+        if (scope.mode().equals(RepositoryMode.OFFLINE_ONLY) || scope.mode().equals(RepositoryMode.OFFLINE_FIRST)) {
+            String sqlQuery = TrackedEntityInstanceLocalQueryHelper.getSqlQuery(scope, Collections.emptyList(),
+                    pageSize + 1, afterKey);
+            List<TrackedEntityInstance> instances = store.selectRawQuery(sqlQuery);
+
+            boolean hasNext = instances.size() > pageSize;
+            List<TrackedEntityInstance> pageInstances = hasNext ? instances.subList(0, pageSize) : instances;
+            return new RepositoryPage<>(ChildrenAppenderExecutor.appendInObjectCollection(pageInstances,
+                    childrenAppenders, new ChildrenSelection(Collections.singleton(
+                            TrackedEntityInstanceFields.TRACKED_ENTITY_ATTRIBUTE_VALUES))),
+                    hasNext ? pageInstances.get(pageSize - 1) : null);
+        } else {
+            List<TrackedEntityInstance> instances = blockingGet();
+            int fromIndex = afterKey == null ? 0 : indexOf(instances, afterKey.uid()) + 1;
+            int toIndex = Math.min(instances.size(), fromIndex + pageSize);
+            List<TrackedEntityInstance> items = instances.subList(fromIndex, toIndex);
+            return new RepositoryPage<>(items, toIndex < instances.size() ? items.get(items.size() - 1) : null);
+        }
+    }
+
+    private static int indexOf(List<TrackedEntityInstance> instances, String uid) {
+        for (int i = 0; i < instances.size(); i++) {
+            if (instances.get(i).uid().equals(uid)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("The selection doesn't contain the page key: " + uid);
+    }
+
+    @Override
+    public Single<RepositoryPage<TrackedEntityInstance>> getPage(@Nullable TrackedEntityInstance afterKey,
+                                                                 int pageSize) {
+        checkPageSize(pageSize);
+        return Single.fromCallable(() -> blockingGetPage(afterKey, pageSize));
+    }
+
+    @Override
+    public Flowable<List<TrackedEntityInstance>> pages(int pageSize) {
+        checkPageSize(pageSize);
+        return iterate().buffer(pageSize);
+    }
+
+    private static void checkPageSize(int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be greater than zero: " + pageSize);
+        }
+    }
+
+    @Override
+    public Flowable<TrackedEntityInstance> iterate() {
+        if (scope.mode().equals(RepositoryMode.OFFLINE_ONLY) || scope.mode().equals(RepositoryMode.OFFLINE_FIRST)) {
+            String sqlQuery = TrackedEntityInstanceLocalQueryHelper.getSqlQuery(scope, Collections.emptyList(),
+                    -1);
+            return store.iterateRawQuery(sqlQuery)
+                    .buffer(ITERATION_CHUNK_SIZE)
+                    .concatMapIterable(instances -> ChildrenAppenderExecutor.appendInObjectCollection(instances,
+                            childrenAppenders, new ChildrenSelection(Collections.singleton(
+                                    TrackedEntityInstanceFields.TRACKED_ENTITY_ATTRIBUTE_VALUES))));
+        } else {
+            return Flowable.defer(() -> Flowable.fromIterable(blockingGet()));
+        }
+    }
+
+    @Override
+    public CloseableIterable<TrackedEntityInstance> blockingIterate() {
+        return new CloseableIterableImpl<>(iterate());
+    }
+
     @Override
     public List<TrackedEntityInstance> blockingGet() {
         if (scope.mode().equals(RepositoryMode.OFFLINE_ONLY) || scope.mode().equals(RepositoryMode.OFFLINE_FIRST)) {
@@ -185,4 +185,28 @@ public class APICallExecutorShould {
         verify(errorStore).insert(any(D2Error.class));
         verifyNoMoreInteractions(errorStore);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void not_persist_d2_error_when_payload_call_must_not_store_it() throws IOException {
+        when(payloadAPICall.execute()).thenThrow(ioException);
+
+        try {
+            apiCallExecutor.executePayloadCall(payloadAPICall, false);
+        } catch (D2Error d2Error) {
+            assertThat(d2Error.errorCode()).isEqualTo(D2ErrorCode.API_RESPONSE_PROCESS_ERROR);
+        }
+        verifyNoMoreInteractions(errorStore);
+    }
+
+    @Test
+    public void not_persist_d2_error_when_object_call_must_not_store_it() throws IOException {
+        when(objectAPICall.execute()).thenReturn(conflictResponse);
+
+        try {
+            apiCallExecutor.executeObjectCall(objectAPICall, false);
+        } catch (D2Error d2Error) {
+            //Empty block
+        }
+        verifyNoMoreInteractions(errorStore);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.arch.api.payload.internal;
+
+import org.hisp.dhis.android.core.event.Event;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+@RunWith(JUnit4.class)
+public class PayloadStreamParserShould {
+
+    private static final String EVENTS = "events";
+
+    @Test
+    public void parse_items_one_by_one() throws IOException {
+        InputStream inputStream = getClass().getClassLoader().getResourceAsStream("event/events.json");
+
+        try (PayloadStreamParser<Event> parser = PayloadStreamParser.create(inputStream, EVENTS, Event.class)) {
+            assertThat(parser.next().uid()).isEqualTo("single1");
+            assertThat(parser.next().uid()).isEqualTo("single2");
+            assertThat(parser.next()).isNull();
+            assertThat(parser.next()).isNull();
+        }
+    }
+
+    @Test
+    public void skip_fields_before_items() throws IOException {
+        InputStream inputStream = stream("{\"pager\": {\"page\": 1, \"pageSize\": 50}," +
+                "\"other\": {\"values\": [1, 2]}, \"events\": [{\"event\": \"event1\"}]}");
+
+        List<Event> events = PayloadStreamParser.items(inputStream, EVENTS, Event.class).toList().blockingGet();
+
+        assertThat(events.size()).isEqualTo(1);
+        assertThat(events.get(0).uid()).isEqualTo("event1");
+    }
+
+    @Test
+    public void skip_other_array_fields() {
+        InputStream inputStream = stream("{\"warnings\": [{\"event\": \"warning1\"}]," +
+                "\"events\": [{\"event\": \"event1\"}], \"other\": [{\"event\": \"other1\"}]}");
+
+        List<Event> events = PayloadStreamParser.items(inputStream, EVENTS, Event.class).toList().blockingGet();
+
+        assertThat(events.size()).isEqualTo(1);
+        assertThat(events.get(0).uid()).isEqualTo("event1");
+    }
+
+    @Test
+    public void return_no_items_for_empty_payloads() {
+        assertThat(PayloadStreamParser.items(stream("{\"events\": []}"), EVENTS, Event.class).count().blockingGet())
+                .isEqualTo(0L);
+        assertThat(PayloadStreamParser.items(stream("{\"pager\": {\"page\": 1}}"), EVENTS, Event.class)
+                .count().blockingGet()).isEqualTo(0L);
+    }
+
+    @Test
+    public void emit_only_requested_items() {
+        InputStream inputStream = getClass().getClassLoader().getResourceAsStream("event/events.json");
+
+        List<Event> events = PayloadStreamParser.items(inputStream, EVENTS, Event.class).take(1).toList().blockingGet();
+
+        assertThat(events.size()).isEqualTo(1);
+        assertThat(events.get(0).uid()).isEqualTo("single1");
+    }
+
+    private InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.arch.dateformat.internal;
+
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+public class FixedLayoutDateFormatShould {
+
+    private static final long YEAR_1900 = -2208988800000L;
+    private static final long YEAR_2100 = 4102444800000L;
+
+    private final FixedLayoutDateFormat dateFormat = new FixedLayoutDateFormat('T');
+    private final SimpleDateFormat simpleDateFormat =
+            new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS", Locale.US);
+
+    @Test
+    public void format_and_parse_like_simple_date_format() throws ParseException {
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            Date date = new Date(YEAR_1900 + (long) (random.nextDouble() * (YEAR_2100 - YEAR_1900)));
+            String formatted = dateFormat.format(date);
+
+            assertThat(formatted).isEqualTo(simpleDateFormat.format(date));
+            assertThat(dateFormat.parse(formatted)).isEqualTo(simpleDateFormat.parse(formatted));
+        }
+    }
+
+    @Test
+    public void use_the_date_time_separator() throws ParseException {
+        FixedLayoutDateFormat spaceDateFormat = new FixedLayoutDateFormat(' ');
+        Date date = dateFormat.parse("2019-03-05T07:08:09.010");
+
+        assertThat(spaceDateFormat.format(date)).isEqualTo("2019-03-05 07:08:09.010");
+        assertThat(spaceDateFormat.parse("2019-03-05 07:08:09.010")).isEqualTo(date);
+    }
+
+    @Test
+    public void parse_out_of_range_fields_leniently() throws ParseException {
+        assertThat(dateFormat.parse("2019-13-32T25:61:61.999"))
+                .isEqualTo(simpleDateFormat.parse("2019-13-32T25:61:61.999"));
+    }
+
+    @Test
+    public void delegate_other_layouts_to_simple_date_format() throws ParseException {
+        assertThat(dateFormat.parse("2019-03-05T07:08:09.010+0000"))
+                .isEqualTo(simpleDateFormat.parse("2019-03-05T07:08:09.010+0000"));
+        assertThat(dateFormat.parse("2019-3-5T7:8:9.1")).isEqualTo(simpleDateFormat.parse("2019-3-5T7:8:9.1"));
+    }
+
+    @Test(expected = ParseException.class)
+    public void throw_parse_exception_for_invalid_dates() throws ParseException {
+        dateFormat.parse("2019-03-05 07:08:09.010");
+    }
+}
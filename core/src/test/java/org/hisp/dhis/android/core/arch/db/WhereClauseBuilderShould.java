@@ -29,6 +29,7 @@
 package org.hisp.dhis.android.core.arch.db;
 
 import org.assertj.core.util.Lists;
+import org.hisp.dhis.android.core.arch.db.querybuilders.internal.BoundWhereClause;
 import org.hisp.dhis.android.core.arch.db.querybuilders.internal.WhereClauseBuilder;
 import org.junit.Test;
 
@@ -206,6 +207,34 @@ public class WhereClauseBuilderShould {
         assertThat(whereStatement).isEqualTo("COL1 >= 'VAL1' OR COL2 <= 'VAL2'");
     }
 
+    @Test
+    public void build_bound_where_statement_with_placeholders_and_args() {
+        WhereClauseBuilder builder = new WhereClauseBuilder();
+        BoundWhereClause whereClause = builder
+                .appendKeyStringArg("COL1", "VAL1")
+                .appendKeyNumberValue("COL2", 2)
+                .appendInKeyStringArgs("COL3", Lists.newArrayList("VAL2", "VAL3"))
+                .buildBound();
+
+        assertThat(whereClause.clause()).isEqualTo("COL1 = ? AND COL2 = 2 AND COL3 IN (?, ?)");
+        assertThat(whereClause.args()).containsExactly("VAL1", "VAL2", "VAL3");
+    }
+
+    @Test
+    public void keep_args_of_bound_complex_queries() {
+        BoundWhereClause inner = new WhereClauseBuilder()
+                .appendKeyStringArg("COL2", "VAL2")
+                .buildBound();
+        BoundWhereClause whereClause = new WhereClauseBuilder()
+                .appendKeyStringArg("COL1", "VAL1")
+                .appendOrComplexQuery(inner)
+                .appendComplexQuery(inner)
+                .buildBound();
+
+        assertThat(whereClause.clause()).isEqualTo("COL1 = ? OR (COL2 = ?) AND (COL2 = ?)");
+        assertThat(whereClause.args()).containsExactly("VAL1", "VAL2", "VAL2");
+    }
+
     @Test(expected = RuntimeException.class)
     public void throw_exception_for_no_pairs() {
         WhereClauseBuilder builder = new WhereClauseBuilder();
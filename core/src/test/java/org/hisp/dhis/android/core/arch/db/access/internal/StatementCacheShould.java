@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.arch.db.access.internal;
+
+import org.hisp.dhis.android.core.arch.db.access.DatabaseAdapter;
+import org.hisp.dhis.android.core.arch.db.stores.binders.internal.StatementWrapper;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(JUnit4.class)
+public class StatementCacheShould {
+
+    private static final String SQL_1 = "DELETE FROM Table1;";
+    private static final String SQL_2 = "DELETE FROM Table2;";
+    private static final String SQL_3 = "DELETE FROM Table3;";
+
+    @Mock
+    private DatabaseAdapter databaseAdapter;
+
+    private final StatementWrapper statement1 = mock(StatementWrapper.class);
+    private final StatementWrapper statement2 = mock(StatementWrapper.class);
+    private final StatementWrapper statement3 = mock(StatementWrapper.class);
+
+    private StatementCache statementCache;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(databaseAdapter.compileStatement(SQL_1)).thenReturn(statement1);
+        when(databaseAdapter.compileStatement(SQL_2)).thenReturn(statement2);
+        when(databaseAdapter.compileStatement(SQL_3)).thenReturn(statement3);
+
+        statementCache = new StatementCache(databaseAdapter, 2);
+    }
+
+    @Test
+    public void compile_each_statement_only_once() {
+        assertThat(statementCache.get(SQL_1)).isSameAs(statement1);
+        assertThat(statementCache.get(SQL_1)).isSameAs(statement1);
+        assertThat(statementCache.get(SQL_2)).isSameAs(statement2);
+
+        verify(databaseAdapter, times(1)).compileStatement(SQL_1);
+        verify(databaseAdapter, times(1)).compileStatement(SQL_2);
+        assertThat(statementCache.hitCount()).isEqualTo(1L);
+        assertThat(statementCache.missCount()).isEqualTo(2L);
+    }
+
+    @Test
+    public void close_least_recently_used_statement_when_full() {
+        statementCache.get(SQL_1);
+        statementCache.get(SQL_2);
+        statementCache.get(SQL_1);
+        statementCache.get(SQL_3);
+
+        verify(statement2).close();
+        verify(statement1, never()).close();
+        verify(statement3, never()).close();
+
+        statementCache.get(SQL_2);
+        verify(databaseAdapter, times(2)).compileStatement(SQL_2);
+    }
+
+    @Test
+    public void compile_statements_for_each_thread() throws InterruptedException {
+        StatementWrapper otherThreadStatement = mock(StatementWrapper.class);
+        statementCache.get(SQL_1);
+        when(databaseAdapter.compileStatement(SQL_1)).thenReturn(otherThreadStatement);
+
+        final StatementWrapper[] fromOtherThread = new StatementWrapper[1];
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                fromOtherThread[0] = statementCache.get(SQL_1);
+            }
+        });
+        thread.start();
+        thread.join();
+
+        assertThat(fromOtherThread[0]).isSameAs(otherThreadStatement);
+        assertThat(statementCache.get(SQL_1)).isSameAs(statement1);
+
+        statementCache.clear();
+        verify(statement1).close();
+        verify(otherThreadStatement).close();
+    }
+
+    @Test
+    public void close_statements_of_dead_threads_when_compiling() throws InterruptedException {
+        final StatementWrapper otherThreadStatement = mock(StatementWrapper.class);
+        when(databaseAdapter.compileStatement(SQL_1)).thenReturn(otherThreadStatement);
+
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                statementCache.get(SQL_1);
+            }
+        });
+        thread.start();
+        thread.join();
+        verify(otherThreadStatement, never()).close();
+
+        statementCache.get(SQL_2);
+
+        verify(otherThreadStatement).close();
+        verify(statement2, never()).close();
+    }
+
+    @Test
+    public void close_all_statements_when_cleared() {
+        statementCache.get(SQL_1);
+        statementCache.get(SQL_2);
+
+        statementCache.clear();
+
+        verify(statement1).close();
+        verify(statement2).close();
+
+        statementCache.get(SQL_1);
+        verify(databaseAdapter, times(2)).compileStatement(SQL_1);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.android.core.arch.db.access.internal;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+@RunWith(JUnit4.class)
+public class WrittenTablesShould {
+
+    private WrittenTables writtenTables;
+
+    @Before
+    public void setUp() {
+        writtenTables = new WrittenTables();
+    }
+
+    @Test
+    public void return_tables_written_by_the_current_thread() throws InterruptedException {
+        writtenTables.add("Table1");
+
+        final List<Set<String>> otherThreadTables = new ArrayList<>();
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                writtenTables.add("Table2");
+                otherThreadTables.add(writtenTables.get());
+            }
+        });
+        thread.start();
+        thread.join();
+
+        assertThat(writtenTables.get()).containsOnly("Table1");
+        assertThat(otherThreadTables.get(0)).containsOnly("Table2");
+    }
+
+    @Test
+    public void not_clear_tables_written_by_other_threads() throws InterruptedException {
+        writtenTables.add("Table1");
+
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                writtenTables.clear();
+            }
+        });
+        thread.start();
+        thread.join();
+
+        assertThat(writtenTables.get()).containsOnly("Table1");
+
+        writtenTables.clear();
+        assertThat(writtenTables.get()).isEmpty();
+    }
+}
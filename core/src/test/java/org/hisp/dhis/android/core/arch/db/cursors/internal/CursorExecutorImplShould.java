@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.arch.db.cursors.internal;
+
+import android.database.Cursor;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(JUnit4.class)
+public class CursorExecutorImplShould {
+
+    private static final String PARENT_COLUMN = "parent";
+
+    @Mock
+    private Cursor cursor;
+
+    private CursorExecutor<String> cursorExecutor;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        cursorExecutor = new CursorExecutorImpl<>(c -> c.getString(1));
+
+        when(cursor.getCount()).thenReturn(3);
+        when(cursor.getColumnIndex(PARENT_COLUMN)).thenReturn(0);
+        when(cursor.moveToNext()).thenReturn(true, true, false);
+        when(cursor.getString(0)).thenReturn("parent1", "parent2", "parent1");
+        when(cursor.getString(1)).thenReturn("child1", "child2", "child3");
+    }
+
+    @Test
+    public void group_objects_by_column_value() {
+        Map<String, List<String>> groups = new HashMap<>();
+        cursorExecutor.addObjectsGroupedByColumn(cursor, PARENT_COLUMN, groups);
+
+        assertThat(groups.size()).isEqualTo(2);
+        assertThat(groups.get("parent1")).containsExactly("child1", "child3");
+        assertThat(groups.get("parent2")).containsExactly("child2");
+    }
+
+    @Test
+    public void close_cursor_after_grouping_objects() {
+        cursorExecutor.addObjectsGroupedByColumn(cursor, PARENT_COLUMN, new HashMap<>());
+        verify(cursor).close();
+    }
+}
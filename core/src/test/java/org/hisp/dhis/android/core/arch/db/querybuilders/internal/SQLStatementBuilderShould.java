@@ -66,6 +66,27 @@ public class SQLStatementBuilderShould {
         );
     }
 
+    @Test
+    public void generate_multiple_row_insert_statement() {
+        assertThat(builder.insert(3)).isEqualTo(
+                "INSERT INTO Test_Table (Test_Column_Name1, Test_Column_Name2) VALUES (?, ?), (?, ?), (?, ?);"
+        );
+    }
+
+    @Test
+    public void generate_delete_where_column_statement() {
+        assertThat(builder.deleteWhereColumn(COL_1)).isEqualTo(
+                "DELETE FROM Test_Table WHERE Test_Column_Name1=?;"
+        );
+    }
+
+    @Test
+    public void generate_delete_all_statement() {
+        assertThat(builder.deleteAll()).isEqualTo(
+                "DELETE FROM Test_Table;"
+        );
+    }
+
     @Test
     public void generate_update_statement() {
         assertThat(builder.update()).isEqualTo(
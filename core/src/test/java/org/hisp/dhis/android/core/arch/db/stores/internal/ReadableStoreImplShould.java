@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.arch.db.stores.internal;
+
+import android.database.Cursor;
+
+import org.hisp.dhis.android.core.arch.db.access.DatabaseAdapter;
+import org.hisp.dhis.android.core.arch.db.querybuilders.internal.ReadOnlySQLStatementBuilder;
+import org.hisp.dhis.android.core.category.CategoryOption;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import io.reactivex.subscribers.TestSubscriber;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(JUnit4.class)
+public class ReadableStoreImplShould {
+
+    private static final String QUERY = "SELECT * FROM CategoryOption;";
+
+    @Mock
+    private DatabaseAdapter databaseAdapter;
+
+    @Mock
+    private ReadOnlySQLStatementBuilder builder;
+
+    @Mock
+    private Cursor cursor;
+
+    @Mock
+    private CategoryOption object1;
+
+    @Mock
+    private CategoryOption object2;
+
+    private ReadableStore<CategoryOption> store;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(databaseAdapter.rawQuery(QUERY)).thenReturn(cursor);
+        when(cursor.moveToNext()).thenReturn(true, true, false);
+
+        Iterator<CategoryOption> objects = Arrays.asList(object1, object2).iterator();
+        store = new ReadableStoreImpl<>(databaseAdapter, builder, c -> objects.next());
+    }
+
+    @Test
+    public void not_query_until_subscribed() {
+        store.iterateRawQuery(QUERY);
+        verify(databaseAdapter, never()).rawQuery(QUERY);
+    }
+
+    @Test
+    public void emit_objects_on_demand() {
+        TestSubscriber<CategoryOption> subscriber = store.iterateRawQuery(QUERY).test(1);
+        subscriber.assertValues(object1);
+        verify(cursor, never()).close();
+
+        subscriber.requestMore(2);
+        subscriber.assertValues(object1, object2);
+        subscriber.assertComplete();
+        verify(cursor).close();
+    }
+
+    @Test
+    public void close_cursor_when_cancelled() {
+        TestSubscriber<CategoryOption> subscriber = store.iterateRawQuery(QUERY).test(1);
+        subscriber.cancel();
+        verify(cursor).close();
+        assertThat(subscriber.values()).containsExactly(object1);
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.arch.handlers.internal;
+
+import org.hisp.dhis.android.core.arch.db.stores.internal.IdentifiableObjectStore;
+import org.hisp.dhis.android.core.option.Option;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(JUnit4.class)
+public class IdentifiableHandlerImplShould {
+
+    @Mock
+    private IdentifiableObjectStore<Option> store;
+
+    private final Option inserted = Option.builder().uid("inserted").build();
+    private final Option deleted = Option.builder().uid("deleted").deleted(true).build();
+    private final Option updated = Option.builder().uid("updated").build();
+
+    private final List<String> events = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(store.updateOrInsert(Arrays.asList(inserted, updated)))
+                .thenReturn(Arrays.asList(HandleAction.Insert, HandleAction.Update));
+        when(store.updateOrInsert(inserted)).thenReturn(HandleAction.Insert);
+        when(store.updateOrInsert(updated)).thenReturn(HandleAction.Update);
+    }
+
+    @Test
+    public void persist_the_collection_in_one_store_call() {
+        new RecordingHandler(store, true).handleMany(Arrays.asList(inserted, deleted, updated));
+
+        verify(store).updateOrInsert(Arrays.asList(inserted, updated));
+        verify(store).deleteIfExists("deleted");
+        verify(store, never()).updateOrInsert(any(Option.class));
+    }
+
+    @Test
+    public void pass_to_after_object_handled_the_action_of_each_object_in_order() {
+        new RecordingHandler(store, true).handleMany(Arrays.asList(inserted, deleted, updated));
+
+        assertThat(events).containsExactly("before inserted", "before deleted", "before updated",
+                "after inserted Insert", "after deleted Delete", "after updated Update");
+    }
+
+    @Test
+    public void not_call_the_store_for_empty_collections() {
+        new RecordingHandler(store, true).handleMany(Collections.<Option>emptyList());
+
+        verify(store, never()).updateOrInsert(anyCollection());
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    public void handle_objects_one_by_one_when_the_handler_does_not_persist_in_batch() {
+        new RecordingHandler(store, false).handleMany(Arrays.asList(inserted, deleted, updated));
+
+        InOrder inOrder = inOrder(store);
+        inOrder.verify(store).updateOrInsert(inserted);
+        inOrder.verify(store).deleteIfExists("deleted");
+        inOrder.verify(store).updateOrInsert(updated);
+        verify(store, never()).updateOrInsert(anyCollection());
+        assertThat(events).containsExactly("before inserted", "after inserted Insert",
+                "before deleted", "after deleted Delete", "before updated", "after updated Update");
+    }
+
+    private final class RecordingHandler extends IdentifiableHandlerImpl<Option> {
+
+        private final boolean persistInBatch;
+
+        private RecordingHandler(IdentifiableObjectStore<Option> store, boolean persistInBatch) {
+            super(store);
+            this.persistInBatch = persistInBatch;
+        }
+
+        @Override
+        protected boolean persistInBatch() {
+            return persistInBatch;
+        }
+
+        @Override
+        protected Option beforeObjectHandled(Option option) {
+            events.add("before " + option.uid());
+            return option;
+        }
+
+        @Override
+        protected void afterObjectHandled(Option option, HandleAction action) {
+            events.add("after " + option.uid() + " " + action);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.arch.helpers.internal;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.reactivex.Observable;
+import io.reactivex.schedulers.Schedulers;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+@RunWith(JUnit4.class)
+public class BlockingObservableHelperShould {
+
+    @Test
+    public void emit_the_items_of_the_source_in_the_subscribing_thread() {
+        Thread subscribingThread = Thread.currentThread();
+        List<Thread> emittingThreads = new ArrayList<>();
+
+        List<Integer> items = BlockingObservableHelper
+                .observeInSubscribingThread(Observable.range(0, 5).subscribeOn(Schedulers.io()), 2)
+                .doOnNext(item -> emittingThreads.add(Thread.currentThread()))
+                .toList()
+                .blockingGet();
+
+        assertThat(items).containsExactly(0, 1, 2, 3, 4);
+        for (Thread thread : emittingThreads) {
+            assertThat(thread).isSameAs(subscribingThread);
+        }
+    }
+
+    @Test
+    public void dispose_the_source_when_a_downstream_operator_fails() {
+        AtomicBoolean disposed = new AtomicBoolean(false);
+        Observable<Integer> source = Observable.<Integer>never()
+                .startWith(1)
+                .doOnDispose(() -> disposed.set(true))
+                .subscribeOn(Schedulers.io());
+
+        BlockingObservableHelper.observeInSubscribingThread(source, 1)
+                .doOnNext(item -> {
+                    throw new IllegalStateException();
+                })
+                .test()
+                .assertError(IllegalStateException.class);
+
+        assertThat(disposed.get()).isTrue();
+    }
+
+    @Test
+    public void dispose_the_source_of_an_abandoned_iterator() {
+        AtomicBoolean disposed = new AtomicBoolean(false);
+        Observable<Integer> source = Observable.<Integer>never()
+                .startWith(1)
+                .doOnDispose(() -> disposed.set(true))
+                .subscribeOn(Schedulers.io());
+
+        Iterator<Integer> iterator = source.blockingIterable(1).iterator();
+        assertThat(iterator.next()).isEqualTo(1);
+        BlockingObservableHelper.dispose(iterator);
+
+        assertThat(disposed.get()).isTrue();
+    }
+}
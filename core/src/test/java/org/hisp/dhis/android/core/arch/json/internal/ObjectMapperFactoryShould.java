@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.arch.json.internal;
+
+import org.hisp.dhis.android.core.imports.internal.HttpMessageResponse;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+public class ObjectMapperFactoryShould {
+
+    @Test
+    public void share_a_single_object_mapper() {
+        assertThat(ObjectMapperFactory.sharedObjectMapper()).isSameAs(ObjectMapperFactory.sharedObjectMapper());
+        assertThat(ObjectMapperFactory.objectMapper()).isNotSameAs(ObjectMapperFactory.objectMapper());
+    }
+
+    @Test
+    public void cache_readers_and_writers_by_type() {
+        ObjectMapperFactory.warmUp(HttpMessageResponse.class);
+
+        assertThat(ObjectMapperFactory.objectReader(HttpMessageResponse.class))
+                .isSameAs(ObjectMapperFactory.objectReader(HttpMessageResponse.class));
+        assertThat(ObjectMapperFactory.objectWriter(HttpMessageResponse.class))
+                .isSameAs(ObjectMapperFactory.objectWriter(HttpMessageResponse.class));
+    }
+
+    @Test
+    public void read_ignoring_unknown_properties() throws IOException {
+        HttpMessageResponse response = ObjectMapperFactory.objectReader(HttpMessageResponse.class)
+                .readValue("{\"httpStatus\":\"Unauthorized\",\"httpStatusCode\":401,\"status\":\"ERROR\"," +
+                        "\"message\":\"OWNERSHIP_ACCESS_DENIED\",\"unknown\":\"x\"}");
+
+        assertThat(response.httpStatusCode()).isEqualTo(401);
+        assertThat(response.message()).isEqualTo("OWNERSHIP_ACCESS_DENIED");
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.arch.repositories.children.internal;
+
+import org.hisp.dhis.android.core.arch.db.stores.internal.SingleParentChildStore;
+import org.hisp.dhis.android.core.common.ObjectWithUidInterface;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(JUnit4.class)
+public class SingleParentChildrenAppenderShould {
+
+    @Mock
+    private SingleParentChildStore<Parent, String> childStore;
+
+    private final Parent parent1 = new Parent("parent1", null);
+    private final Parent parent2 = new Parent("parent2", null);
+
+    private ChildrenAppender<Parent> appender;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        appender = new SingleParentChildrenAppender<Parent, String>(childStore) {
+            @Override
+            protected Parent appendChildren(Parent parent, List<String> children) {
+                return new Parent(parent.uid(), children);
+            }
+        };
+    }
+
+    @Test
+    public void load_the_children_of_a_list_at_once() {
+        Map<String, List<String>> childrenByParentUid = new HashMap<>();
+        childrenByParentUid.put(parent1.uid(), Arrays.asList("child1", "child2"));
+        childrenByParentUid.put(parent2.uid(), Collections.emptyList());
+        when(childStore.getChildrenByParentUid(anyCollection())).thenReturn(childrenByParentUid);
+
+        List<Parent> withChildren = appender.appendChildren(Arrays.asList(parent1, parent2));
+
+        assertThat(withChildren.get(0).children).containsExactly("child1", "child2");
+        assertThat(withChildren.get(1).children).isEmpty();
+        verify(childStore, times(1)).getChildrenByParentUid(anyCollection());
+        verify(childStore, never()).getChildren(parent1);
+    }
+
+    @Test
+    public void keep_the_children_of_each_call_apart() {
+        when(childStore.getChildrenByParentUid(Collections.singletonList(parent1)))
+                .thenReturn(Collections.singletonMap(parent1.uid(), Collections.singletonList("child1")));
+        when(childStore.getChildrenByParentUid(Collections.singletonList(parent2)))
+                .thenReturn(Collections.singletonMap(parent2.uid(), Collections.singletonList("child2")));
+
+        List<Parent> first = appender.appendChildren(Collections.singletonList(parent1));
+        List<Parent> second = appender.appendChildren(Collections.singletonList(parent2));
+
+        assertThat(first.get(0).children).containsExactly("child1");
+        assertThat(second.get(0).children).containsExactly("child2");
+    }
+
+    @Test
+    public void load_the_children_of_a_single_object_from_its_parent() {
+        when(childStore.getChildren(parent1)).thenReturn(Collections.singletonList("child1"));
+
+        Parent withChildren = appender.appendChildren(parent1);
+
+        assertThat(withChildren.children).containsExactly("child1");
+        verify(childStore, never()).getChildrenByParentUid(anyCollection());
+    }
+
+    private static final class Parent implements ObjectWithUidInterface {
+        private final String uid;
+        private final List<String> children;
+
+        Parent(String uid, List<String> children) {
+            this.uid = uid;
+            this.children = children;
+        }
+
+        @Override
+        public String uid() {
+            return uid;
+        }
+    }
+}
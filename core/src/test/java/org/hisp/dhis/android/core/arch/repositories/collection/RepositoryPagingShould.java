@@ -30,8 +30,11 @@ package org.hisp.dhis.android.core.arch.repositories.collection;
 
 import android.content.ContentValues;
 
+import org.hisp.dhis.android.core.arch.db.querybuilders.internal.BoundWhereClause;
 import org.hisp.dhis.android.core.arch.db.stores.internal.IdentifiableObjectStore;
 import org.hisp.dhis.android.core.arch.repositories.children.internal.ChildrenAppender;
+import org.hisp.dhis.android.core.arch.repositories.collection.internal.ReadOnlyCollectionRepositoryImpl;
+import org.hisp.dhis.android.core.arch.repositories.paging.RepositoryPage;
 import org.hisp.dhis.android.core.arch.repositories.paging.internal.RepositoryDataSource;
 import org.hisp.dhis.android.core.arch.repositories.paging.internal.RepositoryPagingConfig;
 import org.hisp.dhis.android.core.arch.repositories.scope.RepositoryScope;
@@ -47,12 +50,15 @@ import org.junit.runners.JUnit4;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
 import androidx.paging.ItemKeyedDataSource;
 
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.verify;
@@ -85,14 +91,14 @@ public class RepositoryPagingShould  {
     @Before
     public void setUp() {
         MockitoAnnotations.initMocks(this);
-        when(store.selectWhere(anyString(), anyString(), anyInt())).thenReturn(objects);
+        when(store.selectWhere(any(BoundWhereClause.class), anyString(), anyInt())).thenReturn(objects);
     }
 
     @Test
     public void get_initial_page_objects_without_order_by() {
         RepositoryDataSource<CategoryOption> dataSource = new RepositoryDataSource<>(store, emptyScope, childrenAppenders);
         dataSource.loadInitial(new ItemKeyedDataSource.LoadInitialParams<>(null, 3, false), initialCallback);
-        verify(store).selectWhere("1", "_id ASC", 3);
+        verify(store).selectWhere(BoundWhereClause.create("1"), "_id ASC", 3);
         verify(initialCallback).onResult(objects);
     }
 
@@ -102,7 +108,7 @@ public class RepositoryPagingShould  {
                 RepositoryScopeOrderByItem.builder().column("name").direction(RepositoryScope.OrderByDirection.DESC).build());
         RepositoryDataSource<CategoryOption> dataSource = new RepositoryDataSource<>(store, updatedScope, childrenAppenders);
         dataSource.loadInitial(new ItemKeyedDataSource.LoadInitialParams<>(null, 3, false), initialCallback);
-        verify(store).selectWhere("1", "name DESC, _id ASC", 3);
+        verify(store).selectWhere(BoundWhereClause.create("1"), "name DESC, _id ASC", 3);
         verify(initialCallback).onResult(objects);
     }
 
@@ -112,7 +118,7 @@ public class RepositoryPagingShould  {
                 RepositoryScopeOrderByItem.builder().column(RepositoryPagingConfig.PAGING_KEY).direction(RepositoryScope.OrderByDirection.ASC).build());
         RepositoryDataSource<CategoryOption> dataSource = new RepositoryDataSource<>(store, updatedScope, childrenAppenders);
         dataSource.loadInitial(new ItemKeyedDataSource.LoadInitialParams<>(null, 3, false), initialCallback);
-        verify(store).selectWhere("1", "_id ASC", 3);
+        verify(store).selectWhere(BoundWhereClause.create("1"), "_id ASC", 3);
         verify(initialCallback).onResult(objects);
     }
 
@@ -122,7 +128,7 @@ public class RepositoryPagingShould  {
                 RepositoryScopeOrderByItem.builder().column(RepositoryPagingConfig.PAGING_KEY).direction(RepositoryScope.OrderByDirection.DESC).build());
         RepositoryDataSource<CategoryOption> dataSource = new RepositoryDataSource<>(store, updatedScope, childrenAppenders);
         dataSource.loadInitial(new ItemKeyedDataSource.LoadInitialParams<>(null, 3, false), initialCallback);
-        verify(store).selectWhere("1", "_id DESC", 3);
+        verify(store).selectWhere(BoundWhereClause.create("1"), "_id DESC", 3);
         verify(initialCallback).onResult(objects);
     }
 
@@ -134,7 +140,7 @@ public class RepositoryPagingShould  {
                 RepositoryScopeOrderByItem.builder().column("c2").direction(RepositoryScope.OrderByDirection.ASC).build());
         RepositoryDataSource<CategoryOption> dataSource = new RepositoryDataSource<>(store, updatedScope2, childrenAppenders);
         dataSource.loadInitial(new ItemKeyedDataSource.LoadInitialParams<>(null, 3, false), initialCallback);
-        verify(store).selectWhere("1", "c1 DESC, c2 ASC, _id ASC", 3);
+        verify(store).selectWhere(BoundWhereClause.create("1"), "c1 DESC, c2 ASC, _id ASC", 3);
         verify(initialCallback).onResult(objects);
     }
 
@@ -146,7 +152,8 @@ public class RepositoryPagingShould  {
         when(keyContentValues.getAsString("name")).thenReturn("key-name");
 
         RepositoryScope filterScope = RepositoryScopeHelper.withFilterItem(emptyScope,
-                RepositoryScopeFilterItem.builder().key("program").operator(FilterItemOperator.EQ).value("'uid'").build());
+                RepositoryScopeFilterItem.builder().key("program").operator(FilterItemOperator.EQ).value("'uid'")
+                        .arg("uid").build());
 
         RepositoryScope updatedScope = RepositoryScopeHelper.withOrderBy(filterScope,
                 RepositoryScopeOrderByItem.builder().column("code").direction(RepositoryScope.OrderByDirection.DESC).build());
@@ -155,12 +162,58 @@ public class RepositoryPagingShould  {
         RepositoryDataSource<CategoryOption> dataSource = new RepositoryDataSource<>(store, updatedScope2, childrenAppenders);
         dataSource.loadAfter(new ItemKeyedDataSource.LoadParams<>(key, 3), initialCallback);
         verify(store).selectWhere(
-                "((code = 'key-code' AND name = 'key-name' AND _id > '5') OR " +
-                        "(code = 'key-code' AND name > 'key-name') OR " +
-                        "(code < 'key-code')) " +
-                        "AND program = 'uid'",
+                BoundWhereClause.create("((code = ? AND name = ? AND _id > ?) OR " +
+                        "(code = ? AND name > ?) OR " +
+                        "(code < ?)) " +
+                        "AND program = ?", Arrays.asList("key-code", "key-name", "5", "key-code", "key-name",
+                        "key-code", "uid")),
                 "code DESC, name ASC, _id ASC",
                 3);
         verify(initialCallback).onResult(objects);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void get_first_repository_page_with_next_key() {
+        when(store.selectWhere(any(BoundWhereClause.class), anyString(), anyInt())).thenReturn(Arrays.asList(object, key, object));
+        ReadOnlyCollectionRepositoryImpl<CategoryOption, ?> repository =
+                new ReadOnlyCollectionRepositoryImpl<>(store, childrenAppenders, emptyScope, null);
+
+        RepositoryPage<CategoryOption> page = repository.blockingGetPage(null, 2);
+
+        verify(store).selectWhere(BoundWhereClause.create("1"), "_id ASC", 3);
+        assertThat(page.items()).containsExactly(object, key);
+        assertThat(page.nextKey()).isSameAs(key);
+        assertThat(page.hasNext()).isTrue();
+    }
+
+    @Test
+    public void get_last_repository_page_after_key() {
+        when(key.toContentValues()).thenReturn(keyContentValues);
+        when(keyContentValues.getAsString("_id")).thenReturn("5");
+        when(store.selectWhere(any(BoundWhereClause.class), anyString(), anyInt())).thenReturn(Collections.singletonList(object));
+        ReadOnlyCollectionRepositoryImpl<CategoryOption, ?> repository =
+                new ReadOnlyCollectionRepositoryImpl<>(store, childrenAppenders, emptyScope, null);
+
+        RepositoryPage<CategoryOption> page = repository.blockingGetPage(key, 2);
+
+        verify(store).selectWhere(BoundWhereClause.create("((_id > ?))", Collections.singletonList("5")), "_id ASC", 3);
+        assertThat(page.items()).containsExactly(object);
+        assertThat(page.hasNext()).isFalse();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void reject_repository_pages_without_items() {
+        ReadOnlyCollectionRepositoryImpl<CategoryOption, ?> repository =
+                new ReadOnlyCollectionRepositoryImpl<>(store, childrenAppenders, emptyScope, null);
+
+        repository.blockingGetPage(null, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void reject_flowable_of_pages_with_negative_page_size() {
+        ReadOnlyCollectionRepositoryImpl<CategoryOption, ?> repository =
+                new ReadOnlyCollectionRepositoryImpl<>(store, childrenAppenders, emptyScope, null);
+
+        repository.pages(-1);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.arch.repositories.collection.internal;
+
+import org.hisp.dhis.android.core.arch.repositories.collection.CloseableIterable;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.reactivex.Flowable;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+@RunWith(JUnit4.class)
+public class CloseableIterableImplShould {
+
+    @Test
+    public void iterate_all_the_objects() {
+        List<Integer> items = new ArrayList<>();
+        try (CloseableIterable<Integer> iterable = new CloseableIterableImpl<>(Flowable.range(0, 3))) {
+            for (Integer item : iterable) {
+                items.add(item);
+            }
+        }
+
+        assertThat(items).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    public void cancel_the_source_of_an_abandoned_iteration_when_closed() {
+        AtomicBoolean cancelled = new AtomicBoolean(false);
+        Flowable<Integer> source = Flowable.range(0, 1000).doOnCancel(() -> cancelled.set(true));
+
+        try (CloseableIterable<Integer> iterable = new CloseableIterableImpl<>(source)) {
+            Iterator<Integer> iterator = iterable.iterator();
+            assertThat(iterator.next()).isEqualTo(0);
+            assertThat(cancelled.get()).isFalse();
+        }
+
+        assertThat(cancelled.get()).isTrue();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void not_iterate_once_closed() {
+        CloseableIterable<Integer> iterable = new CloseableIterableImpl<>(Flowable.range(0, 3));
+        iterable.close();
+
+        iterable.iterator();
+    }
+}
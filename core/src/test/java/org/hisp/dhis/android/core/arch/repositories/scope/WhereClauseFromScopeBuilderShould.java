@@ -29,6 +29,7 @@
 package org.hisp.dhis.android.core.arch.repositories.scope;
 
 import org.assertj.core.util.Lists;
+import org.hisp.dhis.android.core.arch.db.querybuilders.internal.BoundWhereClause;
 import org.hisp.dhis.android.core.arch.db.querybuilders.internal.WhereClauseBuilder;
 import org.hisp.dhis.android.core.arch.repositories.scope.internal.FilterItemOperator;
 import org.hisp.dhis.android.core.arch.repositories.scope.internal.RepositoryScopeFilterItem;
@@ -115,6 +116,38 @@ public class WhereClauseFromScopeBuilderShould {
         verifyNoMoreInteractions(builder);
     }
 
+    @Test
+    public void bind_values_of_items_with_argument() {
+        RepositoryScopeFilterItem boundItem = RepositoryScopeFilterItem.builder().key("k1")
+                .operator(FilterItemOperator.EQ).value("'it''s'").arg("it's").build();
+        WhereClauseFromScopeBuilder scopeBuilder = new WhereClauseFromScopeBuilder(builder);
+        scopeBuilder.getBoundWhereClause(scopeForItems(Collections.singletonList(boundItem)));
+        verify(builder).appendKeyOperatorArg(boundItem.key(), boundItem.operator().getSqlOperator(), "it's");
+        verify(builder).buildBound();
+        verifyNoMoreInteractions(builder);
+    }
+
+    @Test
+    public void keep_inline_values_of_items_without_argument() {
+        RepositoryScopeFilterItem inItem = RepositoryScopeFilterItem.builder().key("k3")
+                .operator(FilterItemOperator.IN).value("('a', 'b')").build();
+        WhereClauseFromScopeBuilder scopeBuilder = new WhereClauseFromScopeBuilder(builder);
+        scopeBuilder.getBoundWhereClause(scopeForItems(Lists.newArrayList(eqItem, inItem)));
+        verify(builder).appendKeyOperatorValue(eqItem.key(), eqItem.operator().getSqlOperator(), eqItem.value());
+        verify(builder).appendKeyOperatorValue(inItem.key(), inItem.operator().getSqlOperator(), inItem.value());
+        verify(builder).buildBound();
+        verifyNoMoreInteractions(builder);
+    }
+
+    @Test
+    public void build_bound_where_statement_when_no_filters_on_empty_builder() {
+        WhereClauseFromScopeBuilder scopeBuilder = new WhereClauseFromScopeBuilder(builder);
+        when(builder.isEmpty()).thenReturn(true);
+        BoundWhereClause result = scopeBuilder.getBoundWhereClause(scopeForItems(Collections.emptyList()));
+        assertThat(result.clause()).isEqualTo("1");
+        assertThat(result.args()).isEmpty();
+    }
+
     private RepositoryScope scopeForItems(List<RepositoryScopeFilterItem> items) {
         return RepositoryScope.empty().toBuilder().filters(items).build();
     }
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.datavalue.internal;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+public class DataValueChunkedCallShould {
+
+    private final DataValueQuery query = DataValueQuery.create(
+            Collections.singletonList("dataSet"),
+            Arrays.asList("201901", "201902", "201903"),
+            Arrays.asList("ou1", "ou2", "ou3", "ou4"));
+
+    @Test
+    public void keep_the_query_when_it_fits_in_a_chunk() {
+        List<DataValueQuery> chunks = DataValueChunkedCall.split(query, 10, 1000);
+
+        assertThat(chunks).hasSize(1);
+        assertThat(chunks.get(0).periodIds()).containsExactly("201901", "201902", "201903");
+        assertThat(chunks.get(0).orgUnitUids()).containsExactly("ou1", "ou2", "ou3", "ou4");
+    }
+
+    @Test
+    public void split_org_units_before_periods() {
+        List<DataValueQuery> chunks = DataValueChunkedCall.split(query, 10, 60);
+
+        assertThat(chunks).hasSize(2);
+        assertThat(chunks.get(0).periodIds()).containsExactly("201901", "201902", "201903");
+        assertThat(chunks.get(0).orgUnitUids()).containsExactly("ou1", "ou2");
+        assertThat(chunks.get(1).orgUnitUids()).containsExactly("ou3", "ou4");
+    }
+
+    @Test
+    public void split_periods_when_a_single_org_unit_does_not_fit() {
+        List<DataValueQuery> chunks = DataValueChunkedCall.split(query, 10, 20);
+
+        assertThat(chunks).hasSize(8);
+        assertThat(chunks.get(0).orgUnitUids()).containsExactly("ou1");
+        assertThat(chunks.get(0).periodIds()).containsExactly("201901", "201902");
+        assertThat(chunks.get(1).periodIds()).containsExactly("201903");
+    }
+
+    @Test
+    public void request_one_org_unit_and_period_per_chunk_at_least() {
+        assertThat(DataValueChunkedCall.split(query, 100, 10)).hasSize(12);
+    }
+}
@@ -131,7 +131,7 @@ public class EnrollmentHandlerShould {
         verify(enrollmentStore, times(1)).deleteIfExists(anyString());
 
 
-        verify(enrollmentStore, never()).updateOrInsert(any(Enrollment.class));
+        verify(enrollmentStore, never()).updateOrInsert(anyCollection(), anyCollection());
 
         // event handler should not be invoked
         verify(eventHandler, never()).handle(any(Event.class), anyBoolean());
@@ -142,12 +142,13 @@ public class EnrollmentHandlerShould {
     @Test
     public void invoke_only_update_or_insert_when_handle_enrollment_is_valid() {
         when(enrollment.deleted()).thenReturn(Boolean.FALSE);
-        when(enrollmentStore.updateOrInsert(any(Enrollment.class))).thenReturn(HandleAction.Update);
+        when(enrollmentStore.updateOrInsert(anyCollection(), anyCollection()))
+                .thenReturn(Collections.singletonList(HandleAction.Update));
 
         enrollmentHandler.handleMany(Collections.singletonList(enrollment), false);
 
         // verify that enrollment store is only invoked with update
-        verify(enrollmentStore, times(1)).updateOrInsert(any(Enrollment.class));
+        verify(enrollmentStore, times(1)).updateOrInsert(anyCollection(), anyCollection());
 
         verify(enrollmentStore, never()).deleteIfExists(anyString());
 
@@ -156,4 +157,16 @@ public class EnrollmentHandlerShould {
         verify(eventCleaner, times(1)).deleteOrphan(any(Enrollment.class), anyCollection());
         verify(noteHandler, times(1)).handleMany(anyCollection());
     }
+
+    @Test
+    public void query_stored_uids_only_once_when_handling_a_collection() {
+        when(enrollment.deleted()).thenReturn(Boolean.FALSE);
+        when(enrollmentStore.updateOrInsert(anyCollection(), anyCollection()))
+                .thenReturn(Collections.singletonList(HandleAction.Insert));
+
+        enrollmentHandler.handleMany(Collections.singletonList(enrollment), false);
+
+        verify(enrollmentStore, times(1)).selectUidsWhere(anyString());
+        verify(enrollmentStore, never()).updateOrInsert(anyCollection());
+    }
 }
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.fileresource.internal;
+
+import android.content.Context;
+
+import org.hisp.dhis.android.core.arch.api.executors.internal.APICallExecutor;
+import org.hisp.dhis.android.core.fileresource.FileResource;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import retrofit2.Call;
+import retrofit2.Response;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@RunWith(JUnit4.class)
+public class FileResourceFileDownloaderShould {
+
+    private static final String UID = "fileResource";
+    private static final MediaType PNG = MediaType.get("image/png");
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final String ETAG = "\"v1\"";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Mock
+    private FileResourceService fileResourceService;
+
+    @Mock
+    private APICallExecutor apiCallExecutor;
+
+    @Mock
+    private Context context;
+
+    @Mock
+    private Call<FileResource> fileResourceCall;
+
+    @Mock
+    private Call<ResponseBody> binaryCall;
+
+    private final List<String> requestedRanges = new ArrayList<>();
+    private final List<String> requestedIfRanges = new ArrayList<>();
+
+    private FileResourceFileDownloader fileDownloader;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        when(context.getFilesDir()).thenReturn(folder.getRoot());
+        when(fileResourceService.getFileResource(UID)).thenReturn(fileResourceCall);
+        when(apiCallExecutor.executeObjectCall(fileResourceCall, false)).thenReturn(FileResource.builder()
+                .uid(UID)
+                .contentType(PNG.toString())
+                .contentLength(6L)
+                .build());
+
+        fileDownloader = new FileResourceFileDownloader(fileResourceService, apiCallExecutor, context);
+    }
+
+    @Test
+    public void skip_files_on_disk_with_the_file_resource_length() throws Exception {
+        File file = writeFile(UID + ".png", "abcdef");
+
+        FileResource fileResource = fileDownloader.download(UID, this::createBinaryCall);
+
+        assertThat(fileResource.path()).isEqualTo(file.getAbsolutePath());
+        assertThat(requestedRanges).isEmpty();
+    }
+
+    @Test
+    public void download_files_on_disk_with_other_length() throws Exception {
+        writeFile(UID + ".png", "abc");
+        respond(200, "abcdefgh");
+
+        FileResource fileResource = fileDownloader.download(UID, this::createBinaryCall);
+
+        assertThat(readFile(fileResource.path())).isEqualTo("abcdefgh");
+        assertThat(requestedRanges).containsExactly((String) null);
+    }
+
+    @Test
+    public void stream_the_file_and_rename_it_when_complete() throws Exception {
+        respond(200, "abcdef");
+
+        FileResource fileResource = fileDownloader.download(UID, this::createBinaryCall);
+
+        assertThat(fileResource.path()).isEqualTo(new File(resourcesDir(), UID + ".png").getAbsolutePath());
+        assertThat(readFile(fileResource.path())).isEqualTo("abcdef");
+        assertThat(new File(resourcesDir(), UID + ".part").exists()).isFalse();
+    }
+
+    @Test
+    public void resume_partial_files_with_their_validator() throws Exception {
+        writeFile(UID + ".part", "abc");
+        writeFile(UID + ".part.validator", ETAG);
+        respond(206, "def", "Content-Range", "bytes 3-5/6");
+
+        FileResource fileResource = fileDownloader.download(UID, this::createBinaryCall);
+
+        assertThat(requestedRanges).containsExactly("bytes=3-");
+        assertThat(requestedIfRanges).containsExactly(ETAG);
+        assertThat(readFile(fileResource.path())).isEqualTo("abcdef");
+        assertThat(new File(resourcesDir(), UID + ".part.validator").exists()).isFalse();
+    }
+
+    @Test
+    public void restart_partial_files_without_validator() throws Exception {
+        writeFile(UID + ".part", "abc");
+        respond(200, "abcdef");
+
+        FileResource fileResource = fileDownloader.download(UID, this::createBinaryCall);
+
+        assertThat(requestedRanges).containsExactly((String) null);
+        assertThat(readFile(fileResource.path())).isEqualTo("abcdef");
+    }
+
+    @Test
+    public void restart_partial_files_if_the_content_range_does_not_continue_them() throws Exception {
+        writeFile(UID + ".part", "abc");
+        writeFile(UID + ".part.validator", ETAG);
+        when(apiCallExecutor.executeResponseCall(binaryCall, false)).thenReturn(
+                response(206, "abc", "Content-Range", "bytes 0-2/6"),
+                response(200, "abcdef"));
+
+        FileResource fileResource = fileDownloader.download(UID, this::createBinaryCall);
+
+        assertThat(requestedRanges).containsExactly("bytes=3-", null);
+        assertThat(readFile(fileResource.path())).isEqualTo("abcdef");
+    }
+
+    @Test
+    public void overwrite_partial_files_if_the_server_ignores_the_range() throws Exception {
+        writeFile(UID + ".part", "abc");
+        writeFile(UID + ".part.validator", ETAG);
+        respond(200, "abcdef");
+
+        FileResource fileResource = fileDownloader.download(UID, this::createBinaryCall);
+
+        assertThat(readFile(fileResource.path())).isEqualTo("abcdef");
+    }
+
+    @Test
+    public void keep_the_partial_file_and_its_validator_if_the_transfer_is_incomplete() throws Exception {
+        Buffer content = new Buffer().writeString("abc", UTF_8);
+        when(apiCallExecutor.executeResponseCall(binaryCall, false)).thenReturn(
+                response(200, ResponseBody.create(PNG, 6, content), "ETag", ETAG));
+
+        try {
+            fileDownloader.download(UID, this::createBinaryCall);
+        } catch (IOException e) {
+            assertThat(readFile(new File(resourcesDir(), UID + ".part").getAbsolutePath())).isEqualTo("abc");
+            assertThat(readFile(new File(resourcesDir(), UID + ".part.validator").getAbsolutePath()))
+                    .isEqualTo(ETAG);
+            assertThat(new File(resourcesDir(), UID + ".png").exists()).isFalse();
+            return;
+        }
+        throw new AssertionError("Incomplete download not detected");
+    }
+
+    private Call<ResponseBody> createBinaryCall(String range, String ifRange) {
+        requestedRanges.add(range);
+        requestedIfRanges.add(ifRange);
+        return binaryCall;
+    }
+
+    private void respond(int code, String content, String... headers) throws Exception {
+        when(apiCallExecutor.executeResponseCall(binaryCall, false)).thenReturn(response(code, content, headers));
+    }
+
+    private static Response<ResponseBody> response(int code, String content, String... headers) {
+        return response(code, ResponseBody.create(PNG, content.getBytes(UTF_8)), headers);
+    }
+
+    private static Response<ResponseBody> response(int code, ResponseBody body, String... headers) {
+        return Response.success(body, new okhttp3.Response.Builder()
+                .code(code)
+                .message("OK")
+                .protocol(Protocol.HTTP_1_1)
+                .request(new Request.Builder().url("http://localhost/").build())
+                .headers(Headers.of(headers))
+                .build());
+    }
+
+    private File resourcesDir() {
+        return new File(folder.getRoot(), "sdk_resources");
+    }
+
+    private File writeFile(String name, String content) throws IOException {
+        File file = new File(resourcesDir(), name);
+        file.getParentFile().mkdirs();
+        try (FileOutputStream outputStream = new FileOutputStream(file)) {
+            outputStream.write(content.getBytes(UTF_8));
+        }
+        return file;
+    }
+
+    private static String readFile(String path) throws IOException {
+        return new String(Files.readAllBytes(new File(path).toPath()), UTF_8);
+    }
+}
@@ -31,9 +31,12 @@ import org.hisp.dhis.android.core.arch.api.executors.internal.APICallExecutor;
 import org.hisp.dhis.android.core.arch.api.fields.internal.Fields;
 import org.hisp.dhis.android.core.arch.api.filters.internal.Filter;
 import org.hisp.dhis.android.core.arch.api.payload.internal.Payload;
+import org.hisp.dhis.android.core.arch.call.D2Progress;
 import org.hisp.dhis.android.core.arch.call.internal.GenericCallData;
 import org.hisp.dhis.android.core.arch.db.access.DatabaseAdapter;
+import org.hisp.dhis.android.core.arch.db.stores.internal.ObjectStore;
 import org.hisp.dhis.android.core.arch.handlers.internal.Transformer;
+import org.hisp.dhis.android.core.maintenance.D2Error;
 import org.hisp.dhis.android.core.organisationunit.OrganisationUnit;
 import org.hisp.dhis.android.core.resource.internal.Resource;
 import org.hisp.dhis.android.core.resource.internal.ResourceHandler;
@@ -57,8 +60,10 @@ import java.util.List;
 import java.util.concurrent.Callable;
 
 import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.assertj.core.api.Java6Assertions.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -122,6 +127,14 @@ public class OrganisationUnitCallUnitShould {
     @Mock
     private OrganisationUnitDisplayPathTransformer organisationUnitDisplayPathTransformer;
 
+    @Mock
+    private ObjectStore<D2Error> errorStore;
+
+    @Mock
+    private D2Error d2Error;
+
+    private OrganisationUnitCallFactory organisationUnitCallFactory;
+
     //the call we are testing:
     private Callable<List<OrganisationUnit>> organisationUnitCall;
 
@@ -169,9 +182,10 @@ public class OrganisationUnitCallUnitShould {
         when(user.phoneNumber()).thenReturn("user_phone_number");
         when(user.nationality()).thenReturn("user_nationality");
 
-        organisationUnitCall = new OrganisationUnitCallFactory(organisationUnitService, organisationUnitHandler,
-                organisationUnitDisplayPathTransformer, apiCallExecutor, resourceHandler)
-                .create(user);
+        organisationUnitCallFactory = new OrganisationUnitCallFactory(organisationUnitService,
+                organisationUnitHandler, organisationUnitDisplayPathTransformer, apiCallExecutor, resourceHandler,
+                errorStore);
+        organisationUnitCall = organisationUnitCallFactory.create(user);
 
         //Return only one organisationUnit.
         organisationUnits = Collections.singletonList(organisationUnit);
@@ -206,7 +220,7 @@ public class OrganisationUnitCallUnitShould {
     @Test
     @SuppressWarnings("unchecked")
     public void invoke_handler_if_request_succeeds() throws Exception {
-        when(apiCallExecutor.executePayloadCall(retrofitCall)).thenReturn(organisationUnits);
+        when(apiCallExecutor.executePayloadCall(retrofitCall, false)).thenReturn(organisationUnits);
 
         organisationUnitCall.call();
 
@@ -223,4 +237,37 @@ public class OrganisationUnitCallUnitShould {
         verify(organisationUnitHandler, times(2)).handleMany(anyCollectionOf(OrganisationUnit.class),
                 any(Transformer.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void store_download_errors_in_calling_thread() throws Exception {
+        when(apiCallExecutor.executePayloadCall(retrofitCall, false)).thenThrow(d2Error);
+
+        try {
+            organisationUnitCall.call();
+            fail("D2Error expected");
+        } catch (D2Error error) {
+            assertThat(error).isSameAs(d2Error);
+        }
+
+        verify(errorStore).insert(d2Error);
+        verify(organisationUnitHandler, never()).handleMany(anyCollectionOf(OrganisationUnit.class),
+                any(Transformer.class));
+    }
+
+    @Test
+    public void report_progress_when_the_hierarchy_of_a_root_is_persisted() throws Exception {
+        when(apiCallExecutor.executePayloadCall(retrofitCall, false)).thenReturn(organisationUnits);
+        List<D2Progress> progress = new ArrayList<>();
+
+        organisationUnitCallFactory.create(user, 2, progress::add).call();
+
+        assertThat(progress.size()).isEqualTo(1);
+        assertThat(progress.get(0).totalCalls()).isEqualTo(1);
+        assertThat(progress.get(0).isComplete()).isTrue();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void reject_parallelism_lower_than_one() {
+        organisationUnitCallFactory.create(user, 0, progress -> { });
+    }
+}
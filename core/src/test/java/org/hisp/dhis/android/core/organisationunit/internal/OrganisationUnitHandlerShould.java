@@ -31,6 +31,7 @@ package org.hisp.dhis.android.core.organisationunit.internal;
 import org.assertj.core.util.Lists;
 import org.hisp.dhis.android.core.arch.db.stores.internal.IdentifiableObjectStore;
 import org.hisp.dhis.android.core.arch.db.stores.internal.LinkStore;
+import org.hisp.dhis.android.core.arch.handlers.internal.HandleAction;
 import org.hisp.dhis.android.core.arch.handlers.internal.Handler;
 import org.hisp.dhis.android.core.arch.handlers.internal.LinkHandler;
 import org.hisp.dhis.android.core.arch.handlers.internal.Transformer;
@@ -52,6 +53,7 @@ import org.mockito.MockitoAnnotations;
 import java.util.Collections;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Matchers.anyString;
@@ -105,6 +107,7 @@ public class OrganisationUnitHandlerShould {
     @Before
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
+        when(organisationUnitStore.updateOrInsert(anyCollection())).thenReturn(Collections.singletonList(HandleAction.Insert));
         String programUid = "test_program_uid";
 
         pathTransformer = new OrganisationUnitDisplayPathTransformer();
@@ -28,6 +28,7 @@
 package org.hisp.dhis.android.core.program.internal;
 
 import org.hisp.dhis.android.core.arch.db.stores.internal.IdentifiableObjectStore;
+import org.hisp.dhis.android.core.arch.handlers.internal.HandleAction;
 import org.hisp.dhis.android.core.arch.handlers.internal.Handler;
 import org.hisp.dhis.android.core.arch.handlers.internal.LinkHandler;
 import org.hisp.dhis.android.core.common.ObjectWithUid;
@@ -42,8 +43,10 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
@@ -84,6 +87,7 @@ public class ProgramIndicatorHandlerShould {
     @Before
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
+        when(programIndicatorStore.updateOrInsert(anyCollection())).thenReturn(Collections.singletonList(HandleAction.Insert));
 
         programIndicatorHandler = new ProgramIndicatorHandler(
                 programIndicatorStore, legendSetHandler, programIndicatorLegendSetLinkHandler);
@@ -128,7 +132,7 @@ public class ProgramIndicatorHandlerShould {
         programIndicatorHandler.handleMany(programIndicators);
 
         // verify that update is called once
-        verify(programIndicatorStore, times(1)).updateOrInsert(any(ProgramIndicator.class));
+        verify(programIndicatorStore, times(1)).updateOrInsert(programIndicators);
 
         verify(programIndicatorStore, never()).delete(anyString());
     }
@@ -48,6 +48,7 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -79,6 +80,7 @@ public class ProgramRuleHandlerShould {
     @Before
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
+        when(programRuleStore.updateOrInsert(anyCollection())).thenReturn(Collections.singletonList(HandleAction.Insert));
         programRuleHandler = new ProgramRuleHandler(programRuleStore, programRuleActionHandler,
                 programRuleCleaner, programRuleActionCleaner);
 
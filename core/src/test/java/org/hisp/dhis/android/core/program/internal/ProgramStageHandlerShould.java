@@ -54,6 +54,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.never;
@@ -111,6 +112,7 @@ public class ProgramStageHandlerShould {
     @Before
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
+        when(programStageStore.updateOrInsert(anyCollection())).thenReturn(Collections.singletonList(HandleAction.Insert));
 
         programStageHandler = new ProgramStageHandler(
                 programStageStore,
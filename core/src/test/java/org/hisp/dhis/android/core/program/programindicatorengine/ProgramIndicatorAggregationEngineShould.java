@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.program.programindicatorengine;
+
+import android.database.Cursor;
+
+import org.hisp.dhis.android.core.arch.db.access.DatabaseAdapter;
+import org.hisp.dhis.android.core.arch.db.querybuilders.internal.BoundWhereClause;
+import org.hisp.dhis.android.core.arch.db.stores.internal.IdentifiableObjectStore;
+import org.hisp.dhis.android.core.common.AggregationType;
+import org.hisp.dhis.android.core.common.ObjectWithUid;
+import org.hisp.dhis.android.core.event.Event;
+import org.hisp.dhis.android.core.event.internal.EventStore;
+import org.hisp.dhis.android.core.period.Period;
+import org.hisp.dhis.android.core.period.PeriodType;
+import org.hisp.dhis.android.core.period.internal.PeriodHelper;
+import org.hisp.dhis.android.core.program.ProgramIndicator;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(JUnit4.class)
+public class ProgramIndicatorAggregationEngineShould {
+
+    private static final String PROGRAM_INDICATOR = "programIndicator";
+    private static final String EXPRESSION = "#{stage.dataElement}";
+    private static final String EXPRESSION_SQL = "value";
+    private static final String ORG_UNIT = "orgUnit";
+    private static final String PERIOD = "201901";
+
+    @Mock
+    private IdentifiableObjectStore<ProgramIndicator> programIndicatorStore;
+
+    @Mock
+    private EventStore eventStore;
+
+    @Mock
+    private DatabaseAdapter databaseAdapter;
+
+    @Mock
+    private ProgramIndicatorSqlTranslator sqlTranslator;
+
+    @Mock
+    private ProgramIndicatorEngine programIndicatorEngine;
+
+    @Mock
+    private PeriodHelper periodHelper;
+
+    @Mock
+    private ProgramIndicator programIndicator;
+
+    @Mock
+    private Period period;
+
+    @Mock
+    private Cursor cursor;
+
+    @Mock
+    private Event event1;
+
+    @Mock
+    private Event event2;
+
+    private ProgramIndicatorAggregationEngine aggregationEngine;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+
+        when(programIndicatorStore.selectByUid(PROGRAM_INDICATOR)).thenReturn(programIndicator);
+        when(programIndicator.uid()).thenReturn(PROGRAM_INDICATOR);
+        when(programIndicator.expression()).thenReturn(EXPRESSION);
+        when(programIndicator.program()).thenReturn(ObjectWithUid.create("program"));
+
+        when(periodHelper.generatePeriodForPeriodTypeAndDate(eq(PeriodType.Monthly), any(Date.class)))
+                .thenReturn(period);
+        when(period.periodId()).thenReturn(PERIOD);
+
+        when(event1.uid()).thenReturn("event1");
+        when(event1.organisationUnit()).thenReturn(ORG_UNIT);
+        when(event1.eventDate()).thenReturn(new Date(1546500000000L));
+        when(event2.uid()).thenReturn("event2");
+        when(event2.organisationUnit()).thenReturn(ORG_UNIT);
+        when(event2.eventDate()).thenReturn(new Date(1546400000000L));
+
+        aggregationEngine = new ProgramIndicatorAggregationEngine(programIndicatorStore, eventStore,
+                databaseAdapter, sqlTranslator, programIndicatorEngine, periodHelper);
+    }
+
+    @Test
+    public void combine_the_aggregates_of_each_day_computed_by_the_database() {
+        when(programIndicator.aggregationType()).thenReturn(AggregationType.AVERAGE);
+        when(sqlTranslator.translate(EXPRESSION)).thenReturn(EXPRESSION_SQL);
+        when(databaseAdapter.rawQuery(anyString(), eq("program"))).thenReturn(cursor);
+        when(cursor.getCount()).thenReturn(2);
+        when(cursor.moveToNext()).thenReturn(true, false);
+        when(cursor.getString(0)).thenReturn(ORG_UNIT);
+        when(cursor.getString(1)).thenReturn("2019-01-01", "2019-01-02");
+        when(cursor.getLong(2)).thenReturn(2L, 1L);
+        when(cursor.getDouble(3)).thenReturn(10.0, 5.0);
+
+        List<ProgramIndicatorAggregatedValue> values =
+                aggregationEngine.getAggregatedValues(PROGRAM_INDICATOR, PeriodType.Monthly);
+
+        assertThat(values).containsExactly(ProgramIndicatorAggregatedValue.create(ORG_UNIT, PERIOD, 5.0));
+        verify(cursor).close();
+        verify(programIndicatorEngine, never()).getRawEventValues(anyList(), anyList());
+    }
+
+    @Test
+    public void evaluate_each_event_when_the_expression_can_not_be_translated() {
+        when(programIndicator.aggregationType()).thenReturn(AggregationType.SUM);
+        when(eventStore.selectWhere(any(BoundWhereClause.class), anyString()))
+                .thenReturn(Arrays.asList(event1, event2));
+        when(programIndicatorEngine.getRawEventValues(eq(Arrays.asList("event1", "event2")), anyList()))
+                .thenReturn(eventValues("3", "4.5"));
+
+        List<ProgramIndicatorAggregatedValue> values =
+                aggregationEngine.getAggregatedValues(PROGRAM_INDICATOR, PeriodType.Monthly);
+
+        assertThat(values).containsExactly(ProgramIndicatorAggregatedValue.create(ORG_UNIT, PERIOD, 7.5));
+    }
+
+    @Test
+    public void evaluate_each_event_for_last_value_aggregation() {
+        when(programIndicator.aggregationType()).thenReturn(AggregationType.LAST);
+        when(sqlTranslator.translate(EXPRESSION)).thenReturn(EXPRESSION_SQL);
+        when(eventStore.selectWhere(any(BoundWhereClause.class), anyString()))
+                .thenReturn(Arrays.asList(event1, event2));
+        when(programIndicatorEngine.getRawEventValues(eq(Arrays.asList("event1", "event2")), anyList()))
+                .thenReturn(eventValues("3", "4.5"));
+
+        List<ProgramIndicatorAggregatedValue> values =
+                aggregationEngine.getAggregatedValues(PROGRAM_INDICATOR, PeriodType.Monthly);
+
+        assertThat(values).containsExactly(ProgramIndicatorAggregatedValue.create(ORG_UNIT, PERIOD, 3.0));
+        verify(databaseAdapter, never()).rawQuery(anyString(), anyString());
+    }
+
+    @Test
+    public void restrict_the_events_to_the_organisation_units_and_dates() throws Exception {
+        when(programIndicator.aggregationType()).thenReturn(AggregationType.LAST);
+        when(eventStore.selectWhere(any(BoundWhereClause.class), anyString())).thenReturn(Arrays.asList(event1));
+        when(programIndicatorEngine.getRawEventValues(eq(Arrays.asList("event1")), anyList()))
+                .thenReturn(eventValues("3", "4.5"));
+        SimpleDateFormat dayFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
+
+        aggregationEngine.getAggregatedValues(PROGRAM_INDICATOR, PeriodType.Monthly,
+                Collections.singletonList(ORG_UNIT), dayFormat.parse("2019-01-01"), dayFormat.parse("2019-01-31"));
+
+        ArgumentCaptor<BoundWhereClause> whereClauseCaptor = ArgumentCaptor.forClass(BoundWhereClause.class);
+        verify(eventStore).selectWhere(whereClauseCaptor.capture(), anyString());
+        assertThat(whereClauseCaptor.getValue().clause()).contains("Event.organisationUnit IN (?)",
+                "date(Event.eventDate) >= ?", "date(Event.eventDate) <= ?");
+        assertThat(whereClauseCaptor.getValue().args()).containsExactly("program", ORG_UNIT,
+                "2019-01-01", "2019-01-31");
+    }
+
+    @Test
+    public void return_empty_list_for_indicator_without_expression() {
+        when(programIndicator.expression()).thenReturn(null);
+
+        assertThat(aggregationEngine.getAggregatedValues(PROGRAM_INDICATOR, PeriodType.Monthly)).isEmpty();
+    }
+
+    private static Map<String, Map<String, String>> eventValues(String event1Value, String event2Value) {
+        Map<String, String> event1Values = new HashMap<>();
+        event1Values.put(PROGRAM_INDICATOR, event1Value);
+        Map<String, String> event2Values = new HashMap<>();
+        event2Values.put(PROGRAM_INDICATOR, event2Value);
+
+        Map<String, Map<String, String>> values = new HashMap<>();
+        values.put("event1", event1Values);
+        values.put("event2", event2Values);
+        return values;
+    }
+}
@@ -54,8 +54,13 @@ import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Map;
 
 import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -510,6 +515,72 @@ public class ProgramIndicatorEngineShould {
         assertThat(sumResult).isEqualTo("10.0");
     }
 
+    @Test
+    public void evaluate_batch_of_enrollments_with_bulk_queries() {
+        mockBatchQueries();
+        when(programIndicator.expression()).thenReturn(
+                de(programStageUid1, dataElementUid1) + " + " + att(attributeUid) + " + " + var("event_count"));
+
+        when(value1.value()).thenReturn("3.5");
+        when(attributeValue.value()).thenReturn("1989");
+
+        Map<String, Map<String, String>> result = programIndicatorEngine.getEnrollmentProgramIndicatorValues(
+                Collections.singletonList(enrollmentUid), Collections.singletonList(programIndicatorUid));
+
+        assertThat(result.get(enrollmentUid).get(programIndicatorUid)).isEqualTo("1994.5");
+        verify(eventStore, never()).queryOrderedForEnrollmentAndProgramStage(anyString(), anyString(), anyBoolean());
+        verify(trackedEntityDataValueStore, never()).queryTrackedEntityDataValuesByEventUid(anyString());
+        verify(dataElementStore, never()).selectByUid(anyString());
+    }
+
+    @Test
+    public void evaluate_batch_of_events_with_bulk_queries() {
+        mockBatchQueries();
+        when(programIndicator.expression()).thenReturn(de(programStageUid1, dataElementUid1) + " * 2");
+
+        when(value1.value()).thenReturn("3.5");
+
+        Map<String, Map<String, String>> result = programIndicatorEngine.getEventProgramIndicatorValues(
+                Collections.singletonList(eventUid1), Collections.singletonList(programIndicatorUid));
+
+        assertThat(result.get(eventUid1).get(programIndicatorUid)).isEqualTo("7");
+        verify(eventStore, never()).selectByUid(anyString());
+        verify(trackedEntityDataValueStore, never()).queryTrackedEntityDataValuesByEventUid(anyString());
+    }
+
+    private void mockBatchQueries() {
+        when(programIndicator.uid()).thenReturn(programIndicatorUid);
+        when(programIndicatorStore.selectWhere(anyString())).thenReturn(Collections.singletonList(programIndicator));
+
+        when(enrollment.uid()).thenReturn(enrollmentUid);
+        when(enrollmentStore.selectWhere(anyString())).thenReturn(Collections.singletonList(enrollment));
+
+        when(event2WithDataValues.enrollment()).thenReturn(enrollmentUid);
+        when(event1WithDataValues.uid()).thenReturn(eventUid1);
+        when(event1WithDataValues.enrollment()).thenReturn(enrollmentUid);
+        when(event1WithDataValues.programStage()).thenReturn(programStageUid1);
+        when(event2WithDataValues.programStage()).thenReturn(programStageUid2);
+        when(eventStore.selectWhere(anyString(), anyString())).thenReturn(Arrays.asList(event1, event2));
+        when(eventStore.selectWhere(anyString())).thenReturn(Collections.singletonList(event1));
+
+        when(value1.event()).thenReturn(eventUid1);
+        when(value2.event()).thenReturn(eventUid1);
+        when(value3.event()).thenReturn(eventUid1);
+        when(value4.event()).thenReturn(eventUid2_1);
+        when(trackedEntityDataValueStore.selectWhere(anyString()))
+                .thenReturn(Arrays.asList(value1, value2, value3, value4));
+
+        when(attributeValue.trackedEntityInstance()).thenReturn(trackedEntityInstanceUid);
+        when(trackedEntityAttributeValueStore.selectWhere(anyString()))
+                .thenReturn(Collections.singletonList(attributeValue));
+
+        when(dataElement.uid()).thenReturn(dataElementUid1);
+        when(dataElementStore.selectWhere(anyString())).thenReturn(Collections.singletonList(dataElement));
+        when(trackedEntityAttribute.uid()).thenReturn(attributeUid);
+        when(trackedEntityAttributeStore.selectWhere(anyString()))
+                .thenReturn(Collections.singletonList(trackedEntityAttribute));
+    }
+
 
     // -------------------------------------------------------------------------
     // Supportive methods
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.program.programindicatorengine;
+
+import org.hisp.dhis.android.core.program.ProgramIndicator;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@RunWith(JUnit4.class)
+public class ProgramIndicatorExpressionCacheShould {
+
+    private static final String EXPRESSION = "#{stage.dataElement} + C{constant} / V{value_count}";
+
+    @Mock
+    private ProgramIndicator programIndicator;
+
+    @Mock
+    private ProgramIndicator otherProgramIndicator;
+
+    private ProgramIndicatorExpressionCache cache;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        cache = new ProgramIndicatorExpressionCache(ProgramIndicatorEngine.EXPRESSION_PATTERN, 1);
+
+        when(programIndicator.uid()).thenReturn("indicator");
+        when(programIndicator.expression()).thenReturn(EXPRESSION);
+        when(programIndicator.lastUpdated()).thenReturn(new Date(1000));
+
+        when(otherProgramIndicator.uid()).thenReturn("other_indicator");
+        when(otherProgramIndicator.expression()).thenReturn("5 * 10");
+    }
+
+    @Test
+    public void compile_expression_once() {
+        ProgramIndicatorExpression first = cache.get(programIndicator);
+        ProgramIndicatorExpression second = cache.get(programIndicator);
+
+        assertThat(second).isSameAs(first);
+        assertThat(cache.missCount()).isEqualTo(1);
+        assertThat(cache.hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void compile_expression_again_when_indicator_is_updated() {
+        ProgramIndicatorExpression first = cache.get(programIndicator);
+        when(programIndicator.lastUpdated()).thenReturn(new Date(2000));
+        ProgramIndicatorExpression second = cache.get(programIndicator);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(cache.missCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void evict_least_recently_used_expression() {
+        cache.get(programIndicator);
+        cache.get(otherProgramIndicator);
+        cache.get(programIndicator);
+
+        assertThat(cache.missCount()).isEqualTo(3);
+        assertThat(cache.hitCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void substitute_item_values() {
+        ProgramIndicatorExpression expression = cache.get(programIndicator);
+
+        assertThat(expression.items().size()).isEqualTo(3);
+        assertThat(expression.substitute(Arrays.asList("3.5", "2.0", "2.0"))).isEqualTo("3.5 + 2.0 / 2.0");
+        assertThat(expression.substitute(Arrays.asList("3.5", null, "2.0")))
+                .isEqualTo("3.5 + C{constant} / 2.0");
+    }
+
+    @Test
+    public void evaluate_binding_item_values() {
+        ProgramIndicatorExpression expression = cache.get(programIndicator);
+
+        assertThat(expression.evaluate(Arrays.asList("3.5", "2.0", "2.0"))).isEqualTo("4.5");
+        assertThat(expression.evaluate(Arrays.asList("0", "3", "2"))).isEqualTo("1");
+        assertThat(expression.evaluate(Arrays.asList("\"a\"", "2.0", "2.0"))).isEqualTo("a1.0");
+    }
+
+    @Test
+    public void evaluate_substituted_expression_when_values_can_not_be_bound() {
+        ProgramIndicatorExpression expression = cache.get(programIndicator);
+
+        assertThat(expression.evaluate(Arrays.asList("3.5", "1.0E1", "2.0")))
+                .isEqualTo(ExpressionUtils.evaluateToString("3.5 + 1.0E1 / 2.0", null));
+    }
+
+    @Test
+    public void evaluate_substituted_expression_when_items_are_arguments_of_d2_functions() {
+        when(programIndicator.expression()).thenReturn("d2:condition('#{stage.dataElement} > 5', 1, 0)");
+        ProgramIndicatorExpression expression = cache.get(programIndicator);
+
+        assertThat(expression.evaluate(Arrays.asList("7"))).isEqualTo("1");
+        assertThat(expression.evaluate(Arrays.asList("3"))).isEqualTo("0");
+    }
+
+    @Test
+    public void evaluate_substituted_expression_when_items_are_in_string_literals() {
+        when(programIndicator.expression()).thenReturn("'#{stage.dataElement}' == 'a'");
+        ProgramIndicatorExpression expression = cache.get(programIndicator);
+
+        assertThat(expression.evaluate(Arrays.asList("a"))).isEqualTo("true");
+    }
+
+    @Test
+    public void remove_ignored_keywords_from_bound_values() {
+        when(programIndicator.expression()).thenReturn("#{stage.dataElement}");
+        ProgramIndicatorExpression expression = cache.get(programIndicator);
+
+        assertThat(expression.evaluate(Arrays.asList("\"a count\""))).isEqualTo("a");
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.program.programindicatorengine;
+
+import org.hisp.dhis.android.core.arch.db.stores.internal.IdentifiableObjectStore;
+import org.hisp.dhis.android.core.common.ValueType;
+import org.hisp.dhis.android.core.constant.Constant;
+import org.hisp.dhis.android.core.dataelement.DataElement;
+import org.hisp.dhis.android.core.trackedentity.TrackedEntityAttribute;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@RunWith(JUnit4.class)
+public class ProgramIndicatorSqlTranslatorShould {
+
+    @Mock
+    private IdentifiableObjectStore<DataElement> dataElementStore;
+
+    @Mock
+    private IdentifiableObjectStore<TrackedEntityAttribute> trackedEntityAttributeStore;
+
+    @Mock
+    private IdentifiableObjectStore<Constant> constantStore;
+
+    @Mock
+    private DataElement dataElement;
+
+    @Mock
+    private Constant constant;
+
+    private ProgramIndicatorSqlTranslator translator;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+
+        when(dataElementStore.selectByUid("dataElement")).thenReturn(dataElement);
+        when(dataElement.valueType()).thenReturn(ValueType.INTEGER);
+        when(constantStore.selectByUid("constant")).thenReturn(constant);
+        when(constant.value()).thenReturn(2.5);
+
+        translator = new ProgramIndicatorSqlTranslator(dataElementStore, trackedEntityAttributeStore, constantStore);
+    }
+
+    @Test
+    public void translate_data_elements_constants_and_operators() {
+        String sql = translator.translate("#{stage.dataElement} * C{constant} + 1");
+
+        assertThat(sql).isEqualTo("COALESCE((SELECT CAST(TrackedEntityDataValue.value AS REAL) " +
+                "FROM TrackedEntityDataValue WHERE TrackedEntityDataValue.event = Event.uid " +
+                "AND TrackedEntityDataValue.dataElement = 'dataElement'), 0) * 2.5 + 1.0");
+    }
+
+    @Test
+    public void translate_integer_numbers_as_real_numbers() {
+        assertThat(translator.translate("(1 + 2.5) / 2")).isEqualTo("(1.0 + 2.5) / 2.0");
+    }
+
+    @Test
+    public void translate_logical_operators_and_strings() {
+        String sql = translator.translate("V{enrollment_status} == 'ACTIVE' && !(V{event_date} != \"it's\")");
+
+        assertThat(sql).isEqualTo("(SELECT status FROM Enrollment WHERE Enrollment.uid = Event.enrollment) " +
+                " =  'ACTIVE'  AND   NOT (date(Event.eventDate)  <>  'it''s')");
+    }
+
+    @Test
+    public void not_translate_functions() {
+        assertThat(translator.translate("d2:daysBetween(V{enrollment_date}, V{event_date})")).isNull();
+    }
+
+    @Test
+    public void not_translate_unknown_items() {
+        assertThat(translator.translate("#{stage.unknown} + A{unknown}")).isNull();
+    }
+}
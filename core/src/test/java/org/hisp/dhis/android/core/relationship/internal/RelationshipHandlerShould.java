@@ -39,12 +39,15 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.Arrays;
 import java.util.Collections;
 
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -198,4 +201,20 @@ public class RelationshipHandlerShould extends RelationshipSamples {
         verify(relationshipItemHandler).handle(tei4Item.toBuilder().relationship(ObjectWithUid.create(newRelationship.uid()))
                 .relationshipItemType(RelationshipConstraintType.TO).build());
     }
-}
\ No newline at end of file
+
+    @Test()
+    public void persist_each_relationship_of_a_collection_before_looking_up_the_next_one() {
+        relationshipHandler.handleMany(Arrays.asList(existingRelationshipWithNewUid, newRelationship));
+
+        InOrder inOrder = inOrder(relationshipItemStore, relationshipStore, relationshipItemHandler);
+        inOrder.verify(relationshipItemStore).getRelationshipUidsForItems(fromItem, toItem);
+        inOrder.verify(relationshipStore).delete(UID);
+        inOrder.verify(relationshipStore).updateOrInsert(existingRelationshipWithNewUid);
+        inOrder.verify(relationshipItemHandler).handle(fromItem.toBuilder()
+                .relationship(ObjectWithUid.create(NEW_UID))
+                .relationshipItemType(RelationshipConstraintType.FROM)
+                .build());
+        inOrder.verify(relationshipItemStore).getRelationshipUidsForItems(tei3Item, tei4Item);
+        inOrder.verify(relationshipStore).updateOrInsert(newRelationship);
+    }
+}
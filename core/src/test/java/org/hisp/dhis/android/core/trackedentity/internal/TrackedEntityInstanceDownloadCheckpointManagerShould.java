@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.trackedentity.internal;
+
+import org.hisp.dhis.android.core.arch.db.querybuilders.internal.BoundWhereClause;
+import org.hisp.dhis.android.core.arch.db.stores.internal.ObjectStore;
+import org.hisp.dhis.android.core.organisationunit.OrganisationUnitMode;
+import org.hisp.dhis.android.core.settings.DownloadPeriod;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(JUnit4.class)
+public class TrackedEntityInstanceDownloadCheckpointManagerShould {
+
+    @Mock
+    private ObjectStore<TrackedEntityInstanceDownloadCheckpoint> store;
+
+    private ArgumentCaptor<TrackedEntityInstanceDownloadCheckpoint> checkpointCaptor =
+            ArgumentCaptor.forClass(TrackedEntityInstanceDownloadCheckpoint.class);
+
+    private ArgumentCaptor<BoundWhereClause> whereClauseCaptor = ArgumentCaptor.forClass(BoundWhereClause.class);
+
+    private static final String DOWNLOAD_KEY = "2019-01-01T00:00:00.000,,,DESCENDANTS,500";
+
+    private TeiQuery query = TeiQuery.builder()
+            .program("program")
+            .orgUnits(Arrays.asList("ou2", "ou1"))
+            .lastUpdatedStartDate("2019-01-01T00:00:00.000")
+            .ouMode(OrganisationUnitMode.DESCENDANTS)
+            .pageSize(50)
+            .limit(500)
+            .build();
+
+    private TrackedEntityInstanceDownloadCheckpointManager checkpointManager;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        checkpointManager = new TrackedEntityInstanceDownloadCheckpointManager(store);
+    }
+
+    @Test
+    public void start_from_first_page_if_there_is_no_checkpoint() {
+        assertThat(checkpointManager.getLastCommittedPage(query)).isEqualTo(0);
+    }
+
+    @Test
+    public void resume_from_checkpoint_if_it_matches_the_query() {
+        when(store.selectOneWhere(any(BoundWhereClause.class)))
+                .thenReturn(checkpoint(DOWNLOAD_KEY, 50, 3));
+
+        assertThat(checkpointManager.getLastCommittedPage(query)).isEqualTo(3);
+    }
+
+    @Test
+    public void resume_from_checkpoint_with_equal_page_size_above_integer_cache() {
+        TeiQuery bigPageQuery = query.toBuilder().pageSize(500).build();
+        when(store.selectOneWhere(any(BoundWhereClause.class)))
+                .thenReturn(checkpoint(DOWNLOAD_KEY, 500, 3));
+
+        assertThat(checkpointManager.getLastCommittedPage(bigPageQuery)).isEqualTo(3);
+    }
+
+    @Test
+    public void start_from_first_page_if_last_updated_has_changed() {
+        when(store.selectOneWhere(any(BoundWhereClause.class)))
+                .thenReturn(checkpoint(DOWNLOAD_KEY, 50, 3));
+        TeiQuery updatedQuery = query.toBuilder().lastUpdatedStartDate("2019-02-01T00:00:00.000").build();
+
+        assertThat(checkpointManager.getLastCommittedPage(updatedQuery)).isEqualTo(0);
+    }
+
+    @Test
+    public void start_from_first_page_if_limit_has_changed() {
+        when(store.selectOneWhere(any(BoundWhereClause.class)))
+                .thenReturn(checkpoint(DOWNLOAD_KEY, 50, 3));
+
+        assertThat(checkpointManager.getLastCommittedPage(query.toBuilder().limit(1000).build())).isEqualTo(0);
+    }
+
+    @Test
+    public void resume_from_checkpoint_if_dates_computed_from_the_same_periods_have_moved() {
+        TeiQuery periodQuery = query.toBuilder()
+                .lastUpdatedStartDate("2019-01-01 00:00:00")
+                .lastUpdatedPeriod(DownloadPeriod.LAST_3_MONTHS)
+                .programStartDate("2018-01-01 00:00:00")
+                .programStartPeriod(DownloadPeriod.LAST_12_MONTHS)
+                .build();
+        checkpointManager.saveCommittedPage(periodQuery, 3);
+        verify(store).insert(checkpointCaptor.capture());
+        when(store.selectOneWhere(any(BoundWhereClause.class))).thenReturn(checkpointCaptor.getValue());
+
+        TeiQuery laterQuery = periodQuery.toBuilder()
+                .lastUpdatedStartDate("2019-01-02 00:00:00")
+                .programStartDate("2018-01-02 00:00:00")
+                .build();
+
+        assertThat(checkpointManager.getLastCommittedPage(laterQuery)).isEqualTo(3);
+    }
+
+    @Test
+    public void start_from_first_page_if_page_size_has_changed() {
+        when(store.selectOneWhere(any(BoundWhereClause.class)))
+                .thenReturn(checkpoint(DOWNLOAD_KEY, 25, 3));
+
+        assertThat(checkpointManager.getLastCommittedPage(query)).isEqualTo(0);
+    }
+
+    @Test
+    public void replace_checkpoint_with_sorted_org_units_key() {
+        checkpointManager.saveCommittedPage(query, 2);
+
+        verify(store).deleteWhere(whereClauseCaptor.capture());
+        verify(store).insert(checkpointCaptor.capture());
+
+        assertThat(whereClauseCaptor.getValue().clause()).isEqualTo("program = ? AND organisationUnits = ?");
+        assertThat(whereClauseCaptor.getValue().args()).containsExactly("program", "ou1,ou2");
+
+        TrackedEntityInstanceDownloadCheckpoint checkpoint = checkpointCaptor.getValue();
+        assertThat(checkpoint.program()).isEqualTo("program");
+        assertThat(checkpoint.organisationUnits()).isEqualTo("ou1,ou2");
+        assertThat(checkpoint.downloadKey()).isEqualTo(DOWNLOAD_KEY);
+        assertThat(checkpoint.pageSize()).isEqualTo(50);
+        assertThat(checkpoint.page()).isEqualTo(2);
+    }
+
+    @Test
+    public void resume_streamed_download_after_committed_items_of_the_next_page() {
+        when(store.selectOneWhere(any(BoundWhereClause.class)))
+                .thenReturn(checkpoint(DOWNLOAD_KEY, 50, 3).toBuilder().pageItems(20).build());
+
+        assertThat(checkpointManager.getLastCommittedPage(query)).isEqualTo(3);
+        assertThat(checkpointManager.getCommittedPageItems(query)).isEqualTo(20);
+    }
+
+    @Test
+    public void save_committed_items_of_a_partially_committed_page() {
+        checkpointManager.saveCommittedPageItems(query, 4, 20);
+
+        verify(store).insert(checkpointCaptor.capture());
+        assertThat(checkpointCaptor.getValue().page()).isEqualTo(3);
+        assertThat(checkpointCaptor.getValue().pageItems()).isEqualTo(20);
+    }
+
+    @Test
+    public void save_fully_committed_page_without_items() {
+        checkpointManager.saveCommittedPageItems(query, 4, 50);
+
+        verify(store).insert(checkpointCaptor.capture());
+        assertThat(checkpointCaptor.getValue().page()).isEqualTo(4);
+        assertThat(checkpointCaptor.getValue().pageItems()).isNull();
+    }
+
+    @Test
+    public void match_null_program_in_where_clause() {
+        checkpointManager.clear(TeiQuery.builder().orgUnits(query.orgUnits()).limit(500).build());
+
+        verify(store).deleteWhere(whereClauseCaptor.capture());
+        assertThat(whereClauseCaptor.getValue().clause()).isEqualTo("program IS NULL AND organisationUnits = ?");
+    }
+
+    private TrackedEntityInstanceDownloadCheckpoint checkpoint(String downloadKey, int pageSize, int page) {
+        return TrackedEntityInstanceDownloadCheckpoint.builder()
+                .program(query.program())
+                .organisationUnits("ou1,ou2")
+                .downloadKey(downloadKey)
+                .pageSize(pageSize)
+                .page(page)
+                .build();
+    }
+}
@@ -67,6 +67,8 @@ public class TrackedEntityInstanceDownloaderShould {
                 .limit(500)
                 .byProgramStatus(EnrollmentScope.ONLY_ACTIVE)
                 .overwrite(true)
+                .pageConcurrency(4)
+                .resumable(true)
                 .download();
 
         verify(callFactory).download(paramsCapture.capture());
@@ -78,6 +80,8 @@ public class TrackedEntityInstanceDownloaderShould {
         assertThat(params.limit()).isEqualTo(500);
         assertThat(params.programStatus()).isEqualByComparingTo(EnrollmentScope.ONLY_ACTIVE);
         assertThat(params.overwrite()).isTrue();
+        assertThat(params.pageConcurrency()).isEqualTo(4);
+        assertThat(params.resumable()).isTrue();
     }
 
     @Test
@@ -185,7 +185,8 @@ public class TrackedEntityInstanceHandlerShould {
     @Test
     public void invoke_cleaners_if_full_update() {
         when(trackedEntityInstance.toBuilder()).thenReturn(TrackedEntityInstance.builder().uid("uid"));
-        when(trackedEntityInstanceStore.updateOrInsert(any(TrackedEntityInstance.class))).thenReturn(HandleAction.Update);
+        when(trackedEntityInstanceStore.updateOrInsert(anyCollection(), anyCollection()))
+                .thenReturn(Collections.singletonList(HandleAction.Update));
 
         trackedEntityInstanceHandler.handleMany(Collections.singletonList(trackedEntityInstance), false, true, false);
 
@@ -196,7 +197,8 @@ public class TrackedEntityInstanceHandlerShould {
     @Test
     public void do_not_invoke_cleaners_if_not_full_update() {
         when(trackedEntityInstance.toBuilder()).thenReturn(TrackedEntityInstance.builder().uid("uid"));
-        when(trackedEntityInstanceStore.updateOrInsert(any(TrackedEntityInstance.class))).thenReturn(HandleAction.Update);
+        when(trackedEntityInstanceStore.updateOrInsert(anyCollection(), anyCollection()))
+                .thenReturn(Collections.singletonList(HandleAction.Update));
 
         trackedEntityInstanceHandler.handleMany(Collections.singletonList(trackedEntityInstance), false, false, false);
 
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.hisp.dhis.android.core.trackedentity.internal;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+public class TrackedEntityInstancePartitionSizerShould {
+
+    @Test
+    public void grow_at_most_twice_when_requests_are_small_and_fast() {
+        TrackedEntityInstancePartitionSizer sizer = new TrackedEntityInstancePartitionSizer(10);
+
+        sizer.onResponse(10, 10 * 1024, 100);
+
+        assertThat(sizer.size()).isEqualTo(20);
+    }
+
+    @Test
+    public void shrink_to_the_target_payload_size() {
+        TrackedEntityInstancePartitionSizer sizer = new TrackedEntityInstancePartitionSizer(10);
+
+        sizer.onResponse(10, TrackedEntityInstancePartitionSizer.TARGET_PAYLOAD_BYTES * 2, 100);
+
+        assertThat(sizer.size()).isEqualTo(5);
+    }
+
+    @Test
+    public void shrink_to_the_target_response_time() {
+        TrackedEntityInstancePartitionSizer sizer = new TrackedEntityInstancePartitionSizer(10);
+
+        sizer.onResponse(10, 1024, TrackedEntityInstancePartitionSizer.TARGET_RESPONSE_MILLIS * 5);
+
+        assertThat(sizer.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void halve_the_size_on_failure() {
+        TrackedEntityInstancePartitionSizer sizer = new TrackedEntityInstancePartitionSizer(10);
+
+        sizer.onFailure();
+
+        assertThat(sizer.size()).isEqualTo(5);
+    }
+
+    @Test
+    public void keep_the_size_within_bounds() {
+        TrackedEntityInstancePartitionSizer sizer = new TrackedEntityInstancePartitionSizer(1000);
+        assertThat(sizer.size()).isEqualTo(TrackedEntityInstancePartitionSizer.MAX_SIZE);
+
+        sizer.onResponse(1, TrackedEntityInstancePartitionSizer.TARGET_PAYLOAD_BYTES * 10, 100);
+        assertThat(sizer.size()).isEqualTo(TrackedEntityInstancePartitionSizer.MIN_SIZE);
+
+        sizer.onFailure();
+        assertThat(sizer.size()).isEqualTo(TrackedEntityInstancePartitionSizer.MIN_SIZE);
+    }
+}
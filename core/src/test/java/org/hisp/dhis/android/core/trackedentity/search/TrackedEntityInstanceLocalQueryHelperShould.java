@@ -30,8 +30,10 @@ package org.hisp.dhis.android.core.trackedentity.search;
 import org.hisp.dhis.android.core.arch.repositories.scope.internal.FilterItemOperator;
 import org.hisp.dhis.android.core.arch.repositories.scope.internal.RepositoryScopeFilterItem;
 import org.hisp.dhis.android.core.common.AssignedUserMode;
+import org.hisp.dhis.android.core.common.BaseIdentifiableObject;
 import org.hisp.dhis.android.core.common.State;
 import org.hisp.dhis.android.core.organisationunit.OrganisationUnitMode;
+import org.hisp.dhis.android.core.trackedentity.TrackedEntityInstance;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -133,4 +135,21 @@ public class TrackedEntityInstanceLocalQueryHelperShould {
         assertThat(sqlQuery).contains("assignedUser IS NOT NULL");
     }
 
+    @Test
+    public void build_sql_query_after_key() throws ParseException {
+        TrackedEntityInstance afterKey = TrackedEntityInstance.builder()
+                .uid("nWrB0TfWlvh")
+                .state(State.SYNCED)
+                .lastUpdated(BaseIdentifiableObject.DATE_FORMAT.parse("2019-05-20T10:00:00.000"))
+                .build();
+
+        String sqlQuery = TrackedEntityInstanceLocalQueryHelper.getSqlQuery(queryBuilder.build(),
+                Collections.emptyList(), 51, afterKey);
+        assertThat(sqlQuery).contains("END > 2 OR (");
+        assertThat(sqlQuery).contains("IFNULL(tei.lastUpdated, '') < '2019-05-20T10:00:00.000'");
+        assertThat(sqlQuery).contains("IFNULL(tei.lastUpdated, '') = '2019-05-20T10:00:00.000' " +
+                "AND tei.uid > 'nWrB0TfWlvh'");
+        assertThat(sqlQuery).contains("ORDER BY CASE");
+        assertThat(sqlQuery).endsWith("tei.uid ASC  LIMIT 51");
+    }
 }